@@ -0,0 +1,52 @@
+package com.stocktrading.application.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Service interface for per-symbol price bands and trading halts.
+ * A price update outside a symbol's band is rejected and halts trading in it.
+ */
+public interface CircuitBreakerService {
+
+    /**
+     * Whether new orders for a symbol are currently rejected.
+     */
+    boolean isHalted(String symbol);
+
+    /**
+     * Get the band and halt state of a listed symbol.
+     */
+    Optional<TradingStatus> getTradingStatus(String symbol);
+
+    /**
+     * Band and halt state of a symbol. The band is null until a price has been seen.
+     */
+    class TradingStatus {
+        private final String symbol;
+        private final boolean halted;
+        private final LocalDateTime haltedUntil;
+        private final BigDecimal referencePrice;
+        private final BigDecimal lowerBand;
+        private final BigDecimal upperBand;
+
+        public TradingStatus(String symbol, boolean halted, LocalDateTime haltedUntil, BigDecimal referencePrice,
+                             BigDecimal lowerBand, BigDecimal upperBand) {
+            this.symbol = symbol;
+            this.halted = halted;
+            this.haltedUntil = haltedUntil;
+            this.referencePrice = referencePrice;
+            this.lowerBand = lowerBand;
+            this.upperBand = upperBand;
+        }
+
+        // Getters
+        public String getSymbol() { return symbol; }
+        public boolean isHalted() { return halted; }
+        public LocalDateTime getHaltedUntil() { return haltedUntil; }
+        public BigDecimal getReferencePrice() { return referencePrice; }
+        public BigDecimal getLowerBand() { return lowerBand; }
+        public BigDecimal getUpperBand() { return upperBand; }
+    }
+}
@@ -0,0 +1,52 @@
+package com.stocktrading.application.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Service interface for per-symbol technical indicators.
+ * Values are maintained incrementally as prices and trades arrive.
+ */
+public interface IndicatorService {
+
+    /**
+     * Get the latest indicator values for a symbol, if any ticks have been seen.
+     */
+    Optional<Indicators> getIndicators(String symbol);
+
+    /**
+     * Latest indicator values. A value is null until enough samples have been seen.
+     */
+    class Indicators {
+        private final String symbol;
+        private final long samples;
+        private final BigDecimal sma;
+        private final BigDecimal ema;
+        private final BigDecimal vwap;
+        private final BigDecimal rsi;
+        private final BigDecimal bollingerUpper;
+        private final BigDecimal bollingerLower;
+
+        public Indicators(String symbol, long samples, BigDecimal sma, BigDecimal ema, BigDecimal vwap,
+                          BigDecimal rsi, BigDecimal bollingerUpper, BigDecimal bollingerLower) {
+            this.symbol = symbol;
+            this.samples = samples;
+            this.sma = sma;
+            this.ema = ema;
+            this.vwap = vwap;
+            this.rsi = rsi;
+            this.bollingerUpper = bollingerUpper;
+            this.bollingerLower = bollingerLower;
+        }
+
+        // Getters
+        public String getSymbol() { return symbol; }
+        public long getSamples() { return samples; }
+        public BigDecimal getSma() { return sma; }
+        public BigDecimal getEma() { return ema; }
+        public BigDecimal getVwap() { return vwap; }
+        public BigDecimal getRsi() { return rsi; }
+        public BigDecimal getBollingerUpper() { return bollingerUpper; }
+        public BigDecimal getBollingerLower() { return bollingerLower; }
+    }
+}
@@ -0,0 +1,36 @@
+package com.stocktrading.application.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Service interface for the portfolio leaderboard.
+ * Rankings are maintained incrementally from trades and price updates.
+ */
+public interface LeaderboardService {
+
+    /**
+     * Get the highest valued portfolios at current market prices, best first.
+     */
+    List<PortfolioRanking> getTopPortfolios(int limit);
+
+    /**
+     * A user's position on the leaderboard.
+     */
+    class PortfolioRanking {
+        private final int rank;
+        private final String userId;
+        private final BigDecimal totalValue;
+
+        public PortfolioRanking(int rank, String userId, BigDecimal totalValue) {
+            this.rank = rank;
+            this.userId = userId;
+            this.totalValue = totalValue;
+        }
+
+        // Getters
+        public int getRank() { return rank; }
+        public String getUserId() { return userId; }
+        public BigDecimal getTotalValue() { return totalValue; }
+    }
+}
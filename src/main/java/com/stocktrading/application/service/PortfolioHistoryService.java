@@ -0,0 +1,79 @@
+package com.stocktrading.application.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for reconstructing holdings at a point in time.
+ */
+public interface PortfolioHistoryService {
+
+    /**
+     * Get what a user held at a point in time, from the executed trade history,
+     * valued at the prices in effect then.
+     */
+    HoldingsAsOf getHoldingsAsOf(String userId, LocalDateTime asOf);
+
+    /**
+     * Write a holdings checkpoint for every user who traded since the previous one.
+     *
+     * @return the number of users checkpointed
+     */
+    int takeCheckpoint();
+
+    /**
+     * A user's holdings at a point in time.
+     * A position whose historical price is unknown has no price or market value
+     * and is left out of the total value.
+     */
+    class HoldingsAsOf {
+        private final String userId;
+        private final LocalDateTime asOf;
+        private final LocalDateTime checkpointAt;
+        private final int tradesReplayed;
+        private final List<Position> positions;
+        private final BigDecimal totalValue;
+
+        public HoldingsAsOf(String userId, LocalDateTime asOf, LocalDateTime checkpointAt, int tradesReplayed,
+                            List<Position> positions, BigDecimal totalValue) {
+            this.userId = userId;
+            this.asOf = asOf;
+            this.checkpointAt = checkpointAt;
+            this.tradesReplayed = tradesReplayed;
+            this.positions = positions;
+            this.totalValue = totalValue;
+        }
+
+        // Getters
+        public String getUserId() { return userId; }
+        public LocalDateTime getAsOf() { return asOf; }
+        public LocalDateTime getCheckpointAt() { return checkpointAt; }
+        public int getTradesReplayed() { return tradesReplayed; }
+        public List<Position> getPositions() { return positions; }
+        public BigDecimal getTotalValue() { return totalValue; }
+    }
+
+    /**
+     * One stock held at a point in time.
+     */
+    class Position {
+        private final String stockSymbol;
+        private final int quantity;
+        private final BigDecimal price;
+        private final BigDecimal marketValue;
+
+        public Position(String stockSymbol, int quantity, BigDecimal price) {
+            this.stockSymbol = stockSymbol;
+            this.quantity = quantity;
+            this.price = price;
+            this.marketValue = price == null ? null : price.multiply(BigDecimal.valueOf(quantity));
+        }
+
+        // Getters
+        public String getStockSymbol() { return stockSymbol; }
+        public int getQuantity() { return quantity; }
+        public BigDecimal getPrice() { return price; }
+        public BigDecimal getMarketValue() { return marketValue; }
+    }
+}
@@ -1,6 +1,9 @@
 package com.stocktrading.application.service;
 
+import com.stocktrading.domain.model.LotSelection;
 import com.stocktrading.domain.model.Portfolio;
+import com.stocktrading.domain.model.RealizedGain;
+import com.stocktrading.domain.model.Trade;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -28,6 +31,25 @@ public interface PortfolioService {
     void updatePortfolioAfterTrade(String userId, String stockSymbol, Integer quantity, 
                                  BigDecimal price, boolean isBuy);
 
+    /**
+     * Update portfolio after a trade execution, consuming the selected tax lots on a sell.
+     */
+    void updatePortfolioAfterTrade(String userId, String stockSymbol, Integer quantity,
+                                 BigDecimal price, boolean isBuy, LotSelection lotSelection);
+
+    /**
+     * Apply executed trades to one user's holdings in order, reading the holdings
+     * once and writing every changed holding and realized gain together.
+     * Sells consume the default lot method.
+     */
+    void updatePortfolioAfterTrades(String userId, List<Trade> trades);
+
+    /**
+     * Apply executed trades to one user's holdings in order, each sell consuming the
+     * lots selected for it; a null selection uses the default lot method.
+     */
+    void updatePortfolioAfterTrades(String userId, List<Trade> trades, List<LotSelection> lotSelections);
+
     /**
      * Calculate total portfolio value.
      */
@@ -48,6 +70,16 @@ public interface PortfolioService {
      */
     boolean hasEnoughShares(String userId, String stockSymbol, Integer quantity);
 
+    /**
+     * Get gains and losses realized by a user's sells, newest first.
+     */
+    List<RealizedGain> getRealizedGains(String userId);
+
+    /**
+     * Get realized and unrealized profit and loss for a user.
+     */
+    ProfitAndLoss getProfitAndLoss(String userId);
+
     /**
      * Portfolio summary data transfer object.
      */
@@ -75,4 +107,22 @@ public interface PortfolioService {
         public BigDecimal getTotalGainLossPercentage() { return totalGainLossPercentage; }
         public int getTotalPositions() { return totalPositions; }
     }
+
+    /**
+     * Realized and unrealized profit and loss.
+     */
+    class ProfitAndLoss {
+        private final BigDecimal realizedGainLoss;
+        private final BigDecimal unrealizedGainLoss;
+
+        public ProfitAndLoss(BigDecimal realizedGainLoss, BigDecimal unrealizedGainLoss) {
+            this.realizedGainLoss = realizedGainLoss;
+            this.unrealizedGainLoss = unrealizedGainLoss;
+        }
+
+        // Getters
+        public BigDecimal getRealizedGainLoss() { return realizedGainLoss; }
+        public BigDecimal getUnrealizedGainLoss() { return unrealizedGainLoss; }
+        public BigDecimal getTotalGainLoss() { return realizedGainLoss.add(unrealizedGainLoss); }
+    }
 } 
\ No newline at end of file
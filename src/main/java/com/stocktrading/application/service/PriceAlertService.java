@@ -0,0 +1,33 @@
+package com.stocktrading.application.service;
+
+import com.stocktrading.domain.model.PriceAlert;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Service interface for price threshold alerts.
+ */
+public interface PriceAlertService {
+
+    /**
+     * Create an alert that fires the next time the price crosses the threshold in the given direction.
+     * An alert whose threshold the current price already meets fires at once.
+     */
+    PriceAlert createAlert(String userId, String stockSymbol, BigDecimal threshold, PriceAlert.Direction direction);
+
+    /**
+     * Cancel an active alert.
+     */
+    boolean cancelAlert(Long alertId, String userId);
+
+    /**
+     * Get a user's active (not yet triggered) alerts.
+     */
+    List<PriceAlert> getActiveAlerts(String userId);
+
+    /**
+     * Get a user's most recently delivered alerts, newest first.
+     */
+    List<PriceAlert> getTriggeredAlerts(String userId);
+}
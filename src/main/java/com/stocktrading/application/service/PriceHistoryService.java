@@ -0,0 +1,25 @@
+package com.stocktrading.application.service;
+
+import com.stocktrading.domain.model.PriceTick;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for intraday price history.
+ */
+public interface PriceHistoryService {
+
+    /**
+     * Get recorded price ticks for a symbol within an inclusive time range, oldest first.
+     */
+    List<PriceTick> getHistory(String symbol, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Get the price in effect at a point in time: the latest recorded tick at or before it.
+     * Empty if no tick that old is still retained.
+     */
+    Optional<BigDecimal> getPriceAt(String symbol, LocalDateTime at);
+}
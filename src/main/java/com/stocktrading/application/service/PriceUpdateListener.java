@@ -0,0 +1,21 @@
+package com.stocktrading.application.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Callback for applied stock price updates.
+ * Invoked on the updating thread once the update has committed, so
+ * implementations must be fast and must not block.
+ */
+public interface PriceUpdateListener {
+
+    /**
+     * Called for every committed price update.
+     *
+     * @param symbol        upper-case stock symbol
+     * @param previousPrice price before the update
+     * @param newPrice      price after the update
+     * @param sequence      global sequence number assigned to the update
+     */
+    void onPriceUpdate(String symbol, BigDecimal previousPrice, BigDecimal newPrice, long sequence);
+}
@@ -0,0 +1,61 @@
+package com.stocktrading.application.service;
+
+import com.stocktrading.application.service.TradingService.BasketLeg;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for moving many accounts towards a model portfolio.
+ */
+public interface RebalancingService {
+
+    /**
+     * Compute, for every account in the cohort, the market orders that bring its
+     * holdings closest to the model's target weights at one snapshot of current
+     * prices. An account's value is the market value of its holdings; each target
+     * is rounded down to whole shares and symbols outside the model are sold.
+     * Only accounts that need orders are returned, ordered by user ID.
+     *
+     * @param targetWeights symbol to fraction of account value; weights must not add up to more than 1
+     * @param userIds       accounts to rebalance, or null or empty for every account holding stock
+     * @param submit        whether to execute each account's orders as one basket
+     */
+    List<AccountRebalance> rebalance(Map<String, BigDecimal> targetWeights, Collection<String> userIds, boolean submit);
+
+    /**
+     * What happened to one account's orders.
+     */
+    enum Status {
+        PLANNED, SUBMITTED, FAILED
+    }
+
+    /**
+     * The orders computed for one account, sells before buys.
+     */
+    class AccountRebalance {
+        private final String userId;
+        private final BigDecimal accountValue;
+        private final List<BasketLeg> orders;
+        private final Status status;
+        private final String error;
+
+        public AccountRebalance(String userId, BigDecimal accountValue, List<BasketLeg> orders,
+                                Status status, String error) {
+            this.userId = userId;
+            this.accountValue = accountValue;
+            this.orders = orders;
+            this.status = status;
+            this.error = error;
+        }
+
+        // Getters
+        public String getUserId() { return userId; }
+        public BigDecimal getAccountValue() { return accountValue; }
+        public List<BasketLeg> getOrders() { return orders; }
+        public Status getStatus() { return status; }
+        public String getError() { return error; }
+    }
+}
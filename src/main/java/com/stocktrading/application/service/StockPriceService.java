@@ -3,7 +3,9 @@ package com.stocktrading.application.service;
 import com.stocktrading.domain.model.Stock;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -17,6 +19,11 @@ public interface StockPriceService {
      */
     Optional<BigDecimal> getCurrentPrice(String symbol);
 
+    /**
+     * Get current prices for several symbols in one lookup. Unknown symbols are left out.
+     */
+    Map<String, BigDecimal> getCurrentPrices(Collection<String> symbols);
+
     /**
      * Get stock information by symbol.
      */
@@ -46,4 +53,42 @@ public interface StockPriceService {
      * Check if a stock exists in the system.
      */
     boolean stockExists(String symbol);
+
+    /**
+     * Get stocks whose price changed after the given sequence number.
+     * Falls back to a full snapshot when the change log cannot answer,
+     * including for a sequence number issued before a restart.
+     */
+    PriceChanges getChangesSince(long sinceSequence);
+
+    /**
+     * Get the stocks with the largest change percentage, best first for gainers
+     * and worst first for losers. Served from an incrementally maintained ranking.
+     */
+    List<Stock> getTopMovers(int limit, boolean gainers);
+
+    /**
+     * Register a listener notified of every committed price update.
+     */
+    void addPriceUpdateListener(PriceUpdateListener listener);
+
+    /**
+     * Result of a delta price query.
+     */
+    class PriceChanges {
+        private final long sequence;
+        private final boolean snapshot;
+        private final List<Stock> stocks;
+
+        public PriceChanges(long sequence, boolean snapshot, List<Stock> stocks) {
+            this.sequence = sequence;
+            this.snapshot = snapshot;
+            this.stocks = stocks;
+        }
+
+        // Getters
+        public long getSequence() { return sequence; }
+        public boolean isSnapshot() { return snapshot; }
+        public List<Stock> getStocks() { return stocks; }
+    }
 } 
\ No newline at end of file
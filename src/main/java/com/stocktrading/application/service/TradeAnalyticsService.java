@@ -0,0 +1,62 @@
+package com.stocktrading.application.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service interface for per-symbol statistics over executed trades.
+ */
+public interface TradeAnalyticsService {
+
+    /**
+     * Aggregate the trades executed in {@code [from, to)}, one entry per symbol that traded, ordered by symbol.
+     *
+     * @param from    start of the window, or null for the beginning of history
+     * @param to      end of the window, exclusive
+     * @param symbols symbols to include, or null or empty for every listed stock
+     */
+    List<SymbolStats> getSymbolStats(LocalDateTime from, LocalDateTime to, Collection<String> symbols);
+
+    /**
+     * Trading activity in one symbol.
+     * Imbalance is buy volume minus sell volume over total volume, between -1 and 1.
+     */
+    class SymbolStats {
+        private final String symbol;
+        private final long tradeCount;
+        private final long buyCount;
+        private final long sellCount;
+        private final long buyVolume;
+        private final long sellVolume;
+        private final BigDecimal notional;
+        private final BigDecimal vwap;
+        private final BigDecimal imbalance;
+
+        public SymbolStats(String symbol, long buyCount, long sellCount, long buyVolume, long sellVolume,
+                           BigDecimal notional, BigDecimal vwap, BigDecimal imbalance) {
+            this.symbol = symbol;
+            this.tradeCount = buyCount + sellCount;
+            this.buyCount = buyCount;
+            this.sellCount = sellCount;
+            this.buyVolume = buyVolume;
+            this.sellVolume = sellVolume;
+            this.notional = notional;
+            this.vwap = vwap;
+            this.imbalance = imbalance;
+        }
+
+        // Getters
+        public String getSymbol() { return symbol; }
+        public long getTradeCount() { return tradeCount; }
+        public long getBuyCount() { return buyCount; }
+        public long getSellCount() { return sellCount; }
+        public long getVolume() { return buyVolume + sellVolume; }
+        public long getBuyVolume() { return buyVolume; }
+        public long getSellVolume() { return sellVolume; }
+        public BigDecimal getNotional() { return notional; }
+        public BigDecimal getVwap() { return vwap; }
+        public BigDecimal getImbalance() { return imbalance; }
+    }
+}
@@ -0,0 +1,22 @@
+package com.stocktrading.application.service;
+
+import com.stocktrading.domain.model.Trade;
+
+/**
+ * In-process publish/subscribe bus for executed trades.
+ */
+public interface TradeEventBus {
+
+    /**
+     * Record a {@link TradeExecuted} event for a saved, executed trade in the caller's transaction.
+     * Subscribers see it only once that transaction commits.
+     */
+    void publish(Trade trade);
+
+    /**
+     * Deliver every event published from now on to a listener, on a thread of its own.
+     * An event counts as delivered once the listener returns; until every subscriber has
+     * received it, it stays in the outbox and may be delivered again after a restart.
+     */
+    void subscribe(String name, TradeExecutionListener listener);
+}
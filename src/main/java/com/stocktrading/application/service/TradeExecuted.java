@@ -0,0 +1,45 @@
+package com.stocktrading.application.service;
+
+import com.stocktrading.domain.model.Trade;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Event published once an executed trade has committed.
+ */
+public class TradeExecuted {
+    private final long tradeId;
+    private final String userId;
+    private final String stockSymbol;
+    private final Trade.TradeType tradeType;
+    private final int quantity;
+    private final BigDecimal price;
+    private final LocalDateTime executedAt;
+
+    public TradeExecuted(long tradeId, String userId, String stockSymbol, Trade.TradeType tradeType, int quantity,
+                         BigDecimal price, LocalDateTime executedAt) {
+        this.tradeId = tradeId;
+        this.userId = userId;
+        this.stockSymbol = stockSymbol;
+        this.tradeType = tradeType;
+        this.quantity = quantity;
+        this.price = price;
+        this.executedAt = executedAt;
+    }
+
+    // Getters
+    public long getTradeId() { return tradeId; }
+    public String getUserId() { return userId; }
+    public String getStockSymbol() { return stockSymbol; }
+    public Trade.TradeType getTradeType() { return tradeType; }
+    public int getQuantity() { return quantity; }
+    public BigDecimal getPrice() { return price; }
+    public LocalDateTime getExecutedAt() { return executedAt; }
+
+    @Override
+    public String toString() {
+        return "TradeExecuted{tradeId=" + tradeId + ", userId='" + userId + "', stockSymbol='" + stockSymbol
+                + "', tradeType=" + tradeType + ", quantity=" + quantity + ", price=" + price + '}';
+    }
+}
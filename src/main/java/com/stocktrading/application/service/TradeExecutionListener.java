@@ -0,0 +1,12 @@
+package com.stocktrading.application.service;
+
+/**
+ * Subscriber to executed trades on the {@link TradeEventBus}.
+ * Invoked on the subscriber's own delivery thread, one event at a time in the
+ * order the bus relays them. Delivery is at least once, so an event may be
+ * seen again after a failure to clear it from the outbox.
+ */
+public interface TradeExecutionListener {
+
+    void onTradeExecuted(TradeExecuted event);
+}
@@ -1,8 +1,10 @@
 package com.stocktrading.application.service;
 
+import com.stocktrading.domain.model.LotSelection;
 import com.stocktrading.domain.model.Trade;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -16,11 +18,72 @@ public interface TradingService {
      */
     Trade buyStock(String userId, String stockSymbol, Integer quantity);
 
+    /**
+     * Execute a buy order at most once per idempotency key and user.
+     * A repeated key returns the trade the first submission produced; a null key behaves like a plain buy.
+     *
+     * @throws IllegalStateException if the first submission with the key is still in progress
+     */
+    Trade buyStock(String userId, String stockSymbol, Integer quantity, String idempotencyKey);
+
     /**
      * Execute a sell order for a stock.
      */
     Trade sellStock(String userId, String stockSymbol, Integer quantity);
 
+    /**
+     * Execute a sell order that consumes the selected tax lots.
+     */
+    Trade sellStock(String userId, String stockSymbol, Integer quantity, LotSelection lotSelection);
+
+    /**
+     * Execute a sell order at most once per idempotency key and user, consuming the
+     * selected lots or the default lot method when {@code lotSelection} is null.
+     *
+     * @throws IllegalStateException if the first submission with the key is still in progress
+     */
+    Trade sellStock(String userId, String stockSymbol, Integer quantity, LotSelection lotSelection,
+                    String idempotencyKey);
+
+    /**
+     * Execute a basket of market orders for one user atomically, in leg order.
+     * All legs are validated together against one price lookup and the holdings
+     * as the earlier legs leave them; if any leg is invalid, none is executed.
+     * Sells consume the default lot method.
+     *
+     * @return the executed trades, one per leg
+     */
+    List<Trade> executeBasket(String userId, List<BasketLeg> legs);
+
+    /**
+     * Place a stop-loss, take-profit or trailing-stop order that rests until the
+     * stock price crosses its trigger. For trailing stops the trigger is derived
+     * from the current price and {@code trailAmount}; otherwise {@code triggerPrice} is used.
+     */
+    Trade placeConditionalOrder(String userId, String stockSymbol, Trade.TradeType tradeType, Integer quantity,
+                                Trade.OrderType orderType, BigDecimal triggerPrice, BigDecimal trailAmount);
+
+    /**
+     * Place a conditional order with a time in force. DAY orders expire at the market
+     * close and GTD orders at {@code expiresAt}. An IOC order never rests: it fills at
+     * once if its trigger is already reached and is cancelled otherwise.
+     */
+    Trade placeConditionalOrder(String userId, String stockSymbol, Trade.TradeType tradeType, Integer quantity,
+                                Trade.OrderType orderType, BigDecimal triggerPrice, BigDecimal trailAmount,
+                                Trade.TimeInForce timeInForce, LocalDateTime expiresAt);
+
+    /**
+     * Execute triggered conditional orders at the current market price, each in its own transaction.
+     * Orders that are no longer pending are skipped; an order that cannot be executed is marked failed.
+     */
+    List<Trade> executeTriggeredOrders(List<Long> tradeIds);
+
+    /**
+     * Cancel expired orders the same way a user cancels them, in one transaction.
+     * Orders that are no longer pending are skipped.
+     */
+    List<Trade> expireOrders(List<Long> tradeIds);
+
     /**
      * Get all trades for a specific user.
      */
@@ -45,4 +108,32 @@ public interface TradingService {
      * Validate if a trade can be executed.
      */
     boolean canExecuteTrade(String userId, String stockSymbol, Trade.TradeType tradeType, Integer quantity);
+
+    /**
+     * One market order in a basket. A sell may select the lots it consumes;
+     * without a selection it uses the default lot method.
+     */
+    class BasketLeg {
+        private final String stockSymbol;
+        private final Trade.TradeType tradeType;
+        private final Integer quantity;
+        private final LotSelection lotSelection;
+
+        public BasketLeg(String stockSymbol, Trade.TradeType tradeType, Integer quantity) {
+            this(stockSymbol, tradeType, quantity, null);
+        }
+
+        public BasketLeg(String stockSymbol, Trade.TradeType tradeType, Integer quantity, LotSelection lotSelection) {
+            this.stockSymbol = stockSymbol;
+            this.tradeType = tradeType;
+            this.quantity = quantity;
+            this.lotSelection = lotSelection;
+        }
+
+        // Getters
+        public String getStockSymbol() { return stockSymbol; }
+        public Trade.TradeType getTradeType() { return tradeType; }
+        public Integer getQuantity() { return quantity; }
+        public LotSelection getLotSelection() { return lotSelection; }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,265 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.PortfolioHistoryService;
+import com.stocktrading.application.service.PriceHistoryService;
+import com.stocktrading.application.service.TradeEventBus;
+import com.stocktrading.application.service.TradeExecuted;
+import com.stocktrading.application.service.TradeExecutionListener;
+import com.stocktrading.domain.model.HoldingsCheckpoint;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.repository.HoldingsCheckpointRepository;
+import com.stocktrading.domain.repository.TradeRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of PortfolioHistoryService that replays trades from periodic holdings checkpoints.
+ * Holdings at a point in time are the user's latest checkpoint at or before it
+ * plus the trades they executed since, so a query costs the trades after that
+ * checkpoint rather than the whole history. Checkpoints are built incrementally
+ * the same way: each one adds the trades executed since the previous cutoff to
+ * the traders' previous checkpoints, and users who did not trade keep theirs.
+ * The cutoff trails the clock by a settle delay, so trades still committing
+ * when it is taken are usually included.
+ *
+ * <p>A trade can still commit after a checkpoint whose cutoff it executed
+ * before. Executed trades are delivered from the trade event bus after they
+ * commit, and any trade executed at or before the latest cutoff marks its user
+ * as late. The next checkpoint drops that user's checkpoints taken since the
+ * trade and rebuilds the user from the latest one left.
+ */
+@Service
+public class CheckpointPortfolioHistoryService implements PortfolioHistoryService, TradeExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointPortfolioHistoryService.class);
+
+    private static final String INSERT_CHECKPOINT =
+            "INSERT INTO holdings_checkpoints (user_id, stock_symbol, quantity, taken_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_LATEST_CHECKPOINT =
+            "SELECT stock_symbol, quantity FROM holdings_checkpoints WHERE user_id = ? AND quantity > 0 "
+            + "AND taken_at = (SELECT MAX(taken_at) FROM holdings_checkpoints WHERE user_id = ?)";
+    private static final String DELETE_CHECKPOINTS_SINCE =
+            "DELETE FROM holdings_checkpoints WHERE user_id = ? AND taken_at >= ?";
+
+    private final TradeRepository tradeRepository;
+    private final HoldingsCheckpointRepository checkpointRepository;
+    private final PriceHistoryService priceHistoryService;
+    private final TradeEventBus tradeEventBus;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate checkpointTransaction;
+    private final long settleMillis;
+    private final Map<String, LocalDateTime> lateSinceByUser = new ConcurrentHashMap<>();
+    private volatile LocalDateTime latestCutoff;
+
+    @Autowired
+    public CheckpointPortfolioHistoryService(TradeRepository tradeRepository,
+                                             HoldingsCheckpointRepository checkpointRepository,
+                                             PriceHistoryService priceHistoryService,
+                                             TradeEventBus tradeEventBus,
+                                             JdbcTemplate jdbcTemplate,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${stocktrading.checkpoint.settle-ms:60000}") long settleMillis) {
+        this.tradeRepository = tradeRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.priceHistoryService = priceHistoryService;
+        this.tradeEventBus = tradeEventBus;
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkpointTransaction = new TransactionTemplate(transactionManager);
+        this.settleMillis = settleMillis;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        latestCutoff = checkpointRepository.findLastTakenAt();
+        tradeEventBus.subscribe("checkpoints", this);
+    }
+
+    /**
+     * Mark the trade's user for rebuilding if the trade may have committed after a checkpoint it belongs in.
+     */
+    @Override
+    public void onTradeExecuted(TradeExecuted trade) {
+        LocalDateTime cutoff = latestCutoff;
+        if (cutoff != null && !trade.getExecutedAt().isAfter(cutoff)) {
+            lateSinceByUser.merge(trade.getUserId(), trade.getExecutedAt(),
+                    (previous, executedAt) -> executedAt.isBefore(previous) ? executedAt : previous);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HoldingsAsOf getHoldingsAsOf(String userId, LocalDateTime asOf) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (asOf == null) {
+            throw new IllegalArgumentException("Point in time is required");
+        }
+
+        Map<String, Integer> quantities = new TreeMap<>();
+        LocalDateTime checkpointAt = checkpointRepository.findLatestTakenAt(userId, asOf);
+        List<Trade> trades;
+        if (checkpointAt == null) {
+            trades = tradeRepository.findExecutedByUserIdUntil(userId, asOf);
+        } else {
+            for (HoldingsCheckpoint holding : checkpointRepository.findByUserIdAndTakenAt(userId, checkpointAt)) {
+                quantities.put(holding.getStockSymbol(), holding.getQuantity());
+            }
+            trades = tradeRepository.findExecutedByUserIdBetween(userId, checkpointAt, asOf);
+        }
+        for (Trade trade : trades) {
+            int quantity = trade.getTradeType() == Trade.TradeType.BUY ? trade.getQuantity() : -trade.getQuantity();
+            quantities.merge(trade.getStockSymbol(), quantity, Integer::sum);
+        }
+
+        List<Position> positions = new ArrayList<>();
+        BigDecimal totalValue = BigDecimal.ZERO;
+        for (Map.Entry<String, Integer> holding : quantities.entrySet()) {
+            if (holding.getValue() <= 0) {
+                continue;
+            }
+            Position position = new Position(holding.getKey(), holding.getValue(), priceAt(holding.getKey(), asOf));
+            positions.add(position);
+            if (position.getMarketValue() != null) {
+                totalValue = totalValue.add(position.getMarketValue());
+            }
+        }
+        return new HoldingsAsOf(userId, asOf, checkpointAt, trades.size(), positions, totalValue);
+    }
+
+    /**
+     * The latest recorded price at or before a point in time, falling back to the
+     * last execution price once ticks that old are no longer retained.
+     */
+    private BigDecimal priceAt(String symbol, LocalDateTime asOf) {
+        return priceHistoryService.getPriceAt(symbol, asOf)
+                .or(() -> tradeRepository.findFirstByStockSymbolAndExecutedAtLessThanEqualOrderByExecutedAtDesc(
+                        symbol, asOf).map(Trade::getPrice))
+                .orElse(null);
+    }
+
+    @Override
+    public int takeCheckpoint() {
+        return takeCheckpoint(LocalDateTime.now().minusNanos(settleMillis * 1_000_000));
+    }
+
+    @Scheduled(fixedDelayString = "${stocktrading.checkpoint.interval-ms:3600000}",
+               initialDelayString = "${stocktrading.checkpoint.interval-ms:3600000}")
+    public void checkpointPeriodically() {
+        long start = System.nanoTime();
+        try {
+            int users = takeCheckpoint();
+            log.info("Checkpointed holdings of {} users in {} ms", users, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to checkpoint holdings", e);
+        }
+    }
+
+    /**
+     * Checkpoint, as of {@code cutoff}, every user with trades executed since the previous checkpoint,
+     * and rebuild users with trades that committed after a checkpoint they belong in.
+     */
+    synchronized int takeCheckpoint(LocalDateTime cutoff) {
+        LocalDateTime previous = checkpointRepository.findLastTakenAt();
+        if (previous != null && !cutoff.isAfter(previous)) {
+            return 0;
+        }
+        // Raised before reading trades, so any trade this checkpoint misses is reported as late
+        latestCutoff = cutoff;
+        Map<String, LocalDateTime> late = new HashMap<>();
+        for (String userId : lateSinceByUser.keySet()) {
+            late.put(userId, lateSinceByUser.remove(userId));
+        }
+
+        try {
+            return checkpoint(cutoff, previous, late);
+        } catch (RuntimeException e) {
+            late.forEach((userId, since) -> lateSinceByUser.merge(userId, since,
+                    (a, b) -> a.isBefore(b) ? a : b));
+            throw e;
+        }
+    }
+
+    private int checkpoint(LocalDateTime cutoff, LocalDateTime previous, Map<String, LocalDateTime> late) {
+        Map<String, Map<String, Integer>> changes = new HashMap<>();
+        String sql = "SELECT user_id, stock_symbol, SUM(CASE WHEN trade_type = 'BUY' THEN quantity ELSE -quantity END) "
+                + "FROM trades WHERE executed_at <= ?" + (previous == null ? "" : " AND executed_at > ?")
+                + " GROUP BY user_id, stock_symbol";
+        Object[] args = previous == null
+                ? new Object[] {Timestamp.valueOf(cutoff)}
+                : new Object[] {Timestamp.valueOf(cutoff), Timestamp.valueOf(previous)};
+        jdbcTemplate.query(sql, rs -> {
+            changes.computeIfAbsent(rs.getString(1), user -> new HashMap<>()).put(rs.getString(2), rs.getInt(3));
+        }, args);
+
+        Timestamp takenAt = Timestamp.valueOf(cutoff);
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Integer>> user : changes.entrySet()) {
+            if (late.containsKey(user.getKey())) {
+                continue;
+            }
+            Map<String, Integer> holdings = new HashMap<>();
+            if (previous != null) {
+                jdbcTemplate.query(SELECT_LATEST_CHECKPOINT,
+                        rs -> {
+                            holdings.put(rs.getString(1), rs.getInt(2));
+                        }, user.getKey(), user.getKey());
+            }
+            user.getValue().forEach((symbol, change) -> holdings.merge(symbol, change, Integer::sum));
+            holdings.forEach((symbol, quantity) -> rows.add(new Object[] {user.getKey(), symbol, quantity, takenAt}));
+        }
+
+        checkpointTransaction.executeWithoutResult(status -> {
+            for (Map.Entry<String, LocalDateTime> user : late.entrySet()) {
+                jdbcTemplate.update(DELETE_CHECKPOINTS_SINCE, user.getKey(), Timestamp.valueOf(user.getValue()));
+                rebuild(user.getKey(), takenAt).forEach((symbol, quantity) ->
+                        rows.add(new Object[] {user.getKey(), symbol, quantity, takenAt}));
+            }
+            jdbcTemplate.batchUpdate(INSERT_CHECKPOINT, rows);
+        });
+        if (!late.isEmpty()) {
+            log.info("Rebuilt checkpoints of {} users with late trades", late.size());
+        }
+        long rebuiltWithoutChanges = late.keySet().stream().filter(userId -> !changes.containsKey(userId)).count();
+        return changes.size() + (int) rebuiltWithoutChanges;
+    }
+
+    /**
+     * A user's holdings at {@code takenAt}: their latest remaining checkpoint plus the trades executed since.
+     */
+    private Map<String, Integer> rebuild(String userId, Timestamp takenAt) {
+        Map<String, Integer> holdings = new HashMap<>();
+        jdbcTemplate.query(SELECT_LATEST_CHECKPOINT,
+                rs -> {
+                    holdings.put(rs.getString(1), rs.getInt(2));
+                }, userId, userId);
+        Timestamp since = jdbcTemplate.queryForObject(
+                "SELECT MAX(taken_at) FROM holdings_checkpoints WHERE user_id = ?", Timestamp.class, userId);
+        jdbcTemplate.query("SELECT stock_symbol, SUM(CASE WHEN trade_type = 'BUY' THEN quantity ELSE -quantity END) "
+                        + "FROM trades WHERE user_id = ? AND executed_at <= ?" + (since == null ? "" : " AND executed_at > ?")
+                        + " GROUP BY stock_symbol",
+                rs -> {
+                    holdings.merge(rs.getString(1), rs.getInt(2), Integer::sum);
+                }, since == null ? new Object[] {userId, takenAt} : new Object[] {userId, takenAt, since});
+        return holdings;
+    }
+}
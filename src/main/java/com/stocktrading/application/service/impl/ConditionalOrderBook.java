@@ -0,0 +1,180 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.domain.model.Trade;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigger index of resting stop-loss, take-profit and trailing-stop orders.
+ * The orders themselves are persisted as pending trades; this book only maps
+ * price levels to trade ids. The nearest trigger on each side is cached, so a
+ * tick that crosses no trigger and sets no new trailing high or low is constant
+ * time regardless of how many orders are resting.
+ */
+@Component
+public class ConditionalOrderBook {
+
+    private final Map<String, SymbolTriggers> triggersBySymbol = new ConcurrentHashMap<>();
+
+    /**
+     * Index a pending conditional trade by its trigger.
+     */
+    public void add(Trade trade) {
+        if (!trade.isConditional() || trade.getId() == null) {
+            throw new IllegalArgumentException("Only saved conditional orders can be indexed");
+        }
+        triggersFor(trade.getStockSymbol()).add(trade);
+    }
+
+    /**
+     * Stop tracking a trade, e.g. after it was cancelled.
+     */
+    public boolean remove(String stockSymbol, Long tradeId) {
+        SymbolTriggers triggers = triggersBySymbol.get(stockSymbol);
+        return triggers != null && triggers.remove(tradeId);
+    }
+
+    /**
+     * Apply a price and remove every order it triggers.
+     *
+     * @return ids of triggered trades, empty if none
+     */
+    public List<Long> onPrice(String stockSymbol, BigDecimal price) {
+        SymbolTriggers triggers = triggersBySymbol.get(stockSymbol);
+        if (triggers == null) {
+            return Collections.emptyList();
+        }
+        return triggers.onPrice(PriceTicks.toTicks(price));
+    }
+
+    public int size(String stockSymbol) {
+        SymbolTriggers triggers = triggersBySymbol.get(stockSymbol);
+        return triggers == null ? 0 : triggers.size();
+    }
+
+    private SymbolTriggers triggersFor(String stockSymbol) {
+        return triggersBySymbol.computeIfAbsent(stockSymbol, s -> new SymbolTriggers());
+    }
+
+    /**
+     * Whether the order fires on a price at or above its trigger, as opposed to at or below.
+     */
+    static boolean firesOnRise(Trade.OrderType orderType, Trade.TradeType tradeType) {
+        boolean sell = tradeType == Trade.TradeType.SELL;
+        switch (orderType) {
+            case TAKE_PROFIT:
+                return sell;
+            case STOP_LOSS:
+            case TRAILING_STOP:
+                return !sell;
+            default:
+                throw new IllegalArgumentException("Not a conditional order type: " + orderType);
+        }
+    }
+
+    /**
+     * Trigger state of one symbol.
+     */
+    private static final class SymbolTriggers {
+
+        /** Fire when price >= level. */
+        private final NavigableMap<Long, Set<Long>> risingTriggers = new TreeMap<>();
+        /** Fire when price <= level. */
+        private final NavigableMap<Long, Set<Long>> fallingTriggers = new TreeMap<>();
+        private final Map<Long, Long> levelById = new HashMap<>();
+        private final Map<Long, Boolean> risingById = new HashMap<>();
+        // Nearest levels cached so quiet ticks skip the tree walks entirely
+        private long lowestRising = Long.MAX_VALUE;
+        private long highestFalling = Long.MIN_VALUE;
+
+        private final TrailingStopBook trailingSells = new TrailingStopBook();
+        /** Buy-side trailing stops track a falling low-water mark, stored negated. */
+        private final TrailingStopBook trailingBuys = new TrailingStopBook();
+
+        synchronized void add(Trade trade) {
+            long trigger = PriceTicks.toTicks(trade.getTriggerPrice());
+            boolean rising = firesOnRise(trade.getOrderType(), trade.getTradeType());
+            if (trade.getOrderType() == Trade.OrderType.TRAILING_STOP) {
+                long trail = PriceTicks.toTicks(trade.getTrailAmount());
+                if (rising) {
+                    trailingBuys.add(trade.getId(), trail, -(trigger - trail));
+                } else {
+                    trailingSells.add(trade.getId(), trail, trigger + trail);
+                }
+                return;
+            }
+            (rising ? risingTriggers : fallingTriggers)
+                    .computeIfAbsent(trigger, level -> new LinkedHashSet<>())
+                    .add(trade.getId());
+            levelById.put(trade.getId(), trigger);
+            risingById.put(trade.getId(), rising);
+            refreshNearestLevels();
+        }
+
+        synchronized boolean remove(Long id) {
+            Long level = levelById.remove(id);
+            if (level != null) {
+                NavigableMap<Long, Set<Long>> book = risingById.remove(id) ? risingTriggers : fallingTriggers;
+                Set<Long> ids = book.get(level);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    book.remove(level);
+                    refreshNearestLevels();
+                }
+                return true;
+            }
+            return trailingSells.remove(id) || trailingBuys.remove(id);
+        }
+
+        synchronized List<Long> onPrice(long price) {
+            List<Long> fired = null;
+            if (price >= lowestRising || price <= highestFalling) {
+                fired = drain(risingTriggers.headMap(price, true), null);
+                fired = drain(fallingTriggers.tailMap(price, true), fired);
+                refreshNearestLevels();
+            }
+
+            fired = trailingSells.onPrice(price, fired);
+            fired = trailingBuys.onPrice(-price, fired);
+            return fired == null || fired.isEmpty() ? Collections.emptyList() : fired;
+        }
+
+        synchronized int size() {
+            return levelById.size() + trailingSells.size() + trailingBuys.size();
+        }
+
+        private void refreshNearestLevels() {
+            lowestRising = risingTriggers.isEmpty() ? Long.MAX_VALUE : risingTriggers.firstKey();
+            highestFalling = fallingTriggers.isEmpty() ? Long.MIN_VALUE : fallingTriggers.lastKey();
+        }
+
+        private List<Long> drain(NavigableMap<Long, Set<Long>> crossed, List<Long> fired) {
+            if (crossed.isEmpty()) {
+                return fired;
+            }
+            if (fired == null) {
+                fired = new ArrayList<>();
+            }
+            for (Set<Long> ids : crossed.values()) {
+                for (Long id : ids) {
+                    levelById.remove(id);
+                    risingById.remove(id);
+                    fired.add(id);
+                }
+            }
+            crossed.clear();
+            return fired;
+        }
+    }
+}
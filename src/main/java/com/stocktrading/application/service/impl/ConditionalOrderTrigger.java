@@ -0,0 +1,96 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.PriceUpdateListener;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.application.service.TradingService;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.repository.TradeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fires resting conditional orders from the price update path.
+ * Each committed tick probes the {@link ConditionalOrderBook}; triggered orders
+ * are removed from the book inline and executed as one batch on a dedicated
+ * thread, so ticks never wait on order execution. The queue is unbounded because
+ * every resting order can be queued at most once.
+ *
+ * <p>Pending conditional orders are re-indexed from the database at startup,
+ * after any state snapshot has been restored.
+ */
+@Component
+public class ConditionalOrderTrigger implements PriceUpdateListener, ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ConditionalOrderTrigger.class);
+
+    private final StockPriceService stockPriceService;
+    private final TradingService tradingService;
+    private final TradeRepository tradeRepository;
+    private final ConditionalOrderBook conditionalOrderBook;
+    private final ExecutorService executionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "conditional-order-execution");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public ConditionalOrderTrigger(StockPriceService stockPriceService,
+                                   TradingService tradingService,
+                                   TradeRepository tradeRepository,
+                                   ConditionalOrderBook conditionalOrderBook) {
+        this.stockPriceService = stockPriceService;
+        this.tradingService = tradingService;
+        this.tradeRepository = tradeRepository;
+        this.conditionalOrderBook = conditionalOrderBook;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        stockPriceService.addPriceUpdateListener(this);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executionExecutor.shutdown();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Trade> pending = tradeRepository.findByStatusAndOrderTypeNot(Trade.TradeStatus.PENDING, Trade.OrderType.MARKET);
+        pending.forEach(conditionalOrderBook::add);
+        log.info("Indexed {} resting conditional orders", pending.size());
+    }
+
+    @Override
+    public void onPriceUpdate(String symbol, BigDecimal previousPrice, BigDecimal newPrice, long sequence) {
+        List<Long> triggered = conditionalOrderBook.onPrice(symbol, newPrice);
+        if (!triggered.isEmpty()) {
+            executionExecutor.execute(() -> execute(triggered));
+        }
+    }
+
+    private void execute(List<Long> tradeIds) {
+        try {
+            List<Trade> executed = tradingService.executeTriggeredOrders(tradeIds);
+            log.debug("Executed {} of {} triggered conditional orders", executed.size(), tradeIds.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to execute {} triggered conditional orders, re-indexing them", tradeIds.size(), e);
+            for (Trade trade : tradeRepository.findAllById(tradeIds)) {
+                if (trade.isPending()) {
+                    conditionalOrderBook.add(trade);
+                }
+            }
+        }
+    }
+}
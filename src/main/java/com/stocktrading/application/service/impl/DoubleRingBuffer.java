@@ -0,0 +1,55 @@
+package com.stocktrading.application.service.impl;
+
+/**
+ * Fixed-size ring of primitive doubles for rolling-window calculations.
+ */
+final class DoubleRingBuffer {
+
+    private final double[] values;
+    private int next;
+    private int size;
+
+    DoubleRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Add a value and return the one it displaced, or 0 while the window is filling.
+     */
+    double push(double value) {
+        double evicted = size == values.length ? values[next] : 0.0;
+        values[next] = value;
+        next = (next + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+        return evicted;
+    }
+
+    boolean isFull() {
+        return size == values.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double sum() {
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    double sumOfSquares() {
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i] * values[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,289 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.RebalancingService;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.application.service.TradingService;
+import com.stocktrading.application.service.TradingService.BasketLeg;
+import com.stocktrading.domain.model.Stock;
+import com.stocktrading.domain.model.Trade;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of RebalancingService that works through a cohort in parallel batches.
+ * Prices are read once up front, so every account is valued against the same
+ * snapshot. Holdings are read straight into symbol/quantity pairs rather than
+ * entities, walking the user ID index: all accounts in one ordered pass, or a
+ * given cohort in sorted batches with a range scan each. Batches of accounts are
+ * planned, and optionally submitted, in parallel on a fork/join pool while the
+ * pass over all accounts is still reading the next batch. A submitted account
+ * goes through {@link TradingService#executeBasket}, so its orders are checked
+ * against its holdings again and commit or fail together without affecting
+ * other accounts.
+ */
+@Service
+public class ForkJoinRebalancingService implements RebalancingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ForkJoinRebalancingService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockPriceService stockPriceService;
+    private final TradingService tradingService;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public ForkJoinRebalancingService(DataSource dataSource,
+                                      StockPriceService stockPriceService,
+                                      TradingService tradingService,
+                                      @Value("${stocktrading.rebalance.parallelism:0}") int parallelism,
+                                      @Value("${stocktrading.rebalance.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Rebalance batch size must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.stockPriceService = stockPriceService;
+        this.tradingService = tradingService;
+        this.batchSize = batchSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("rebalance-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public List<AccountRebalance> rebalance(Map<String, BigDecimal> targetWeights, Collection<String> userIds,
+                                            boolean submit) {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (Stock stock : stockPriceService.getAllStocks()) {
+            prices.put(stock.getSymbol(), stock.getCurrentPrice());
+        }
+        Map<String, BigDecimal> model = validateModel(targetWeights, prices);
+
+        List<Future<List<AccountRebalance>>> batches = new ArrayList<>();
+        if (userIds == null || userIds.isEmpty()) {
+            readAllHoldings(holdings -> batches.add(pool.submit(() -> rebalanceBatch(holdings, model, prices, submit))));
+        } else {
+            List<String> cohort = new ArrayList<>(new TreeSet<>(userIds));
+            for (int start = 0; start < cohort.size(); start += batchSize) {
+                List<String> batch = cohort.subList(start, Math.min(start + batchSize, cohort.size()));
+                batches.add(pool.submit(() -> rebalanceBatch(readHoldings(batch), model, prices, submit)));
+            }
+        }
+
+        List<AccountRebalance> results = new ArrayList<>();
+        for (Future<List<AccountRebalance>> batch : batches) {
+            results.addAll(join(batch));
+        }
+        return results;
+    }
+
+    private static Map<String, BigDecimal> validateModel(Map<String, BigDecimal> targetWeights,
+                                                         Map<String, BigDecimal> prices) {
+        if (targetWeights == null || targetWeights.isEmpty()) {
+            throw new IllegalArgumentException("Model portfolio must have at least one target weight");
+        }
+        Map<String, BigDecimal> model = new HashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal> target : targetWeights.entrySet()) {
+            String symbol = target.getKey() == null ? null : target.getKey().trim().toUpperCase();
+            BigDecimal weight = target.getValue();
+            if (symbol == null || !prices.containsKey(symbol)) {
+                throw new IllegalArgumentException("Stock not found: " + target.getKey());
+            }
+            if (weight == null || weight.signum() < 0) {
+                throw new IllegalArgumentException("Target weight must be non-negative: " + symbol);
+            }
+            model.merge(symbol, weight, BigDecimal::add);
+            total = total.add(weight);
+        }
+        if (total.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("Target weights must not add up to more than 1");
+        }
+        return model;
+    }
+
+    /**
+     * Walk every account's holdings in user ID order, handing them on in batches of whole accounts.
+     */
+    private void readAllHoldings(Consumer<Map<String, Map<String, Integer>>> consumer) {
+        AccountBatcher batcher = new AccountBatcher(batchSize, consumer);
+        jdbcTemplate.query("SELECT user_id, stock_symbol, quantity FROM portfolios WHERE quantity > 0 ORDER BY user_id",
+                batcher);
+        batcher.finish();
+    }
+
+    /**
+     * Read the holdings of a sorted batch of accounts with one range scan over the user ID index,
+     * which H2 serves much faster than a lookup per key for an IN list.
+     */
+    private Map<String, Map<String, Integer>> readHoldings(List<String> userIds) {
+        Map<String, Map<String, Integer>> holdings = new TreeMap<>();
+        for (String userId : userIds) {
+            holdings.put(userId, new TreeMap<>());
+        }
+        jdbcTemplate.query("SELECT user_id, stock_symbol, quantity FROM portfolios "
+                        + "WHERE user_id >= ? AND user_id <= ? AND quantity > 0",
+                rs -> {
+                    Map<String, Integer> account = holdings.get(rs.getString(1));
+                    if (account != null) {
+                        account.put(rs.getString(2), rs.getInt(3));
+                    }
+                }, userIds.get(0), userIds.get(userIds.size() - 1));
+        return holdings;
+    }
+
+    private List<AccountRebalance> rebalanceBatch(Map<String, Map<String, Integer>> holdings,
+                                                  Map<String, BigDecimal> model,
+                                                  Map<String, BigDecimal> prices, boolean submit) {
+        List<AccountRebalance> results = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Integer>> account : holdings.entrySet()) {
+            AccountRebalance plan = plan(account.getKey(), account.getValue(), model, prices);
+            if (plan == null) {
+                continue;
+            }
+            results.add(submit && plan.getStatus() == Status.PLANNED ? submit(plan) : plan);
+        }
+        return results;
+    }
+
+    /**
+     * The orders that move one account to the model, or null if it has nothing to trade.
+     */
+    static AccountRebalance plan(String userId, Map<String, Integer> holdings, Map<String, BigDecimal> model,
+                                 Map<String, BigDecimal> prices) {
+        BigDecimal value = BigDecimal.ZERO;
+        for (Map.Entry<String, Integer> holding : holdings.entrySet()) {
+            BigDecimal price = prices.get(holding.getKey());
+            if (price == null) {
+                return new AccountRebalance(userId, null, List.of(), Status.FAILED,
+                        "No current price for " + holding.getKey());
+            }
+            value = value.add(price.multiply(BigDecimal.valueOf(holding.getValue())));
+        }
+        if (value.signum() == 0) {
+            return null;
+        }
+
+        TreeMap<String, Integer> changes = new TreeMap<>();
+        for (Map.Entry<String, Integer> holding : holdings.entrySet()) {
+            changes.put(holding.getKey(), -holding.getValue());
+        }
+        for (Map.Entry<String, BigDecimal> target : model.entrySet()) {
+            int shares = target.getValue().multiply(value)
+                    .divide(prices.get(target.getKey()), 0, RoundingMode.FLOOR).intValueExact();
+            changes.merge(target.getKey(), shares, Integer::sum);
+        }
+
+        List<BasketLeg> sells = new ArrayList<>();
+        List<BasketLeg> buys = new ArrayList<>();
+        for (Map.Entry<String, Integer> change : changes.entrySet()) {
+            int shares = change.getValue();
+            if (shares < 0) {
+                sells.add(new BasketLeg(change.getKey(), Trade.TradeType.SELL, -shares));
+            } else if (shares > 0) {
+                buys.add(new BasketLeg(change.getKey(), Trade.TradeType.BUY, shares));
+            }
+        }
+        if (sells.isEmpty() && buys.isEmpty()) {
+            return null;
+        }
+        sells.addAll(buys);
+        return new AccountRebalance(userId, value, sells, Status.PLANNED, null);
+    }
+
+    private AccountRebalance submit(AccountRebalance plan) {
+        try {
+            tradingService.executeBasket(plan.getUserId(), plan.getOrders());
+            return new AccountRebalance(plan.getUserId(), plan.getAccountValue(), plan.getOrders(),
+                    Status.SUBMITTED, null);
+        } catch (RuntimeException e) {
+            log.warn("Rebalance orders for {} failed: {}", plan.getUserId(), e.getMessage());
+            return new AccountRebalance(plan.getUserId(), plan.getAccountValue(), plan.getOrders(),
+                    Status.FAILED, e.getMessage());
+        }
+    }
+
+    private static List<AccountRebalance> join(Future<List<AccountRebalance>> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebalancing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Rebalance batch failed", e.getCause());
+        }
+    }
+
+    /**
+     * Groups rows ordered by user into batches of whole accounts.
+     */
+    private static final class AccountBatcher implements RowCallbackHandler {
+        private final int batchSize;
+        private final Consumer<Map<String, Map<String, Integer>>> consumer;
+        private Map<String, Map<String, Integer>> batch = new TreeMap<>();
+        private String userId;
+        private Map<String, Integer> account;
+
+        AccountBatcher(int batchSize, Consumer<Map<String, Map<String, Integer>>> consumer) {
+            this.batchSize = batchSize;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String rowUserId = rs.getString(1);
+            if (!rowUserId.equals(userId)) {
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = new TreeMap<>();
+                }
+                userId = rowUserId;
+                account = new TreeMap<>();
+                batch.put(userId, account);
+            }
+            account.put(rs.getString(2), rs.getInt(3));
+        }
+
+        void finish() {
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.TradeAnalyticsService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of TradeAnalyticsService that aggregates the trade history in parallel.
+ * The range of trade ids is split in halves on a fork/join pool until each
+ * window is small enough; each window then streams its executed trades over its
+ * own connection, walking the primary key, and sums them into primitive
+ * per-symbol counters, so no entity or {@link BigDecimal} is created per row.
+ * Joined windows add their counters together. Id windows hold about the same
+ * number of trades however popularity is spread across symbols, and there are
+ * many more of them than threads, so idle threads steal the remaining work.
+ */
+@Service
+public class ForkJoinTradeAnalyticsService implements TradeAnalyticsService {
+
+    private static final int WINDOWS_PER_THREAD = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public ForkJoinTradeAnalyticsService(DataSource dataSource,
+                                         @Value("${stocktrading.analytics.parallelism:0}") int parallelism,
+                                         @Value("${stocktrading.analytics.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("trade-analytics-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public List<SymbolStats> getSymbolStats(LocalDateTime from, LocalDateTime to, Collection<String> symbols) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (from != null && !from.isBefore(end)) {
+            throw new IllegalArgumentException("Window start must be before its end");
+        }
+        boolean allSymbols = symbols == null || symbols.isEmpty();
+        String[] sorted = allSymbols
+                ? jdbcTemplate.queryForList("SELECT symbol FROM stocks ORDER BY symbol", String.class)
+                        .toArray(new String[0])
+                : symbols.stream().map(String::toUpperCase).collect(Collectors.toCollection(TreeSet::new))
+                        .toArray(new String[0]);
+        Map<String, Integer> index = new HashMap<>(sorted.length * 2);
+        for (int i = 0; i < sorted.length; i++) {
+            index.put(sorted[i], i);
+        }
+
+        Map<String, Object> ids = jdbcTemplate.queryForMap("SELECT MIN(id) AS first_id, MAX(id) AS last_id FROM trades");
+        if (sorted.length == 0 || ids.get("first_id") == null) {
+            return List.of();
+        }
+        long firstId = ((Number) ids.get("first_id")).longValue();
+        long lastId = ((Number) ids.get("last_id")).longValue();
+        long windows = (long) pool.getParallelism() * WINDOWS_PER_THREAD;
+        long windowSize = Math.max(1, (lastId - firstId + windows) / windows);
+
+        Query query = new Query(from, end, allSymbols ? null : sorted, index, windowSize);
+        Totals totals = pool.invoke(new Window(query, firstId, lastId + 1));
+
+        List<SymbolStats> stats = new ArrayList<>();
+        for (int i = 0; i < sorted.length; i++) {
+            long volume = totals.buyVolumes[i] + totals.sellVolumes[i];
+            if (volume == 0) {
+                continue;
+            }
+            BigDecimal notional = BigDecimal.valueOf(totals.notionalCents[i], 2);
+            stats.add(new SymbolStats(sorted[i], totals.buyCounts[i], totals.sellCounts[i],
+                    totals.buyVolumes[i], totals.sellVolumes[i], notional,
+                    notional.divide(BigDecimal.valueOf(volume), 4, RoundingMode.HALF_UP),
+                    BigDecimal.valueOf(totals.buyVolumes[i] - totals.sellVolumes[i])
+                            .divide(BigDecimal.valueOf(volume), 4, RoundingMode.HALF_UP)));
+        }
+        return stats;
+    }
+
+    /**
+     * What every window of one request aggregates.
+     */
+    private static final class Query {
+        final String sql;
+        final Object[] args;
+        final Map<String, Integer> index;
+        final long windowSize;
+
+        Query(LocalDateTime from, LocalDateTime to, String[] symbols, Map<String, Integer> index, long windowSize) {
+            StringBuilder sql = new StringBuilder("SELECT stock_symbol, "
+                    + "CASE WHEN trade_type = 'BUY' THEN quantity ELSE -quantity END, CAST(price * 100 AS BIGINT) "
+                    + "FROM trades WHERE id >= ? AND id < ? AND status = 'EXECUTED' AND executed_at < ?");
+            List<Object> args = new ArrayList<>();
+            args.add(Timestamp.valueOf(to));
+            if (from != null) {
+                sql.append(" AND executed_at >= ?");
+                args.add(Timestamp.valueOf(from));
+            }
+            if (symbols != null) {
+                sql.append(" AND stock_symbol IN (?").append(", ?".repeat(symbols.length - 1)).append(')');
+                args.addAll(Arrays.asList(symbols));
+            }
+            this.sql = sql.toString();
+            this.args = args.toArray();
+            this.index = index;
+            this.windowSize = windowSize;
+        }
+    }
+
+    /**
+     * Per-symbol counters, indexed like the request's sorted symbols.
+     */
+    private static final class Totals {
+        final long[] buyCounts;
+        final long[] sellCounts;
+        final long[] buyVolumes;
+        final long[] sellVolumes;
+        final long[] notionalCents;
+
+        Totals(int symbols) {
+            buyCounts = new long[symbols];
+            sellCounts = new long[symbols];
+            buyVolumes = new long[symbols];
+            sellVolumes = new long[symbols];
+            notionalCents = new long[symbols];
+        }
+
+        Totals add(Totals other) {
+            for (int i = 0; i < buyCounts.length; i++) {
+                buyCounts[i] += other.buyCounts[i];
+                sellCounts[i] += other.sellCounts[i];
+                buyVolumes[i] += other.buyVolumes[i];
+                sellVolumes[i] += other.sellVolumes[i];
+                notionalCents[i] = Math.addExact(notionalCents[i], other.notionalCents[i]);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Trades with ids in {@code [start, end)}.
+     */
+    private final class Window extends RecursiveTask<Totals> {
+
+        private final Query query;
+        private final long start;
+        private final long end;
+
+        Window(Query query, long start, long end) {
+            this.query = query;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (end - start <= query.windowSize) {
+                return aggregate();
+            }
+            long middle = (start + end) >>> 1;
+            Window left = new Window(query, start, middle);
+            left.fork();
+            Totals right = new Window(query, middle, end).compute();
+            return left.join().add(right);
+        }
+
+        private Totals aggregate() {
+            Totals totals = new Totals(query.index.size());
+            Object[] args = new Object[query.args.length + 2];
+            args[0] = start;
+            args[1] = end;
+            System.arraycopy(query.args, 0, args, 2, query.args.length);
+
+            jdbcTemplate.query(query.sql, rs -> {
+                Integer i = query.index.get(rs.getString(1));
+                if (i == null) {
+                    return;
+                }
+                int quantity = rs.getInt(2);
+                long cents = rs.getLong(3);
+                if (quantity > 0) {
+                    totals.buyCounts[i]++;
+                    totals.buyVolumes[i] += quantity;
+                } else {
+                    totals.sellCounts[i]++;
+                    totals.sellVolumes[i] -= quantity;
+                }
+                totals.notionalCents[i] = Math.addExact(totals.notionalCents[i],
+                        Math.multiplyExact(cents, Math.abs(quantity)));
+            }, args);
+            return totals;
+        }
+    }
+}
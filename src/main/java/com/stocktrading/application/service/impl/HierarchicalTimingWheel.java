@@ -0,0 +1,148 @@
+package com.stocktrading.application.service.impl;
+
+import java.util.function.Consumer;
+
+/**
+ * Timeouts hashed into levels of 64 buckets, where a level-n bucket spans 64^n ticks.
+ * A timeout goes into the lowest level whose span covers its delay, so scheduling
+ * and cancelling are constant time: each bucket is an intrusive doubly linked list.
+ * Advancing visits one level-0 bucket per tick, and each time a level wraps, the
+ * next bucket of the level above is re-hashed into the levels below. A timeout is
+ * therefore moved at most once per level, and six levels cover 2^36 ticks; longer
+ * delays wait at the top level and are re-hashed until they fit. Not thread safe.
+ */
+final class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = 6;
+    private static final long MAX_DELAY = (1L << (BITS * LEVELS)) - 1;
+
+    private final Timeout<T>[][] buckets;
+    private long tick;
+    private int size;
+
+    /**
+     * @param startTick the first tick {@link #advance} will process
+     */
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long startTick) {
+        this.tick = startTick;
+        this.buckets = new Timeout[LEVELS][SLOTS];
+        for (Timeout<T>[] level : buckets) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<T> head = new Timeout<>(0, null);
+                head.prev = head;
+                head.next = head;
+                level[slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Schedule a value to expire at a tick; a tick already processed expires on the next advance.
+     */
+    Timeout<T> schedule(long deadline, T value) {
+        Timeout<T> timeout = new Timeout<>(deadline, value);
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return false if the timeout already expired or was cancelled
+     */
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.prev == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Process every tick up to and including {@code now}, handing each timeout that falls due to {@code expired}.
+     */
+    void advance(long now, Consumer<T> expired) {
+        if (size == 0) {
+            tick = Math.max(tick, now + 1);
+            return;
+        }
+        for (; tick <= now; tick++) {
+            for (int level = 1; level < LEVELS && (tick & ((1L << (BITS * level)) - 1)) == 0; level++) {
+                cascade(buckets[level][index(tick, level)]);
+            }
+            Timeout<T> head = buckets[0][index(tick, 0)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                size--;
+                expired.accept(timeout.value);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(Timeout<T> timeout) {
+        long delay = Math.min(Math.max(timeout.deadline - tick, 0), MAX_DELAY);
+        int level = 0;
+        while (delay >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        link(buckets[level][index(tick + delay, level)], timeout);
+    }
+
+    /**
+     * Move a bucket's timeouts down to the levels that now cover their remaining delay.
+     */
+    private void cascade(Timeout<T> head) {
+        Timeout<T> timeout = head.next;
+        head.prev = head;
+        head.next = head;
+        while (timeout != head) {
+            Timeout<T> next = timeout.next;
+            insert(timeout);
+            timeout = next;
+        }
+    }
+
+    private void link(Timeout<T> head, Timeout<T> timeout) {
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private static int index(long tick, int level) {
+        return (int) (tick >>> (BITS * level)) & (SLOTS - 1);
+    }
+
+    /**
+     * A scheduled value; pass it to {@link #cancel} to deregister it.
+     */
+    static final class Timeout<T> {
+        private final long deadline;
+        private final T value;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(long deadline, T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+
+        long deadline() { return deadline; }
+        T value() { return value; }
+    }
+}
@@ -0,0 +1,147 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.domain.model.Portfolio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Committed holdings of recently active users, bounded with W-TinyLFU eviction.
+ * Entries are detached copies shared read-only between requests. A transaction
+ * that writes a user's holdings reads them from the database from then on, and
+ * drops the user's entry once it commits or rolls back; a load that overlaps
+ * such an invalidation is returned but not cached, so an entry never predates
+ * the last write to its user.
+ */
+@Component
+public class HoldingsCache {
+
+    private static final int STRIPES = 1024;
+
+    private final TinyLfuCache<String, List<Portfolio>> entries;
+    private final long[] invalidations = new long[STRIPES];
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public HoldingsCache(@Value("${stocktrading.holdings.cache-size:100000}") int capacity,
+                         MeterRegistry meterRegistry) {
+        this.entries = new TinyLfuCache<>(capacity);
+        this.hits = meterRegistry.counter("stocktrading.holdings.cache.gets", "result", "hit");
+        this.misses = meterRegistry.counter("stocktrading.holdings.cache.gets", "result", "miss");
+        Gauge.builder("stocktrading.holdings.cache.hit-ratio", this, HoldingsCache::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("stocktrading.holdings.cache.size", this, HoldingsCache::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("stocktrading.holdings.cache.evictions", this, HoldingsCache::evictions)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A user's holdings, loading and caching them on a miss.
+     */
+    List<Portfolio> get(String userId, Function<String, List<Portfolio>> loader) {
+        if (writtenInTransaction(userId)) {
+            misses.increment();
+            return loader.apply(userId);
+        }
+        long invalidation;
+        synchronized (this) {
+            List<Portfolio> cached = entries.get(userId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            invalidation = invalidations[stripe(userId)];
+        }
+        misses.increment();
+
+        List<Portfolio> holdings = new ArrayList<>();
+        for (Portfolio holding : loader.apply(userId)) {
+            holdings.add(holding.detachedCopy());
+        }
+        holdings = Collections.unmodifiableList(holdings);
+        synchronized (this) {
+            if (invalidations[stripe(userId)] == invalidation) {
+                entries.put(userId, holdings);
+            }
+        }
+        return holdings;
+    }
+
+    /**
+     * Bypass the cache for a user for the rest of the current transaction and drop their entry when it ends.
+     */
+    void invalidateOnCompletion(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> written = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (written == null) {
+            Set<String> users = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, users);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(HoldingsCache.this);
+                    users.forEach(HoldingsCache.this::invalidate);
+                }
+            });
+            written = users;
+        }
+        written.add(userId);
+    }
+
+    synchronized void invalidate(String userId) {
+        invalidations[stripe(userId)]++;
+        entries.remove(userId);
+    }
+
+    /**
+     * Drop every entry, after holdings were changed outside the portfolio service.
+     */
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            invalidations[i]++;
+        }
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized long evictions() {
+        return entries.evictions();
+    }
+
+    private double hitRatio() {
+        double hitCount = hits.count();
+        double total = hitCount + misses.count();
+        return total == 0 ? 0 : hitCount / total;
+    }
+
+    private boolean writtenInTransaction(String userId) {
+        Object written = TransactionSynchronizationManager.getResource(this);
+        return written != null && ((Set<?>) written).contains(userId);
+    }
+
+    private static int stripe(String userId) {
+        return (userId.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+}
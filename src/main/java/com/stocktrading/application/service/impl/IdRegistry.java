@@ -0,0 +1,127 @@
+package com.stocktrading.application.service.impl;
+
+/**
+ * Interns names as dense int ids: 0, 1, 2 and so on in order of first use.
+ * Lookups probe an open-addressing table without locking and fall back to a
+ * locked retry only on a miss, so an id that exists is found in O(1) without
+ * allocating. Optionally case-insensitive, in which case names are stored
+ * upper-cased and lookups need not convert them first. Ids are never reused.
+ */
+final class IdRegistry {
+
+    private final boolean ignoreCase;
+    private volatile Table table = new Table(16);
+    private int size;
+
+    IdRegistry(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * The id of a name, or -1 if it has not been interned.
+     */
+    int idOf(String name) {
+        int id = table.find(name, hash(name), ignoreCase);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            return table.find(name, hash(name), ignoreCase);
+        }
+    }
+
+    /**
+     * The id of a name, assigning the next one if it is new.
+     */
+    synchronized int intern(String name) {
+        int hash = hash(name);
+        int id = table.find(name, hash, ignoreCase);
+        if (id >= 0) {
+            return id;
+        }
+        if (size == table.names.length) {
+            table = table.grow(this);
+        }
+        id = size++;
+        table.insert(ignoreCase ? name.toUpperCase() : name, hash, id);
+        return id;
+    }
+
+    /**
+     * The name an id was assigned to, as stored.
+     */
+    String nameOf(int id) {
+        String[] names = table.names;
+        String name = id < names.length ? names[id] : null;
+        if (name != null) {
+            return name;
+        }
+        synchronized (this) {
+            if (id < 0 || id >= size) {
+                throw new IllegalArgumentException("Unknown id: " + id);
+            }
+            return table.names[id];
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private int hash(String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            hash = 31 * hash + (ignoreCase ? Character.toUpperCase(c) : c);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Slots hold id + 1, so zero marks an empty slot; there are twice as many slots as names.
+     */
+    private static final class Table {
+        private final int[] slots;
+        private final String[] names;
+        private final int mask;
+
+        Table(int capacity) {
+            this.slots = new int[capacity * 2];
+            this.names = new String[capacity];
+            this.mask = slots.length - 1;
+        }
+
+        int find(String name, int hash, boolean ignoreCase) {
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    return -1;
+                }
+                String candidate = names[entry - 1];
+                if (candidate != null && (ignoreCase ? candidate.equalsIgnoreCase(name) : candidate.equals(name))) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        /**
+         * Store the name before its slot, so a reader that finds the slot finds the name too or retries.
+         */
+        void insert(String name, int hash, int id) {
+            names[id] = name;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+
+        Table grow(IdRegistry registry) {
+            Table grown = new Table(names.length * 2);
+            for (int id = 0; id < names.length; id++) {
+                grown.insert(names[id], registry.hash(names[id]), id);
+            }
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.stocktrading.application.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Recently used order idempotency keys and the trades they produced.
+ * Keys are held in insertion order, so the oldest entry is always at the head:
+ * every write first drops expired entries from the head and then the eldest
+ * entries beyond capacity, which keeps lookups and updates O(1) amortized and
+ * the cache bounded under any load. Keys that fall out are still found through
+ * the unique index on the trades table.
+ *
+ * <p>Keys whose order is still being submitted are held apart and only expire,
+ * so a burst of completed orders never evicts a reservation and lets a retry
+ * race the original submission. They are bounded by the orders in flight.
+ */
+@Component
+public class IdempotencyCache {
+
+    /**
+     * Marks a key whose order is still being submitted.
+     */
+    static final long IN_PROGRESS = -1L;
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Entry> reservations = new LinkedHashMap<>();
+
+    @Autowired
+    public IdempotencyCache(@Value("${stocktrading.idempotency.cache-size:100000}") int capacity,
+                            @Value("${stocktrading.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        this(capacity, TimeUnit.MINUTES.toNanos(ttlMinutes), System::nanoTime);
+    }
+
+    IdempotencyCache(int capacity, long ttlNanos, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Idempotency cache size must be positive");
+        }
+        this.capacity = capacity;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Claim a key for a new order.
+     *
+     * @return {@code null} if the caller now owns the key, {@link #IN_PROGRESS} if another
+     *         submission holds it, or the id of the trade it already produced
+     */
+    synchronized Long reserve(String userId, String key) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+        String cacheKey = cacheKey(userId, key);
+        Entry entry = entries.get(cacheKey);
+        if (entry != null) {
+            return entry.tradeId;
+        }
+        if (reservations.containsKey(cacheKey)) {
+            return IN_PROGRESS;
+        }
+        reservations.put(cacheKey, new Entry(IN_PROGRESS, now + ttlNanos));
+        return null;
+    }
+
+    /**
+     * Record the trade a reserved key produced; its lifetime starts over.
+     */
+    synchronized void complete(String userId, String key, long tradeId) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+        String cacheKey = cacheKey(userId, key);
+        reservations.remove(cacheKey);
+        entries.remove(cacheKey);
+        insert(cacheKey, new Entry(tradeId, now + ttlNanos));
+    }
+
+    /**
+     * Give up a reservation whose order was never stored.
+     */
+    synchronized void release(String userId, String key) {
+        reservations.remove(cacheKey(userId, key));
+    }
+
+    synchronized int size() {
+        return entries.size() + reservations.size();
+    }
+
+    private void insert(String cacheKey, Entry entry) {
+        entries.put(cacheKey, entry);
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (entries.size() > capacity) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void evictExpired(long now) {
+        evictExpired(entries, now);
+        evictExpired(reservations, now);
+    }
+
+    private static void evictExpired(LinkedHashMap<String, Entry> byAge, long now) {
+        Iterator<Entry> oldest = byAge.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAt - now <= 0) {
+            oldest.remove();
+        }
+    }
+
+    private static String cacheKey(String userId, String key) {
+        return userId + '\u0000' + key;
+    }
+
+    private static final class Entry {
+        final long tradeId;
+        final long expiresAt;
+
+        Entry(long tradeId, long expiresAt) {
+            this.tradeId = tradeId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.LeaderboardService;
+import com.stocktrading.application.service.PriceUpdateListener;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.application.service.TradeEventBus;
+import com.stocktrading.application.service.TradeExecuted;
+import com.stocktrading.application.service.TradeExecutionListener;
+import com.stocktrading.domain.model.Trade;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Implementation of LeaderboardService that revalues portfolios incrementally.
+ * Holdings are indexed by symbol, so a price update adjusts only the holders of
+ * that symbol by quantity times the price delta, and a trade adjusts one user.
+ * All index updates run on a single worker thread; bursts of ticks for the same
+ * symbol are coalesced into one revaluation at the latest price. Readers walk
+ * the top of a {@link RankedIndex} without blocking the worker. The worker's
+ * holdings and marks are keyed by registry ids: arrays indexed by symbol id and,
+ * per symbol, a primitive map from interned user id to quantity. Users without
+ * any open position drop off the ranking.
+ *
+ * <p>A trade event is applied before the listener returns, so the outbox keeps
+ * every event the index has not applied yet. The rebuild reads the holdings and
+ * the outbox in one snapshot: trades whose events are still in the outbox are
+ * already in the holdings read, and their events are skipped when they arrive.
+ * Any other event is for a trade committed after the snapshot.
+ */
+@Service
+public class IncrementalLeaderboardService implements LeaderboardService, PriceUpdateListener, TradeExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalLeaderboardService.class);
+
+    private static final long NO_MARK = Long.MIN_VALUE;
+
+    private final StockPriceService stockPriceService;
+    private final TradeEventBus tradeEventBus;
+    private final SymbolRegistry symbolRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate loadTransaction;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-updates");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile RankedIndex ranking = new RankedIndex();
+    private final Map<String, BigDecimal> latestPrices = new ConcurrentHashMap<>();
+    private final Set<String> pendingRevaluations = ConcurrentHashMap.newKeySet();
+
+    // Confined to the worker thread
+    private final IdRegistry users = new IdRegistry(false);
+    private IntIntHashMap[] holdersBySymbol = new IntIntHashMap[0];
+    private long[] marksBySymbol = new long[0];
+    private int[] positionsByUser = new int[0];
+    private final Set<Long> loadedTradeIds = new HashSet<>();
+
+    @Autowired
+    public IncrementalLeaderboardService(StockPriceService stockPriceService,
+                                         TradeEventBus tradeEventBus,
+                                         SymbolRegistry symbolRegistry,
+                                         JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager) {
+        this.stockPriceService = stockPriceService;
+        this.tradeEventBus = tradeEventBus;
+        this.symbolRegistry = symbolRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        stockPriceService.addPriceUpdateListener(this);
+        tradeEventBus.subscribe("leaderboard", this);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdown();
+    }
+
+    /**
+     * Build the index from the database once startup, including snapshot restore, has finished.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        worker.execute(this::rebuild);
+    }
+
+    @Override
+    public void onPriceUpdate(String symbol, BigDecimal previousPrice, BigDecimal newPrice, long sequence) {
+        latestPrices.put(symbol, newPrice);
+        if (pendingRevaluations.add(symbol)) {
+            worker.execute(() -> revalue(symbol));
+        }
+    }
+
+    /**
+     * Apply a trade on the worker and wait for it, so the event stays in the outbox until it is applied.
+     */
+    @Override
+    public void onTradeExecuted(TradeExecuted trade) {
+        try {
+            worker.submit(() -> applyTrade(trade)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to apply trade " + trade.getTradeId(), e.getCause());
+        }
+    }
+
+    @Override
+    public List<PortfolioRanking> getTopPortfolios(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        List<RankedIndex.Entry> top = ranking.highest(limit);
+        List<PortfolioRanking> rankings = new ArrayList<>(top.size());
+        for (RankedIndex.Entry entry : top) {
+            rankings.add(new PortfolioRanking(rankings.size() + 1, entry.key, PriceTicks.toPrice(entry.score)));
+        }
+        return rankings;
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        holdersBySymbol = new IntIntHashMap[0];
+        marksBySymbol = new long[0];
+        positionsByUser = new int[0];
+        loadedTradeIds.clear();
+        Map<String, Long> valueByUser = new HashMap<>();
+
+        loadTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT trade_id FROM trade_outbox", rs -> {
+                loadedTradeIds.add(rs.getLong(1));
+            });
+            jdbcTemplate.query("SELECT symbol, current_price FROM stocks", rs -> {
+                int symbolId = symbolSlot(rs.getString(1));
+                marksBySymbol[symbolId] = PriceTicks.toTicks(rs.getBigDecimal(2));
+            });
+            jdbcTemplate.query("SELECT user_id, stock_symbol, quantity FROM portfolios WHERE quantity <> 0", rs -> {
+                String userId = rs.getString(1);
+                int symbolId = symbolSlot(rs.getString(2));
+                int quantity = rs.getInt(3);
+                addPosition(users.intern(userId), symbolId, quantity);
+                long mark = marksBySymbol[symbolId];
+                valueByUser.merge(userId, mark == NO_MARK ? 0L : quantity * mark, Long::sum);
+            });
+        });
+
+        RankedIndex rebuilt = new RankedIndex();
+        valueByUser.forEach(rebuilt::put);
+        ranking = rebuilt;
+        log.info("Leaderboard indexed {} portfolios in {} ms", valueByUser.size(), (System.nanoTime() - start) / 1_000_000);
+
+        // Prices may have moved while loading
+        latestPrices.keySet().forEach(this::revalue);
+    }
+
+    private void revalue(String symbol) {
+        pendingRevaluations.remove(symbol);
+        long mark = PriceTicks.toTicks(latestPrices.get(symbol));
+        int symbolId = symbolSlot(symbol);
+        long previousMark = marksBySymbol[symbolId];
+        marksBySymbol[symbolId] = mark;
+        if (previousMark == NO_MARK || previousMark == mark) {
+            return;
+        }
+        long delta = mark - previousMark;
+        IntIntHashMap holders = holdersBySymbol[symbolId];
+        if (holders != null) {
+            holders.forEach((userId, quantity) -> ranking.add(users.nameOf(userId), quantity * delta));
+        }
+    }
+
+    private void applyTrade(TradeExecuted trade) {
+        if (loadedTradeIds.remove(trade.getTradeId())) {
+            return; // already part of the loaded holdings
+        }
+        int symbolId = symbolSlot(trade.getStockSymbol());
+        int quantity = trade.getTradeType() == Trade.TradeType.BUY ? trade.getQuantity() : -trade.getQuantity();
+        if (marksBySymbol[symbolId] == NO_MARK) {
+            marksBySymbol[symbolId] = PriceTicks.toTicks(trade.getPrice());
+        }
+
+        int userId = users.intern(trade.getUserId());
+        ranking.add(trade.getUserId(), quantity * marksBySymbol[symbolId]);
+        if (addPosition(userId, symbolId, quantity) == 0 && positionsByUser[userId] == 0) {
+            ranking.remove(trade.getUserId());
+        }
+    }
+
+    /**
+     * Add to a user's quantity of a symbol, counting the user's open positions.
+     *
+     * @return the new quantity
+     */
+    private int addPosition(int userId, int symbolId, int delta) {
+        if (userId >= positionsByUser.length) {
+            positionsByUser = Arrays.copyOf(positionsByUser, Math.max(userId + 1, positionsByUser.length * 2));
+        }
+        int quantity = holders(symbolId).add(userId, delta);
+        int previous = quantity - delta;
+        if (previous == 0 && quantity != 0) {
+            positionsByUser[userId]++;
+        } else if (previous != 0 && quantity == 0) {
+            positionsByUser[userId]--;
+        }
+        return quantity;
+    }
+
+    /**
+     * The registry id of a symbol, growing the per-symbol arrays to cover it.
+     */
+    private int symbolSlot(String symbol) {
+        int symbolId = symbolRegistry.register(symbol);
+        if (symbolId >= marksBySymbol.length) {
+            int length = Math.max(symbolId + 1, marksBySymbol.length * 2);
+            int previousLength = marksBySymbol.length;
+            marksBySymbol = Arrays.copyOf(marksBySymbol, length);
+            Arrays.fill(marksBySymbol, previousLength, length, NO_MARK);
+            holdersBySymbol = Arrays.copyOf(holdersBySymbol, length);
+        }
+        return symbolId;
+    }
+
+    private IntIntHashMap holders(int symbolId) {
+        IntIntHashMap holders = holdersBySymbol[symbolId];
+        if (holders == null) {
+            holders = new IntIntHashMap();
+            holdersBySymbol[symbolId] = holders;
+        }
+        return holders;
+    }
+}
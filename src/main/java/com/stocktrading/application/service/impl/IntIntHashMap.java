@@ -0,0 +1,141 @@
+package com.stocktrading.application.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * An int-to-int map with open addressing and linear probing.
+ * Keys and values sit in one int array, so entries are neither boxed nor
+ * allocated. Keys must be non-negative; a value that drops to zero removes its
+ * key. Not thread safe.
+ */
+final class IntIntHashMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] entries;
+    private int mask;
+    private int size;
+
+    IntIntHashMap() {
+        this(8);
+    }
+
+    IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int get(int key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : entries[2 * slot + 1];
+    }
+
+    /**
+     * Add to a key's value, treating a missing key as zero and removing it once the value reaches zero.
+     *
+     * @return the new value
+     */
+    int add(int key, int delta) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Key must be non-negative: " + key);
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            int value = entries[2 * slot + 1] + delta;
+            if (value == 0) {
+                removeAt(slot);
+            } else {
+                entries[2 * slot + 1] = value;
+            }
+            return value;
+        }
+        if (delta == 0) {
+            return 0;
+        }
+        if (2 * (size + 1) > mask + 1) {
+            rehash((mask + 1) * 2);
+        }
+        slot = hash(key) & mask;
+        while (entries[2 * slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        entries[2 * slot] = key;
+        entries[2 * slot + 1] = delta;
+        size++;
+        return delta;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(IntIntConsumer action) {
+        for (int slot = 0; slot <= mask; slot++) {
+            int key = entries[2 * slot];
+            if (key != EMPTY) {
+                action.accept(key, entries[2 * slot + 1]);
+            }
+        }
+    }
+
+    private int find(int key) {
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int candidate = entries[2 * slot];
+            if (candidate == key) {
+                return slot;
+            }
+            if (candidate == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Empty a slot and shift later entries of the same probe run back into the gap.
+     */
+    private void removeAt(int slot) {
+        int gap = slot;
+        for (int next = (gap + 1) & mask; entries[2 * next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(entries[2 * next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                entries[2 * gap] = entries[2 * next];
+                entries[2 * gap + 1] = entries[2 * next + 1];
+                gap = next;
+            }
+        }
+        entries[2 * gap] = EMPTY;
+        entries[2 * gap + 1] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        int[] previous = entries;
+        allocate(capacity);
+        for (int i = 0; i < previous.length; i += 2) {
+            if (previous[i] != EMPTY) {
+                int slot = hash(previous[i]) & mask;
+                while (entries[2 * slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                entries[2 * slot] = previous[i];
+                entries[2 * slot + 1] = previous[i + 1];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        entries = new int[capacity * 2];
+        Arrays.fill(entries, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static int hash(int key) {
+        int hash = key * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @FunctionalInterface
+    interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+}
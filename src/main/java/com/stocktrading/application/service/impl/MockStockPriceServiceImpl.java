@@ -1,37 +1,110 @@
 package com.stocktrading.application.service.impl;
 
+import com.stocktrading.application.service.PriceUpdateListener;
 import com.stocktrading.application.service.StockPriceService;
 import com.stocktrading.domain.model.Stock;
 import com.stocktrading.domain.repository.StockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Mock implementation of StockPriceService for demonstration purposes.
  * This service simulates real stock price data and updates.
  * Follows Single Responsibility Principle - only handles stock price operations.
+ * Existence checks and current prices are answered from the {@link SymbolRegistry};
+ * a price is read from the database only after it changes. Price updates pass
+ * through the {@link VolatilityCircuitBreaker} first.
  */
 @Service
 @Transactional
 public class MockStockPriceServiceImpl implements StockPriceService {
 
+    private static final Logger log = LoggerFactory.getLogger(MockStockPriceServiceImpl.class);
+
     private final StockRepository stockRepository;
+    private final SymbolRegistry symbolRegistry;
+    private final VolatilityCircuitBreaker circuitBreaker;
+    private final PriceChangeLog changeLog;
+    private final RankedIndex movers = new RankedIndex();
+    private final List<PriceUpdateListener> listeners = new CopyOnWriteArrayList<>();
 
     @Autowired
-    public MockStockPriceServiceImpl(StockRepository stockRepository) {
+    public MockStockPriceServiceImpl(StockRepository stockRepository,
+                                     SymbolRegistry symbolRegistry,
+                                     VolatilityCircuitBreaker circuitBreaker,
+                                     @Value("${stocktrading.prices.change-log-capacity:10000}") int changeLogCapacity) {
         this.stockRepository = stockRepository;
+        this.symbolRegistry = symbolRegistry;
+        this.circuitBreaker = circuitBreaker;
+        this.changeLog = PriceChangeLog.forNewRun(changeLogCapacity);
         initializeMockData();
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS) // cached reads need no transaction
     public Optional<BigDecimal> getCurrentPrice(String symbol) {
-        return stockRepository.findBySymbol(symbol.toUpperCase())
+        int id = symbolId(symbol);
+        if (id < 0) {
+            return Optional.empty();
+        }
+        BigDecimal price = symbolRegistry.priceOf(id);
+        if (price != null) {
+            return Optional.of(price);
+        }
+        long version = symbolRegistry.priceVersion(id);
+        Optional<BigDecimal> loaded = stockRepository.findBySymbol(symbolRegistry.symbolOf(id))
                 .map(Stock::getCurrentPrice);
+        loaded.ifPresent(current -> symbolRegistry.cachePrice(id, version, current));
+        return loaded;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, BigDecimal> getCurrentPrices(Collection<String> symbols) {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        for (String symbol : symbols) {
+            int id = symbolRegistry.idOf(symbol);
+            BigDecimal price = id < 0 ? null : symbolRegistry.priceOf(id);
+            if (price != null) {
+                prices.put(symbolRegistry.symbolOf(id), price);
+            } else {
+                versions.put(symbol.toUpperCase(), id < 0 ? null : symbolRegistry.priceVersion(id));
+            }
+        }
+        if (versions.isEmpty()) {
+            return prices;
+        }
+
+        for (Stock stock : stockRepository.findBySymbolIn(new ArrayList<>(versions.keySet()))) {
+            Long version = versions.get(stock.getSymbol());
+            int id = symbolRegistry.register(stock.getSymbol());
+            if (version != null) {
+                symbolRegistry.cachePrice(id, version, stock.getCurrentPrice());
+            }
+            prices.put(stock.getSymbol(), stock.getCurrentPrice());
+        }
+        return prices;
     }
 
     @Override
@@ -57,11 +130,29 @@ public class MockStockPriceServiceImpl implements StockPriceService {
         if (newPrice == null || newPrice.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Price must be positive");
         }
+        if (symbolId(symbol) < 0) {
+            return;
+        }
+        // Rejects prices outside the band before any database work
+        boolean reopening = circuitBreaker.admit(symbol, newPrice, () -> getCurrentPrice(symbol).orElse(newPrice));
+        if (reopening) {
+            TransactionCallbacks.afterRollback(() -> circuitBreaker.cancelReopening(symbol));
+        }
 
         stockRepository.findBySymbol(symbol.toUpperCase())
                 .ifPresent(stock -> {
+                    BigDecimal previousPrice = stock.getCurrentPrice();
                     stock.updatePrice(newPrice);
                     stockRepository.save(stock);
+                    // Sequence is assigned on commit so readers never see a number ahead of the data
+                    TransactionCallbacks.afterRollback(() -> symbolRegistry.invalidatePrice(stock.getSymbol()));
+                    TransactionCallbacks.afterCommit(() -> {
+                        symbolRegistry.invalidatePrice(stock.getSymbol());
+                        circuitBreaker.accept(stock.getSymbol(), newPrice, reopening);
+                        rankMover(stock, false);
+                        long sequence = changeLog.append(stock.getSymbol());
+                        notifyListeners(stock.getSymbol(), previousPrice, newPrice, sequence);
+                    });
                 });
     }
 
@@ -72,12 +163,101 @@ public class MockStockPriceServiceImpl implements StockPriceService {
         }
 
         Stock stock = new Stock(symbol.toUpperCase(), companyName, price);
-        return stockRepository.save(stock);
+        Stock saved = stockRepository.save(stock);
+        TransactionCallbacks.afterCommit(() -> symbolRegistry.register(saved.getSymbol()));
+        return saved;
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean stockExists(String symbol) {
-        return stockRepository.existsBySymbol(symbol.toUpperCase());
+        return symbolId(symbol) >= 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PriceChanges getChangesSince(long sinceSequence) {
+        PriceChangeLog.Changes changes = changeLog.changesSince(sinceSequence);
+        if (changes.symbols.isEmpty()) {
+            return new PriceChanges(changes.sequence, true, getAllStocks());
+        }
+        if (changes.symbols.get().isEmpty()) {
+            return new PriceChanges(changes.sequence, false, List.of());
+        }
+        List<Stock> changed = stockRepository.findBySymbolIn(new ArrayList<>(changes.symbols.get()));
+        return new PriceChanges(changes.sequence, false, changed);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Stock> getTopMovers(int limit, boolean gainers) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        List<RankedIndex.Entry> ranked = gainers ? movers.highest(limit) : movers.lowest(limit);
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> symbols = ranked.stream().map(entry -> entry.key).collect(Collectors.toList());
+        Map<String, Stock> stocksBySymbol = stockRepository.findBySymbolIn(symbols).stream()
+                .collect(Collectors.toMap(Stock::getSymbol, Function.identity()));
+        return symbols.stream()
+                .map(stocksBySymbol::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Register and rank stocks loaded before any price update, including restored snapshots.
+     * Their prices are cached on first read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void indexMovers() {
+        stockRepository.findAll().forEach(stock -> {
+            symbolRegistry.register(stock.getSymbol());
+            rankMover(stock, true);
+        });
+    }
+
+    @Override
+    public void addPriceUpdateListener(PriceUpdateListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * The id of a listed symbol, registering stocks that were added by another path, or -1.
+     */
+    private int symbolId(String symbol) {
+        int id = symbolRegistry.idOf(symbol);
+        if (id < 0 && stockRepository.existsBySymbol(symbol.toUpperCase())) {
+            id = symbolRegistry.register(symbol);
+        }
+        return id;
+    }
+
+    private void notifyListeners(String symbol, BigDecimal previousPrice, BigDecimal newPrice, long sequence) {
+        for (PriceUpdateListener listener : listeners) {
+            try {
+                listener.onPriceUpdate(symbol, previousPrice, newPrice, sequence);
+            } catch (RuntimeException e) {
+                log.error("Price update listener {} failed for {}", listener, symbol, e);
+            }
+        }
+    }
+
+    private void rankMover(Stock stock, boolean onlyIfAbsent) {
+        if (stock.getChangePercentage() == null) {
+            return;
+        }
+        // Change percentage in units of 0.0001%
+        long score = stock.getChangePercentage().movePointRight(4).setScale(0, RoundingMode.HALF_UP).longValue();
+        if (onlyIfAbsent) {
+            movers.putIfAbsent(stock.getSymbol(), score);
+        } else {
+            movers.put(stock.getSymbol(), score);
+        }
     }
 
     /**
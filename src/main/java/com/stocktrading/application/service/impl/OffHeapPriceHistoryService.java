@@ -0,0 +1,100 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.PriceHistoryService;
+import com.stocktrading.application.service.PriceUpdateListener;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.domain.model.PriceTick;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of PriceHistoryService backed by off-heap tick series.
+ * Records every committed price update per symbol, keeping heap usage and
+ * GC pressure independent of history depth.
+ */
+@Service
+public class OffHeapPriceHistoryService implements PriceHistoryService, PriceUpdateListener {
+
+    private final StockPriceService stockPriceService;
+    private final int capacityPerSymbol;
+    private final long retentionMillis;
+    private final Map<String, TickSeries> seriesBySymbol = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OffHeapPriceHistoryService(StockPriceService stockPriceService,
+                                      @Value("${stocktrading.history.capacity-per-symbol:65536}") int capacityPerSymbol,
+                                      @Value("${stocktrading.history.retention-minutes:1440}") long retentionMinutes) {
+        this.stockPriceService = stockPriceService;
+        this.capacityPerSymbol = capacityPerSymbol;
+        this.retentionMillis = retentionMinutes * 60_000L;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        stockPriceService.addPriceUpdateListener(this);
+    }
+
+    @Override
+    public void onPriceUpdate(String symbol, BigDecimal previousPrice, BigDecimal newPrice, long sequence) {
+        long now = System.currentTimeMillis();
+        seriesBySymbol.computeIfAbsent(symbol, s -> new TickSeries(capacityPerSymbol))
+                .append(now, PriceTicks.toTicks(newPrice), now - retentionMillis);
+    }
+
+    @Override
+    public List<PriceTick> getHistory(String symbol, LocalDateTime from, LocalDateTime to) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Stock symbol cannot be null or empty");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("History range start must not be after its end");
+        }
+
+        TickSeries series = seriesBySymbol.get(symbol.toUpperCase());
+        if (series == null) {
+            return List.of();
+        }
+
+        long fromMillis = Math.max(from == null ? Long.MIN_VALUE : toEpochMillis(from),
+                System.currentTimeMillis() - retentionMillis);
+        long toMillis = to == null ? Long.MAX_VALUE : toEpochMillis(to);
+        long[] ticks = series.range(fromMillis, toMillis);
+
+        List<PriceTick> history = new ArrayList<>(ticks.length / 2);
+        for (int i = 0; i < ticks.length; i += 2) {
+            LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(ticks[i]), ZoneId.systemDefault());
+            history.add(new PriceTick(timestamp, PriceTicks.toPrice(ticks[i + 1])));
+        }
+        return history;
+    }
+
+    @Override
+    public Optional<BigDecimal> getPriceAt(String symbol, LocalDateTime at) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Stock symbol cannot be null or empty");
+        }
+        TickSeries series = seriesBySymbol.get(symbol.toUpperCase());
+        long atMillis = toEpochMillis(at);
+        if (series == null || atMillis < System.currentTimeMillis() - retentionMillis) {
+            return Optional.empty();
+        }
+        long ticks = series.priceAt(atMillis);
+        return ticks == TickSeries.NO_PRICE ? Optional.empty() : Optional.of(PriceTicks.toPrice(ticks));
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
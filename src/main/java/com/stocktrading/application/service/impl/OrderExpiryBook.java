@@ -0,0 +1,105 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.domain.model.Trade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory expiry schedule of resting DAY and GTD orders.
+ * Expiries sit in a {@link HierarchicalTimingWheel} of fixed-length ticks, so
+ * scheduling an order and deregistering it when it fills or is cancelled are
+ * constant time however many orders rest. An order expires on the first tick at
+ * or after its expiry, never before it.
+ */
+@Component
+public class OrderExpiryBook {
+
+    private final long tickMillis;
+    private final LocalTime marketClose;
+    private final ZoneId marketZone;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Map<Long, HierarchicalTimingWheel.Timeout<Long>> timeouts = new HashMap<>();
+
+    @Autowired
+    public OrderExpiryBook(@Value("${stocktrading.orders.expiry-tick-ms:100}") long tickMillis,
+                           @Value("${stocktrading.orders.market-close:16:00}") String marketClose,
+                           @Value("${stocktrading.orders.market-zone:America/New_York}") String marketZone) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Expiry tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.marketClose = LocalTime.parse(marketClose);
+        this.marketZone = ZoneId.of(marketZone);
+        this.wheel = new HierarchicalTimingWheel<>(System.currentTimeMillis() / tickMillis);
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Schedule a pending order's expiry, replacing any earlier one; orders without an expiry are ignored.
+     */
+    public synchronized void add(Trade trade) {
+        if (trade.getId() == null) {
+            throw new IllegalArgumentException("Only saved orders can be scheduled");
+        }
+        if (trade.getExpiresAt() == null) {
+            return;
+        }
+        long expiresAtMillis = trade.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long deadline = Math.floorDiv(expiresAtMillis + tickMillis - 1, tickMillis);
+        HierarchicalTimingWheel.Timeout<Long> previous = timeouts.put(trade.getId(), wheel.schedule(deadline, trade.getId()));
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    /**
+     * Stop tracking an order, e.g. after it filled or was cancelled.
+     */
+    public synchronized boolean remove(Long tradeId) {
+        HierarchicalTimingWheel.Timeout<Long> timeout = timeouts.remove(tradeId);
+        return timeout != null && wheel.cancel(timeout);
+    }
+
+    /**
+     * Advance to a wall-clock time and remove every order that has expired by then.
+     *
+     * @return ids of expired orders, empty if none
+     */
+    public synchronized List<Long> expireDue(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(nowMillis / tickMillis, tradeId -> {
+            timeouts.remove(tradeId);
+            expired.add(tradeId);
+        });
+        return expired;
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * When a DAY order placed at {@code now} expires: the next market close, weekends and holidays aside.
+     */
+    public LocalDateTime endOfDay(LocalDateTime now) {
+        ZonedDateTime marketNow = now.atZone(ZoneId.systemDefault()).withZoneSameInstant(marketZone);
+        ZonedDateTime close = marketNow.toLocalDate().atTime(marketClose).atZone(marketZone);
+        if (!close.isAfter(marketNow)) {
+            close = close.plusDays(1);
+        }
+        return close.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,84 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.TradingService;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.repository.TradeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels resting orders whose time in force has run out.
+ * Once per tick the {@link OrderExpiryBook} is advanced to the wall clock, and
+ * whatever expired is cancelled as one batch through the trading service. No
+ * query scans the pending orders; the book alone knows what is due.
+ *
+ * <p>Pending orders with an expiry are scheduled from the database at startup,
+ * after any state snapshot has been restored. Orders that expired while the
+ * application was down are cancelled on the first tick.
+ */
+@Component
+public class OrderExpiryTrigger implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryTrigger.class);
+
+    private final TradingService tradingService;
+    private final TradeRepository tradeRepository;
+    private final OrderExpiryBook orderExpiryBook;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public OrderExpiryTrigger(TradingService tradingService,
+                              TradeRepository tradeRepository,
+                              OrderExpiryBook orderExpiryBook) {
+        this.tradingService = tradingService;
+        this.tradeRepository = tradeRepository;
+        this.orderExpiryBook = orderExpiryBook;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdown();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Trade> expiring = tradeRepository.findByStatusAndExpiresAtNotNull(Trade.TradeStatus.PENDING);
+        expiring.forEach(orderExpiryBook::add);
+        log.info("Scheduled expiry of {} resting orders", expiring.size());
+
+        long tickMillis = orderExpiryBook.getTickMillis();
+        ticker.scheduleAtFixedRate(this::expireDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void expireDue() {
+        List<Long> due = orderExpiryBook.expireDue(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            List<Trade> expired = tradingService.expireOrders(due);
+            log.debug("Expired {} of {} due orders", expired.size(), due.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to expire {} orders, rescheduling them", due.size(), e);
+            for (Trade trade : tradeRepository.findAllById(due)) {
+                if (trade.isPending()) {
+                    orderExpiryBook.add(trade);
+                }
+            }
+        }
+    }
+}
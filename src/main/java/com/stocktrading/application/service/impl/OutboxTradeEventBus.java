@@ -0,0 +1,246 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.TradeEventBus;
+import com.stocktrading.application.service.TradeExecuted;
+import com.stocktrading.application.service.TradeExecutionListener;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.model.TradeOutboxEvent;
+import com.stocktrading.domain.repository.TradeOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of TradeEventBus backed by a transactional outbox.
+ * Publishing only inserts an outbox row in the trade's transaction and, once it
+ * commits, wakes the relay; it never waits on a subscriber. A single relay
+ * thread reads committed rows in id order and hands each event to every
+ * subscriber's bounded queue. A row is deleted only after every subscriber's
+ * listener has returned for it, so events still queued when the process dies
+ * are delivered again after a restart: delivery is at least once.
+ * A full queue blocks the relay rather than dropping events, so a slow
+ * subscriber holds back delivery to the others and leaves the backlog in the
+ * outbox, not in memory. The relay also polls, picking up rows that commit out
+ * of id order and rows left behind by a restart or a failed delete.
+ */
+@Service
+public class OutboxTradeEventBus implements TradeEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxTradeEventBus.class);
+
+    private final TradeOutboxRepository outboxRepository;
+    private final MeterRegistry meterRegistry;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Semaphore wakeups = new Semaphore(0);
+    // Outbox ids handed to subscribers and not yet deleted; relay thread only
+    private final Set<Long> inFlight = new HashSet<>();
+    private final Queue<Long> acknowledged = new ConcurrentLinkedQueue<>();
+    private final Counter published;
+    private final Counter stalls;
+    private volatile Thread relay;
+
+    @Autowired
+    public OutboxTradeEventBus(TradeOutboxRepository outboxRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${stocktrading.events.queue-capacity:1024}") int queueCapacity,
+                               @Value("${stocktrading.events.batch-size:500}") int batchSize,
+                               @Value("${stocktrading.events.poll-interval-ms:1000}") long pollIntervalMillis) {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Event queue capacity and batch size must be positive");
+        }
+        this.outboxRepository = outboxRepository;
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.published = meterRegistry.counter("stocktrading.events.published");
+        this.stalls = meterRegistry.counter("stocktrading.events.stalls");
+    }
+
+    @Override
+    public void publish(Trade trade) {
+        if (!trade.isExecuted()) {
+            throw new IllegalArgumentException("Only executed trades are published");
+        }
+        outboxRepository.save(new TradeOutboxEvent(trade));
+        TransactionCallbacks.afterCommit(wakeups::release);
+    }
+
+    @Override
+    public void subscribe(String name, TradeExecutionListener listener) {
+        Subscriber subscriber = new Subscriber(name, listener, new ArrayBlockingQueue<>(queueCapacity), acknowledged);
+        Gauge.builder("stocktrading.events.queued", subscriber.queue, BlockingQueue::size)
+                .tag("subscriber", name)
+                .register(meterRegistry);
+        subscriber.thread.start();
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Start relaying once startup has finished, so every subscriber sees the events already in the outbox.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (relay != null) {
+            return;
+        }
+        relay = new Thread(this::relay, "trade-event-relay");
+        relay.setDaemon(true);
+        relay.start();
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (relay != null) {
+            relay.interrupt();
+        }
+        subscribers.forEach(subscriber -> subscriber.thread.interrupt());
+    }
+
+    private void relay() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                wakeups.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+                while (relayBatch() == batchSize) {
+                    // keep draining a backlog
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to relay trade events", e);
+            }
+        }
+    }
+
+    /**
+     * Delete the outbox rows every subscriber has processed, then queue the oldest committed rows not yet relayed.
+     *
+     * @return the number of events relayed
+     */
+    int relayBatch() throws InterruptedException {
+        deleteAcknowledged();
+        // Rows still being processed come first in id order; read past them
+        List<TradeOutboxEvent> batch = outboxRepository.findByOrderByIdAsc(
+                PageRequest.of(0, batchSize + inFlight.size()));
+        int relayed = 0;
+        for (TradeOutboxEvent row : batch) {
+            if (!inFlight.add(row.getId())) {
+                continue;
+            }
+            TradeExecuted event = new TradeExecuted(row.getTradeId(), row.getUserId(), row.getStockSymbol(),
+                    row.getTradeType(), row.getQuantity(), row.getPrice(), row.getExecutedAt());
+            List<Subscriber> recipients = List.copyOf(subscribers);
+            Delivery delivery = new Delivery(row.getId(), event, recipients.size());
+            if (recipients.isEmpty()) {
+                acknowledged.add(row.getId());
+            }
+            for (Subscriber subscriber : recipients) {
+                if (!subscriber.queue.offer(delivery)) {
+                    stalls.increment();
+                    subscriber.queue.put(delivery);
+                }
+            }
+            relayed++;
+        }
+        return relayed;
+    }
+
+    private void deleteAcknowledged() {
+        List<Long> ids = new ArrayList<>();
+        for (Long id = acknowledged.poll(); id != null; id = acknowledged.poll()) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            outboxRepository.deleteAllByIdInBatch(ids);
+        } catch (RuntimeException e) {
+            acknowledged.addAll(ids);
+            throw e;
+        }
+        ids.forEach(inFlight::remove);
+        published.increment(ids.size());
+    }
+
+    /**
+     * An event on its way to a fixed set of subscribers, acknowledged once all of them have processed it.
+     */
+    private static final class Delivery {
+        private final long outboxId;
+        private final TradeExecuted event;
+        private final AtomicInteger pending;
+
+        Delivery(long outboxId, TradeExecuted event, int recipients) {
+            this.outboxId = outboxId;
+            this.event = event;
+            this.pending = new AtomicInteger(recipients);
+        }
+    }
+
+    /**
+     * One listener with its own bounded queue and delivery thread.
+     */
+    private static final class Subscriber {
+        private final String name;
+        private final TradeExecutionListener listener;
+        private final BlockingQueue<Delivery> queue;
+        private final Queue<Long> acknowledged;
+        private final Thread thread;
+
+        Subscriber(String name, TradeExecutionListener listener, BlockingQueue<Delivery> queue,
+                   Queue<Long> acknowledged) {
+            this.name = name;
+            this.listener = listener;
+            this.queue = queue;
+            this.acknowledged = acknowledged;
+            this.thread = new Thread(this::deliver, "trade-events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private void deliver() {
+            while (!Thread.currentThread().isInterrupted()) {
+                Delivery delivery;
+                try {
+                    delivery = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    listener.onTradeExecuted(delivery.event);
+                } catch (RuntimeException e) {
+                    log.error("Trade event subscriber {} failed for trade {}", name, delivery.event.getTradeId(), e);
+                }
+                if (delivery.pending.decrementAndGet() == 0) {
+                    acknowledged.add(delivery.outboxId);
+                }
+            }
+        }
+    }
+}
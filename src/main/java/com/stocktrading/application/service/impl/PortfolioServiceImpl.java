@@ -2,21 +2,34 @@ package com.stocktrading.application.service.impl;
 
 import com.stocktrading.application.service.PortfolioService;
 import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.domain.model.LotSelection;
 import com.stocktrading.domain.model.Portfolio;
+import com.stocktrading.domain.model.RealizedGain;
+import com.stocktrading.domain.model.Trade;
 import com.stocktrading.domain.repository.PortfolioRepository;
+import com.stocktrading.domain.repository.RealizedGainRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementation of PortfolioService.
  * Follows Single Responsibility Principle - only handles portfolio operations.
  * Uses Dependency Injection for loose coupling.
+ * Holdings reads are served from a {@link HoldingsCache}; trades update the
+ * managed rows read from the database and invalidate the user's entry.
  */
 @Service
 @Transactional
@@ -24,12 +37,24 @@ public class PortfolioServiceImpl implements PortfolioService {
 
     private final PortfolioRepository portfolioRepository;
     private final StockPriceService stockPriceService;
+    private final RealizedGainRepository realizedGainRepository;
+    private final LotSelection defaultLotSelection;
+    private final HoldingsCache holdingsCache;
 
     @Autowired
     public PortfolioServiceImpl(PortfolioRepository portfolioRepository,
-                               StockPriceService stockPriceService) {
+                               StockPriceService stockPriceService,
+                               RealizedGainRepository realizedGainRepository,
+                               @Value("${stocktrading.lots.default-method:FIFO}") LotSelection.Method defaultLotMethod,
+                               HoldingsCache holdingsCache) {
         this.portfolioRepository = portfolioRepository;
         this.stockPriceService = stockPriceService;
+        this.realizedGainRepository = realizedGainRepository;
+        if (defaultLotMethod == LotSelection.Method.SPECIFIC) {
+            throw new IllegalArgumentException("Default lot method must be FIFO or LIFO");
+        }
+        this.defaultLotSelection = LotSelection.of(defaultLotMethod, null);
+        this.holdingsCache = holdingsCache;
     }
 
     @Override
@@ -37,7 +62,7 @@ public class PortfolioServiceImpl implements PortfolioService {
         if (userId == null || userId.trim().isEmpty()) {
             throw new IllegalArgumentException("User ID cannot be null or empty");
         }
-        return portfolioRepository.findByUserId(userId);
+        return holdingsCache.get(userId, portfolioRepository::findByUserId);
     }
 
     @Override
@@ -48,22 +73,95 @@ public class PortfolioServiceImpl implements PortfolioService {
         if (stockSymbol == null || stockSymbol.trim().isEmpty()) {
             throw new IllegalArgumentException("Stock symbol cannot be null or empty");
         }
-        return portfolioRepository.findByUserIdAndStockSymbol(userId, stockSymbol.toUpperCase());
+        String upperCaseSymbol = stockSymbol.toUpperCase();
+        return getUserPortfolio(userId).stream()
+                .filter(holding -> holding.getStockSymbol().equals(upperCaseSymbol))
+                .findFirst();
     }
 
     @Override
     public void updatePortfolioAfterTrade(String userId, String stockSymbol, Integer quantity,
                                         BigDecimal price, boolean isBuy) {
+        updatePortfolioAfterTrade(userId, stockSymbol, quantity, price, isBuy, defaultLotSelection);
+    }
+
+    @Override
+    public void updatePortfolioAfterTrade(String userId, String stockSymbol, Integer quantity,
+                                        BigDecimal price, boolean isBuy, LotSelection lotSelection) {
+        if (lotSelection == null) {
+            throw new IllegalArgumentException("Lot selection cannot be null");
+        }
         validateTradeParameters(userId, stockSymbol, quantity, price);
         
         String upperCaseSymbol = stockSymbol.toUpperCase();
-        Optional<Portfolio> existingHolding = getUserStockHolding(userId, upperCaseSymbol);
+        holdingsCache.invalidateOnCompletion(userId);
+        Optional<Portfolio> existingHolding = portfolioRepository.findByUserIdAndStockSymbol(userId, upperCaseSymbol);
 
         if (isBuy) {
             handleBuyTrade(userId, upperCaseSymbol, quantity, price, existingHolding);
         } else {
-            handleSellTrade(userId, upperCaseSymbol, quantity, existingHolding);
+            handleSellTrade(userId, upperCaseSymbol, quantity, price, lotSelection, existingHolding);
+        }
+    }
+
+    @Override
+    public void updatePortfolioAfterTrades(String userId, List<Trade> trades) {
+        updatePortfolioAfterTrades(userId, trades, Collections.nCopies(trades.size(), null));
+    }
+
+    @Override
+    public void updatePortfolioAfterTrades(String userId, List<Trade> trades, List<LotSelection> lotSelections) {
+        if (lotSelections.size() != trades.size()) {
+            throw new IllegalArgumentException("Every trade needs a lot selection entry");
+        }
+        holdingsCache.invalidateOnCompletion(userId);
+        Map<String, Portfolio> holdings = new HashMap<>();
+        for (Portfolio holding : portfolioRepository.findByUserId(userId)) {
+            holdings.put(holding.getStockSymbol(), holding);
         }
+
+        Set<Portfolio> touched = new LinkedHashSet<>();
+        List<RealizedGain> realizedGains = new ArrayList<>();
+        for (int i = 0; i < trades.size(); i++) {
+            Trade trade = trades.get(i);
+            if (!userId.equals(trade.getUserId())) {
+                throw new IllegalArgumentException("Trade does not belong to the specified user");
+            }
+            validateTradeParameters(userId, trade.getStockSymbol(), trade.getQuantity(), trade.getPrice());
+            String symbol = trade.getStockSymbol();
+            Portfolio holding = holdings.get(symbol);
+            if (trade.getTradeType() == Trade.TradeType.BUY) {
+                if (holding == null) {
+                    holding = new Portfolio(userId, symbol, trade.getQuantity(), trade.getPrice());
+                    holdings.put(symbol, holding);
+                } else {
+                    holding.addShares(trade.getQuantity(), trade.getPrice());
+                }
+            } else {
+                if (holding == null || holding.getQuantity() < trade.getQuantity()) {
+                    throw new IllegalArgumentException("Insufficient shares to sell " + symbol);
+                }
+                LotSelection lotSelection = lotSelections.get(i) != null ? lotSelections.get(i) : defaultLotSelection;
+                BigDecimal costBasis = holding.removeShares(trade.getQuantity(), lotSelection);
+                realizedGains.add(new RealizedGain(userId, symbol, trade.getQuantity(), costBasis, trade.getPrice(),
+                        lotSelection));
+            }
+            touched.add(holding);
+        }
+
+        // A holding sold out and bought back within the batch keeps its row
+        List<Portfolio> emptied = new ArrayList<>();
+        List<Portfolio> changed = new ArrayList<>();
+        for (Portfolio holding : touched) {
+            if (holding.getQuantity() > 0) {
+                changed.add(holding);
+            } else if (holding.getId() != null) {
+                emptied.add(holding);
+            }
+        }
+        portfolioRepository.saveAll(changed);
+        portfolioRepository.deleteAll(emptied);
+        realizedGainRepository.saveAll(realizedGains);
     }
 
     @Override
@@ -119,6 +217,23 @@ public class PortfolioServiceImpl implements PortfolioService {
         return holding.map(portfolio -> portfolio.getQuantity() >= quantity).orElse(false);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<RealizedGain> getRealizedGains(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        return realizedGainRepository.findByUserIdOrderByRealizedAtDesc(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProfitAndLoss getProfitAndLoss(String userId) {
+        BigDecimal unrealized = calculatePortfolioGainLoss(userId);
+        BigDecimal realized = realizedGainRepository.sumGainLossByUserId(userId);
+        return new ProfitAndLoss(realized.setScale(2, RoundingMode.HALF_UP), unrealized);
+    }
+
     private void validateTradeParameters(String userId, String stockSymbol, Integer quantity, BigDecimal price) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new IllegalArgumentException("User ID cannot be null or empty");
@@ -146,8 +261,8 @@ public class PortfolioServiceImpl implements PortfolioService {
         }
     }
 
-    private void handleSellTrade(String userId, String stockSymbol, Integer quantity,
-                                Optional<Portfolio> existingHolding) {
+    private void handleSellTrade(String userId, String stockSymbol, Integer quantity, BigDecimal price,
+                                LotSelection lotSelection, Optional<Portfolio> existingHolding) {
         if (existingHolding.isEmpty()) {
             throw new IllegalArgumentException("No holdings found for stock: " + stockSymbol);
         }
@@ -157,8 +272,9 @@ public class PortfolioServiceImpl implements PortfolioService {
             throw new IllegalArgumentException("Insufficient shares to sell");
         }
 
-        portfolio.removeShares(quantity);
-        
+        BigDecimal costBasis = portfolio.removeShares(quantity, lotSelection);
+        realizedGainRepository.save(new RealizedGain(userId, stockSymbol, quantity, costBasis, price, lotSelection));
+
         if (portfolio.getQuantity() == 0) {
             portfolioRepository.delete(portfolio);
         } else {
@@ -0,0 +1,82 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.domain.model.PriceAlert;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Alert thresholds for one symbol, kept in sorted above/below books.
+ * A price move only visits the thresholds it crosses, so firing costs
+ * O(log n + k) for k triggered alerts regardless of how many are resting.
+ */
+final class PriceAlertIndex {
+
+    private final NavigableMap<Long, Map<Long, PriceAlert>> above = new TreeMap<>();
+    private final NavigableMap<Long, Map<Long, PriceAlert>> below = new TreeMap<>();
+
+    synchronized void add(PriceAlert alert, long thresholdTicks) {
+        book(alert.getDirection())
+                .computeIfAbsent(thresholdTicks, t -> new LinkedHashMap<>())
+                .put(alert.getId(), alert);
+    }
+
+    synchronized boolean remove(PriceAlert alert, long thresholdTicks) {
+        NavigableMap<Long, Map<Long, PriceAlert>> book = book(alert.getDirection());
+        Map<Long, PriceAlert> level = book.get(thresholdTicks);
+        if (level == null || level.remove(alert.getId()) == null) {
+            return false;
+        }
+        if (level.isEmpty()) {
+            book.remove(thresholdTicks);
+        }
+        return true;
+    }
+
+    /**
+     * Remove and return every alert crossed by a move from {@code fromTicks} to {@code toTicks}.
+     * ABOVE alerts fire when {@code from < threshold <= to}; BELOW alerts when {@code to <= threshold < from}.
+     */
+    synchronized List<PriceAlert> crossed(long fromTicks, long toTicks) {
+        if (toTicks > fromTicks) {
+            return drain(above.subMap(fromTicks, false, toTicks, true));
+        }
+        if (toTicks < fromTicks) {
+            return drain(below.subMap(toTicks, true, fromTicks, false));
+        }
+        return List.of();
+    }
+
+    synchronized int size() {
+        int size = 0;
+        for (Map<Long, PriceAlert> level : above.values()) {
+            size += level.size();
+        }
+        for (Map<Long, PriceAlert> level : below.values()) {
+            size += level.size();
+        }
+        return size;
+    }
+
+    private NavigableMap<Long, Map<Long, PriceAlert>> book(PriceAlert.Direction direction) {
+        return direction == PriceAlert.Direction.ABOVE ? above : below;
+    }
+
+    private static List<PriceAlert> drain(NavigableMap<Long, Map<Long, PriceAlert>> levels) {
+        if (levels.isEmpty()) {
+            return List.of();
+        }
+        List<PriceAlert> fired = new ArrayList<>();
+        Iterator<Map<Long, PriceAlert>> iterator = levels.values().iterator();
+        while (iterator.hasNext()) {
+            fired.addAll(iterator.next().values());
+            iterator.remove();
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,195 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.PriceAlertService;
+import com.stocktrading.application.service.PriceUpdateListener;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.domain.model.PriceAlert;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of PriceAlertService.
+ * Each symbol keeps its thresholds in a {@link PriceAlertIndex}; committed price
+ * updates only visit crossed thresholds. Crossed alerts are removed inline and
+ * handed to a bounded delivery executor, so the tick path never blocks.
+ */
+@Service
+public class PriceAlertServiceImpl implements PriceAlertService, PriceUpdateListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceAlertServiceImpl.class);
+
+    private final StockPriceService stockPriceService;
+    private final int triggeredHistorySize;
+    private final ThreadPoolExecutor deliveryExecutor;
+    private final AtomicLong alertIds = new AtomicLong();
+    private final Map<String, PriceAlertIndex> indexBySymbol = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, PriceAlert>> activeByUser = new ConcurrentHashMap<>();
+    private final Map<String, Deque<PriceAlert>> triggeredByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PriceAlertServiceImpl(StockPriceService stockPriceService,
+                                 @Value("${stocktrading.alerts.delivery-queue-capacity:10000}") int deliveryQueueCapacity,
+                                 @Value("${stocktrading.alerts.triggered-history-size:100}") int triggeredHistorySize) {
+        this.stockPriceService = stockPriceService;
+        this.triggeredHistorySize = triggeredHistorySize;
+        this.deliveryExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(deliveryQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "price-alert-delivery");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    void subscribe() {
+        stockPriceService.addPriceUpdateListener(this);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliveryExecutor.shutdown();
+    }
+
+    @Override
+    public PriceAlert createAlert(String userId, String stockSymbol, BigDecimal threshold,
+                                  PriceAlert.Direction direction) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (stockSymbol == null || stockSymbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Stock symbol cannot be null or empty");
+        }
+        if (threshold == null || threshold.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        if (direction == null) {
+            throw new IllegalArgumentException("Direction is required");
+        }
+
+        String upperCaseSymbol = stockSymbol.toUpperCase();
+        if (!stockPriceService.stockExists(upperCaseSymbol)) {
+            throw new IllegalArgumentException("Stock not found: " + upperCaseSymbol);
+        }
+
+        PriceAlert alert = new PriceAlert(alertIds.incrementAndGet(), userId, upperCaseSymbol, threshold, direction);
+        activeByUser.computeIfAbsent(userId, u -> new ConcurrentHashMap<>()).put(alert.getId(), alert);
+        PriceAlertIndex index = indexBySymbol.computeIfAbsent(upperCaseSymbol, s -> new PriceAlertIndex());
+        long thresholdTicks = PriceTicks.toTicks(threshold);
+        index.add(alert, thresholdTicks);
+
+        // Indexed first, so a concurrent tick either fires it or is seen here; whoever removes it fires it
+        BigDecimal currentPrice = stockPriceService.getCurrentPrice(upperCaseSymbol).orElse(null);
+        if (currentPrice != null && isMet(alert, currentPrice) && index.remove(alert, thresholdTicks)) {
+            fire(upperCaseSymbol, List.of(alert), currentPrice);
+        }
+        return alert;
+    }
+
+    @Override
+    public boolean cancelAlert(Long alertId, String userId) {
+        if (alertId == null) {
+            throw new IllegalArgumentException("Alert ID cannot be null");
+        }
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        Map<Long, PriceAlert> active = activeByUser.get(userId);
+        PriceAlert alert = active == null ? null : active.remove(alertId);
+        if (alert == null) {
+            return false;
+        }
+        PriceAlertIndex index = indexBySymbol.get(alert.getStockSymbol());
+        return index != null && index.remove(alert, PriceTicks.toTicks(alert.getThreshold()));
+    }
+
+    @Override
+    public List<PriceAlert> getActiveAlerts(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        Map<Long, PriceAlert> active = activeByUser.get(userId);
+        return active == null ? List.of() : new ArrayList<>(active.values());
+    }
+
+    @Override
+    public List<PriceAlert> getTriggeredAlerts(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        Deque<PriceAlert> triggered = triggeredByUser.get(userId);
+        if (triggered == null) {
+            return List.of();
+        }
+        synchronized (triggered) {
+            return new ArrayList<>(triggered);
+        }
+    }
+
+    @Override
+    public void onPriceUpdate(String symbol, BigDecimal previousPrice, BigDecimal newPrice, long sequence) {
+        PriceAlertIndex index = indexBySymbol.get(symbol);
+        if (index == null) {
+            return;
+        }
+        List<PriceAlert> fired = index.crossed(PriceTicks.toTicks(previousPrice), PriceTicks.toTicks(newPrice));
+        if (!fired.isEmpty()) {
+            fire(symbol, fired, newPrice);
+        }
+    }
+
+    private static boolean isMet(PriceAlert alert, BigDecimal price) {
+        int comparison = price.compareTo(alert.getThreshold());
+        return alert.getDirection() == PriceAlert.Direction.ABOVE ? comparison >= 0 : comparison <= 0;
+    }
+
+    /**
+     * Mark alerts already removed from their index as triggered and queue their delivery.
+     */
+    private void fire(String symbol, List<PriceAlert> fired, BigDecimal price) {
+        for (PriceAlert alert : fired) {
+            alert.markAsTriggered(price);
+            Map<Long, PriceAlert> active = activeByUser.get(alert.getUserId());
+            if (active != null) {
+                active.remove(alert.getId());
+            }
+        }
+        try {
+            deliveryExecutor.execute(() -> deliver(fired));
+        } catch (RejectedExecutionException e) {
+            log.warn("Alert delivery queue full, dropped notifications for {} alerts on {}", fired.size(), symbol);
+        }
+    }
+
+    private void deliver(List<PriceAlert> fired) {
+        for (PriceAlert alert : fired) {
+            Deque<PriceAlert> triggered = triggeredByUser.computeIfAbsent(alert.getUserId(), u -> new ArrayDeque<>());
+            synchronized (triggered) {
+                triggered.addFirst(alert);
+                if (triggered.size() > triggeredHistorySize) {
+                    triggered.removeLast();
+                }
+            }
+            log.info("Price alert {} fired for user {}: {} {} {} at {}", alert.getId(), alert.getUserId(),
+                    alert.getStockSymbol(), alert.getDirection(), alert.getThreshold(), alert.getTriggeredPrice());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.stocktrading.application.service.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded, in-memory log of applied price updates.
+ * Every append is assigned the next global sequence number; only the most
+ * recent {@code capacity} entries are retained in a ring buffer.
+ *
+ * <p>Sequence numbers handed out carry the log's epoch in their high bits.
+ * Each run picks a new epoch, so a sequence kept by a client across a restart
+ * is recognised as foreign, even though the counter starts again at 1.
+ */
+final class PriceChangeLog {
+
+    private static final int SEQUENCE_BITS = 40;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int EPOCHS = 1 << (63 - SEQUENCE_BITS);
+
+    private final long[] sequences;
+    private final String[] symbols;
+    private final long epochBase;
+    private long latestSequence;
+
+    /**
+     * A log in epoch zero, whose sequence numbers are plain counters.
+     */
+    PriceChangeLog(int capacity) {
+        this(capacity, 0);
+    }
+
+    PriceChangeLog(int capacity, int epoch) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change log capacity must be positive");
+        }
+        if (epoch < 0 || epoch >= EPOCHS) {
+            throw new IllegalArgumentException("Change log epoch out of range: " + epoch);
+        }
+        this.sequences = new long[capacity];
+        this.symbols = new String[capacity];
+        this.epochBase = (long) epoch << SEQUENCE_BITS;
+    }
+
+    /**
+     * A log with a random non-zero epoch, for a new run of the application.
+     */
+    static PriceChangeLog forNewRun(int capacity) {
+        return new PriceChangeLog(capacity, ThreadLocalRandom.current().nextInt(1, EPOCHS));
+    }
+
+    /**
+     * Record a price change and return its sequence number.
+     */
+    synchronized long append(String symbol) {
+        long sequence = ++latestSequence;
+        int slot = (int) (sequence % sequences.length);
+        sequences[slot] = sequence;
+        symbols[slot] = symbol;
+        return epochBase | sequence;
+    }
+
+    synchronized long latestSequence() {
+        return epochBase | latestSequence;
+    }
+
+    /**
+     * Symbols changed after the given sequence, most recent first.
+     * Empty when the caller cannot be served from the retained window
+     * (first sync, too far behind, or a sequence from another epoch).
+     */
+    synchronized Changes changesSince(long since) {
+        long latest = epochBase | latestSequence;
+        if (since < 0 || (since & ~SEQUENCE_MASK) != epochBase) {
+            return new Changes(latest, Optional.empty());
+        }
+        long sinceSequence = since & SEQUENCE_MASK;
+        long oldestRetained = Math.max(1, latestSequence - sequences.length + 1);
+        if (sinceSequence <= 0 || sinceSequence > latestSequence || sinceSequence < oldestRetained - 1) {
+            return new Changes(latest, Optional.empty());
+        }
+
+        Set<String> changed = new LinkedHashSet<>();
+        for (long sequence = latestSequence; sequence > sinceSequence; sequence--) {
+            changed.add(symbols[(int) (sequence % sequences.length)]);
+        }
+        return new Changes(latest, Optional.of(Collections.unmodifiableSet(changed)));
+    }
+
+    static final class Changes {
+        final long sequence;
+        final Optional<Set<String>> symbols;
+
+        Changes(long sequence, Optional<Set<String>> symbols) {
+            this.sequence = sequence;
+            this.symbols = symbols;
+        }
+    }
+}
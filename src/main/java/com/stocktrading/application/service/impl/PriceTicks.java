@@ -0,0 +1,27 @@
+package com.stocktrading.application.service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between {@link BigDecimal} prices and fixed-point {@code long}
+ * ticks (ten-thousandths), used by in-memory structures on the price path.
+ */
+final class PriceTicks {
+
+    static final int SCALE = 4;
+
+    private PriceTicks() {
+    }
+
+    static long toTicks(BigDecimal price) {
+        return price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert ticks back to a price with the two decimal places stored on entities.
+     */
+    static BigDecimal toPrice(long ticks) {
+        return BigDecimal.valueOf(ticks, SCALE).setScale(2, RoundingMode.HALF_UP);
+    }
+}
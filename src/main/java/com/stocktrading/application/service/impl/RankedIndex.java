@@ -0,0 +1,121 @@
+package com.stocktrading.application.service.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Keys ranked by a long score, highest first.
+ * Entries live in a concurrent skip list ordered by score, so an update is
+ * O(log n) and reading the top or bottom K walks K nodes from either end.
+ * Updates to the same key are serialized; readers never block.
+ */
+final class RankedIndex {
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>();
+    private final Map<String, Long> scores = new ConcurrentHashMap<>();
+
+    void put(String key, long score) {
+        scores.compute(key, (k, previous) -> {
+            if (previous != null) {
+                if (previous == score) {
+                    return previous;
+                }
+                ranking.remove(new Entry(k, previous));
+            }
+            ranking.add(new Entry(k, score));
+            return score;
+        });
+    }
+
+    /**
+     * Rank a key only if it is not ranked yet, so bulk loads never overwrite live updates.
+     */
+    void putIfAbsent(String key, long score) {
+        scores.computeIfAbsent(key, k -> {
+            ranking.add(new Entry(k, score));
+            return score;
+        });
+    }
+
+    /**
+     * Add {@code delta} to a key's score, starting from zero if it is not ranked yet.
+     */
+    void add(String key, long delta) {
+        scores.compute(key, (k, previous) -> {
+            long score = previous == null ? delta : previous + delta;
+            if (previous != null) {
+                ranking.remove(new Entry(k, previous));
+            }
+            ranking.add(new Entry(k, score));
+            return score;
+        });
+    }
+
+    void remove(String key) {
+        scores.computeIfPresent(key, (k, previous) -> {
+            ranking.remove(new Entry(k, previous));
+            return null;
+        });
+    }
+
+    boolean contains(String key) {
+        return scores.containsKey(key);
+    }
+
+    List<Entry> highest(int limit) {
+        return take(ranking.iterator(), limit);
+    }
+
+    List<Entry> lowest(int limit) {
+        return take(ranking.descendingIterator(), limit);
+    }
+
+    int size() {
+        return scores.size();
+    }
+
+    private static List<Entry> take(Iterator<Entry> entries, int limit) {
+        List<Entry> result = new ArrayList<>(Math.min(limit, 64));
+        while (result.size() < limit && entries.hasNext()) {
+            result.add(entries.next());
+        }
+        return result;
+    }
+
+    /**
+     * A ranked key; orders by descending score, then by key.
+     */
+    static final class Entry implements Comparable<Entry> {
+        final String key;
+        final long score;
+
+        Entry(String key, long score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byScore = Long.compare(other.score, score);
+            return byScore != 0 ? byScore : key.compareTo(other.key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Entry entry = (Entry) o;
+            return score == entry.score && key.equals(entry.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, score);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.IndicatorService;
+import com.stocktrading.application.service.PriceUpdateListener;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.application.service.TradeEventBus;
+import com.stocktrading.application.service.TradeExecuted;
+import com.stocktrading.application.service.TradeExecutionListener;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of IndicatorService that updates every indicator in O(1) per tick.
+ * Rolling windows are held in primitive ring buffers with running sums, so the
+ * price update path does no allocation and no recomputation from history.
+ */
+@Service
+public class RollingIndicatorService implements IndicatorService, PriceUpdateListener, TradeExecutionListener {
+
+    /**
+     * Running sums are rebuilt from the window this often to cancel floating-point drift.
+     */
+    private static final int RESYNC_INTERVAL = 1 << 16;
+
+    private final StockPriceService stockPriceService;
+    private final TradeEventBus tradeEventBus;
+    private final int window;
+    private final int emaPeriod;
+    private final int rsiPeriod;
+    private final double bollingerWidth;
+    private final int vwapWindow;
+    private final Map<String, SymbolIndicators> indicatorsBySymbol = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RollingIndicatorService(StockPriceService stockPriceService,
+                                   TradeEventBus tradeEventBus,
+                                   @Value("${stocktrading.indicators.window:20}") int window,
+                                   @Value("${stocktrading.indicators.ema-period:20}") int emaPeriod,
+                                   @Value("${stocktrading.indicators.rsi-period:14}") int rsiPeriod,
+                                   @Value("${stocktrading.indicators.bollinger-width:2.0}") double bollingerWidth,
+                                   @Value("${stocktrading.indicators.vwap-window:100}") int vwapWindow) {
+        if (window <= 0 || emaPeriod <= 0 || rsiPeriod <= 0 || vwapWindow <= 0 || bollingerWidth < 0) {
+            throw new IllegalArgumentException("Indicator windows and periods must be positive");
+        }
+        this.stockPriceService = stockPriceService;
+        this.tradeEventBus = tradeEventBus;
+        this.window = window;
+        this.emaPeriod = emaPeriod;
+        this.rsiPeriod = rsiPeriod;
+        this.bollingerWidth = bollingerWidth;
+        this.vwapWindow = vwapWindow;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        stockPriceService.addPriceUpdateListener(this);
+        tradeEventBus.subscribe("indicators", this);
+    }
+
+    @Override
+    public void onPriceUpdate(String symbol, BigDecimal previousPrice, BigDecimal newPrice, long sequence) {
+        indicatorsFor(symbol).onPrice(newPrice.doubleValue());
+    }
+
+    @Override
+    public void onTradeExecuted(TradeExecuted trade) {
+        indicatorsFor(trade.getStockSymbol()).onTrade(trade.getPrice().doubleValue(), trade.getQuantity());
+    }
+
+    @Override
+    public Optional<Indicators> getIndicators(String symbol) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Stock symbol cannot be null or empty");
+        }
+        String upperCaseSymbol = symbol.toUpperCase();
+        return Optional.ofNullable(indicatorsBySymbol.get(upperCaseSymbol))
+                .map(indicators -> indicators.snapshot(upperCaseSymbol));
+    }
+
+    private SymbolIndicators indicatorsFor(String symbol) {
+        return indicatorsBySymbol.computeIfAbsent(symbol, s -> new SymbolIndicators());
+    }
+
+    private static BigDecimal toDecimal(double value, int scale) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Indicator state for one symbol. All updates are constant time.
+     */
+    private final class SymbolIndicators {
+
+        private final DoubleRingBuffer prices = new DoubleRingBuffer(window);
+        private double priceSum;
+        private double priceSumOfSquares;
+        private int pricesUntilResync = RESYNC_INTERVAL;
+        private long samples;
+
+        private double ema = Double.NaN;
+        private final double emaAlpha = 2.0 / (emaPeriod + 1);
+
+        private double lastPrice = Double.NaN;
+        private int rsiSeedCount;
+        private double averageGain;
+        private double averageLoss;
+
+        private final DoubleRingBuffer tradeNotionals = new DoubleRingBuffer(vwapWindow);
+        private final DoubleRingBuffer tradeVolumes = new DoubleRingBuffer(vwapWindow);
+        private double notionalSum;
+        private double volumeSum;
+        private int tradesUntilResync = RESYNC_INTERVAL;
+
+        synchronized void onPrice(double price) {
+            samples++;
+
+            double evicted = prices.push(price);
+            priceSum += price - evicted;
+            priceSumOfSquares += price * price - evicted * evicted;
+            if (--pricesUntilResync == 0) {
+                priceSum = prices.sum();
+                priceSumOfSquares = prices.sumOfSquares();
+                pricesUntilResync = RESYNC_INTERVAL;
+            }
+
+            ema = Double.isNaN(ema) ? price : ema + emaAlpha * (price - ema);
+
+            // Wilder's RSI: simple average over the first period, smoothed afterwards
+            if (!Double.isNaN(lastPrice)) {
+                double change = price - lastPrice;
+                double gain = Math.max(change, 0.0);
+                double loss = Math.max(-change, 0.0);
+                if (rsiSeedCount < rsiPeriod) {
+                    averageGain += gain / rsiPeriod;
+                    averageLoss += loss / rsiPeriod;
+                    rsiSeedCount++;
+                } else {
+                    averageGain = (averageGain * (rsiPeriod - 1) + gain) / rsiPeriod;
+                    averageLoss = (averageLoss * (rsiPeriod - 1) + loss) / rsiPeriod;
+                }
+            }
+            lastPrice = price;
+        }
+
+        synchronized void onTrade(double price, int quantity) {
+            double notional = price * quantity;
+            notionalSum += notional - tradeNotionals.push(notional);
+            volumeSum += quantity - tradeVolumes.push(quantity);
+            if (--tradesUntilResync == 0) {
+                notionalSum = tradeNotionals.sum();
+                volumeSum = tradeVolumes.sum();
+                tradesUntilResync = RESYNC_INTERVAL;
+            }
+        }
+
+        synchronized Indicators snapshot(String symbol) {
+            double sma = Double.NaN;
+            double upper = Double.NaN;
+            double lower = Double.NaN;
+            if (prices.isFull()) {
+                sma = priceSum / window;
+                double variance = Math.max(0.0, priceSumOfSquares / window - sma * sma);
+                double band = bollingerWidth * Math.sqrt(variance);
+                upper = sma + band;
+                lower = sma - band;
+            }
+
+            double rsi = Double.NaN;
+            if (rsiSeedCount >= rsiPeriod) {
+                rsi = averageLoss == 0.0
+                        ? (averageGain == 0.0 ? 50.0 : 100.0)
+                        : 100.0 - 100.0 / (1.0 + averageGain / averageLoss);
+            }
+
+            double vwap = volumeSum > 0 ? notionalSum / volumeSum : Double.NaN;
+
+            return new Indicators(
+                    symbol,
+                    samples,
+                    toDecimal(sma, 4),
+                    toDecimal(samples >= emaPeriod ? ema : Double.NaN, 4),
+                    toDecimal(vwap, 4),
+                    toDecimal(rsi, 2),
+                    toDecimal(upper, 4),
+                    toDecimal(lower, 4)
+            );
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.stocktrading.application.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dense int ids for listed stock symbols, and the latest committed price of each.
+ * Symbols are matched case-insensitively, so callers can look up what a client
+ * sent without upper-casing it. Prices live in arrays indexed by id and are read
+ * without locking. A committed price change clears the slot rather than
+ * overwriting it, and a reload is stored only if no change was committed while
+ * it ran, so a slot never holds a price older than the last commit.
+ */
+@Component
+public class SymbolRegistry {
+
+    private final IdRegistry symbols = new IdRegistry(true);
+    private volatile AtomicReferenceArray<BigDecimal> prices = new AtomicReferenceArray<>(16);
+    private volatile AtomicLongArray versions = new AtomicLongArray(16);
+
+    /**
+     * The id of a symbol, or -1 if it is not registered.
+     */
+    public int idOf(String symbol) {
+        return symbols.idOf(symbol);
+    }
+
+    /**
+     * The id of a listed symbol, assigning one if it is new.
+     */
+    public synchronized int register(String symbol) {
+        int id = symbols.intern(symbol);
+        if (id >= prices.length()) {
+            int capacity = prices.length() * 2;
+            AtomicReferenceArray<BigDecimal> grownPrices = new AtomicReferenceArray<>(capacity);
+            AtomicLongArray grownVersions = new AtomicLongArray(capacity);
+            for (int i = 0; i < prices.length(); i++) {
+                grownPrices.set(i, prices.get(i));
+                grownVersions.set(i, versions.get(i));
+            }
+            prices = grownPrices;
+            versions = grownVersions;
+        }
+        return id;
+    }
+
+    public String symbolOf(int id) {
+        return symbols.nameOf(id);
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    /**
+     * The cached price of a symbol, or null if it has to be read from the database.
+     */
+    BigDecimal priceOf(int id) {
+        AtomicReferenceArray<BigDecimal> current = prices;
+        return id < current.length() ? current.get(id) : null;
+    }
+
+    /**
+     * Taken before reading a price from the database, to pass to {@link #cachePrice}.
+     */
+    synchronized long priceVersion(int id) {
+        return versions.get(id);
+    }
+
+    /**
+     * Cache a price read from the database, unless a change was committed since {@code version}.
+     */
+    synchronized void cachePrice(int id, long version, BigDecimal price) {
+        if (versions.get(id) == version) {
+            prices.set(id, price);
+        }
+    }
+
+    /**
+     * Forget the cached price of a symbol whose row changed.
+     */
+    public synchronized void invalidatePrice(String symbol) {
+        int id = symbols.idOf(symbol);
+        if (id >= 0) {
+            versions.incrementAndGet(id);
+            prices.set(id, null);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.stocktrading.application.service.impl;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Off-heap, append-only price series for a single symbol.
+ * Records are fixed-width (epoch millis, price in ten-thousandths) and kept in
+ * a direct buffer ring that grows on demand up to {@code maxCapacity}; once full,
+ * the oldest record is overwritten. Timestamps are kept non-decreasing so range
+ * lookups can binary search.
+ */
+final class TickSeries {
+
+    static final int RECORD_SIZE = 2 * Long.BYTES;
+    static final long NO_PRICE = -1L;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxCapacity;
+    private ByteBuffer records;
+    private int capacity;
+    private int head;
+    private int size;
+
+    TickSeries(int maxCapacity) {
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.maxCapacity = maxCapacity;
+        this.capacity = Math.min(INITIAL_CAPACITY, maxCapacity);
+        this.records = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+    }
+
+    /**
+     * Append a tick, dropping records older than {@code evictBeforeMillis}.
+     */
+    synchronized void append(long epochMillis, long priceTicks, long evictBeforeMillis) {
+        evictBefore(evictBeforeMillis);
+        if (size > 0) {
+            epochMillis = Math.max(epochMillis, timestampAt(size - 1));
+        }
+        if (size == capacity) {
+            if (capacity < maxCapacity) {
+                grow();
+            } else {
+                head = (head + 1) % capacity;
+                size--;
+            }
+        }
+        int offset = ((head + size) % capacity) * RECORD_SIZE;
+        records.putLong(offset, epochMillis);
+        records.putLong(offset + Long.BYTES, priceTicks);
+        size++;
+    }
+
+    /**
+     * Copy ticks with {@code fromMillis <= timestamp <= toMillis} as interleaved
+     * (timestamp, price) pairs, oldest first.
+     */
+    synchronized long[] range(long fromMillis, long toMillis) {
+        int first = lowerBound(fromMillis);
+        int last = lowerBound(toMillis == Long.MAX_VALUE ? toMillis : toMillis + 1);
+        int count = Math.max(0, last - first);
+
+        long[] result = new long[count * 2];
+        for (int i = 0; i < count; i++) {
+            int offset = physical(first + i) * RECORD_SIZE;
+            result[2 * i] = records.getLong(offset);
+            result[2 * i + 1] = records.getLong(offset + Long.BYTES);
+        }
+        return result;
+    }
+
+    /**
+     * Price of the latest tick at or before {@code atMillis}, or {@link #NO_PRICE} if there is none.
+     */
+    synchronized long priceAt(long atMillis) {
+        int index = lowerBound(atMillis == Long.MAX_VALUE ? atMillis : atMillis + 1) - 1;
+        if (index < 0) {
+            return NO_PRICE;
+        }
+        return records.getLong(physical(index) * RECORD_SIZE + Long.BYTES);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized int capacity() {
+        return capacity;
+    }
+
+    private void evictBefore(long cutoffMillis) {
+        while (size > 0 && timestampAt(0) < cutoffMillis) {
+            head = (head + 1) % capacity;
+            size--;
+        }
+    }
+
+    /**
+     * Index of the first record with timestamp >= target, or size if none.
+     */
+    private int lowerBound(long targetMillis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) < targetMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long timestampAt(int index) {
+        return records.getLong(physical(index) * RECORD_SIZE);
+    }
+
+    private int physical(int index) {
+        return (head + index) % capacity;
+    }
+
+    private void grow() {
+        int newCapacity = (int) Math.min((long) capacity * 2, maxCapacity);
+        ByteBuffer grown = ByteBuffer.allocateDirect(newCapacity * RECORD_SIZE);
+        for (int i = 0; i < size; i++) {
+            int from = physical(i) * RECORD_SIZE;
+            int to = i * RECORD_SIZE;
+            grown.putLong(to, records.getLong(from));
+            grown.putLong(to + Long.BYTES, records.getLong(from + Long.BYTES));
+        }
+        records = grown;
+        capacity = newCapacity;
+        head = 0;
+    }
+}
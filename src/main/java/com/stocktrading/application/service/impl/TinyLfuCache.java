@@ -0,0 +1,188 @@
+package com.stocktrading.application.service.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded map with W-TinyLFU eviction.
+ * New entries land in a small LRU window, about 1% of the capacity. An entry
+ * leaving the window competes with the least recently used entry of the main
+ * area's probation segment, and whichever the {@link FrequencySketch} has seen
+ * less often is evicted, so a burst of keys used once cannot push out keys
+ * used all the time. A probation entry used again moves to the protected
+ * segment, which holds up to 80% of the main area. Every operation is O(1).
+ * Not thread safe; callers serialize access.
+ */
+final class TinyLfuCache<K, V> {
+
+    private enum Segment { WINDOW, PROBATION, PROTECTED }
+
+    private final int maximumSize;
+    private final int maxWindow;
+    private final int maxProtected;
+    private final FrequencySketch sketch;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final Node<K, V> window = Node.sentinel();
+    private final Node<K, V> probation = Node.sentinel();
+    private final Node<K, V> protectedSegment = Node.sentinel();
+    private int windowSize;
+    private int protectedSize;
+    private long evictions;
+
+    TinyLfuCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.maxWindow = Math.max(1, maximumSize / 100);
+        this.maxProtected = (maximumSize - maxWindow) * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    V get(K key) {
+        sketch.increment(key);
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            return null;
+        }
+        onHit(node);
+        return node.value;
+    }
+
+    void put(K key, V value) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            node.value = value;
+            onHit(node);
+            return;
+        }
+        node = new Node<>(key, value, Segment.WINDOW);
+        nodes.put(key, node);
+        node.linkBefore(window);
+        windowSize++;
+        evict();
+    }
+
+    V remove(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        return node.value;
+    }
+
+    void clear() {
+        nodes.clear();
+        window.unlinkAll();
+        probation.unlinkAll();
+        protectedSegment.unlinkAll();
+        windowSize = 0;
+        protectedSize = 0;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    long evictions() {
+        return evictions;
+    }
+
+    private void onHit(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW -> node.moveBefore(window);
+            case PROTECTED -> node.moveBefore(protectedSegment);
+            case PROBATION -> {
+                node.segment = Segment.PROTECTED;
+                node.moveBefore(protectedSegment);
+                if (++protectedSize > maxProtected) {
+                    Node<K, V> demoted = protectedSegment.next;
+                    demoted.segment = Segment.PROBATION;
+                    demoted.moveBefore(probation);
+                    protectedSize--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Move the window's overflow into probation, then evict the loser of each candidate and victim pair.
+     */
+    private void evict() {
+        while (windowSize > maxWindow) {
+            Node<K, V> candidate = window.next;
+            candidate.segment = Segment.PROBATION;
+            candidate.moveBefore(probation);
+            windowSize--;
+            if (nodes.size() <= maximumSize) {
+                continue;
+            }
+            Node<K, V> victim = probation.next != candidate ? probation.next : protectedSegment.next;
+            if (victim == protectedSegment) {
+                victim = candidate;
+            }
+            evict(sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate);
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        nodes.remove(node.key);
+        unlink(node);
+        evictions++;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.segment == Segment.WINDOW) {
+            windowSize--;
+        } else if (node.segment == Segment.PROTECTED) {
+            protectedSize--;
+        }
+        node.unlink();
+    }
+
+    /**
+     * An entry in one segment's circular list; each list's sentinel sits between its MRU and LRU ends.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private Segment segment;
+        private Node<K, V> previous = this;
+        private Node<K, V> next = this;
+
+        Node(K key, V value, Segment segment) {
+            this.key = key;
+            this.value = value;
+            this.segment = segment;
+        }
+
+        static <K, V> Node<K, V> sentinel() {
+            return new Node<>(null, null, null);
+        }
+
+        void linkBefore(Node<K, V> sentinel) {
+            previous = sentinel.previous;
+            next = sentinel;
+            sentinel.previous.next = this;
+            sentinel.previous = this;
+        }
+
+        void moveBefore(Node<K, V> sentinel) {
+            unlink();
+            linkBefore(sentinel);
+        }
+
+        void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = this;
+            next = this;
+        }
+
+        void unlinkAll() {
+            previous = this;
+            next = this;
+        }
+    }
+}
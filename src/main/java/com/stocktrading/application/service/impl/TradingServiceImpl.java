@@ -1,17 +1,32 @@
 package com.stocktrading.application.service.impl;
 
+import com.stocktrading.application.service.CircuitBreakerService;
+import com.stocktrading.application.service.TradeEventBus;
 import com.stocktrading.application.service.TradingService;
 import com.stocktrading.application.service.StockPriceService;
 import com.stocktrading.application.service.PortfolioService;
+import com.stocktrading.domain.model.LotSelection;
+import com.stocktrading.domain.model.Portfolio;
 import com.stocktrading.domain.model.Trade;
 import com.stocktrading.domain.repository.TradeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of TradingService.
@@ -25,21 +40,54 @@ public class TradingServiceImpl implements TradingService {
     private final TradeRepository tradeRepository;
     private final StockPriceService stockPriceService;
     private final PortfolioService portfolioService;
+    private final ConditionalOrderBook conditionalOrderBook;
+    private final IdempotencyCache idempotencyCache;
+    private final TradeEventBus tradeEventBus;
+    private final OrderExpiryBook orderExpiryBook;
+    private final CircuitBreakerService circuitBreakerService;
+    private final TransactionTemplate orderTransaction;
 
     @Autowired
     public TradingServiceImpl(TradeRepository tradeRepository,
                              StockPriceService stockPriceService,
-                             PortfolioService portfolioService) {
+                             PortfolioService portfolioService,
+                             ConditionalOrderBook conditionalOrderBook,
+                             IdempotencyCache idempotencyCache,
+                             TradeEventBus tradeEventBus,
+                             OrderExpiryBook orderExpiryBook,
+                             CircuitBreakerService circuitBreakerService,
+                             PlatformTransactionManager transactionManager) {
         this.tradeRepository = tradeRepository;
         this.stockPriceService = stockPriceService;
         this.portfolioService = portfolioService;
+        this.conditionalOrderBook = conditionalOrderBook;
+        this.idempotencyCache = idempotencyCache;
+        this.tradeEventBus = tradeEventBus;
+        this.orderExpiryBook = orderExpiryBook;
+        this.circuitBreakerService = circuitBreakerService;
+        this.orderTransaction = new TransactionTemplate(transactionManager);
+        this.orderTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
     public Trade buyStock(String userId, String stockSymbol, Integer quantity) {
+        return buy(userId, stockSymbol, quantity, null);
+    }
+
+    @Override
+    public Trade buyStock(String userId, String stockSymbol, Integer quantity, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return buy(userId, stockSymbol, quantity, null);
+        }
+        return submitOnce(userId, idempotencyKey, Trade.TradeType.BUY, stockSymbol, quantity,
+                () -> buy(userId, stockSymbol, quantity, idempotencyKey));
+    }
+
+    private Trade buy(String userId, String stockSymbol, Integer quantity, String idempotencyKey) {
         validateTradeParameters(userId, stockSymbol, quantity);
         
         String upperCaseSymbol = stockSymbol.toUpperCase();
+        requireNotHalted(upperCaseSymbol);
         
         // Check if stock exists
         if (!stockPriceService.stockExists(upperCaseSymbol)) {
@@ -52,6 +100,7 @@ public class TradingServiceImpl implements TradingService {
         
         // Create and save trade
         Trade trade = new Trade(userId, upperCaseSymbol, Trade.TradeType.BUY, quantity, currentPrice);
+        trade.setIdempotencyKey(idempotencyKey);
         
         try {
             // Execute the trade (in a real system, this might involve order matching, etc.)
@@ -65,14 +114,41 @@ public class TradingServiceImpl implements TradingService {
             trade.markAsFailed("Trade execution failed: " + e.getMessage());
         }
         
-        return tradeRepository.save(trade);
+        return saveAndPublish(trade);
     }
 
     @Override
     public Trade sellStock(String userId, String stockSymbol, Integer quantity) {
+        return sell(userId, stockSymbol, quantity, null, null);
+    }
+
+    @Override
+    public Trade sellStock(String userId, String stockSymbol, Integer quantity, LotSelection lotSelection) {
+        if (lotSelection == null) {
+            throw new IllegalArgumentException("Lot selection cannot be null");
+        }
+        return sell(userId, stockSymbol, quantity, lotSelection, null);
+    }
+
+    @Override
+    public Trade sellStock(String userId, String stockSymbol, Integer quantity, LotSelection lotSelection,
+                           String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return sell(userId, stockSymbol, quantity, lotSelection, null);
+        }
+        return submitOnce(userId, idempotencyKey, Trade.TradeType.SELL, stockSymbol, quantity,
+                () -> sell(userId, stockSymbol, quantity, lotSelection, idempotencyKey));
+    }
+
+    /**
+     * Sell using the given lots, or the portfolio's default lot method when null.
+     */
+    private Trade sell(String userId, String stockSymbol, Integer quantity, LotSelection lotSelection,
+                       String idempotencyKey) {
         validateTradeParameters(userId, stockSymbol, quantity);
         
         String upperCaseSymbol = stockSymbol.toUpperCase();
+        requireNotHalted(upperCaseSymbol);
         
         // Check if stock exists
         if (!stockPriceService.stockExists(upperCaseSymbol)) {
@@ -83,6 +159,12 @@ public class TradingServiceImpl implements TradingService {
         if (!portfolioService.hasEnoughShares(userId, upperCaseSymbol, quantity)) {
             throw new IllegalArgumentException("Insufficient shares to sell");
         }
+        if (lotSelection != null && lotSelection.getMethod() == LotSelection.Method.SPECIFIC
+                && !portfolioService.getUserStockHolding(userId, upperCaseSymbol)
+                        .map(holding -> holding.canRemoveShares(quantity, lotSelection))
+                        .orElse(false)) {
+            throw new IllegalArgumentException("Selected lots hold fewer than " + quantity + " shares");
+        }
         
         // Get current stock price
         BigDecimal currentPrice = stockPriceService.getCurrentPrice(upperCaseSymbol)
@@ -90,20 +172,330 @@ public class TradingServiceImpl implements TradingService {
         
         // Create and save trade
         Trade trade = new Trade(userId, upperCaseSymbol, Trade.TradeType.SELL, quantity, currentPrice);
+        trade.setIdempotencyKey(idempotencyKey);
         
         try {
             // Execute the trade
             executeTrade(trade);
             
             // Update portfolio
-            portfolioService.updatePortfolioAfterTrade(userId, upperCaseSymbol, quantity, currentPrice, false);
+            if (lotSelection == null) {
+                portfolioService.updatePortfolioAfterTrade(userId, upperCaseSymbol, quantity, currentPrice, false);
+            } else {
+                portfolioService.updatePortfolioAfterTrade(userId, upperCaseSymbol, quantity, currentPrice, false,
+                        lotSelection);
+            }
             
             trade.markAsExecuted();
         } catch (Exception e) {
             trade.markAsFailed("Trade execution failed: " + e.getMessage());
         }
         
-        return tradeRepository.save(trade);
+        return saveAndPublish(trade);
+    }
+
+    /**
+     * Submit an order unless its key has been seen: recent keys are answered from the
+     * cache, older ones from the trades table. The key is reserved while the order is
+     * submitted, so a concurrent retry is turned away instead of executing twice.
+     * Reusing a key for a different order is rejected.
+     */
+    private Trade submitOnce(String userId, String idempotencyKey, Trade.TradeType tradeType, String stockSymbol,
+                             Integer quantity, Supplier<Trade> submit) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 64) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to 64 characters");
+        }
+
+        Long previousTradeId = idempotencyCache.reserve(userId, idempotencyKey);
+        if (previousTradeId != null) {
+            if (previousTradeId == IdempotencyCache.IN_PROGRESS) {
+                throw new IllegalStateException("An order with this idempotency key is still being processed");
+            }
+            Trade previous = tradeRepository.findById(previousTradeId)
+                    .or(() -> tradeRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey))
+                    .orElseThrow(() -> new IllegalStateException("Trade for idempotency key no longer exists"));
+            return requireSameOrder(previous, tradeType, stockSymbol, quantity);
+        }
+
+        try {
+            Optional<Trade> persisted = tradeRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+            Trade trade = persisted.isPresent()
+                    ? requireSameOrder(persisted.get(), tradeType, stockSymbol, quantity)
+                    : submit.get();
+            TransactionCallbacks.afterCommit(() -> idempotencyCache.complete(userId, idempotencyKey, trade.getId()));
+            TransactionCallbacks.afterRollback(() -> idempotencyCache.release(userId, idempotencyKey));
+            return trade;
+        } catch (RuntimeException e) {
+            idempotencyCache.release(userId, idempotencyKey);
+            throw e;
+        }
+    }
+
+    private static Trade requireSameOrder(Trade previous, Trade.TradeType tradeType, String stockSymbol,
+                                          Integer quantity) {
+        if (previous.getTradeType() != tradeType
+                || !previous.getStockSymbol().equalsIgnoreCase(stockSymbol)
+                || !previous.getQuantity().equals(quantity)) {
+            throw new IllegalArgumentException("Idempotency key was already used for a different order");
+        }
+        return previous;
+    }
+
+    @Override
+    public List<Trade> executeBasket(String userId, List<BasketLeg> legs) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (legs == null || legs.isEmpty()) {
+            throw new IllegalArgumentException("Basket must have at least one leg");
+        }
+        for (BasketLeg leg : legs) {
+            validateTradeParameters(userId, leg.getStockSymbol(), leg.getQuantity());
+            if (leg.getTradeType() == null) {
+                throw new IllegalArgumentException("Trade type is required");
+            }
+            if (leg.getLotSelection() != null && leg.getTradeType() != Trade.TradeType.SELL) {
+                throw new IllegalArgumentException("Lots can only be selected for sells");
+            }
+            requireNotHalted(leg.getStockSymbol());
+        }
+
+        Map<String, BigDecimal> prices = stockPriceService.getCurrentPrices(
+                legs.stream().map(BasketLeg::getStockSymbol).collect(Collectors.toList()));
+        Map<String, Integer> positions = new HashMap<>();
+        for (Portfolio holding : portfolioService.getUserPortfolio(userId)) {
+            positions.put(holding.getStockSymbol(), holding.getQuantity());
+        }
+
+        List<Trade> trades = new ArrayList<>(legs.size());
+        List<LotSelection> lotSelections = new ArrayList<>(legs.size());
+        for (BasketLeg leg : legs) {
+            String upperCaseSymbol = leg.getStockSymbol().toUpperCase();
+            BigDecimal currentPrice = prices.get(upperCaseSymbol);
+            if (currentPrice == null) {
+                throw new IllegalArgumentException("Stock not found: " + upperCaseSymbol);
+            }
+            int signedQuantity = leg.getTradeType() == Trade.TradeType.BUY ? leg.getQuantity() : -leg.getQuantity();
+            if (positions.merge(upperCaseSymbol, signedQuantity, Integer::sum) < 0) {
+                throw new IllegalArgumentException("Insufficient shares to sell " + upperCaseSymbol);
+            }
+            Trade trade = new Trade(userId, upperCaseSymbol, leg.getTradeType(), leg.getQuantity(), currentPrice);
+            executeTrade(trade);
+            trade.markAsExecuted();
+            trades.add(trade);
+            lotSelections.add(leg.getLotSelection());
+        }
+
+        portfolioService.updatePortfolioAfterTrades(userId, trades, lotSelections);
+        List<Trade> saved = tradeRepository.saveAll(trades);
+        saved.forEach(tradeEventBus::publish);
+        return saved;
+    }
+
+    @Override
+    public Trade placeConditionalOrder(String userId, String stockSymbol, Trade.TradeType tradeType, Integer quantity,
+                                       Trade.OrderType orderType, BigDecimal triggerPrice, BigDecimal trailAmount) {
+        return placeConditionalOrder(userId, stockSymbol, tradeType, quantity, orderType, triggerPrice, trailAmount,
+                Trade.TimeInForce.GTC, null);
+    }
+
+    @Override
+    public Trade placeConditionalOrder(String userId, String stockSymbol, Trade.TradeType tradeType, Integer quantity,
+                                       Trade.OrderType orderType, BigDecimal triggerPrice, BigDecimal trailAmount,
+                                       Trade.TimeInForce timeInForce, LocalDateTime expiresAt) {
+        validateTradeParameters(userId, stockSymbol, quantity);
+        if (tradeType == null) {
+            throw new IllegalArgumentException("Trade type is required");
+        }
+        if (orderType == null || orderType == Trade.OrderType.MARKET) {
+            throw new IllegalArgumentException("Order type must be STOP_LOSS, TAKE_PROFIT or TRAILING_STOP");
+        }
+        if (timeInForce == null) {
+            timeInForce = Trade.TimeInForce.GTC;
+        }
+        if (timeInForce == Trade.TimeInForce.GTD) {
+            if (expiresAt == null || !expiresAt.isAfter(LocalDateTime.now())) {
+                throw new IllegalArgumentException("GTD orders require an expiry in the future");
+            }
+        } else if (expiresAt != null) {
+            throw new IllegalArgumentException("Only GTD orders take an expiry");
+        } else if (timeInForce == Trade.TimeInForce.DAY) {
+            expiresAt = orderExpiryBook.endOfDay(LocalDateTime.now());
+        }
+        if (timeInForce == Trade.TimeInForce.IOC && orderType == Trade.OrderType.TRAILING_STOP) {
+            throw new IllegalArgumentException("Trailing stops cannot be immediate-or-cancel");
+        }
+
+        String upperCaseSymbol = stockSymbol.toUpperCase();
+        requireNotHalted(upperCaseSymbol);
+        if (!stockPriceService.stockExists(upperCaseSymbol)) {
+            throw new IllegalArgumentException("Stock not found: " + upperCaseSymbol);
+        }
+        if (tradeType == Trade.TradeType.SELL
+                && !portfolioService.hasEnoughShares(userId, upperCaseSymbol, quantity)) {
+            throw new IllegalArgumentException("Insufficient shares to sell");
+        }
+
+        BigDecimal currentPrice = stockPriceService.getCurrentPrice(upperCaseSymbol)
+                .orElseThrow(() -> new IllegalArgumentException("Unable to get current price for: " + upperCaseSymbol));
+
+        boolean firesOnRise = ConditionalOrderBook.firesOnRise(orderType, tradeType);
+        BigDecimal trigger;
+        boolean triggered = false;
+        if (orderType == Trade.OrderType.TRAILING_STOP) {
+            if (trailAmount == null || trailAmount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Trailing stops require a positive trail amount");
+            }
+            trigger = firesOnRise ? currentPrice.add(trailAmount) : currentPrice.subtract(trailAmount);
+        } else {
+            if (triggerPrice == null || triggerPrice.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Trigger price must be positive");
+            }
+            int comparison = currentPrice.compareTo(triggerPrice);
+            triggered = firesOnRise ? comparison >= 0 : comparison <= 0;
+            if (triggered && timeInForce != Trade.TimeInForce.IOC) {
+                throw new IllegalArgumentException("Trigger price already reached");
+            }
+            trigger = triggerPrice;
+            trailAmount = null;
+        }
+
+        Trade order = new Trade(userId, upperCaseSymbol, tradeType, quantity, orderType, trigger, trailAmount);
+        order.setTimeInForce(timeInForce, expiresAt);
+        if (timeInForce == Trade.TimeInForce.IOC) {
+            return fillOrCancel(order, currentPrice, triggered);
+        }
+
+        Trade trade = tradeRepository.save(order);
+        TransactionCallbacks.afterCommit(() -> {
+            conditionalOrderBook.add(trade);
+            orderExpiryBook.add(trade);
+        });
+        return trade;
+    }
+
+    /**
+     * Fill an immediate-or-cancel order at the current price if its trigger is reached, otherwise cancel it.
+     */
+    private Trade fillOrCancel(Trade order, BigDecimal currentPrice, boolean triggered) {
+        if (!triggered) {
+            order.markAsCancelled("Immediate-or-cancel order was not triggered");
+            return tradeRepository.save(order);
+        }
+        try {
+            executeTrade(order);
+            portfolioService.updatePortfolioAfterTrade(order.getUserId(), order.getStockSymbol(), order.getQuantity(),
+                    currentPrice, order.getTradeType() == Trade.TradeType.BUY);
+            order.fillAt(currentPrice);
+            order.markAsExecuted();
+        } catch (Exception e) {
+            order.markAsFailed("Trade execution failed: " + e.getMessage());
+        }
+        return saveAndPublish(order);
+    }
+
+    /**
+     * Each order runs in its own transaction, so one that fails cannot roll back the others.
+     * An order whose transaction rolls back is marked failed instead of being re-triggered.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Trade> executeTriggeredOrders(List<Long> tradeIds) {
+        if (tradeIds == null || tradeIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Trade> executed = new ArrayList<>();
+        Map<String, Optional<BigDecimal>> pricesBySymbol = new HashMap<>();
+        for (Long tradeId : tradeIds) {
+            Trade trade;
+            try {
+                trade = orderTransaction.execute(status -> executeTriggeredOrder(tradeId, pricesBySymbol));
+            } catch (RuntimeException e) {
+                orderTransaction.executeWithoutResult(status ->
+                        failPending(tradeId, "Trade execution failed: " + e.getMessage()));
+                continue;
+            }
+            if (trade != null && trade.isExecuted()) {
+                executed.add(trade);
+            }
+        }
+        return executed;
+    }
+
+    /**
+     * Fill or fail one triggered order, unless it was cancelled or expired while the trigger was in flight.
+     *
+     * @return the order, or {@code null} if it was left alone
+     */
+    private Trade executeTriggeredOrder(Long tradeId, Map<String, Optional<BigDecimal>> pricesBySymbol) {
+        Trade trade = tradeRepository.findById(tradeId).orElse(null);
+        if (trade == null || !trade.isPending() || !trade.isConditional()) {
+            return null;
+        }
+        String symbol = trade.getStockSymbol();
+        if (circuitBreakerService.isHalted(symbol)) {
+            // Rests again until trading resumes
+            TransactionCallbacks.afterCommit(() -> conditionalOrderBook.add(trade));
+            return null;
+        }
+
+        Optional<BigDecimal> marketPrice = pricesBySymbol.computeIfAbsent(symbol, stockPriceService::getCurrentPrice);
+        boolean buy = trade.getTradeType() == Trade.TradeType.BUY;
+        String failure = null;
+        if (marketPrice.isEmpty()) {
+            failure = "Unable to get current price for: " + symbol;
+        } else if (!buy && !portfolioService.hasEnoughShares(trade.getUserId(), symbol, trade.getQuantity())) {
+            failure = "Insufficient shares to sell";
+        }
+        Trade.TradeStatus outcome = failure == null ? Trade.TradeStatus.EXECUTED : Trade.TradeStatus.FAILED;
+        if (tradeRepository.transition(tradeId, Trade.TradeStatus.PENDING, outcome) == 0) {
+            return null;
+        }
+        if (trade.getExpiresAt() != null) {
+            TransactionCallbacks.afterCommit(() -> orderExpiryBook.remove(tradeId));
+        }
+
+        if (failure != null) {
+            trade.markAsFailed(failure);
+            return trade;
+        }
+        executeTrade(trade);
+        portfolioService.updatePortfolioAfterTrade(trade.getUserId(), symbol, trade.getQuantity(),
+                marketPrice.get(), buy);
+        trade.fillAt(marketPrice.get());
+        trade.markAsExecuted();
+        tradeEventBus.publish(trade);
+        return trade;
+    }
+
+    private void failPending(Long tradeId, String reason) {
+        if (tradeRepository.transition(tradeId, Trade.TradeStatus.PENDING, Trade.TradeStatus.FAILED) == 0) {
+            return;
+        }
+        tradeRepository.findById(tradeId).ifPresent(trade -> {
+            trade.markAsFailed(reason);
+            tradeRepository.save(trade);
+        });
+        TransactionCallbacks.afterCommit(() -> orderExpiryBook.remove(tradeId));
+    }
+
+    @Override
+    public List<Trade> expireOrders(List<Long> tradeIds) {
+        if (tradeIds == null || tradeIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Trade> expired = new ArrayList<>();
+        for (Trade trade : tradeRepository.findAllById(tradeIds)) {
+            if (trade.isPending() && cancel(trade, "Expired (" + trade.getTimeInForce() + ")")) {
+                expired.add(trade);
+            }
+        }
+        return expired;
     }
 
     @Override
@@ -151,8 +543,26 @@ public class TradingServiceImpl implements TradingService {
             return false;
         }
         
-        trade.markAsCancelled("Cancelled by user");
+        return cancel(trade, "Cancelled by user");
+    }
+
+    /**
+     * Cancel a pending trade and, once that commits, stop tracking its trigger and expiry.
+     *
+     * @return false if the trade was filled, failed or cancelled concurrently
+     */
+    private boolean cancel(Trade trade, String reason) {
+        if (tradeRepository.transition(trade.getId(), Trade.TradeStatus.PENDING, Trade.TradeStatus.CANCELLED) == 0) {
+            return false;
+        }
+        trade.markAsCancelled(reason);
         tradeRepository.save(trade);
+        if (trade.isConditional()) {
+            TransactionCallbacks.afterCommit(() -> {
+                conditionalOrderBook.remove(trade.getStockSymbol(), trade.getId());
+                orderExpiryBook.remove(trade.getId());
+            });
+        }
         return true;
     }
 
@@ -172,8 +582,8 @@ public class TradingServiceImpl implements TradingService {
             
             String upperCaseSymbol = stockSymbol.toUpperCase();
             
-            // Check if stock exists
-            if (!stockPriceService.stockExists(upperCaseSymbol)) {
+            // Check if stock exists and is trading
+            if (circuitBreakerService.isHalted(upperCaseSymbol) || !stockPriceService.stockExists(upperCaseSymbol)) {
                 return false;
             }
             
@@ -190,6 +600,23 @@ public class TradingServiceImpl implements TradingService {
         }
     }
 
+    private Trade saveAndPublish(Trade trade) {
+        Trade saved = tradeRepository.save(trade);
+        if (saved.isExecuted()) {
+            tradeEventBus.publish(saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Reject an order for a symbol whose trading is halted by its circuit breaker.
+     */
+    private void requireNotHalted(String stockSymbol) {
+        if (circuitBreakerService.isHalted(stockSymbol)) {
+            throw new IllegalStateException("Trading in " + stockSymbol.toUpperCase() + " is halted");
+        }
+    }
+
     private void validateTradeParameters(String userId, String stockSymbol, Integer quantity) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new IllegalArgumentException("User ID cannot be null or empty");
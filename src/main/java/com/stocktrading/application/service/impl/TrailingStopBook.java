@@ -0,0 +1,167 @@
+package com.stocktrading.application.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Trailing stops that follow a rising high-water mark and fire when the price
+ * falls a fixed distance below it. Buy-side trailing stops reuse this book with
+ * negated prices.
+ *
+ * <p>Orders are grouped by trail distance and bucketed by high-water mark. A new
+ * high collapses every lower bucket of a group into one, so re-keying costs one
+ * map operation per bucket rather than one per order, and an order id only moves
+ * when its bucket is the smaller side of a merge. The highest stop and lowest
+ * high-water mark across all groups are cached, so a tick that neither fires
+ * nor sets a new high returns without visiting any group.
+ * Not thread-safe; callers synchronize.
+ */
+final class TrailingStopBook {
+
+    private final NavigableMap<Long, NavigableMap<Long, Bucket>> groupsByTrail = new TreeMap<>();
+    private final Map<Long, Bucket> bucketById = new HashMap<>();
+
+    // Conservative bounds: removals may leave them loose, the next full pass tightens them
+    private long highestStop = Long.MIN_VALUE;
+    private long lowestHighWater = Long.MAX_VALUE;
+
+    void add(long id, long trail, long highWater) {
+        if (trail <= 0) {
+            throw new IllegalArgumentException("Trail must be positive");
+        }
+        remove(id);
+        NavigableMap<Long, Bucket> group = groupsByTrail.computeIfAbsent(trail, t -> new TreeMap<>());
+        Bucket bucket = group.computeIfAbsent(highWater, hw -> new Bucket(trail, hw));
+        bucket.ids.add(id);
+        bucketById.put(id, bucket);
+        highestStop = Math.max(highestStop, highWater - trail);
+        lowestHighWater = Math.min(lowestHighWater, highWater);
+    }
+
+    boolean remove(long id) {
+        Bucket bucket = bucketById.remove(id);
+        if (bucket == null) {
+            return false;
+        }
+        bucket.ids.remove(id);
+        if (bucket.ids.isEmpty()) {
+            NavigableMap<Long, Bucket> group = groupsByTrail.get(bucket.trail);
+            group.remove(bucket.highWater);
+            if (group.isEmpty()) {
+                groupsByTrail.remove(bucket.trail);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Current stop level of an order, or {@code Long.MIN_VALUE} if it is not resting.
+     */
+    long stopOf(long id) {
+        Bucket bucket = bucketById.get(id);
+        return bucket == null ? Long.MIN_VALUE : bucket.highWater - bucket.trail;
+    }
+
+    /**
+     * Apply a price: fire orders whose stop is at or above it, then raise the
+     * high-water mark of every order below it.
+     *
+     * @param fired list to append fired ids to, or {@code null} to allocate one when needed
+     * @return the list fired ids were appended to, {@code null} if none and none was given
+     */
+    List<Long> onPrice(long price, List<Long> fired) {
+        if (price > highestStop && price <= lowestHighWater) {
+            return fired;
+        }
+
+        long newHighestStop = Long.MIN_VALUE;
+        long newLowestHighWater = Long.MAX_VALUE;
+        Iterator<Map.Entry<Long, NavigableMap<Long, Bucket>>> groups = groupsByTrail.entrySet().iterator();
+        while (groups.hasNext()) {
+            Map.Entry<Long, NavigableMap<Long, Bucket>> entry = groups.next();
+            long trail = entry.getKey();
+            NavigableMap<Long, Bucket> group = entry.getValue();
+
+            // Fire where highWater - trail >= price; most ticks fire nothing and raise nothing
+            if (group.lastKey() >= price + trail) {
+                if (fired == null) {
+                    fired = new ArrayList<>();
+                }
+                NavigableMap<Long, Bucket> triggered = group.tailMap(price + trail, true);
+                for (Bucket bucket : triggered.values()) {
+                    for (Long id : bucket.ids) {
+                        bucketById.remove(id);
+                        fired.add(id);
+                    }
+                }
+                triggered.clear();
+            }
+
+            if (!group.isEmpty() && group.firstKey() < price) {
+                raise(group, group.headMap(price, false), price);
+            }
+
+            if (group.isEmpty()) {
+                groups.remove();
+            } else {
+                newHighestStop = Math.max(newHighestStop, group.lastKey() - trail);
+                newLowestHighWater = Math.min(newLowestHighWater, group.firstKey());
+            }
+        }
+        highestStop = newHighestStop;
+        lowestHighWater = newLowestHighWater;
+        return fired;
+    }
+
+    int size() {
+        return bucketById.size();
+    }
+
+    private void raise(NavigableMap<Long, Bucket> group, NavigableMap<Long, Bucket> stale, long price) {
+        Bucket survivor = group.get(price);
+        for (Bucket bucket : stale.values()) {
+            if (survivor == null || bucket.ids.size() > survivor.ids.size()) {
+                survivor = bucket;
+            }
+        }
+        for (Bucket bucket : stale.values()) {
+            absorb(survivor, bucket);
+        }
+        Bucket atPrice = group.get(price);
+        if (atPrice != null) {
+            absorb(survivor, atPrice);
+        }
+        stale.clear();
+        survivor.highWater = price;
+        group.put(price, survivor);
+    }
+
+    private void absorb(Bucket survivor, Bucket bucket) {
+        if (bucket == survivor) {
+            return;
+        }
+        for (Long id : bucket.ids) {
+            bucketById.put(id, survivor);
+        }
+        survivor.ids.addAll(bucket.ids);
+        bucket.ids.clear();
+    }
+
+    private static final class Bucket {
+        private final long trail;
+        private long highWater;
+        private final Set<Long> ids = new HashSet<>();
+
+        private Bucket(long trail, long highWater) {
+            this.trail = trail;
+            this.highWater = highWater;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.CircuitBreakerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Limit-up/limit-down style circuit breaker, checked inline on every price update.
+ * Each symbol's reference price is the mean of its last committed prices, kept
+ * as a running sum over a ring of fixed-point ticks, so checking a price is
+ * constant time. A price further than the band from the reference is rejected
+ * and halts the symbol. Prices inside the band are still accepted during a halt.
+ * When the halt ends, the next price inside the wider reopening band around the
+ * reference reopens the symbol. Until it commits, that price is the reference
+ * other prices are checked against; once it commits the window is cleared and it
+ * becomes the sole reference, as a reopening auction would set it. If it rolls
+ * back, the symbol waits for another reopening price. A price outside the
+ * reopening band is rejected and halts the symbol again.
+ *
+ * <p>Prices are only checked inline; they enter the window once the update
+ * commits, so a rolled back update never moves the reference.
+ *
+ * <p>State is held in an array indexed by {@link SymbolRegistry} id. The halt
+ * check reads one volatile field and takes no lock.
+ */
+@Service
+public class VolatilityCircuitBreaker implements CircuitBreakerService {
+
+    private static final Logger log = LoggerFactory.getLogger(VolatilityCircuitBreaker.class);
+
+    private final SymbolRegistry symbolRegistry;
+    private final boolean enabled;
+    private final long bandBasisPoints;
+    private final long reopenBandBasisPoints;
+    private final int windowTicks;
+    private final long haltMillis;
+    private final Counter halts;
+    private final Counter rejectedPrices;
+    private volatile Band[] bands = new Band[0];
+
+    @Autowired
+    public VolatilityCircuitBreaker(SymbolRegistry symbolRegistry,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${stocktrading.circuit-breaker.enabled:true}") boolean enabled,
+                                    @Value("${stocktrading.circuit-breaker.band-percent:10}") double bandPercent,
+                                    @Value("${stocktrading.circuit-breaker.reopen-band-percent:20}") double reopenBandPercent,
+                                    @Value("${stocktrading.circuit-breaker.window-ticks:20}") int windowTicks,
+                                    @Value("${stocktrading.circuit-breaker.halt-seconds:300}") long haltSeconds) {
+        if (bandPercent <= 0 || reopenBandPercent < bandPercent || windowTicks <= 0 || haltSeconds < 0) {
+            throw new IllegalArgumentException("Circuit breaker settings must be positive");
+        }
+        this.symbolRegistry = symbolRegistry;
+        this.enabled = enabled;
+        this.bandBasisPoints = Math.round(bandPercent * 100);
+        this.reopenBandBasisPoints = Math.round(reopenBandPercent * 100);
+        this.windowTicks = windowTicks;
+        this.haltMillis = haltSeconds * 1000;
+        this.halts = meterRegistry.counter("stocktrading.circuit-breaker.halts");
+        this.rejectedPrices = meterRegistry.counter("stocktrading.circuit-breaker.rejected-prices");
+    }
+
+    @Override
+    public boolean isHalted(String symbol) {
+        int id = symbolRegistry.idOf(symbol);
+        Band[] current = bands;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            return false;
+        }
+        long haltedUntil = current[id].haltedUntil;
+        return haltedUntil != 0 && System.currentTimeMillis() < haltedUntil;
+    }
+
+    @Override
+    public Optional<TradingStatus> getTradingStatus(String symbol) {
+        int id = symbolRegistry.idOf(symbol);
+        if (id < 0) {
+            return Optional.empty();
+        }
+        String listed = symbolRegistry.symbolOf(id);
+        Band[] current = bands;
+        Band band = id < current.length ? current[id] : null;
+        if (band == null) {
+            return Optional.of(new TradingStatus(listed, false, null, null, null, null));
+        }
+        synchronized (band) {
+            long now = System.currentTimeMillis();
+            boolean halted = band.haltedUntil != 0 && now < band.haltedUntil;
+            LocalDateTime haltedUntil = halted
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(band.haltedUntil), ZoneId.systemDefault())
+                    : null;
+            if (!band.hasReference()) {
+                return Optional.of(new TradingStatus(listed, halted, haltedUntil, null, null, null));
+            }
+            long reference = band.reference();
+            long width = band.awaitsReopening(now) ? reopenWidth(reference) : width(reference);
+            return Optional.of(new TradingStatus(listed, halted, haltedUntil, PriceTicks.toPrice(reference),
+                    PriceTicks.toPrice(reference - width), PriceTicks.toPrice(reference + width)));
+        }
+    }
+
+    /**
+     * Check a price update against the symbol's band; {@link #accept} adds it to the window once it commits.
+     * The last committed price is only read to seed an empty window.
+     *
+     * @return whether the price reopens the symbol; the caller calls {@link #cancelReopening} if it rolls back
+     * @throws IllegalArgumentException if the price is outside the band; the symbol is then halted
+     */
+    boolean admit(String symbol, BigDecimal price, Supplier<BigDecimal> lastPrice) {
+        if (!enabled) {
+            return false;
+        }
+        int id = symbolRegistry.idOf(symbol);
+        if (id < 0) {
+            return false;
+        }
+        Band band = bandFor(id);
+        long ticks = PriceTicks.toTicks(price);
+        while (true) {
+            if (!band.hasReference()) {
+                // Read outside the lock, which only guards in-memory state
+                band.seed(PriceTicks.toTicks(lastPrice.get()));
+            }
+            long now = System.currentTimeMillis();
+            synchronized (band) {
+                if (!band.hasReference()) {
+                    continue; // reset since it was seeded
+                }
+                long reference = band.reference();
+                boolean reopening = band.awaitsReopening(now);
+                long width = reopening ? reopenWidth(reference) : width(reference);
+                if (Math.abs(ticks - reference) > width) {
+                    rejectedPrices.increment();
+                    if (band.haltedUntil == 0 || reopening) {
+                        band.haltedUntil = now + haltMillis;
+                        halts.increment();
+                        log.warn("Halted trading in {}: price {} is outside the {}% band around {}", symbol, price,
+                                (reopening ? reopenBandBasisPoints : bandBasisPoints) / 100.0, PriceTicks.toPrice(reference));
+                    }
+                    throw new IllegalArgumentException("Price " + price + " for " + symbol + " is outside its band");
+                }
+                if (reopening) {
+                    band.startReopening(ticks);
+                    log.info("Trading in {} resumed at {}", symbol, price);
+                }
+                return reopening;
+            }
+        }
+    }
+
+    /**
+     * Add a committed price to the symbol's window; a committed reopening price replaces the window.
+     * Other prices committed while a reopening price is pending are superseded by it.
+     */
+    void accept(String symbol, BigDecimal price, boolean reopening) {
+        if (!enabled) {
+            return;
+        }
+        int id = symbolRegistry.idOf(symbol);
+        if (id < 0) {
+            return;
+        }
+        Band band = bandFor(id);
+        synchronized (band) {
+            if (reopening) {
+                band.reopen(PriceTicks.toTicks(price));
+            } else if (band.pendingReference == 0) {
+                band.add(PriceTicks.toTicks(price));
+            }
+        }
+    }
+
+    /**
+     * Put a symbol back to waiting for a reopening price after the one it admitted rolled back.
+     */
+    void cancelReopening(String symbol) {
+        int id = symbolRegistry.idOf(symbol);
+        Band[] current = bands;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            return;
+        }
+        Band band = current[id];
+        synchronized (band) {
+            band.cancelReopening();
+        }
+    }
+
+    /**
+     * Forget a symbol's window and any halt, so the next price is checked against a
+     * band seeded from the database. For a stock row replaced outside price updates,
+     * such as a partition handed over from another node.
+     */
+    public void reset(String symbol) {
+        int id = symbolRegistry.idOf(symbol);
+        Band[] current = bands;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            return;
+        }
+        Band band = current[id];
+        synchronized (band) {
+            band.clear();
+        }
+    }
+
+    private long width(long reference) {
+        return reference * bandBasisPoints / 10_000;
+    }
+
+    private long reopenWidth(long reference) {
+        return reference * reopenBandBasisPoints / 10_000;
+    }
+
+    private Band bandFor(int id) {
+        Band[] current = bands;
+        if (id < current.length && current[id] != null) {
+            return current[id];
+        }
+        synchronized (this) {
+            Band[] grown = id < bands.length ? bands : Arrays.copyOf(bands, Math.max(id + 1, bands.length * 2));
+            if (grown[id] == null) {
+                grown[id] = new Band(windowTicks);
+            }
+            bands = grown;
+            return grown[id];
+        }
+    }
+
+    /**
+     * Rolling window of one symbol's accepted prices, guarded by its own monitor.
+     */
+    private static final class Band {
+        private final long[] window;
+        private int next;
+        private int count;
+        private long sum;
+        private volatile long haltedUntil;
+        // The admitted reopening price until it commits, else 0
+        private long pendingReference;
+        // The expired halt a pending reopening ended
+        private long reopenedHalt;
+
+        Band(int windowTicks) {
+            this.window = new long[windowTicks];
+        }
+
+        long reference() {
+            return pendingReference != 0 ? pendingReference : sum / count;
+        }
+
+        synchronized boolean hasReference() {
+            return count > 0 || pendingReference != 0;
+        }
+
+        /**
+         * Whether the halt has ended and no reopening price is pending yet.
+         */
+        boolean awaitsReopening(long now) {
+            return pendingReference == 0 && haltedUntil != 0 && now >= haltedUntil;
+        }
+
+        /**
+         * Start an empty window from the last committed price, unless a price arrived meanwhile.
+         */
+        synchronized void seed(long ticks) {
+            if (!hasReference()) {
+                add(ticks);
+            }
+        }
+
+        void add(long ticks) {
+            if (count == window.length) {
+                sum -= window[next];
+            } else {
+                count++;
+            }
+            window[next] = ticks;
+            sum += ticks;
+            next = (next + 1) % window.length;
+        }
+
+        void clear() {
+            next = 0;
+            count = 0;
+            sum = 0;
+            haltedUntil = 0;
+            pendingReference = 0;
+        }
+
+        /**
+         * Lift the halt and check prices against the reopening price until it commits or rolls back.
+         */
+        void startReopening(long ticks) {
+            pendingReference = ticks;
+            reopenedHalt = haltedUntil;
+            haltedUntil = 0;
+        }
+
+        /**
+         * Make a committed reopening price the sole reference.
+         */
+        void reopen(long ticks) {
+            next = 0;
+            count = 0;
+            sum = 0;
+            pendingReference = 0;
+            add(ticks);
+        }
+
+        /**
+         * Restore the expired halt, unless a price halted the symbol again meanwhile.
+         */
+        void cancelReopening() {
+            if (pendingReference == 0) {
+                return;
+            }
+            pendingReference = 0;
+            if (haltedUntil == 0) {
+                haltedUntil = reopenedHalt;
+            }
+        }
+    }
+}
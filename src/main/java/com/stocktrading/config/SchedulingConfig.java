@@ -0,0 +1,12 @@
+package com.stocktrading.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs such as periodic state snapshots.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,60 @@
+package com.stocktrading.domain.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * How many shares of one stock a user held at a checkpoint, derived from the executed trade history.
+ * A checkpoint holds a row for every stock the user held or traded since their
+ * previous checkpoint, so a user who sold out still has rows, with zero quantity.
+ */
+@Entity
+@Table(name = "holdings_checkpoints", indexes = {
+        @Index(name = "idx_holdings_checkpoints_user_taken_at", columnList = "user_id, taken_at"),
+        @Index(name = "idx_holdings_checkpoints_taken_at", columnList = "taken_at")
+})
+public class HoldingsCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @NotBlank(message = "User ID is required")
+    private String userId;
+
+    @Column(nullable = false)
+    @NotBlank(message = "Stock symbol is required")
+    private String stockSymbol;
+
+    @Column(nullable = false)
+    @NotNull(message = "Quantity is required")
+    @PositiveOrZero(message = "Quantity must be non-negative")
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    protected HoldingsCheckpoint() {
+        // JPA requires default constructor
+    }
+
+    public HoldingsCheckpoint(String userId, String stockSymbol, Integer quantity, LocalDateTime takenAt) {
+        this.userId = Objects.requireNonNull(userId, "User ID cannot be null");
+        this.stockSymbol = Objects.requireNonNull(stockSymbol, "Stock symbol cannot be null");
+        this.quantity = Objects.requireNonNull(quantity, "Quantity cannot be null");
+        this.takenAt = Objects.requireNonNull(takenAt, "Checkpoint time cannot be null");
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getUserId() { return userId; }
+    public String getStockSymbol() { return stockSymbol; }
+    public Integer getQuantity() { return quantity; }
+    public LocalDateTime getTakenAt() { return takenAt; }
+}
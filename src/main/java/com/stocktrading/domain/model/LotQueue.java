@@ -0,0 +1,294 @@
+package com.stocktrading.domain.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tax lots of one holding, oldest first, in parallel primitive arrays.
+ * Lots are appended at the tail with increasing ids, so FIFO sells consume from
+ * the head, LIFO sells from the tail, and a specific lot is found by binary
+ * search on id. A lot sold out of the middle is left as an empty tombstone and
+ * dropped at the next compaction. Every lot is consumed at most once, so sells
+ * are amortized O(1) per lot regardless of how many lots the holding has.
+ *
+ * <p>Every lot a call adds or reduces is recorded as a change, so the owner
+ * can persist just those lots instead of rewriting the whole queue.
+ *
+ * <p>Costs are per-share prices in ten-thousandths; timestamps are epoch millis.
+ */
+public final class LotQueue {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids;
+    private int[] quantities;
+    private long[] costs;
+    private long[] acquiredAt;
+    private int head;
+    private int tail;
+    private int openLots;
+    private long nextId = 1;
+    private long totalQuantity;
+    private long totalCost;
+    private List<Lot> changes = new ArrayList<>();
+
+    public LotQueue() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private LotQueue(int capacity) {
+        ids = new long[capacity];
+        quantities = new int[capacity];
+        costs = new long[capacity];
+        acquiredAt = new long[capacity];
+    }
+
+    /**
+     * Append a lot and return its id.
+     */
+    public long add(int quantity, long cost, long acquiredAtMillis) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Lot quantity must be positive");
+        }
+        if (cost < 0) {
+            throw new IllegalArgumentException("Lot cost cannot be negative");
+        }
+        if (tail == ids.length) {
+            makeRoom();
+        }
+        long id = nextId++;
+        ids[tail] = id;
+        quantities[tail] = quantity;
+        costs[tail] = cost;
+        acquiredAt[tail] = acquiredAtMillis;
+        tail++;
+        openLots++;
+        totalQuantity += quantity;
+        totalCost += quantity * cost;
+        changes.add(new Lot(id, quantity, cost, acquiredAtMillis));
+        return id;
+    }
+
+    /**
+     * Remove shares from the oldest lots first.
+     *
+     * @return cost basis of the removed shares
+     */
+    public long removeFirstIn(int quantity) {
+        checkAvailable(quantity);
+        long removedCost = 0;
+        int remaining = quantity;
+        while (remaining > 0) {
+            while (quantities[head] == 0) {
+                head++;
+            }
+            int taken = Math.min(remaining, quantities[head]);
+            removedCost += take(head, taken);
+            remaining -= taken;
+        }
+        trim();
+        return removedCost;
+    }
+
+    /**
+     * Remove shares from the newest lots first.
+     *
+     * @return cost basis of the removed shares
+     */
+    public long removeLastIn(int quantity) {
+        checkAvailable(quantity);
+        long removedCost = 0;
+        int remaining = quantity;
+        while (remaining > 0) {
+            while (quantities[tail - 1] == 0) {
+                tail--;
+            }
+            int taken = Math.min(remaining, quantities[tail - 1]);
+            removedCost += take(tail - 1, taken);
+            remaining -= taken;
+        }
+        trim();
+        return removedCost;
+    }
+
+    /**
+     * Remove shares from one lot.
+     *
+     * @return cost basis of the removed shares
+     */
+    public long removeFromLot(long lotId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        int index = Arrays.binarySearch(ids, head, tail, lotId);
+        if (index < 0 || quantities[index] == 0) {
+            throw new IllegalArgumentException("Lot not found: " + lotId);
+        }
+        if (quantities[index] < quantity) {
+            throw new IllegalArgumentException("Lot " + lotId + " holds only " + quantities[index] + " shares");
+        }
+        long removedCost = take(index, quantity);
+        trim();
+        return removedCost;
+    }
+
+    /**
+     * Shares remaining in a lot, zero if it is closed or unknown.
+     */
+    public int getLotQuantity(long lotId) {
+        int index = Arrays.binarySearch(ids, head, tail, lotId);
+        return index < 0 ? 0 : quantities[index];
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public long getTotalCost() {
+        return totalCost;
+    }
+
+    public int getOpenLots() {
+        return openLots;
+    }
+
+    public List<Lot> getLots() {
+        List<Lot> lots = new ArrayList<>(openLots);
+        for (int i = head; i < tail; i++) {
+            if (quantities[i] > 0) {
+                lots.add(new Lot(ids[i], quantities[i], costs[i], acquiredAt[i]));
+            }
+        }
+        return lots;
+    }
+
+    /**
+     * The id the next added lot will get.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Lots added or reduced since the last call, in the order they changed.
+     * A lot that was sold out appears with quantity zero.
+     */
+    public List<Lot> drainChanges() {
+        List<Lot> drained = changes;
+        changes = new ArrayList<>();
+        return drained;
+    }
+
+    /**
+     * Rebuild a queue from its open lots in id order; the result has no pending changes.
+     */
+    public static LotQueue restore(long nextId, List<Lot> lots) {
+        LotQueue queue = new LotQueue(Math.max(INITIAL_CAPACITY, lots.size()));
+        long previousId = 0;
+        for (Lot lot : lots) {
+            if (lot.getId() <= previousId || lot.getId() >= nextId || lot.getQuantity() <= 0) {
+                throw new IllegalStateException("Lots must be open, in id order and below " + nextId);
+            }
+            previousId = lot.getId();
+            int i = queue.tail++;
+            queue.ids[i] = lot.getId();
+            queue.quantities[i] = lot.getQuantity();
+            queue.costs[i] = lot.getCost();
+            queue.acquiredAt[i] = lot.getAcquiredAt();
+            queue.totalQuantity += lot.getQuantity();
+            queue.totalCost += lot.getQuantity() * lot.getCost();
+        }
+        queue.openLots = lots.size();
+        queue.nextId = nextId;
+        return queue;
+    }
+
+    private long take(int index, int quantity) {
+        quantities[index] -= quantity;
+        if (quantities[index] == 0) {
+            openLots--;
+        }
+        long removedCost = quantity * costs[index];
+        totalQuantity -= quantity;
+        totalCost -= removedCost;
+        changes.add(new Lot(ids[index], quantities[index], costs[index], acquiredAt[index]));
+        return removedCost;
+    }
+
+    private void checkAvailable(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (quantity > totalQuantity) {
+            throw new IllegalArgumentException("Cannot remove more shares than owned");
+        }
+    }
+
+    /**
+     * Drop tombstones at either end so head and tail always point at open lots.
+     */
+    private void trim() {
+        while (head < tail && quantities[head] == 0) {
+            head++;
+        }
+        while (tail > head && quantities[tail - 1] == 0) {
+            tail--;
+        }
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+    }
+
+    /**
+     * Compact open lots to the front, growing only if they fill more than half the arrays.
+     */
+    private void makeRoom() {
+        int capacity = openLots * 2 > ids.length ? ids.length * 2 : ids.length;
+        long[] newIds = capacity == ids.length ? ids : new long[capacity];
+        int[] newQuantities = capacity == ids.length ? quantities : new int[capacity];
+        long[] newCosts = capacity == ids.length ? costs : new long[capacity];
+        long[] newAcquiredAt = capacity == ids.length ? acquiredAt : new long[capacity];
+
+        int size = 0;
+        for (int i = head; i < tail; i++) {
+            if (quantities[i] > 0) {
+                newIds[size] = ids[i];
+                newQuantities[size] = quantities[i];
+                newCosts[size] = costs[i];
+                newAcquiredAt[size] = acquiredAt[i];
+                size++;
+            }
+        }
+        ids = newIds;
+        quantities = newQuantities;
+        costs = newCosts;
+        acquiredAt = newAcquiredAt;
+        head = 0;
+        tail = size;
+    }
+
+    /**
+     * An open lot.
+     */
+    public static final class Lot {
+        private final long id;
+        private final int quantity;
+        private final long cost;
+        private final long acquiredAt;
+
+        public Lot(long id, int quantity, long cost, long acquiredAt) {
+            this.id = id;
+            this.quantity = quantity;
+            this.cost = cost;
+            this.acquiredAt = acquiredAt;
+        }
+
+        // Getters
+        public long getId() { return id; }
+        public int getQuantity() { return quantity; }
+        public long getCost() { return cost; }
+        public long getAcquiredAt() { return acquiredAt; }
+    }
+}
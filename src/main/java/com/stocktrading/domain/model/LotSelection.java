@@ -0,0 +1,63 @@
+package com.stocktrading.domain.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Which tax lots a sell consumes.
+ */
+public final class LotSelection {
+
+    private static final LotSelection FIRST_IN = new LotSelection(Method.FIFO, List.of());
+    private static final LotSelection LAST_IN = new LotSelection(Method.LIFO, List.of());
+
+    private final Method method;
+    private final List<Long> lotIds;
+
+    private LotSelection(Method method, List<Long> lotIds) {
+        this.method = method;
+        this.lotIds = lotIds;
+    }
+
+    public static LotSelection fifo() {
+        return FIRST_IN;
+    }
+
+    public static LotSelection lifo() {
+        return LAST_IN;
+    }
+
+    /**
+     * Consume the given lots in order.
+     */
+    public static LotSelection specific(List<Long> lotIds) {
+        if (lotIds == null || lotIds.isEmpty()) {
+            throw new IllegalArgumentException("Specific lot selection requires lot IDs");
+        }
+        return new LotSelection(Method.SPECIFIC, List.copyOf(lotIds));
+    }
+
+    public static LotSelection of(Method method, List<Long> lotIds) {
+        Objects.requireNonNull(method, "Lot method cannot be null");
+        switch (method) {
+            case FIFO:
+                return fifo();
+            case LIFO:
+                return lifo();
+            default:
+                return specific(lotIds);
+        }
+    }
+
+    public Method getMethod() { return method; }
+    public List<Long> getLotIds() { return lotIds; }
+
+    @Override
+    public String toString() {
+        return method == Method.SPECIFIC ? method + lotIds.toString() : method.name();
+    }
+
+    public enum Method {
+        FIFO, LIFO, SPECIFIC
+    }
+}
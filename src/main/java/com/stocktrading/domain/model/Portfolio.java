@@ -4,15 +4,26 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.SQLOrder;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Entity
-@Table(name = "portfolios")
+@Table(name = "portfolios", uniqueConstraints =
+        @UniqueConstraint(name = "uk_portfolios_user_symbol", columnNames = {"user_id", "stock_symbol"}))
 public class Portfolio {
 
+    private static final int COST_SCALE = 4;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -38,6 +49,24 @@ public class Portfolio {
     @Column(nullable = false)
     private LocalDateTime lastUpdated;
 
+    /**
+     * Open lots by id, one row each, so a trade writes only the lots it adds or reduces.
+     * Lots of holdings loaded together are fetched in one query, already in id order,
+     * so the queue is rebuilt in one pass without sorting.
+     */
+    @ElementCollection
+    @CollectionTable(name = "tax_lots", joinColumns = @JoinColumn(name = "portfolio_id"))
+    @MapKeyColumn(name = "lot_id")
+    @Fetch(FetchMode.SUBSELECT)
+    @SQLOrder("lot_id")
+    private Map<Long, TaxLot> lotRows = new LinkedHashMap<>();
+
+    // Null for holdings stored before lot tracking
+    private Long nextLotId;
+
+    @Transient
+    private LotQueue lots;
+
     protected Portfolio() {
         // JPA requires default constructor
     }
@@ -55,6 +84,8 @@ public class Portfolio {
         if (averagePurchasePrice.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Average purchase price cannot be negative");
         }
+        lots();
+        storeLots();
     }
 
     public void addShares(Integer sharesToAdd, BigDecimal purchasePrice) {
@@ -65,17 +96,28 @@ public class Portfolio {
             throw new IllegalArgumentException("Purchase price must be positive");
         }
 
-        // Calculate new average purchase price
-        BigDecimal totalValue = this.averagePurchasePrice.multiply(BigDecimal.valueOf(this.quantity));
-        BigDecimal newSharesValue = purchasePrice.multiply(BigDecimal.valueOf(sharesToAdd));
-        BigDecimal newTotalValue = totalValue.add(newSharesValue);
-        
+        lots().add(sharesToAdd, toCost(purchasePrice), System.currentTimeMillis());
+        storeLots();
         this.quantity += sharesToAdd;
-        this.averagePurchasePrice = newTotalValue.divide(BigDecimal.valueOf(this.quantity), 2, java.math.RoundingMode.HALF_UP);
+        updateAveragePurchasePrice();
         this.lastUpdated = LocalDateTime.now();
     }
 
-    public void removeShares(Integer sharesToRemove) {
+    /**
+     * Remove shares from the oldest lots first.
+     *
+     * @return exact cost basis of the removed shares
+     */
+    public BigDecimal removeShares(Integer sharesToRemove) {
+        return removeShares(sharesToRemove, LotSelection.fifo());
+    }
+
+    /**
+     * Remove shares from the selected lots.
+     *
+     * @return exact cost basis of the removed shares
+     */
+    public BigDecimal removeShares(Integer sharesToRemove, LotSelection selection) {
         if (sharesToRemove == null || sharesToRemove <= 0) {
             throw new IllegalArgumentException("Shares to remove must be positive");
         }
@@ -83,8 +125,136 @@ public class Portfolio {
             throw new IllegalArgumentException("Cannot remove more shares than owned");
         }
 
+        LotQueue queue = lots();
+        long removedCost;
+        switch (selection.getMethod()) {
+            case LIFO:
+                removedCost = queue.removeLastIn(sharesToRemove);
+                break;
+            case SPECIFIC:
+                removedCost = removeFromLots(queue, sharesToRemove, selection.getLotIds());
+                break;
+            default:
+                removedCost = queue.removeFirstIn(sharesToRemove);
+        }
+        storeLots();
+
         this.quantity -= sharesToRemove;
+        if (this.quantity > 0) {
+            updateAveragePurchasePrice();
+        }
         this.lastUpdated = LocalDateTime.now();
+        return BigDecimal.valueOf(removedCost, COST_SCALE);
+    }
+
+    /**
+     * Whether a sell of the given size can be filled from the selected lots.
+     */
+    public boolean canRemoveShares(int sharesToRemove, LotSelection selection) {
+        if (sharesToRemove <= 0 || sharesToRemove > this.quantity) {
+            return false;
+        }
+        return selection.getMethod() != LotSelection.Method.SPECIFIC
+                || availableInLots(lots(), selection.getLotIds()) >= sharesToRemove;
+    }
+
+    public List<LotQueue.Lot> getLots() {
+        return lots().getLots();
+    }
+
+    /**
+     * A copy outside any persistence context, with its lots already decoded,
+     * so it can be shared read-only between threads.
+     */
+    public Portfolio detachedCopy() {
+        Portfolio copy = new Portfolio();
+        copy.id = id;
+        copy.userId = userId;
+        copy.stockSymbol = stockSymbol;
+        copy.quantity = quantity;
+        copy.averagePurchasePrice = averagePurchasePrice;
+        copy.lastUpdated = lastUpdated;
+        LotQueue source = lots();
+        copy.lots = LotQueue.restore(source.getNextId(), source.getLots());
+        copy.nextLotId = nextLotId;
+        return copy;
+    }
+
+    public static BigDecimal toPrice(long cost) {
+        return BigDecimal.valueOf(cost, COST_SCALE);
+    }
+
+    private static long removeFromLots(LotQueue queue, int sharesToRemove, List<Long> lotIds) {
+        long available = availableInLots(queue, lotIds);
+        if (available < sharesToRemove) {
+            throw new IllegalArgumentException("Selected lots hold only " + available + " shares");
+        }
+
+        long removedCost = 0;
+        int remaining = sharesToRemove;
+        for (Long lotId : lotIds) {
+            int taken = Math.min(remaining, queue.getLotQuantity(lotId));
+            if (taken > 0) {
+                removedCost += queue.removeFromLot(lotId, taken);
+                remaining -= taken;
+            }
+        }
+        return removedCost;
+    }
+
+    private static long availableInLots(LotQueue queue, List<Long> lotIds) {
+        long available = 0;
+        for (Long lotId : new LinkedHashSet<>(lotIds)) {
+            available += queue.getLotQuantity(lotId);
+        }
+        return available;
+    }
+
+    /**
+     * Lots are read from their rows on first use. Holdings stored before lot
+     * tracking become a single lot at the average purchase price, stored with
+     * the next change.
+     */
+    private LotQueue lots() {
+        if (lots == null) {
+            if (nextLotId != null) {
+                List<LotQueue.Lot> open = new ArrayList<>(lotRows.size());
+                lotRows.forEach((id, row) -> open.add(row.toLot(id)));
+                lots = LotQueue.restore(nextLotId, open);
+            } else {
+                lots = new LotQueue();
+                if (quantity > 0) {
+                    lots.add(quantity, toCost(averagePurchasePrice), System.currentTimeMillis());
+                }
+            }
+        }
+        return lots;
+    }
+
+    /**
+     * Derive the rounded average from the exact lot costs, so rounding never compounds.
+     */
+    private void updateAveragePurchasePrice() {
+        this.averagePurchasePrice = BigDecimal.valueOf(lots().getTotalCost(), COST_SCALE)
+                .divide(BigDecimal.valueOf(this.quantity), 2, java.math.RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Write back only the lots the last change touched.
+     */
+    private void storeLots() {
+        for (LotQueue.Lot lot : lots.drainChanges()) {
+            if (lot.getQuantity() == 0) {
+                lotRows.remove(lot.getId());
+            } else {
+                lotRows.put(lot.getId(), new TaxLot(lot));
+            }
+        }
+        this.nextLotId = lots.getNextId();
+    }
+
+    private static long toCost(BigDecimal price) {
+        return price.setScale(COST_SCALE, java.math.RoundingMode.HALF_UP).unscaledValue().longValueExact();
     }
 
     public BigDecimal getTotalValue(BigDecimal currentStockPrice) {
@@ -95,7 +265,7 @@ public class Portfolio {
     }
 
     public BigDecimal getTotalCost() {
-        return this.averagePurchasePrice.multiply(BigDecimal.valueOf(this.quantity));
+        return BigDecimal.valueOf(lots().getTotalCost(), COST_SCALE).setScale(2, java.math.RoundingMode.HALF_UP);
     }
 
     public BigDecimal getGainLoss(BigDecimal currentStockPrice) {
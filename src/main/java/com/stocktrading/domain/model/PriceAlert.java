@@ -0,0 +1,80 @@
+package com.stocktrading.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A standing request to be notified when a stock price crosses a threshold.
+ */
+public class PriceAlert {
+
+    private final Long id;
+    private final String userId;
+    private final String stockSymbol;
+    private final BigDecimal threshold;
+    private final Direction direction;
+    private final LocalDateTime createdAt;
+    private volatile LocalDateTime triggeredAt;
+    private volatile BigDecimal triggeredPrice;
+
+    public PriceAlert(Long id, String userId, String stockSymbol, BigDecimal threshold, Direction direction) {
+        this.id = Objects.requireNonNull(id, "Alert ID cannot be null");
+        this.userId = Objects.requireNonNull(userId, "User ID cannot be null");
+        this.stockSymbol = Objects.requireNonNull(stockSymbol, "Stock symbol cannot be null");
+        this.threshold = Objects.requireNonNull(threshold, "Threshold cannot be null");
+        this.direction = Objects.requireNonNull(direction, "Direction cannot be null");
+        this.createdAt = LocalDateTime.now();
+
+        if (threshold.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+    }
+
+    public void markAsTriggered(BigDecimal price) {
+        this.triggeredPrice = Objects.requireNonNull(price, "Triggered price cannot be null");
+        this.triggeredAt = LocalDateTime.now();
+    }
+
+    public boolean isTriggered() {
+        return triggeredAt != null;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getUserId() { return userId; }
+    public String getStockSymbol() { return stockSymbol; }
+    public BigDecimal getThreshold() { return threshold; }
+    public Direction getDirection() { return direction; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getTriggeredAt() { return triggeredAt; }
+    public BigDecimal getTriggeredPrice() { return triggeredPrice; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PriceAlert that = (PriceAlert) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "PriceAlert{" +
+                "id=" + id +
+                ", userId='" + userId + '\'' +
+                ", stockSymbol='" + stockSymbol + '\'' +
+                ", direction=" + direction +
+                ", threshold=" + threshold +
+                '}';
+    }
+
+    public enum Direction {
+        ABOVE, BELOW
+    }
+}
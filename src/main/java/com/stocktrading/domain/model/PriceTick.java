@@ -0,0 +1,44 @@
+package com.stocktrading.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A single historical price observation for a stock.
+ */
+public class PriceTick {
+
+    private final LocalDateTime timestamp;
+    private final BigDecimal price;
+
+    public PriceTick(LocalDateTime timestamp, BigDecimal price) {
+        this.timestamp = Objects.requireNonNull(timestamp, "Timestamp cannot be null");
+        this.price = Objects.requireNonNull(price, "Price cannot be null");
+    }
+
+    // Getters
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public BigDecimal getPrice() { return price; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PriceTick priceTick = (PriceTick) o;
+        return Objects.equals(timestamp, priceTick.timestamp) && Objects.equals(price, priceTick.price);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, price);
+    }
+
+    @Override
+    public String toString() {
+        return "PriceTick{" +
+                "timestamp=" + timestamp +
+                ", price=" + price +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package com.stocktrading.domain.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Profit or loss realized by one sell, measured against the cost of the lots it consumed.
+ */
+@Entity
+@Table(name = "realized_gains", indexes =
+        @Index(name = "idx_realized_gains_user_realized_at", columnList = "user_id, realized_at"))
+public class RealizedGain {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @NotBlank(message = "User ID is required")
+    private String userId;
+
+    @Column(nullable = false)
+    @NotBlank(message = "Stock symbol is required")
+    private String stockSymbol;
+
+    @Column(nullable = false)
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal costBasis;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal proceeds;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal gainLoss;
+
+    @Column(nullable = false)
+    private String lotSelection;
+
+    @Column(nullable = false)
+    private LocalDateTime realizedAt;
+
+    protected RealizedGain() {
+        // JPA requires default constructor
+    }
+
+    public RealizedGain(String userId, String stockSymbol, Integer quantity, BigDecimal costBasis,
+                        BigDecimal salePrice, LotSelection lotSelection) {
+        this.userId = Objects.requireNonNull(userId, "User ID cannot be null");
+        this.stockSymbol = Objects.requireNonNull(stockSymbol, "Stock symbol cannot be null");
+        this.quantity = Objects.requireNonNull(quantity, "Quantity cannot be null");
+        this.costBasis = Objects.requireNonNull(costBasis, "Cost basis cannot be null");
+        this.proceeds = Objects.requireNonNull(salePrice, "Sale price cannot be null").multiply(BigDecimal.valueOf(quantity));
+        this.gainLoss = proceeds.subtract(costBasis);
+        this.lotSelection = Objects.requireNonNull(lotSelection, "Lot selection cannot be null").getMethod().name();
+        this.realizedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getUserId() { return userId; }
+    public String getStockSymbol() { return stockSymbol; }
+    public Integer getQuantity() { return quantity; }
+    public BigDecimal getCostBasis() { return costBasis; }
+    public BigDecimal getProceeds() { return proceeds; }
+    public BigDecimal getGainLoss() { return gainLoss; }
+    public String getLotSelection() { return lotSelection; }
+    public LocalDateTime getRealizedAt() { return realizedAt; }
+
+    @Override
+    public String toString() {
+        return "RealizedGain{" +
+                "userId='" + userId + '\'' +
+                ", stockSymbol='" + stockSymbol + '\'' +
+                ", quantity=" + quantity +
+                ", gainLoss=" + gainLoss +
+                '}';
+    }
+}
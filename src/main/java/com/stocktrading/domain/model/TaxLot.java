@@ -0,0 +1,40 @@
+package com.stocktrading.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Stored form of one open tax lot, a row of the {@code tax_lots} table keyed by holding and lot id.
+ * Immutable: a changed lot is replaced, which updates just its row.
+ */
+@Embeddable
+public class TaxLot {
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private long cost;
+
+    @Column(nullable = false)
+    private long acquiredAt;
+
+    protected TaxLot() {
+        // JPA requires default constructor
+    }
+
+    TaxLot(LotQueue.Lot lot) {
+        this.quantity = lot.getQuantity();
+        this.cost = lot.getCost();
+        this.acquiredAt = lot.getAcquiredAt();
+    }
+
+    LotQueue.Lot toLot(long id) {
+        return new LotQueue.Lot(id, quantity, cost, acquiredAt);
+    }
+
+    // Getters
+    public int getQuantity() { return quantity; }
+    public long getCost() { return cost; }
+    public long getAcquiredAt() { return acquiredAt; }
+}
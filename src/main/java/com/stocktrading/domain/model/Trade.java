@@ -10,7 +10,18 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "trades")
+@Table(name = "trades",
+        uniqueConstraints = @UniqueConstraint(name = "uk_trades_user_idempotency_key",
+                columnNames = {"user_id", "idempotency_key"}),
+        indexes = {
+                @Index(name = "idx_trades_user_timestamp", columnList = "user_id, timestamp"),
+                @Index(name = "idx_trades_user_symbol_timestamp", columnList = "user_id, stock_symbol, timestamp"),
+                @Index(name = "idx_trades_symbol_status", columnList = "stock_symbol, status"),
+                @Index(name = "idx_trades_status_order_type", columnList = "status, order_type"),
+                @Index(name = "idx_trades_user_executed_at", columnList = "user_id, executed_at"),
+                @Index(name = "idx_trades_symbol_executed_at", columnList = "stock_symbol, executed_at"),
+                @Index(name = "idx_trades_executed_at", columnList = "executed_at")
+        })
 public class Trade {
 
     @Id
@@ -50,6 +61,33 @@ public class Trade {
     @Column(length = 500)
     private String statusMessage;
 
+    /**
+     * When the trade changed holdings; a conditional order executes long after its timestamp.
+     */
+    private LocalDateTime executedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderType orderType = OrderType.MARKET;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal triggerPrice;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal trailAmount;
+
+    @Column(length = 64)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TimeInForce timeInForce = TimeInForce.GTC;
+
+    /**
+     * When a resting order is cancelled if it has not filled; null if it rests until cancelled.
+     */
+    private LocalDateTime expiresAt;
+
     protected Trade() {
         // JPA requires default constructor
     }
@@ -66,6 +104,26 @@ public class Trade {
         validateTradeData();
     }
 
+    /**
+     * Create a resting conditional order. The price is provisionally set to the
+     * trigger price and replaced by the execution price once the order fills.
+     */
+    public Trade(String userId, String stockSymbol, TradeType tradeType, Integer quantity,
+                 OrderType orderType, BigDecimal triggerPrice, BigDecimal trailAmount) {
+        this(userId, stockSymbol, tradeType, quantity, triggerPrice);
+        this.orderType = Objects.requireNonNull(orderType, "Order type cannot be null");
+        this.triggerPrice = triggerPrice;
+        this.trailAmount = trailAmount;
+
+        if (orderType == OrderType.MARKET) {
+            throw new IllegalArgumentException("Conditional orders require a non-market order type");
+        }
+        if (orderType == OrderType.TRAILING_STOP
+                && (trailAmount == null || trailAmount.compareTo(BigDecimal.ZERO) <= 0)) {
+            throw new IllegalArgumentException("Trailing stops require a positive trail amount");
+        }
+    }
+
     private void validateTradeData() {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be positive");
@@ -79,8 +137,48 @@ public class Trade {
         return price.multiply(BigDecimal.valueOf(quantity));
     }
 
+    /**
+     * Record the price a conditional order actually filled at.
+     */
+    public void fillAt(BigDecimal executionPrice) {
+        if (executionPrice == null || executionPrice.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Execution price must be positive");
+        }
+        this.price = executionPrice;
+    }
+
+    /**
+     * Tag the trade with the client key it was submitted under, so retries resolve to it.
+     */
+    public void setIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 64)) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to 64 characters");
+        }
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    /**
+     * Set how long the order may rest. DAY and GTD orders need an expiry; GTC and IOC orders must not have one.
+     */
+    public void setTimeInForce(TimeInForce timeInForce, LocalDateTime expiresAt) {
+        Objects.requireNonNull(timeInForce, "Time in force cannot be null");
+        boolean expires = timeInForce == TimeInForce.DAY || timeInForce == TimeInForce.GTD;
+        if (expires != (expiresAt != null)) {
+            throw new IllegalArgumentException(expires
+                    ? timeInForce + " orders require an expiry"
+                    : timeInForce + " orders cannot have an expiry");
+        }
+        this.timeInForce = timeInForce;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isConditional() {
+        return orderType != OrderType.MARKET;
+    }
+
     public void markAsExecuted() {
         this.status = TradeStatus.EXECUTED;
+        this.executedAt = LocalDateTime.now();
         this.statusMessage = "Trade executed successfully";
     }
 
@@ -116,6 +214,13 @@ public class Trade {
     public LocalDateTime getTimestamp() { return timestamp; }
     public TradeStatus getStatus() { return status; }
     public String getStatusMessage() { return statusMessage; }
+    public LocalDateTime getExecutedAt() { return executedAt; }
+    public OrderType getOrderType() { return orderType; }
+    public BigDecimal getTriggerPrice() { return triggerPrice; }
+    public BigDecimal getTrailAmount() { return trailAmount; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public TimeInForce getTimeInForce() { return timeInForce; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
 
     @Override
     public boolean equals(Object o) {
@@ -137,6 +242,7 @@ public class Trade {
                 ", userId='" + userId + '\'' +
                 ", stockSymbol='" + stockSymbol + '\'' +
                 ", tradeType=" + tradeType +
+                ", orderType=" + orderType +
                 ", quantity=" + quantity +
                 ", price=" + price +
                 ", status=" + status +
@@ -148,6 +254,17 @@ public class Trade {
         BUY, SELL
     }
 
+    public enum OrderType {
+        MARKET, STOP_LOSS, TAKE_PROFIT, TRAILING_STOP
+    }
+
+    /**
+     * GTC rests until cancelled, DAY until the market closes, GTD until a given time, and IOC not at all.
+     */
+    public enum TimeInForce {
+        GTC, DAY, GTD, IOC
+    }
+
     public enum TradeStatus {
         PENDING, EXECUTED, FAILED, CANCELLED
     }
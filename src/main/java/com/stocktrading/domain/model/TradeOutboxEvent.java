@@ -0,0 +1,68 @@
+package com.stocktrading.domain.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * An executed trade waiting to be published to in-process subscribers.
+ * Written in the same transaction as the trade, so a committed trade always
+ * has its event and a rolled-back one never does; the row is deleted once
+ * every subscriber has accepted the event.
+ */
+@Entity
+@Table(name = "trade_outbox")
+public class TradeOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long tradeId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private String stockSymbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Trade.TradeType tradeType;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private LocalDateTime executedAt;
+
+    protected TradeOutboxEvent() {
+        // JPA requires default constructor
+    }
+
+    public TradeOutboxEvent(Trade trade) {
+        this.tradeId = Objects.requireNonNull(trade.getId(), "Trade must be saved before it is published");
+        this.userId = trade.getUserId();
+        this.stockSymbol = trade.getStockSymbol();
+        this.tradeType = trade.getTradeType();
+        this.quantity = trade.getQuantity();
+        this.price = trade.getPrice();
+        this.executedAt = trade.getExecutedAt();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getTradeId() { return tradeId; }
+    public String getUserId() { return userId; }
+    public String getStockSymbol() { return stockSymbol; }
+    public Trade.TradeType getTradeType() { return tradeType; }
+    public Integer getQuantity() { return quantity; }
+    public BigDecimal getPrice() { return price; }
+    public LocalDateTime getExecutedAt() { return executedAt; }
+}
@@ -0,0 +1,21 @@
+package com.stocktrading.domain.repository;
+
+import com.stocktrading.domain.model.HoldingsCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HoldingsCheckpointRepository extends JpaRepository<HoldingsCheckpoint, Long> {
+
+    List<HoldingsCheckpoint> findByUserIdAndTakenAt(String userId, LocalDateTime takenAt);
+
+    @Query("SELECT MAX(c.takenAt) FROM HoldingsCheckpoint c WHERE c.userId = :userId AND c.takenAt <= :asOf")
+    LocalDateTime findLatestTakenAt(String userId, LocalDateTime asOf);
+
+    @Query("SELECT MAX(c.takenAt) FROM HoldingsCheckpoint c")
+    LocalDateTime findLastTakenAt();
+}
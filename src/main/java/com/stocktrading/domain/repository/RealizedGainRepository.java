@@ -0,0 +1,18 @@
+package com.stocktrading.domain.repository;
+
+import com.stocktrading.domain.model.RealizedGain;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface RealizedGainRepository extends JpaRepository<RealizedGain, Long> {
+
+    List<RealizedGain> findByUserIdOrderByRealizedAtDesc(String userId);
+
+    @Query("SELECT COALESCE(SUM(r.gainLoss), 0) FROM RealizedGain r WHERE r.userId = :userId")
+    BigDecimal sumGainLossByUserId(String userId);
+}
@@ -0,0 +1,14 @@
+package com.stocktrading.domain.repository;
+
+import com.stocktrading.domain.model.TradeOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TradeOutboxRepository extends JpaRepository<TradeOutboxEvent, Long> {
+
+    List<TradeOutboxEvent> findByOrderByIdAsc(Pageable pageable);
+}
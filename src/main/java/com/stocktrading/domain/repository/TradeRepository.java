@@ -2,11 +2,13 @@ package com.stocktrading.domain.repository;
 
 import com.stocktrading.domain.model.Trade;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TradeRepository extends JpaRepository<Trade, Long> {
@@ -17,11 +19,41 @@ public interface TradeRepository extends JpaRepository<Trade, Long> {
 
     List<Trade> findByStockSymbol(String stockSymbol);
 
+    Optional<Trade> findByUserIdAndIdempotencyKey(String userId, String idempotencyKey);
+
     List<Trade> findByStatus(Trade.TradeStatus status);
 
+    List<Trade> findByStatusAndOrderTypeNot(Trade.TradeStatus status, Trade.OrderType orderType);
+
+    List<Trade> findByStatusAndExpiresAtNotNull(Trade.TradeStatus status);
+
+    /**
+     * Move a trade from one status to another, unless another transaction already moved it.
+     * The row stays locked until the caller's transaction ends, so of two racing
+     * transitions out of the same status exactly one succeeds.
+     *
+     * @return 1 if the trade was moved, 0 if it was no longer in {@code from}
+     */
+    @Modifying
+    @Query("UPDATE Trade t SET t.status = :to WHERE t.id = :id AND t.status = :from")
+    int transition(Long id, Trade.TradeStatus from, Trade.TradeStatus to);
+
+    List<Trade> findByStockSymbolAndStatusAndOrderTypeNot(String stockSymbol, Trade.TradeStatus status,
+                                                          Trade.OrderType orderType);
+
     @Query("SELECT t FROM Trade t WHERE t.userId = :userId AND t.timestamp BETWEEN :startDate AND :endDate ORDER BY t.timestamp DESC")
     List<Trade> findByUserIdAndTimestampBetween(String userId, LocalDateTime startDate, LocalDateTime endDate);
 
     @Query("SELECT t FROM Trade t WHERE t.userId = :userId AND t.stockSymbol = :stockSymbol ORDER BY t.timestamp DESC")
     List<Trade> findByUserIdAndStockSymbol(String userId, String stockSymbol);
+
+    @Query("SELECT t FROM Trade t WHERE t.userId = :userId AND t.executedAt <= :asOf ORDER BY t.executedAt")
+    List<Trade> findExecutedByUserIdUntil(String userId, LocalDateTime asOf);
+
+    @Query("SELECT t FROM Trade t WHERE t.userId = :userId AND t.executedAt > :after AND t.executedAt <= :asOf "
+            + "ORDER BY t.executedAt")
+    List<Trade> findExecutedByUserIdBetween(String userId, LocalDateTime after, LocalDateTime asOf);
+
+    Optional<Trade> findFirstByStockSymbolAndExecutedAtLessThanEqualOrderByExecutedAtDesc(String stockSymbol,
+                                                                                        LocalDateTime asOf);
 } 
\ No newline at end of file
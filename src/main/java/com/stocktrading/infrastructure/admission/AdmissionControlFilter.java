@@ -0,0 +1,94 @@
+package com.stocktrading.infrastructure.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds trading, portfolio, rebalancing and analytics requests once the service is over its adaptive concurrency limit.
+ * Order submission and cancellation may use the whole limit; reads only a share
+ * of it, so under overload they are turned away first. Shed requests get 503
+ * with Retry-After straight away instead of queueing on a worker thread.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stocktrading.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String TRADES = "/api/trades";
+    private static final String PORTFOLIO = "/api/portfolio";
+    private static final String ANALYTICS = "/api/analytics";
+    private static final String REBALANCE = "/api/rebalance";
+
+    private final GradientConcurrencyLimit limit;
+    private final double readShare;
+    private final Counter shedOrders;
+    private final Counter shedReads;
+
+    @Autowired
+    public AdmissionControlFilter(MeterRegistry meterRegistry,
+                                  @Value("${stocktrading.admission.initial-limit:20}") int initialLimit,
+                                  @Value("${stocktrading.admission.min-limit:4}") int minLimit,
+                                  @Value("${stocktrading.admission.max-limit:200}") int maxLimit,
+                                  @Value("${stocktrading.admission.read-share:0.8}") double readShare) {
+        this.limit = new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit);
+        this.readShare = readShare;
+        this.shedOrders = meterRegistry.counter("stocktrading.admission.shed", "priority", "order");
+        this.shedReads = meterRegistry.counter("stocktrading.admission.shed", "priority", "read");
+        Gauge.builder("stocktrading.admission.limit", limit, GradientConcurrencyLimit::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("stocktrading.admission.in-flight", limit, GradientConcurrencyLimit::getInFlight)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return "OPTIONS".equals(request.getMethod())
+                || !(path.startsWith(TRADES) || path.startsWith(PORTFOLIO) || path.startsWith(ANALYTICS)
+                        || path.startsWith(REBALANCE));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean order = isOrder(request);
+        if (!limit.tryAcquire(order ? 1.0 : readShare)) {
+            (order ? shedOrders : shedReads).increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Order submission and cancellation, as opposed to reads.
+     */
+    private static boolean isOrder(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if ("PUT".equals(request.getMethod())) {
+            return path.startsWith(TRADES) && path.endsWith("/cancel");
+        }
+        return "POST".equals(request.getMethod())
+                && (path.equals(TRADES + "/buy") || path.equals(TRADES + "/sell")
+                        || path.equals(TRADES + "/basket") || path.equals(TRADES + "/conditional")
+                        || path.equals(REBALANCE));
+    }
+}
@@ -0,0 +1,98 @@
+package com.stocktrading.infrastructure.cluster;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Authenticates calls between cluster nodes with the shared cluster secret.
+ * Partition transfers must carry the secret on every node. A worker also
+ * rejects calls marked as forwarded without it, so the marker cannot be
+ * spoofed. The gateway never receives forwarded calls and strips the
+ * cluster headers from every incoming request before routing it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "stocktrading.cluster", name = "enabled", havingValue = "true")
+public class ClusterAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PARTITIONS = "/api/cluster/partitions";
+
+    private final byte[] secret;
+    private final boolean gateway;
+
+    @Autowired
+    public ClusterAuthenticationFilter(@Value("${stocktrading.cluster.secret:}") String secret,
+                                       @Value("${stocktrading.cluster.role:worker}") String role) {
+        if (secret.isBlank()) {
+            throw new IllegalArgumentException("stocktrading.cluster.secret must be set in cluster mode");
+        }
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.gateway = "gateway".equals(role);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        boolean partitions = path.equals(PARTITIONS) || path.startsWith(PARTITIONS + "/");
+        boolean forwarded = request.getHeader(ClusterClient.FORWARDED_HEADER) != null;
+        if ((partitions || (forwarded && !gateway)) && !authenticated(request)) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        chain.doFilter(gateway ? new WithoutClusterHeaders(request) : request, response);
+    }
+
+    private boolean authenticated(HttpServletRequest request) {
+        String presented = request.getHeader(ClusterClient.SECRET_HEADER);
+        return presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isClusterHeader(String name) {
+        return ClusterClient.FORWARDED_HEADER.equalsIgnoreCase(name) || ClusterClient.SECRET_HEADER.equalsIgnoreCase(name);
+    }
+
+    /**
+     * A request as a client sent it, minus any cluster headers it tried to set.
+     */
+    private static final class WithoutClusterHeaders extends HttpServletRequestWrapper {
+
+        WithoutClusterHeaders(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isClusterHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isClusterHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isClusterHeader(name))
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.stocktrading.infrastructure.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HTTP transport between the gateway and the nodes it routes to.
+ * One shared client keeps connections to each node alive. Every request it
+ * sends is marked as forwarded, so the receiving node always handles it locally,
+ * and carries the shared cluster secret that nodes authenticate it with.
+ */
+@Component
+@ConditionalOnExpression("${stocktrading.cluster.enabled:false} and '${stocktrading.cluster.role:worker}' == 'gateway'")
+public class ClusterClient {
+
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private static final String PARTITIONS_PATH = "/api/cluster/partitions/";
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    private final ClusterTopology topology;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+    private final String secret;
+    private final HttpClient httpClient;
+
+    @Autowired
+    public ClusterClient(ClusterTopology topology,
+                         ObjectMapper objectMapper,
+                         @Value("${stocktrading.cluster.request-timeout-ms:5000}") long requestTimeoutMs,
+                         @Value("${stocktrading.cluster.secret:}") String secret) {
+        this.topology = topology;
+        this.objectMapper = objectMapper;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.secret = secret;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    /**
+     * Send a request to a node without waiting for the response.
+     */
+    public CompletableFuture<HttpResponse<byte[]>> send(String nodeId, String method, String pathAndQuery,
+                                                        String contentType, byte[] body) {
+        URI uri = topology.addressOf(nodeId).resolve(pathAndQuery);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header(FORWARDED_HEADER, "true")
+                .header(SECRET_HEADER, secret)
+                .method(method, body == null || body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    public long getRequestTimeoutMillis() {
+        return requestTimeout.toMillis();
+    }
+
+    /**
+     * Symbols whose stock rows a node holds.
+     */
+    public Set<String> listSymbols(String nodeId) {
+        byte[] body = expectOk(nodeId, send(nodeId, "GET", "/api/stocks", null, null));
+        Set<String> symbols = new LinkedHashSet<>();
+        try {
+            for (JsonNode stock : objectMapper.readTree(body)) {
+                symbols.add(stock.path("symbol").asText());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return symbols;
+    }
+
+    public byte[] exportPartition(String nodeId, String symbol) {
+        return expectOk(nodeId, send(nodeId, "GET", PARTITIONS_PATH + symbol, null, null));
+    }
+
+    public void importPartition(String nodeId, String symbol, byte[] partition) {
+        expectOk(nodeId, send(nodeId, "PUT", PARTITIONS_PATH + symbol, OCTET_STREAM, partition));
+    }
+
+    public void releasePartition(String nodeId, String symbol) {
+        expectOk(nodeId, send(nodeId, "DELETE", PARTITIONS_PATH + symbol, null, null));
+    }
+
+    private static byte[] expectOk(String nodeId, CompletableFuture<HttpResponse<byte[]>> pending) {
+        HttpResponse<byte[]> response = pending.join();
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Node " + nodeId + " answered " + response.statusCode()
+                    + " for " + response.request().method() + " " + response.uri().getPath());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,323 @@
+package com.stocktrading.infrastructure.cluster;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Routes stock and trading API calls from the gateway to the node that owns the symbol.
+ * Calls naming a symbol, in the path or the request body, go to its owner.
+ * List calls fan out to every node in parallel and merge the results; stock
+ * lists keep only each node's own symbols, since every node holds stale copies
+ * of reference data it does not own. Trade id lookups try the nodes in turn.
+ * Baskets go to the owner of their legs and are rejected if the legs span nodes,
+ * since one node cannot execute them atomically.
+ * Calls for a symbol whose partition is being moved get 503 with Retry-After.
+ */
+@Component
+@ConditionalOnExpression("${stocktrading.cluster.enabled:false} and '${stocktrading.cluster.role:worker}' == 'gateway'")
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRoutingFilter.class);
+
+    private static final String STOCKS = "/api/stocks";
+    private static final String TRADES = "/api/trades";
+
+    private final ClusterTopology topology;
+    private final ClusterClient client;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader jsonReader;
+
+    @Autowired
+    public ClusterRoutingFilter(ClusterTopology topology, ClusterClient client, ObjectMapper objectMapper) {
+        this.topology = topology;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        // Keep prices exactly as the nodes wrote them
+        this.jsonReader = objectMapper.reader()
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .with(JsonNodeFactory.withExactBigDecimals(true));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return "OPTIONS".equals(request.getMethod())
+                || !(isUnder(path, STOCKS) || isUnder(path, TRADES));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        String[] segments = isUnder(path, STOCKS)
+                ? segments(path.substring(STOCKS.length()))
+                : segments(path.substring(TRADES.length()));
+        byte[] body = request.getInputStream().readAllBytes();
+
+        try {
+            if (isUnder(path, STOCKS)) {
+                routeStocks(request, response, segments, body);
+            } else {
+                routeTrades(request, response, segments, body);
+            }
+        } catch (CompletionException e) {
+            log.warn("Cluster node unavailable for {} {}", request.getMethod(), path, e.getCause());
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
+    private void routeStocks(HttpServletRequest request, HttpServletResponse response, String[] segments, byte[] body)
+            throws IOException {
+        if (segments.length == 0) {
+            if ("POST".equals(request.getMethod())) {
+                forwardToOwner(request, response, symbolInBody(body, "symbol"), body);
+            } else {
+                fanOutStocks(request, response, null, Integer.MAX_VALUE);
+            }
+            return;
+        }
+        switch (segments[0]) {
+            case "search":
+                fanOutStocks(request, response, null, Integer.MAX_VALUE);
+                break;
+            case "movers":
+                int limit = limitParameter(request);
+                if (limit < 0) {
+                    response.sendError(HttpStatus.BAD_REQUEST.value());
+                    break;
+                }
+                boolean losers = "losers".equalsIgnoreCase(request.getParameter("direction"));
+                Comparator<JsonNode> byChange = Comparator.comparing(stock -> stock.path("changePercentage").decimalValue());
+                fanOutStocks(request, response, losers ? byChange : byChange.reversed(), limit);
+                break;
+            case "changes":
+                // Change sequences are per node and cannot be merged into one cursor
+                response.sendError(HttpStatus.NOT_IMPLEMENTED.value());
+                break;
+            default:
+                forwardToOwner(request, response, segments[0], body);
+        }
+    }
+
+    private void routeTrades(HttpServletRequest request, HttpServletResponse response, String[] segments, byte[] body)
+            throws IOException {
+        if (segments.length == 0) {
+            forwardToAnyNode(request, response, body);
+            return;
+        }
+        switch (segments[0]) {
+            case "buy":
+            case "sell":
+            case "conditional":
+            case "validate":
+                forwardToOwner(request, response, symbolInBody(body, "stockSymbol"), body);
+                break;
+            case "basket":
+                forwardBasket(request, response, body);
+                break;
+            case "user":
+                if (segments.length >= 4 && "stock".equals(segments[2])) {
+                    forwardToOwner(request, response, segments[3], body);
+                } else {
+                    fanOutTrades(request, response);
+                }
+                break;
+            default:
+                forwardToFirstSuccess(request, response, body);
+        }
+    }
+
+    private void forwardToOwner(HttpServletRequest request, HttpServletResponse response, String symbol, byte[] body)
+            throws IOException {
+        if (symbol == null || symbol.isBlank()) {
+            // Let a node reject the request with its usual validation response
+            forwardToAnyNode(request, response, body);
+            return;
+        }
+        if (!topology.enter(symbol)) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            copy(send(topology.ownerOf(symbol), request, body).join(), response);
+        } finally {
+            topology.exit(symbol);
+        }
+    }
+
+    private void forwardBasket(HttpServletRequest request, HttpServletResponse response, byte[] body)
+            throws IOException {
+        Set<String> owners = new HashSet<>();
+        String firstSymbol = null;
+        try {
+            for (JsonNode leg : jsonReader.readTree(body).path("legs")) {
+                String symbol = leg.path("stockSymbol").asText();
+                if (!symbol.isBlank()) {
+                    owners.add(topology.ownerOf(symbol));
+                    firstSymbol = firstSymbol == null ? symbol : firstSymbol;
+                }
+            }
+        } catch (IOException e) {
+            // Malformed; a node rejects it below
+        }
+        if (owners.size() > 1) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Basket legs are owned by different nodes");
+            return;
+        }
+        forwardToOwner(request, response, firstSymbol, body);
+    }
+
+    private void forwardToAnyNode(HttpServletRequest request, HttpServletResponse response, byte[] body)
+            throws IOException {
+        copy(send(topology.getNodes().iterator().next(), request, body).join(), response);
+    }
+
+    /**
+     * Try each node until one answers with success, for calls addressed by trade id.
+     */
+    private void forwardToFirstSuccess(HttpServletRequest request, HttpServletResponse response, byte[] body)
+            throws IOException {
+        HttpResponse<byte[]> last = null;
+        for (String nodeId : topology.getNodes()) {
+            last = send(nodeId, request, body).join();
+            if (last.statusCode() / 100 == 2) {
+                break;
+            }
+        }
+        copy(last, response);
+    }
+
+    private void fanOutStocks(HttpServletRequest request, HttpServletResponse response,
+                              Comparator<JsonNode> order, int limit) throws IOException {
+        List<JsonNode> stocks = fanOut(request, response,
+                nodeId -> stock -> nodeId.equals(topology.ownerOf(stock.path("symbol").asText())));
+        if (stocks == null) {
+            return;
+        }
+        if (order != null) {
+            stocks.sort(order);
+        }
+        writeArray(response, stocks.subList(0, Math.min(limit, stocks.size())));
+    }
+
+    private void fanOutTrades(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<JsonNode> trades = fanOut(request, response, nodeId -> trade -> true);
+        if (trades == null) {
+            return;
+        }
+        // ISO timestamps order lexicographically
+        trades.sort(Comparator.comparing((JsonNode trade) -> trade.path("timestamp").asText()).reversed());
+        writeArray(response, trades);
+    }
+
+    /**
+     * Send the request to every node in parallel and merge the JSON arrays they return.
+     *
+     * @return merged elements, or {@code null} after relaying the first node answer that was not a success
+     */
+    private List<JsonNode> fanOut(HttpServletRequest request, HttpServletResponse response,
+                                  Function<String, Predicate<JsonNode>> filterForNode) throws IOException {
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> pending = new LinkedHashMap<>();
+        for (String nodeId : topology.getNodes()) {
+            pending.put(nodeId, send(nodeId, request, null));
+        }
+
+        List<JsonNode> merged = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<HttpResponse<byte[]>>> entry : pending.entrySet()) {
+            HttpResponse<byte[]> nodeResponse = entry.getValue().join();
+            if (nodeResponse.statusCode() != HttpStatus.OK.value()) {
+                copy(nodeResponse, response);
+                return null;
+            }
+            Predicate<JsonNode> filter = filterForNode.apply(entry.getKey());
+            for (JsonNode element : jsonReader.readTree(nodeResponse.body())) {
+                if (filter.test(element)) {
+                    merged.add(element);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(String nodeId, HttpServletRequest request, byte[] body) {
+        String pathAndQuery = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        return client.send(nodeId, request.getMethod(), pathAndQuery, request.getContentType(), body);
+    }
+
+    private String symbolInBody(byte[] body, String field) {
+        try {
+            JsonNode symbol = jsonReader.readTree(body).path(field);
+            return symbol.isTextual() ? symbol.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeArray(HttpServletResponse response, List<JsonNode> elements) throws IOException {
+        ArrayNode array = objectMapper.createArrayNode();
+        array.addAll(elements);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), array);
+    }
+
+    private static void copy(HttpResponse<byte[]> from, HttpServletResponse to) throws IOException {
+        to.setStatus(from.statusCode());
+        from.headers().firstValue("Content-Type").ifPresent(to::setContentType);
+        to.getOutputStream().write(from.body());
+    }
+
+    /**
+     * The movers limit, or -1 if it is malformed.
+     */
+    private static int limitParameter(HttpServletRequest request) {
+        String limit = request.getParameter("limit");
+        try {
+            return limit == null ? 10 : Math.max(-1, Integer.parseInt(limit));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix + "/");
+    }
+
+    private static String[] segments(String remainder) {
+        String trimmed = remainder.startsWith("/") ? remainder.substring(1) : remainder;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+}
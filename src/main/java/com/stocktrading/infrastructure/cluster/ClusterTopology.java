@@ -0,0 +1,155 @@
+package com.stocktrading.infrastructure.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The gateway's view of which node owns each symbol.
+ * Ownership comes from the consistent hash ring, except for symbols pinned to a
+ * node while a rebalance is moving partitions. Routed requests register with
+ * their symbol; a symbol whose partition is about to move is marked as migrating,
+ * which turns new requests away and lets the mover wait for those in flight.
+ */
+@Component
+@ConditionalOnExpression("${stocktrading.cluster.enabled:false} and '${stocktrading.cluster.role:worker}' == 'gateway'")
+public class ClusterTopology {
+
+    private final Map<String, URI> addresses = new ConcurrentHashMap<>();
+    private final Map<String, String> pinnedOwners = new ConcurrentHashMap<>();
+    private final Set<String> migrating = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private volatile ConsistentHashRing ring;
+
+    @Autowired
+    public ClusterTopology(@Value("${stocktrading.cluster.nodes:}") String nodes,
+                           @Value("${stocktrading.cluster.virtual-nodes:128}") int virtualNodes) {
+        Map<String, URI> configured = parseNodes(nodes);
+        if (configured.isEmpty()) {
+            throw new IllegalArgumentException("A cluster gateway needs at least one node in stocktrading.cluster.nodes");
+        }
+        this.addresses.putAll(configured);
+        this.ring = new ConsistentHashRing(configured.keySet(), virtualNodes);
+    }
+
+    public String ownerOf(String symbol) {
+        String key = symbol.toUpperCase();
+        String pinned = pinnedOwners.get(key);
+        return pinned != null ? pinned : ring.ownerOf(key);
+    }
+
+    /**
+     * Register a request for a symbol unless its partition is migrating.
+     *
+     * @return false if the request must be turned away
+     */
+    public boolean enter(String symbol) {
+        String key = symbol.toUpperCase();
+        AtomicInteger requests = inFlight.computeIfAbsent(key, k -> new AtomicInteger());
+        requests.incrementAndGet();
+        if (migrating.contains(key)) {
+            requests.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void exit(String symbol) {
+        inFlight.get(symbol.toUpperCase()).decrementAndGet();
+    }
+
+    public URI addressOf(String nodeId) {
+        URI address = addresses.get(nodeId);
+        if (address == null) {
+            throw new IllegalArgumentException("Unknown cluster node: " + nodeId);
+        }
+        return address;
+    }
+
+    public Set<String> getNodes() {
+        return ring.getNodes();
+    }
+
+    public Map<String, URI> getAddresses() {
+        return Collections.unmodifiableMap(addresses);
+    }
+
+    ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    void registerAddress(String nodeId, URI address) {
+        addresses.put(nodeId, address);
+    }
+
+    void startMigrating(String symbol) {
+        migrating.add(symbol);
+    }
+
+    /**
+     * Wait for requests that entered before the symbol started migrating.
+     */
+    void awaitIdle(String symbol, long timeoutMillis) {
+        AtomicInteger requests = inFlight.get(symbol);
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (requests != null && requests.get() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Requests for " + symbol + " did not drain");
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while draining " + symbol, e);
+            }
+        }
+    }
+
+    /**
+     * Record that a symbol's partition now lives on {@code nodeId}, ahead of the ring switching over.
+     */
+    void pin(String symbol, String nodeId) {
+        pinnedOwners.put(symbol, nodeId);
+        migrating.remove(symbol);
+    }
+
+    void abortMigrations() {
+        migrating.clear();
+    }
+
+    /**
+     * Switch to a new ring once every moved partition has been pinned to its new owner.
+     */
+    void switchTo(ConsistentHashRing target) {
+        ring = target;
+        pinnedOwners.clear();
+        addresses.keySet().retainAll(target.getNodes());
+    }
+
+    /**
+     * Parse {@code id=url} pairs separated by commas.
+     */
+    static Map<String, URI> parseNodes(String nodes) {
+        Map<String, URI> parsed = new LinkedHashMap<>();
+        for (String entry : nodes.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Cluster node must be id=url: " + entry.trim());
+            }
+            parsed.put(entry.substring(0, separator).trim(), URI.create(entry.substring(separator + 1).trim()));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,100 @@
+package com.stocktrading.infrastructure.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable consistent hash ring that assigns symbols to nodes.
+ * Each node is placed at a number of virtual points; a symbol belongs to the
+ * first point at or after its hash. Adding or removing a node therefore moves
+ * only the symbols adjacent to that node's points, about 1/n of the total.
+ * Lookups are a binary search over a sorted primitive array.
+ */
+public final class ConsistentHashRing {
+
+    private final Set<String> nodes;
+    private final int virtualNodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes must be positive");
+        }
+        this.nodes = Collections.unmodifiableSet(new LinkedHashSet<>(nodes));
+        this.virtualNodes = virtualNodes;
+
+        String[] byIndex = this.nodes.toArray(new String[0]);
+        // Sort point hashes together with the index of the node that placed them
+        long[][] entries = new long[byIndex.length * virtualNodes][];
+        int i = 0;
+        for (int node = 0; node < byIndex.length; node++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                entries[i++] = new long[] {hash(byIndex[node] + "#" + replica), node};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        this.points = new long[entries.length];
+        this.owners = new String[entries.length];
+        for (int p = 0; p < entries.length; p++) {
+            points[p] = entries[p][0];
+            owners[p] = byIndex[(int) entries[p][1]];
+        }
+    }
+
+    public ConsistentHashRing withNode(String node) {
+        Set<String> updated = new LinkedHashSet<>(nodes);
+        updated.add(node);
+        return new ConsistentHashRing(updated, virtualNodes);
+    }
+
+    public ConsistentHashRing withoutNode(String node) {
+        Set<String> updated = new LinkedHashSet<>(nodes);
+        updated.remove(node);
+        return new ConsistentHashRing(updated, virtualNodes);
+    }
+
+    /**
+     * Node that owns the given key.
+     */
+    public String ownerOf(String key) {
+        if (points.length == 0) {
+            throw new IllegalStateException("Hash ring has no nodes");
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by a murmur finalizer, so similar symbols spread evenly.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,122 @@
+package com.stocktrading.infrastructure.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Moves partitions between nodes when a node joins or leaves the cluster.
+ * Only symbols whose owner differs between the current and the target ring are
+ * moved. Each moved symbol is held off while its partition is exported from the
+ * old owner, imported on the new one and released; it is then pinned to the new
+ * owner, so a rebalance that fails part-way leaves every symbol routable.
+ */
+@Component
+@ConditionalOnExpression("${stocktrading.cluster.enabled:false} and '${stocktrading.cluster.role:worker}' == 'gateway'")
+public class PartitionRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionRebalancer.class);
+
+    private final ClusterTopology topology;
+    private final ClusterClient client;
+
+    @Autowired
+    public PartitionRebalancer(ClusterTopology topology, ClusterClient client) {
+        this.topology = topology;
+        this.client = client;
+    }
+
+    public synchronized List<Move> addNode(String nodeId, URI address) {
+        if (topology.getNodes().contains(nodeId)) {
+            throw new IllegalArgumentException("Node " + nodeId + " is already part of the cluster");
+        }
+        topology.registerAddress(nodeId, address);
+        return rebalance(topology.getRing().withNode(nodeId));
+    }
+
+    public synchronized List<Move> removeNode(String nodeId) {
+        if (!topology.getNodes().contains(nodeId)) {
+            throw new IllegalArgumentException("Unknown cluster node: " + nodeId);
+        }
+        if (topology.getNodes().size() == 1) {
+            throw new IllegalArgumentException("Cannot remove the last cluster node");
+        }
+        return rebalance(topology.getRing().withoutNode(nodeId));
+    }
+
+    private List<Move> rebalance(ConsistentHashRing target) {
+        long start = System.nanoTime();
+        List<Move> moves = new ArrayList<>();
+        for (String symbol : ownedSymbols()) {
+            String from = topology.ownerOf(symbol);
+            String to = target.ownerOf(symbol);
+            if (!from.equals(to)) {
+                moves.add(new Move(symbol, from, to));
+            }
+        }
+
+        try {
+            moves.forEach(move -> topology.startMigrating(move.getSymbol()));
+            for (Move move : moves) {
+                topology.awaitIdle(move.getSymbol(), client.getRequestTimeoutMillis());
+                byte[] partition = client.exportPartition(move.getFromNode(), move.getSymbol());
+                client.importPartition(move.getToNode(), move.getSymbol(), partition);
+                client.releasePartition(move.getFromNode(), move.getSymbol());
+                topology.pin(move.getSymbol(), move.getToNode());
+            }
+        } catch (RuntimeException e) {
+            log.error("Rebalance onto nodes {} failed; moved partitions stay pinned to their new owners",
+                    target.getNodes(), e);
+            throw e;
+        } finally {
+            topology.abortMigrations();
+        }
+        topology.switchTo(target);
+        log.info("Rebalanced onto nodes {}: moved {} partitions in {} ms",
+                target.getNodes(), moves.size(), (System.nanoTime() - start) / 1_000_000);
+        return moves;
+    }
+
+    /**
+     * Every symbol held by the node that currently owns it.
+     */
+    private Set<String> ownedSymbols() {
+        Set<String> symbols = new TreeSet<>();
+        for (String nodeId : topology.getNodes()) {
+            for (String symbol : client.listSymbols(nodeId)) {
+                if (nodeId.equals(topology.ownerOf(symbol))) {
+                    symbols.add(symbol);
+                }
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * A partition handed from one node to another.
+     */
+    public static class Move {
+        private final String symbol;
+        private final String fromNode;
+        private final String toNode;
+
+        public Move(String symbol, String fromNode, String toNode) {
+            this.symbol = symbol;
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+        }
+
+        // Getters
+        public String getSymbol() { return symbol; }
+        public String getFromNode() { return fromNode; }
+        public String getToNode() { return toNode; }
+    }
+}
@@ -0,0 +1,160 @@
+package com.stocktrading.infrastructure.cluster;
+
+import com.stocktrading.application.service.impl.ConditionalOrderBook;
+import com.stocktrading.application.service.impl.HoldingsCache;
+import com.stocktrading.application.service.impl.OrderExpiryBook;
+import com.stocktrading.application.service.impl.SymbolRegistry;
+import com.stocktrading.application.service.impl.VolatilityCircuitBreaker;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.repository.TradeRepository;
+import com.stocktrading.infrastructure.snapshot.JdbcStateSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Hands the state of one symbol between cluster nodes.
+ * A partition is the symbol's stock row, holdings, tax lots and pending trades in the
+ * binary snapshot format. Each node allocates trade and holding ids from its own
+ * range, so imported rows keep their ids without colliding with local ones.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "stocktrading.cluster", name = "enabled", havingValue = "true")
+public class PartitionStore implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionStore.class);
+    private static final int ID_RANGE_BITS = 40;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final TradeRepository tradeRepository;
+    private final ConditionalOrderBook conditionalOrderBook;
+    private final OrderExpiryBook orderExpiryBook;
+    private final HoldingsCache holdingsCache;
+    private final SymbolRegistry symbolRegistry;
+    private final VolatilityCircuitBreaker circuitBreaker;
+    private final int nodeOrdinal;
+
+    @Autowired
+    public PartitionStore(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          TradeRepository tradeRepository,
+                          ConditionalOrderBook conditionalOrderBook,
+                          OrderExpiryBook orderExpiryBook,
+                          HoldingsCache holdingsCache,
+                          SymbolRegistry symbolRegistry,
+                          VolatilityCircuitBreaker circuitBreaker,
+                          @Value("${stocktrading.cluster.node-ordinal:0}") int nodeOrdinal) {
+        if (nodeOrdinal < 0 || nodeOrdinal >= 1 << (63 - ID_RANGE_BITS)) {
+            throw new IllegalArgumentException("Node ordinal out of range: " + nodeOrdinal);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.tradeRepository = tradeRepository;
+        this.conditionalOrderBook = conditionalOrderBook;
+        this.orderExpiryBook = orderExpiryBook;
+        this.holdingsCache = holdingsCache;
+        this.symbolRegistry = symbolRegistry;
+        this.circuitBreaker = circuitBreaker;
+        this.nodeOrdinal = nodeOrdinal;
+    }
+
+    /**
+     * Move the identity columns into this node's id range, after any snapshot restore.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        long base = (long) nodeOrdinal << ID_RANGE_BITS;
+        for (String table : List.of("portfolios", "trades")) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            long next = Math.max(base, maxId == null ? 0 : maxId) + 1;
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+        log.info("Cluster node {} allocates ids from {}", nodeOrdinal, base + 1);
+    }
+
+    public byte[] exportPartition(String symbol) {
+        return transaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<byte[]>) connection -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                JdbcStateSnapshot.Counts counts = JdbcStateSnapshot.writePartition(connection, out, symbol);
+                log.info("Exported partition {}: {}", symbol, counts);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }));
+    }
+
+    public void importPartition(String symbol, byte[] partition) {
+        transaction.executeWithoutResult(status -> {
+            JdbcStateSnapshot.Counts counts = jdbcTemplate.execute((ConnectionCallback<JdbcStateSnapshot.Counts>) connection -> {
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(partition))) {
+                    return JdbcStateSnapshot.restorePartition(in, connection);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Imported partition {}: {}", symbol, counts);
+        });
+        forgetCachedState(symbol);
+        for (Trade trade : restingOrders(symbol)) {
+            conditionalOrderBook.add(trade);
+            orderExpiryBook.add(trade);
+        }
+    }
+
+    /**
+     * Drop the holdings and pending trades of a symbol now owned by another node.
+     * The stock row and trade history stay behind as read-only reference data.
+     */
+    public void releasePartition(String symbol) {
+        List<Trade> resting = restingOrders(symbol);
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM tax_lots WHERE portfolio_id IN "
+                    + "(SELECT id FROM portfolios WHERE stock_symbol = ?)", symbol);
+            int holdings = jdbcTemplate.update("DELETE FROM portfolios WHERE stock_symbol = ?", symbol);
+            int trades = jdbcTemplate.update("DELETE FROM trades WHERE stock_symbol = ? AND status = 'PENDING'", symbol);
+            log.info("Released partition {}: {} holdings, {} pending trades", symbol, holdings, trades);
+        });
+        forgetCachedState(symbol);
+        for (Trade trade : resting) {
+            conditionalOrderBook.remove(symbol, trade.getId());
+            orderExpiryBook.remove(trade.getId());
+        }
+    }
+
+    /**
+     * Drop in-memory state derived from the rows a committed import or release replaced.
+     */
+    private void forgetCachedState(String symbol) {
+        holdingsCache.invalidateAll();
+        symbolRegistry.invalidatePrice(symbol);
+        circuitBreaker.reset(symbol);
+    }
+
+    private List<Trade> restingOrders(String symbol) {
+        return tradeRepository.findByStockSymbolAndStatusAndOrderTypeNot(symbol, Trade.TradeStatus.PENDING,
+                Trade.OrderType.MARKET);
+    }
+}
@@ -0,0 +1,113 @@
+package com.stocktrading.infrastructure.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-user and global request limits for the trading endpoints.
+ * Each endpoint has a table of per-user buckets and one bucket shared by all
+ * users; a request must get a token from its user's bucket first, so a client
+ * over its own limit never drains the shared one. A request the shared bucket
+ * rejects gets its user's token back. Limits are read from
+ * {@code stocktrading.rate-limit.<endpoint>.*}, falling back to
+ * {@code stocktrading.rate-limit.default.*}; a rate of zero disables that limit.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final String PREFIX = "stocktrading.rate-limit.";
+
+    public enum Endpoint { BUY, SELL, BASKET, CONDITIONAL, CANCEL, HISTORY }
+
+    private final boolean enabled;
+    private final long origin = System.nanoTime();
+    private final Map<Endpoint, Limits> limits = new EnumMap<>(Endpoint.class);
+
+    @Autowired
+    public RateLimiter(Environment environment,
+                       MeterRegistry meterRegistry,
+                       @Value("${stocktrading.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${stocktrading.rate-limit.max-users:65536}") int maxUsers) {
+        this.enabled = enabled;
+        for (Endpoint endpoint : Endpoint.values()) {
+            String name = endpoint.name().toLowerCase(Locale.ROOT);
+            double userRate = rate(environment, name, "user-rate", 20);
+            double globalRate = rate(environment, name, "global-rate", 0);
+            UserTokenBuckets perUser = userRate > 0
+                    ? new UserTokenBuckets(maxUsers, userRate, burst(environment, name, "user-burst", 40))
+                    : null;
+            TokenBuckets global = globalRate > 0
+                    ? new TokenBuckets(1, globalRate, burst(environment, name, "global-burst", 1000))
+                    : null;
+            limits.put(endpoint, new Limits(perUser, global,
+                    meterRegistry.counter("stocktrading.ratelimit.requests", "endpoint", name, "outcome", "admitted"),
+                    meterRegistry.counter("stocktrading.ratelimit.requests", "endpoint", name, "outcome", "throttled")));
+            if (enabled) {
+                log.info("Rate limit for {}: {}/s per user, {}/s overall", name,
+                        userRate > 0 ? userRate : "unlimited", globalRate > 0 ? globalRate : "unlimited");
+            }
+        }
+    }
+
+    /**
+     * Take a token for a user's request.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds the client should wait
+     */
+    public long acquire(Endpoint endpoint, String userId) {
+        if (!enabled) {
+            return 0;
+        }
+        Limits endpointLimits = limits.get(endpoint);
+        long now = System.nanoTime() - origin;
+        long wait = 0;
+        boolean userLimited = endpointLimits.perUser != null && userId != null;
+        if (userLimited) {
+            wait = endpointLimits.perUser.tryAcquire(userId, now);
+        }
+        if (wait == 0 && endpointLimits.global != null) {
+            wait = endpointLimits.global.tryAcquire(0, now);
+            if (wait != 0 && userLimited) {
+                endpointLimits.perUser.refund(userId);
+            }
+        }
+        (wait == 0 ? endpointLimits.admitted : endpointLimits.throttled).increment();
+        return wait;
+    }
+
+    private static double rate(Environment environment, String endpoint, String key, double fallback) {
+        return environment.getProperty(PREFIX + endpoint + "." + key, Double.class,
+                environment.getProperty(PREFIX + "default." + key, Double.class, fallback));
+    }
+
+    private static int burst(Environment environment, String endpoint, String key, int fallback) {
+        return environment.getProperty(PREFIX + endpoint + "." + key, Integer.class,
+                environment.getProperty(PREFIX + "default." + key, Integer.class, fallback));
+    }
+
+    private static final class Limits {
+        final UserTokenBuckets perUser;
+        final TokenBuckets global;
+        final Counter admitted;
+        final Counter throttled;
+
+        Limits(UserTokenBuckets perUser, TokenBuckets global, Counter admitted, Counter throttled) {
+            this.perUser = perUser;
+            this.global = global;
+            this.admitted = admitted;
+            this.throttled = throttled;
+        }
+    }
+}
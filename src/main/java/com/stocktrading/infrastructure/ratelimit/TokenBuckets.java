@@ -0,0 +1,72 @@
+package com.stocktrading.infrastructure.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed table of token buckets kept as one long each.
+ * Buckets follow the generic cell rate algorithm: a slot holds the theoretical
+ * arrival time of the next request, and a request is admitted if that time is
+ * no further ahead of now than the burst allows. Admission is a single
+ * compare-and-set, so the table is lock-free and never allocates. Keys hash to
+ * a slot; keys sharing a slot share its budget, which keeps memory fixed
+ * however many keys there are.
+ */
+public final class TokenBuckets {
+
+    private final AtomicLongArray arrivals;
+    private final int mask;
+    private final long emissionNanos;
+    private final long toleranceNanos;
+
+    /**
+     * @param slots rounded up to a power of two
+     * @param ratePerSecond sustained requests per second per slot
+     * @param burst requests a full bucket admits at once
+     */
+    public TokenBuckets(int slots, double ratePerSecond, int burst) {
+        if (slots <= 0 || ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Slots, rate and burst must be positive");
+        }
+        int size = Integer.highestOneBit(slots);
+        if (size < slots) {
+            size <<= 1;
+        }
+        this.arrivals = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.emissionNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = emissionNanos * burst;
+    }
+
+    /**
+     * Take a token for a key.
+     *
+     * @param hash the key's hash
+     * @param now nanoseconds on a clock that starts at or above zero
+     * @return 0 if admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(int hash, long now) {
+        int slot = spread(hash) & mask;
+        while (true) {
+            long arrival = arrivals.get(slot);
+            long next = Math.max(arrival, now) + emissionNanos;
+            long ahead = next - now;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (arrivals.compareAndSet(slot, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int getSlots() {
+        return mask + 1;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
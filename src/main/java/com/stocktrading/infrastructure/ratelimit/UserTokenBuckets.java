@@ -0,0 +1,115 @@
+package com.stocktrading.infrastructure.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by exact user, in a table of bounded size.
+ * Each bucket follows the same cell rate algorithm as {@link TokenBuckets}, so
+ * admission is one compare-and-set on the user's entry. A bucket whose
+ * theoretical arrival time has passed is full, exactly like a bucket never used,
+ * so idle users can be dropped without changing any decision. Idle users are
+ * swept out when the table fills up; if every tracked user is still active,
+ * new users are throttled until one goes idle.
+ */
+public final class UserTokenBuckets {
+
+    /**
+     * Marks an entry being evicted; acquirers that see it look the user up again.
+     */
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final Map<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final int maxUsers;
+    private final long emissionNanos;
+    private final long toleranceNanos;
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    /**
+     * @param maxUsers users tracked at once
+     * @param ratePerSecond sustained requests per second per user
+     * @param burst requests a full bucket admits at once
+     */
+    public UserTokenBuckets(int maxUsers, double ratePerSecond, int burst) {
+        if (maxUsers <= 0 || ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Users, rate and burst must be positive");
+        }
+        this.maxUsers = maxUsers;
+        this.emissionNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = emissionNanos * burst;
+    }
+
+    /**
+     * Take a token for a user.
+     *
+     * @param now nanoseconds on a clock that starts at or above zero
+     * @return 0 if admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String userId, long now) {
+        while (true) {
+            AtomicLong bucket = arrivals.get(userId);
+            if (bucket == null) {
+                if (arrivals.size() >= maxUsers && !evictIdle(now)) {
+                    return emissionNanos;
+                }
+                bucket = arrivals.computeIfAbsent(userId, u -> new AtomicLong());
+            }
+            long arrival = bucket.get();
+            if (arrival == EVICTED) {
+                arrivals.remove(userId, bucket);
+                continue;
+            }
+            long next = Math.max(arrival, now) + emissionNanos;
+            long ahead = next - now;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire}, e.g. when a later check rejected the request.
+     */
+    public void refund(String userId) {
+        AtomicLong bucket = arrivals.get(userId);
+        if (bucket == null) {
+            return;
+        }
+        while (true) {
+            long arrival = bucket.get();
+            if (arrival == EVICTED || bucket.compareAndSet(arrival, arrival - emissionNanos)) {
+                return;
+            }
+        }
+    }
+
+    public int size() {
+        return arrivals.size();
+    }
+
+    /**
+     * Drop users whose buckets are full again, at most once per burst interval.
+     *
+     * @return true if the table has room
+     */
+    private boolean evictIdle(long now) {
+        long due = nextSweep.get();
+        if (now >= due && nextSweep.compareAndSet(due, now + toleranceNanos)) {
+            Iterator<Map.Entry<String, AtomicLong>> iterator = arrivals.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, AtomicLong> entry = iterator.next();
+                AtomicLong bucket = entry.getValue();
+                long arrival = bucket.get();
+                if (arrival != EVICTED && arrival <= now && bucket.compareAndSet(arrival, EVICTED)) {
+                    arrivals.remove(entry.getKey(), bucket);
+                }
+            }
+        }
+        return arrivals.size() < maxUsers;
+    }
+}
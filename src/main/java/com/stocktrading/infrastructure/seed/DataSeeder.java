@@ -0,0 +1,74 @@
+package com.stocktrading.infrastructure.seed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Fills an empty database with a synthetic universe for scale testing.
+ * Runs after snapshot restore and cluster id allocation, and before the
+ * application reports ready, so in-memory indexes built at startup see the
+ * seeded rows. A database that already holds trades is left alone.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(prefix = "stocktrading.seed", name = "enabled", havingValue = "true")
+public class DataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final SyntheticUniverse universe;
+
+    @Autowired
+    public DataSeeder(DataSource dataSource,
+                      JdbcTemplate jdbcTemplate,
+                      @Value("${stocktrading.seed.symbols:50000}") int symbols,
+                      @Value("${stocktrading.seed.users:1000000}") int users,
+                      @Value("${stocktrading.seed.trades:100000000}") long trades,
+                      @Value("${stocktrading.seed.random-seed:42}") long seed,
+                      @Value("${stocktrading.seed.symbol-exponent:1.0}") double symbolExponent,
+                      @Value("${stocktrading.seed.user-exponent:0.8}") double userExponent,
+                      @Value("${stocktrading.seed.batch-size:5000}") int batchSize) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.universe = new SyntheticUniverse(symbols, users, trades, seed, symbolExponent, userExponent, batchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        Long existingTrades = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trades", Long.class);
+        if (existingTrades != null && existingTrades > 0) {
+            log.info("Skipping data seeding, database already holds {} trades", existingTrades);
+            return;
+        }
+
+        long start = System.nanoTime();
+        SyntheticUniverse.Counts counts;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                counts = universe.write(connection);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        log.info("Seeded {} in {} ms", counts, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,256 @@
+package com.stocktrading.infrastructure.seed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a reproducible universe of stocks, users, executed trades and the holdings they add up to.
+ * Symbol popularity and user activity both follow power laws, and order sizes a
+ * Pareto distribution. Users are generated one at a time from their own random
+ * stream, replaying their trades to derive their holdings, so memory stays
+ * bounded by the most active user and the same seed always produces the same
+ * rows. Rows are written with batched inserts, committing after every batch
+ * unless the connection is in auto-commit mode.
+ */
+public final class SyntheticUniverse {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticUniverse.class);
+
+    private static final int SYMBOL_LENGTH = 5;
+    private static final int SYMBOL_SPACE = 11_881_376; // 26^5
+    // Coprime with 26^5, so consecutive indexes map to well spread distinct symbols
+    private static final long SYMBOL_STRIDE = 7_368_787L;
+
+    private static final long HISTORY_START = LocalDateTime.of(2024, 1, 1, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long HISTORY_MILLIS = TimeUnit.DAYS.toMillis(365);
+    private static final double SELL_SHARE = 0.4;
+    private static final double CLOSE_POSITION_SHARE = 0.3;
+    private static final double PARETO_ALPHA = 1.16;
+    private static final int MAX_ORDER_SIZE = 10_000;
+    private static final long LOG_EVERY_TRADES = 10_000_000L;
+
+    private static final String INSERT_STOCK =
+            "INSERT INTO stocks (symbol, company_name, current_price, last_updated, change_percentage) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_TRADE =
+            "INSERT INTO trades (user_id, stock_symbol, trade_type, quantity, price, timestamp, executed_at, status, "
+            + "order_type, time_in_force) VALUES (?, ?, ?, ?, ?, ?, ?, 'EXECUTED', 'MARKET', 'GTC')";
+    private static final String INSERT_PORTFOLIO =
+            "INSERT INTO portfolios (user_id, stock_symbol, quantity, average_purchase_price, last_updated) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private final int symbols;
+    private final int users;
+    private final long trades;
+    private final long seed;
+    private final double symbolExponent;
+    private final double userExponent;
+    private final int batchSize;
+
+    public SyntheticUniverse(int symbols, int users, long trades, long seed,
+                             double symbolExponent, double userExponent, int batchSize) {
+        if (symbols <= 0 || symbols > SYMBOL_SPACE || users <= 0 || trades < 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Symbols, users and batch size must be positive and trades non-negative");
+        }
+        this.symbols = symbols;
+        this.users = users;
+        this.trades = trades;
+        this.seed = seed;
+        this.symbolExponent = symbolExponent;
+        this.userExponent = userExponent;
+        this.batchSize = batchSize;
+    }
+
+    public Counts write(Connection connection) throws SQLException {
+        String[] symbolNames = new String[symbols];
+        long[] priceCents = new long[symbols];
+        writeStocks(connection, symbolNames, priceCents);
+
+        ZipfDistribution popularity = new ZipfDistribution(symbols, symbolExponent);
+        ZipfDistribution activity = new ZipfDistribution(users, userExponent);
+        long start = System.nanoTime();
+        long tradeRows = 0;
+        long holdingRows = 0;
+        long nextLog = LOG_EVERY_TRADES;
+
+        try (PreparedStatement tradeInsert = connection.prepareStatement(INSERT_TRADE);
+             PreparedStatement holdingInsert = connection.prepareStatement(INSERT_PORTFOLIO)) {
+            Map<Integer, long[]> positions = new HashMap<>();
+            for (int rank = 1; rank <= users; rank++) {
+                SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + rank);
+                double expected = trades * activity.probability(rank);
+                long count = (long) expected + (random.nextDouble() < expected - Math.floor(expected) ? 1 : 0);
+                if (count == 0) {
+                    continue;
+                }
+                String userId = "user" + rank;
+                positions.clear();
+                for (long k = 0; k < count; k++) {
+                    int symbol = popularity.sample(random) - 1;
+                    long time = HISTORY_START + (long) (HISTORY_MILLIS * ((k + random.nextDouble()) / count));
+                    long price = Math.max(1, Math.round(priceCents[symbol] * Math.exp(0.02 * random.nextGaussian())));
+                    long[] position = positions.computeIfAbsent(symbol, s -> new long[3]);
+
+                    boolean sell = position[0] > 0 && random.nextDouble() < SELL_SHARE;
+                    int quantity;
+                    if (sell) {
+                        quantity = random.nextDouble() < CLOSE_POSITION_SHARE
+                                ? (int) position[0]
+                                : 1 + random.nextInt((int) position[0]);
+                        position[1] -= position[1] * quantity / position[0];
+                        position[0] -= quantity;
+                    } else {
+                        quantity = orderSize(random);
+                        position[0] += quantity;
+                        position[1] += price * quantity;
+                    }
+                    position[2] = time;
+
+                    tradeInsert.setString(1, userId);
+                    tradeInsert.setString(2, symbolNames[symbol]);
+                    tradeInsert.setString(3, sell ? "SELL" : "BUY");
+                    tradeInsert.setInt(4, quantity);
+                    tradeInsert.setBigDecimal(5, BigDecimal.valueOf(price, 2));
+                    tradeInsert.setTimestamp(6, new Timestamp(time));
+                    tradeInsert.setTimestamp(7, new Timestamp(time));
+                    tradeRows = addBatch(connection, tradeInsert, tradeRows);
+                }
+
+                for (Map.Entry<Integer, long[]> entry : positions.entrySet()) {
+                    long[] position = entry.getValue();
+                    if (position[0] == 0) {
+                        continue;
+                    }
+                    holdingInsert.setString(1, userId);
+                    holdingInsert.setString(2, symbolNames[entry.getKey()]);
+                    holdingInsert.setInt(3, (int) position[0]);
+                    holdingInsert.setBigDecimal(4, BigDecimal.valueOf(position[1])
+                            .divide(BigDecimal.valueOf(position[0] * 100), 2, RoundingMode.HALF_UP));
+                    holdingInsert.setTimestamp(5, new Timestamp(position[2]));
+                    holdingRows = addBatch(connection, holdingInsert, holdingRows);
+                }
+
+                if (tradeRows >= nextLog) {
+                    long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                    log.info("Seeded {} trades for {} users ({} trades/s)", tradeRows, rank, tradeRows * 1000 / elapsed);
+                    nextLog += LOG_EVERY_TRADES;
+                }
+            }
+            flush(connection, tradeInsert);
+            flush(connection, holdingInsert);
+        }
+        return new Counts(symbols, users, tradeRows, holdingRows);
+    }
+
+    private void writeStocks(Connection connection, String[] names, long[] priceCents) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT symbol FROM stocks")) {
+            while (rs.next()) {
+                existing.add(rs.getString(1));
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        Timestamp listed = new Timestamp(HISTORY_START + HISTORY_MILLIS);
+        long rows = 0;
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_STOCK)) {
+            long index = 0;
+            for (int i = 0; i < symbols; i++) {
+                String symbol;
+                do {
+                    symbol = symbolAt(index++);
+                } while (existing.contains(symbol));
+                names[i] = symbol;
+                // Log-normal prices with a median of $60, kept between $1 and $5,000
+                priceCents[i] = Math.max(100, Math.min(500_000, Math.round(6_000 * Math.exp(random.nextGaussian()))));
+
+                ps.setString(1, symbol);
+                ps.setString(2, symbol + " Holdings");
+                ps.setBigDecimal(3, BigDecimal.valueOf(priceCents[i], 2));
+                ps.setTimestamp(4, listed);
+                ps.setBigDecimal(5, BigDecimal.ZERO);
+                rows = addBatch(connection, ps, rows);
+            }
+            flush(connection, ps);
+        }
+    }
+
+    /**
+     * Pareto-distributed order size: most orders are small, a few are very large.
+     */
+    private static int orderSize(SplittableRandom random) {
+        double size = 5 * Math.pow(1 - random.nextDouble(), -1 / PARETO_ALPHA);
+        return (int) Math.min(MAX_ORDER_SIZE, size);
+    }
+
+    /**
+     * The generated symbol for an index. Stocks take them in order, skipping symbols that already exist.
+     */
+    public static String symbolAt(long index) {
+        long code = (index * SYMBOL_STRIDE) % SYMBOL_SPACE;
+        char[] letters = new char[SYMBOL_LENGTH];
+        for (int i = SYMBOL_LENGTH - 1; i >= 0; i--) {
+            letters[i] = (char) ('A' + code % 26);
+            code /= 26;
+        }
+        return new String(letters);
+    }
+
+    private long addBatch(Connection connection, PreparedStatement ps, long rows) throws SQLException {
+        ps.addBatch();
+        if (++rows % batchSize == 0) {
+            flush(connection, ps);
+        }
+        return rows;
+    }
+
+    private static void flush(Connection connection, PreparedStatement ps) throws SQLException {
+        ps.executeBatch();
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    public static final class Counts {
+        private final long stocks;
+        private final long users;
+        private final long trades;
+        private final long holdings;
+
+        public Counts(long stocks, long users, long trades, long holdings) {
+            this.stocks = stocks;
+            this.users = users;
+            this.trades = trades;
+            this.holdings = holdings;
+        }
+
+        // Getters
+        public long getStocks() { return stocks; }
+        public long getUsers() { return users; }
+        public long getTrades() { return trades; }
+        public long getHoldings() { return holdings; }
+
+        @Override
+        public String toString() {
+            return stocks + " stocks, " + users + " users, " + trades + " trades, " + holdings + " holdings";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.stocktrading.infrastructure.seed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Power-law distribution over ranks 1..n, where rank r has weight proportional to 1 / r^exponent.
+ * Sampling is a binary search over the precomputed cumulative weights.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulative;
+    private final double total;
+    private final double exponent;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0 || exponent < 0) {
+            throw new IllegalArgumentException("Size must be positive and exponent non-negative");
+        }
+        this.exponent = exponent;
+        this.cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += Math.pow(rank, -exponent);
+            cumulative[rank - 1] = sum;
+        }
+        this.total = sum;
+    }
+
+    /**
+     * @return a rank from 1 to n
+     */
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+
+    /**
+     * Share of all draws that land on a rank.
+     */
+    public double probability(int rank) {
+        return Math.pow(rank, -exponent) / total;
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
@@ -0,0 +1,390 @@
+package com.stocktrading.infrastructure.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary snapshot format for stocks, holdings with their tax lots, and open trades.
+ * Rows are streamed straight between JDBC and the data stream, so neither
+ * writing nor restoring materializes entities or whole tables in memory.
+ */
+public final class JdbcStateSnapshot {
+
+    private static final int MAGIC = 0x5354534E; // "STSN"
+    private static final int VERSION = 6;
+    private static final int BATCH_SIZE = 5_000;
+
+    private static final byte ROW = 1;
+    private static final byte END = 0;
+
+    private static final String SELECT_STOCKS =
+            "SELECT symbol, company_name, current_price, last_updated, change_percentage, "
+            + "open_price, high_price, low_price, volume FROM stocks";
+    private static final String SELECT_PORTFOLIOS =
+            "SELECT id, user_id, stock_symbol, quantity, average_purchase_price, last_updated, next_lot_id FROM portfolios";
+    private static final String SELECT_TAX_LOTS =
+            "SELECT l.portfolio_id, l.lot_id, l.quantity, l.cost, l.acquired_at FROM tax_lots l";
+    private static final String SELECT_OPEN_TRADES =
+            "SELECT id, user_id, stock_symbol, trade_type, quantity, price, timestamp, status, status_message, "
+            + "order_type, trigger_price, trail_amount, idempotency_key, time_in_force, expires_at "
+            + "FROM trades WHERE status = 'PENDING'";
+
+    private static final String MERGE_STOCK =
+            "MERGE INTO stocks (symbol, company_name, current_price, last_updated, change_percentage, "
+            + "open_price, high_price, low_price, volume) KEY (symbol) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PORTFOLIO =
+            "INSERT INTO portfolios (id, user_id, stock_symbol, quantity, average_purchase_price, last_updated, next_lot_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TAX_LOT =
+            "INSERT INTO tax_lots (portfolio_id, lot_id, quantity, cost, acquired_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_TRADE =
+            "INSERT INTO trades (id, user_id, stock_symbol, trade_type, quantity, price, timestamp, status, status_message, "
+            + "order_type, trigger_price, trail_amount, idempotency_key, time_in_force, expires_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private JdbcStateSnapshot() {
+    }
+
+    /**
+     * Write all stocks, holdings and pending trades visible to the connection.
+     */
+    public static Counts write(Connection connection, DataOutputStream out) throws SQLException, IOException {
+        return write(connection, out, null);
+    }
+
+    /**
+     * Write one symbol's stock, holdings and pending trades, for handing a partition to another node.
+     */
+    public static Counts writePartition(Connection connection, DataOutputStream out, String symbol)
+            throws SQLException, IOException {
+        return write(connection, out, symbol);
+    }
+
+    private static Counts write(Connection connection, DataOutputStream out, String symbol)
+            throws SQLException, IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(System.currentTimeMillis());
+
+        long stocks = 0;
+        try (PreparedStatement statement = select(connection, SELECT_STOCKS, " WHERE symbol = ?", symbol);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                out.writeByte(ROW);
+                out.writeUTF(rs.getString(1));
+                out.writeUTF(rs.getString(2));
+                writeDecimal(out, rs.getBigDecimal(3));
+                writeTime(out, rs.getObject(4, LocalDateTime.class));
+                writeDecimal(out, rs.getBigDecimal(5));
+                writeDecimal(out, rs.getBigDecimal(6));
+                writeDecimal(out, rs.getBigDecimal(7));
+                writeDecimal(out, rs.getBigDecimal(8));
+                writeNullableLong(out, rs.getObject(9, Long.class));
+                stocks++;
+            }
+        }
+        out.writeByte(END);
+
+        long holdings = 0;
+        try (PreparedStatement statement = select(connection, SELECT_PORTFOLIOS, " WHERE stock_symbol = ?", symbol)) {
+            statement.setFetchSize(BATCH_SIZE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    out.writeByte(ROW);
+                    out.writeLong(rs.getLong(1));
+                    out.writeUTF(rs.getString(2));
+                    out.writeUTF(rs.getString(3));
+                    out.writeInt(rs.getInt(4));
+                    writeDecimal(out, rs.getBigDecimal(5));
+                    writeTime(out, rs.getObject(6, LocalDateTime.class));
+                    writeNullableLong(out, rs.getObject(7, Long.class));
+                    holdings++;
+                }
+            }
+        }
+        out.writeByte(END);
+
+        try (PreparedStatement statement = select(connection, SELECT_TAX_LOTS,
+                " JOIN portfolios p ON p.id = l.portfolio_id WHERE p.stock_symbol = ?", symbol)) {
+            statement.setFetchSize(BATCH_SIZE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    out.writeByte(ROW);
+                    out.writeLong(rs.getLong(1));
+                    out.writeLong(rs.getLong(2));
+                    out.writeInt(rs.getInt(3));
+                    out.writeLong(rs.getLong(4));
+                    out.writeLong(rs.getLong(5));
+                }
+            }
+        }
+        out.writeByte(END);
+
+        long trades = 0;
+        try (PreparedStatement statement = select(connection, SELECT_OPEN_TRADES, " AND stock_symbol = ?", symbol);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                out.writeByte(ROW);
+                out.writeLong(rs.getLong(1));
+                out.writeUTF(rs.getString(2));
+                out.writeUTF(rs.getString(3));
+                out.writeUTF(rs.getString(4));
+                out.writeInt(rs.getInt(5));
+                writeDecimal(out, rs.getBigDecimal(6));
+                writeTime(out, rs.getObject(7, LocalDateTime.class));
+                out.writeUTF(rs.getString(8));
+                writeNullableString(out, rs.getString(9));
+                out.writeUTF(rs.getString(10));
+                writeDecimal(out, rs.getBigDecimal(11));
+                writeDecimal(out, rs.getBigDecimal(12));
+                writeNullableString(out, rs.getString(13));
+                out.writeUTF(rs.getString(14));
+                writeTime(out, rs.getObject(15, LocalDateTime.class));
+                trades++;
+            }
+        }
+        out.writeByte(END);
+
+        return new Counts(stocks, holdings, trades);
+    }
+
+    /**
+     * Restore a snapshot into empty holdings and trades tables.
+     * Stocks are merged by symbol so seeded reference data is overwritten.
+     */
+    public static Counts restore(DataInputStream in, Connection connection) throws SQLException, IOException {
+        return restore(in, connection, true);
+    }
+
+    /**
+     * Add a partition written by {@link #writePartition} to this node's tables.
+     * Row ids are kept, so nodes must allocate ids from disjoint ranges.
+     */
+    public static Counts restorePartition(DataInputStream in, Connection connection) throws SQLException, IOException {
+        return restore(in, connection, false);
+    }
+
+    private static Counts restore(DataInputStream in, Connection connection, boolean restartIdentities)
+            throws SQLException, IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a state snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        in.readLong(); // created at
+
+        long stocks = 0;
+        try (PreparedStatement ps = connection.prepareStatement(MERGE_STOCK)) {
+            while (in.readByte() == ROW) {
+                ps.setString(1, in.readUTF());
+                ps.setString(2, in.readUTF());
+                ps.setBigDecimal(3, readDecimal(in));
+                ps.setObject(4, readTime(in));
+                ps.setBigDecimal(5, readDecimal(in));
+                ps.setBigDecimal(6, readDecimal(in));
+                ps.setBigDecimal(7, readDecimal(in));
+                ps.setBigDecimal(8, readDecimal(in));
+                setNullableLong(ps, 9, readNullableLong(in));
+                stocks = addBatch(ps, stocks);
+            }
+            ps.executeBatch();
+        }
+
+        long holdings = 0;
+        long maxHoldingId = 0;
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_PORTFOLIO)) {
+            while (in.readByte() == ROW) {
+                long id = in.readLong();
+                maxHoldingId = Math.max(maxHoldingId, id);
+                ps.setLong(1, id);
+                ps.setString(2, in.readUTF());
+                ps.setString(3, in.readUTF());
+                ps.setInt(4, in.readInt());
+                ps.setBigDecimal(5, readDecimal(in));
+                ps.setObject(6, readTime(in));
+                setNullableLong(ps, 7, readNullableLong(in));
+                holdings = addBatch(ps, holdings);
+            }
+            ps.executeBatch();
+        }
+
+        long lots = 0;
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_TAX_LOT)) {
+            while (in.readByte() == ROW) {
+                ps.setLong(1, in.readLong());
+                ps.setLong(2, in.readLong());
+                ps.setInt(3, in.readInt());
+                ps.setLong(4, in.readLong());
+                ps.setLong(5, in.readLong());
+                lots = addBatch(ps, lots);
+            }
+            ps.executeBatch();
+        }
+
+        long trades = 0;
+        long maxTradeId = 0;
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_TRADE)) {
+            while (in.readByte() == ROW) {
+                long id = in.readLong();
+                maxTradeId = Math.max(maxTradeId, id);
+                ps.setLong(1, id);
+                ps.setString(2, in.readUTF());
+                ps.setString(3, in.readUTF());
+                ps.setString(4, in.readUTF());
+                ps.setInt(5, in.readInt());
+                ps.setBigDecimal(6, readDecimal(in));
+                ps.setObject(7, readTime(in));
+                ps.setString(8, in.readUTF());
+                ps.setString(9, readNullableString(in));
+                ps.setString(10, in.readUTF());
+                ps.setBigDecimal(11, readDecimal(in));
+                ps.setBigDecimal(12, readDecimal(in));
+                ps.setString(13, readNullableString(in));
+                ps.setString(14, in.readUTF());
+                ps.setObject(15, readTime(in));
+                trades = addBatch(ps, trades);
+            }
+            ps.executeBatch();
+        }
+
+        // Restored rows carry explicit ids, so move the identity columns past them
+        if (restartIdentities) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE portfolios ALTER COLUMN id RESTART WITH " + (maxHoldingId + 1));
+                statement.execute("ALTER TABLE trades ALTER COLUMN id RESTART WITH " + (maxTradeId + 1));
+            }
+        }
+
+        return new Counts(stocks, holdings, trades);
+    }
+
+    private static PreparedStatement select(Connection connection, String sql, String symbolFilter, String symbol)
+            throws SQLException {
+        if (symbol == null) {
+            return connection.prepareStatement(sql);
+        }
+        PreparedStatement statement = connection.prepareStatement(sql + symbolFilter);
+        statement.setString(1, symbol);
+        return statement;
+    }
+
+    private static long addBatch(PreparedStatement ps, long rows) throws SQLException {
+        ps.addBatch();
+        if (++rows % BATCH_SIZE == 0) {
+            ps.executeBatch();
+        }
+        return rows;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(-1);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            out.writeByte(0);
+            out.writeByte(value.scale());
+            out.writeLong(unscaled.longValue());
+        } else {
+            out.writeByte(1);
+            out.writeUTF(value.toPlainString());
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        if (kind == -1) {
+            return null;
+        }
+        if (kind == 0) {
+            int scale = in.readByte();
+            return BigDecimal.valueOf(in.readLong(), scale);
+        }
+        return new BigDecimal(in.readUTF());
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Row counts per section of a snapshot.
+     */
+    public static final class Counts {
+        private final long stocks;
+        private final long holdings;
+        private final long openTrades;
+
+        public Counts(long stocks, long holdings, long openTrades) {
+            this.stocks = stocks;
+            this.holdings = holdings;
+            this.openTrades = openTrades;
+        }
+
+        public long getStocks() { return stocks; }
+        public long getHoldings() { return holdings; }
+        public long getOpenTrades() { return openTrades; }
+
+        @Override
+        public String toString() {
+            return stocks + " stocks, " + holdings + " holdings, " + openTrades + " open trades";
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.stocktrading.infrastructure.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Periodically writes binary state snapshots and restores the latest one at startup.
+ * Snapshots are read inside a repeatable-read transaction, so writers keep
+ * running while a consistent view is streamed to disk. Restoring happens in an
+ * {@link ApplicationRunner}, which completes before the application reports
+ * itself ready to accept traffic. The shutdown snapshot is taken when the
+ * context stops, after the web server has drained and before any bean, the
+ * entity manager factory and data source included, is destroyed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "stocktrading.snapshot", name = "enabled", havingValue = "true")
+public class StateSnapshotService implements ApplicationRunner, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StateSnapshotService.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate restoreTransaction;
+    private final Path snapshotPath;
+    private volatile boolean running;
+
+    @Autowired
+    public StateSnapshotService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${stocktrading.snapshot.path:data/state.snapshot}") String snapshotPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotPath = Paths.get(snapshotPath);
+
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.restoreTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        restoreLatestSnapshot();
+    }
+
+    /**
+     * Restore the latest snapshot if one exists and no holdings have been loaded yet.
+     */
+    public synchronized void restoreLatestSnapshot() {
+        if (!Files.exists(snapshotPath)) {
+            log.info("No state snapshot found at {}", snapshotPath);
+            return;
+        }
+        Long existingHoldings = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM portfolios", Long.class);
+        if (existingHoldings != null && existingHoldings > 0) {
+            log.info("Skipping snapshot restore, database already holds {} holdings", existingHoldings);
+            return;
+        }
+
+        long start = System.nanoTime();
+        JdbcStateSnapshot.Counts counts = restoreTransaction.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<JdbcStateSnapshot.Counts>) connection -> {
+                    try (DataInputStream in = new DataInputStream(
+                            new BufferedInputStream(Files.newInputStream(snapshotPath), BUFFER_SIZE))) {
+                        return JdbcStateSnapshot.restore(in, connection);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+        log.info("Restored {} from {} in {} ms", counts, snapshotPath, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Write a snapshot to a temporary file and atomically replace the previous one.
+     */
+    @Scheduled(fixedDelayString = "${stocktrading.snapshot.interval-ms:60000}",
+               initialDelayString = "${stocktrading.snapshot.interval-ms:60000}")
+    public synchronized void takeSnapshot() {
+        long start = System.nanoTime();
+        Path temp = null;
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "state", ".tmp");
+            Path target = temp;
+
+            JdbcStateSnapshot.Counts counts = snapshotTransaction.execute(status ->
+                    jdbcTemplate.execute((ConnectionCallback<JdbcStateSnapshot.Counts>) connection -> {
+                        try (DataOutputStream out = new DataOutputStream(
+                                new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE))) {
+                            return JdbcStateSnapshot.write(connection, out);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote snapshot of {} to {} in {} ms", counts, snapshotPath, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write state snapshot to {}", snapshotPath, e);
+        } finally {
+            deleteIfPresent(temp);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Take the shutdown snapshot while the database is still open.
+     */
+    @Override
+    public void stop() {
+        if (running) {
+            running = false;
+            takeSnapshot();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server, whose lifecycle phases are higher, but before beans are destroyed.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private static void deleteIfPresent(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary snapshot {}", temp, e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.stocktrading.presentation.controller;
+
+import com.stocktrading.application.service.PriceAlertService;
+import com.stocktrading.domain.model.PriceAlert;
+import com.stocktrading.presentation.dto.CreateAlertRequest;
+import com.stocktrading.presentation.dto.PriceAlertDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * REST Controller for price alert operations.
+ */
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AlertController {
+
+    private final PriceAlertService priceAlertService;
+
+    @Autowired
+    public AlertController(PriceAlertService priceAlertService) {
+        this.priceAlertService = priceAlertService;
+    }
+
+    /**
+     * Create a price alert.
+     */
+    @PostMapping
+    public ResponseEntity<PriceAlertDto> createAlert(@Valid @RequestBody CreateAlertRequest request) {
+        try {
+            PriceAlert alert = priceAlertService.createAlert(
+                    request.getUserId(),
+                    request.getStockSymbol(),
+                    request.getThreshold(),
+                    PriceAlert.Direction.valueOf(request.getDirection().toUpperCase())
+            );
+            return ResponseEntity.ok(convertToDto(alert));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get a user's active alerts.
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<PriceAlertDto>> getActiveAlerts(@PathVariable String userId) {
+        try {
+            List<PriceAlertDto> alertDtos = priceAlertService.getActiveAlerts(userId).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(alertDtos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get a user's recently triggered alerts.
+     */
+    @GetMapping("/user/{userId}/triggered")
+    public ResponseEntity<List<PriceAlertDto>> getTriggeredAlerts(@PathVariable String userId) {
+        try {
+            List<PriceAlertDto> alertDtos = priceAlertService.getTriggeredAlerts(userId).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(alertDtos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Cancel an active alert.
+     */
+    @DeleteMapping("/{alertId}")
+    public ResponseEntity<Void> cancelAlert(@PathVariable Long alertId, @RequestParam String userId) {
+        try {
+            if (priceAlertService.cancelAlert(alertId, userId)) {
+                return ResponseEntity.ok().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Convert PriceAlert to DTO.
+     */
+    private PriceAlertDto convertToDto(PriceAlert alert) {
+        return new PriceAlertDto(
+                alert.getId(),
+                alert.getUserId(),
+                alert.getStockSymbol(),
+                alert.getThreshold(),
+                alert.getDirection().name(),
+                alert.getCreatedAt(),
+                alert.getTriggeredAt(),
+                alert.getTriggeredPrice()
+        );
+    }
+}
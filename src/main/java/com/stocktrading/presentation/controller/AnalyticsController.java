@@ -0,0 +1,65 @@
+package com.stocktrading.presentation.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.stocktrading.application.service.TradeAnalyticsService;
+import com.stocktrading.application.service.TradeAnalyticsService.SymbolStats;
+import com.stocktrading.presentation.dto.StreamedList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for trade analytics.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AnalyticsController {
+
+    private final TradeAnalyticsService tradeAnalyticsService;
+
+    @Autowired
+    public AnalyticsController(TradeAnalyticsService tradeAnalyticsService) {
+        this.tradeAnalyticsService = tradeAnalyticsService;
+    }
+
+    /**
+     * Get volume, notional, VWAP, buy/sell imbalance and trade counts per symbol
+     * for trades executed in {@code [from, to)}. Both bounds are optional; the
+     * window defaults to all history up to now.
+     */
+    @GetMapping("/symbols")
+    public ResponseEntity<StreamedList<SymbolStats>> getSymbolStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<String> symbols) {
+        try {
+            List<SymbolStats> stats = tradeAnalyticsService.getSymbolStats(from, to, symbols);
+            return ResponseEntity.ok(new StreamedList<>(stats, AnalyticsController::writeJson));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static void writeJson(SymbolStats stats, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("symbol", stats.getSymbol());
+        generator.writeNumberField("tradeCount", stats.getTradeCount());
+        generator.writeNumberField("buyCount", stats.getBuyCount());
+        generator.writeNumberField("sellCount", stats.getSellCount());
+        generator.writeNumberField("volume", stats.getVolume());
+        generator.writeNumberField("buyVolume", stats.getBuyVolume());
+        generator.writeNumberField("sellVolume", stats.getSellVolume());
+        generator.writeNumberField("notional", stats.getNotional());
+        generator.writeNumberField("vwap", stats.getVwap());
+        generator.writeNumberField("imbalance", stats.getImbalance());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,90 @@
+package com.stocktrading.presentation.controller;
+
+import com.stocktrading.infrastructure.cluster.ClusterTopology;
+import com.stocktrading.infrastructure.cluster.PartitionRebalancer;
+import com.stocktrading.presentation.dto.ClusterNodeDto;
+import com.stocktrading.presentation.dto.ClusterNodeRequest;
+import com.stocktrading.presentation.dto.PartitionMoveDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * REST Controller for cluster membership on the gateway.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+@ConditionalOnExpression("${stocktrading.cluster.enabled:false} and '${stocktrading.cluster.role:worker}' == 'gateway'")
+public class ClusterController {
+
+    private final ClusterTopology topology;
+    private final PartitionRebalancer rebalancer;
+
+    @Autowired
+    public ClusterController(ClusterTopology topology, PartitionRebalancer rebalancer) {
+        this.topology = topology;
+        this.rebalancer = rebalancer;
+    }
+
+    /**
+     * Get the nodes that own partitions.
+     */
+    @GetMapping("/nodes")
+    public ResponseEntity<List<ClusterNodeDto>> getNodes() {
+        List<ClusterNodeDto> nodes = topology.getNodes().stream()
+                .map(nodeId -> new ClusterNodeDto(nodeId, topology.addressOf(nodeId).toString()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(nodes);
+    }
+
+    /**
+     * Get the node that owns a symbol.
+     */
+    @GetMapping("/owner/{symbol}")
+    public ResponseEntity<ClusterNodeDto> getOwner(@PathVariable String symbol) {
+        String nodeId = topology.ownerOf(symbol);
+        return ResponseEntity.ok(new ClusterNodeDto(nodeId, topology.addressOf(nodeId).toString()));
+    }
+
+    /**
+     * Add a node and move the partitions it now owns onto it.
+     */
+    @PostMapping("/nodes")
+    public ResponseEntity<List<PartitionMoveDto>> addNode(@Valid @RequestBody ClusterNodeRequest request) {
+        try {
+            return ResponseEntity.ok(convertToDto(rebalancer.addNode(request.getNodeId(), URI.create(request.getUrl()))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException | CompletionException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+    }
+
+    /**
+     * Move a node's partitions to the remaining nodes and remove it.
+     */
+    @DeleteMapping("/nodes/{nodeId}")
+    public ResponseEntity<List<PartitionMoveDto>> removeNode(@PathVariable String nodeId) {
+        try {
+            return ResponseEntity.ok(convertToDto(rebalancer.removeNode(nodeId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException | CompletionException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+    }
+
+    private List<PartitionMoveDto> convertToDto(List<PartitionRebalancer.Move> moves) {
+        return moves.stream()
+                .map(move -> new PartitionMoveDto(move.getSymbol(), move.getFromNode(), move.getToNode()))
+                .collect(Collectors.toList());
+    }
+}
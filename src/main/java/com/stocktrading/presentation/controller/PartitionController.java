@@ -0,0 +1,51 @@
+package com.stocktrading.presentation.controller;
+
+import com.stocktrading.infrastructure.cluster.PartitionStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for handing symbol partitions between cluster nodes.
+ * Called by the gateway while rebalancing.
+ */
+@RestController
+@RequestMapping("/api/cluster/partitions")
+@ConditionalOnProperty(prefix = "stocktrading.cluster", name = "enabled", havingValue = "true")
+public class PartitionController {
+
+    private final PartitionStore partitionStore;
+
+    @Autowired
+    public PartitionController(PartitionStore partitionStore) {
+        this.partitionStore = partitionStore;
+    }
+
+    /**
+     * Export the state of a symbol.
+     */
+    @GetMapping(value = "/{symbol}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> exportPartition(@PathVariable String symbol) {
+        return ResponseEntity.ok(partitionStore.exportPartition(symbol.toUpperCase()));
+    }
+
+    /**
+     * Take over the state of a symbol exported by another node.
+     */
+    @PutMapping(value = "/{symbol}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> importPartition(@PathVariable String symbol, @RequestBody byte[] partition) {
+        partitionStore.importPartition(symbol.toUpperCase(), partition);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Drop the state of a symbol now owned by another node.
+     */
+    @DeleteMapping("/{symbol}")
+    public ResponseEntity<Void> releasePartition(@PathVariable String symbol) {
+        partitionStore.releasePartition(symbol.toUpperCase());
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,16 +1,33 @@
 package com.stocktrading.presentation.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.stocktrading.application.service.LeaderboardService;
+import com.stocktrading.application.service.PortfolioHistoryService;
 import com.stocktrading.application.service.PortfolioService;
 import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.domain.model.LotQueue;
 import com.stocktrading.domain.model.Portfolio;
+import com.stocktrading.presentation.dto.HoldingsAsOfDto;
+import com.stocktrading.presentation.dto.LeaderboardEntryDto;
 import com.stocktrading.presentation.dto.PortfolioDto;
 import com.stocktrading.presentation.dto.PortfolioSummaryDto;
+import com.stocktrading.presentation.dto.ProfitAndLossDto;
+import com.stocktrading.presentation.dto.RealizedGainDto;
+import com.stocktrading.presentation.dto.StreamedList;
+import com.stocktrading.presentation.dto.TaxLotDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -23,25 +40,31 @@ public class PortfolioController {
 
     private final PortfolioService portfolioService;
     private final StockPriceService stockPriceService;
+    private final LeaderboardService leaderboardService;
+    private final PortfolioHistoryService portfolioHistoryService;
 
     @Autowired
     public PortfolioController(PortfolioService portfolioService,
-                              StockPriceService stockPriceService) {
+                              StockPriceService stockPriceService,
+                              LeaderboardService leaderboardService,
+                              PortfolioHistoryService portfolioHistoryService) {
         this.portfolioService = portfolioService;
         this.stockPriceService = stockPriceService;
+        this.leaderboardService = leaderboardService;
+        this.portfolioHistoryService = portfolioHistoryService;
     }
 
     /**
      * Get user's complete portfolio.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<PortfolioDto>> getUserPortfolio(@PathVariable String userId) {
+    public ResponseEntity<StreamedList<Portfolio>> getUserPortfolio(@PathVariable String userId) {
         try {
             List<Portfolio> portfolio = portfolioService.getUserPortfolio(userId);
-            List<PortfolioDto> portfolioDtos = portfolio.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(portfolioDtos);
+            Map<String, BigDecimal> prices = stockPriceService.getCurrentPrices(
+                    portfolio.stream().map(Portfolio::getStockSymbol).collect(Collectors.toList()));
+            return ResponseEntity.ok(new StreamedList<>(portfolio, (holding, generator, provider) -> writeJson(
+                    holding, prices.getOrDefault(holding.getStockSymbol(), BigDecimal.ZERO), generator, provider)));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -99,6 +122,105 @@ public class PortfolioController {
         }
     }
 
+    /**
+     * Get the open tax lots of a holding, oldest first.
+     */
+    @GetMapping("/user/{userId}/stock/{symbol}/lots")
+    public ResponseEntity<List<TaxLotDto>> getTaxLots(
+            @PathVariable String userId,
+            @PathVariable String symbol) {
+        try {
+            return portfolioService.getUserStockHolding(userId, symbol)
+                    .map(portfolio -> ResponseEntity.ok(portfolio.getLots().stream()
+                            .map(this::convertToDto)
+                            .collect(Collectors.toList())))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get gains and losses realized by a user's sells.
+     */
+    @GetMapping("/user/{userId}/realized")
+    public ResponseEntity<List<RealizedGainDto>> getRealizedGains(@PathVariable String userId) {
+        try {
+            List<RealizedGainDto> gains = portfolioService.getRealizedGains(userId).stream()
+                    .map(gain -> new RealizedGainDto(
+                            gain.getId(),
+                            gain.getStockSymbol(),
+                            gain.getQuantity(),
+                            gain.getCostBasis(),
+                            gain.getProceeds(),
+                            gain.getGainLoss(),
+                            gain.getLotSelection(),
+                            gain.getRealizedAt()))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(gains);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get realized and unrealized profit and loss.
+     */
+    @GetMapping("/user/{userId}/pnl")
+    public ResponseEntity<ProfitAndLossDto> getProfitAndLoss(@PathVariable String userId) {
+        try {
+            PortfolioService.ProfitAndLoss pnl = portfolioService.getProfitAndLoss(userId);
+            return ResponseEntity.ok(new ProfitAndLossDto(
+                    pnl.getRealizedGainLoss(),
+                    pnl.getUnrealizedGainLoss(),
+                    pnl.getTotalGainLoss()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get what a user held at a point in time, valued at the prices in effect then.
+     */
+    @GetMapping("/user/{userId}/as-of")
+    public ResponseEntity<HoldingsAsOfDto> getHoldingsAsOf(
+            @PathVariable String userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        try {
+            PortfolioHistoryService.HoldingsAsOf holdings = portfolioHistoryService.getHoldingsAsOf(userId, at);
+            return ResponseEntity.ok(new HoldingsAsOfDto(
+                    holdings.getUserId(),
+                    holdings.getAsOf(),
+                    holdings.getCheckpointAt(),
+                    holdings.getTradesReplayed(),
+                    holdings.getTotalValue(),
+                    holdings.getPositions().stream()
+                            .map(position -> new HoldingsAsOfDto.PositionDto(
+                                    position.getStockSymbol(),
+                                    position.getQuantity(),
+                                    position.getPrice(),
+                                    position.getMarketValue()))
+                            .collect(Collectors.toList())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the highest valued portfolios.
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDto>> getLeaderboard(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<LeaderboardEntryDto> entries = leaderboardService.getTopPortfolios(limit).stream()
+                    .map(ranking -> new LeaderboardEntryDto(ranking.getRank(), ranking.getUserId(), ranking.getTotalValue()))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Convert Portfolio entity to DTO with current market values.
      */
@@ -120,4 +242,38 @@ public class PortfolioController {
                 portfolio.getLastUpdated()
         );
     }
+
+    /**
+     * Write a holding with the fields of {@link PortfolioDto}, valued at a price resolved before serialisation.
+     */
+    private static void writeJson(Portfolio portfolio, BigDecimal currentPrice, JsonGenerator generator,
+                                  SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        StreamedList.writeNumberField(generator, "id", portfolio.getId());
+        generator.writeStringField("userId", portfolio.getUserId());
+        generator.writeStringField("stockSymbol", portfolio.getStockSymbol());
+        StreamedList.writeNumberField(generator, "quantity", portfolio.getQuantity());
+        generator.writeNumberField("averagePurchasePrice", portfolio.getAveragePurchasePrice());
+        generator.writeNumberField("currentPrice", currentPrice);
+        generator.writeNumberField("totalValue", portfolio.getTotalValue(currentPrice));
+        generator.writeNumberField("totalCost", portfolio.getTotalCost());
+        generator.writeNumberField("gainLoss", portfolio.getGainLoss(currentPrice));
+        generator.writeNumberField("gainLossPercentage", portfolio.getGainLossPercentage(currentPrice));
+        provider.defaultSerializeField("lastUpdated", portfolio.getLastUpdated(), generator);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Convert a tax lot to DTO.
+     */
+    private TaxLotDto convertToDto(LotQueue.Lot lot) {
+        BigDecimal costPerShare = Portfolio.toPrice(lot.getCost());
+        return new TaxLotDto(
+                lot.getId(),
+                lot.getQuantity(),
+                costPerShare,
+                costPerShare.multiply(BigDecimal.valueOf(lot.getQuantity())),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(lot.getAcquiredAt()), ZoneId.systemDefault())
+        );
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.stocktrading.presentation.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.stocktrading.application.service.RebalancingService;
+import com.stocktrading.application.service.RebalancingService.AccountRebalance;
+import com.stocktrading.application.service.TradingService.BasketLeg;
+import com.stocktrading.presentation.dto.RebalanceRequest;
+import com.stocktrading.presentation.dto.StreamedList;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST Controller for rebalancing accounts against a model portfolio.
+ */
+@RestController
+@RequestMapping("/api/rebalance")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RebalanceController {
+
+    private final RebalancingService rebalancingService;
+
+    @Autowired
+    public RebalanceController(RebalancingService rebalancingService) {
+        this.rebalancingService = rebalancingService;
+    }
+
+    /**
+     * Compute the orders that move each account to the model's target weights,
+     * and submit each account's orders as one basket when {@code submit} is set.
+     * Without user IDs, every account holding stock is rebalanced.
+     */
+    @PostMapping
+    public ResponseEntity<StreamedList<AccountRebalance>> rebalance(@Valid @RequestBody RebalanceRequest request) {
+        try {
+            List<AccountRebalance> accounts = rebalancingService.rebalance(
+                    request.getTargetWeights(), request.getUserIds(), request.isSubmit());
+            return ResponseEntity.ok(new StreamedList<>(accounts, RebalanceController::writeJson));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static void writeJson(AccountRebalance account, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("userId", account.getUserId());
+        generator.writeNumberField("accountValue", account.getAccountValue());
+        generator.writeStringField("status", account.getStatus().name());
+        generator.writeStringField("error", account.getError());
+        generator.writeArrayFieldStart("orders");
+        for (BasketLeg order : account.getOrders()) {
+            generator.writeStartObject();
+            generator.writeStringField("stockSymbol", order.getStockSymbol());
+            generator.writeStringField("tradeType", order.getTradeType().name());
+            generator.writeNumberField("quantity", order.getQuantity());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
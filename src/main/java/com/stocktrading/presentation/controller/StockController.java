@@ -1,15 +1,28 @@
 package com.stocktrading.presentation.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.stocktrading.application.service.CircuitBreakerService;
+import com.stocktrading.application.service.IndicatorService;
+import com.stocktrading.application.service.PriceHistoryService;
 import com.stocktrading.application.service.StockPriceService;
 import com.stocktrading.domain.model.Stock;
+import com.stocktrading.presentation.dto.IndicatorsDto;
+import com.stocktrading.presentation.dto.PriceTickDto;
+import com.stocktrading.presentation.dto.StockChangesDto;
 import com.stocktrading.presentation.dto.StockDto;
+import com.stocktrading.presentation.dto.StreamedList;
+import com.stocktrading.presentation.dto.TradingStatusDto;
 import com.stocktrading.presentation.dto.UpdatePriceRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,22 +36,65 @@ import java.util.stream.Collectors;
 public class StockController {
 
     private final StockPriceService stockPriceService;
+    private final PriceHistoryService priceHistoryService;
+    private final IndicatorService indicatorService;
+    private final CircuitBreakerService circuitBreakerService;
 
     @Autowired
-    public StockController(StockPriceService stockPriceService) {
+    public StockController(StockPriceService stockPriceService,
+                           PriceHistoryService priceHistoryService,
+                           IndicatorService indicatorService,
+                           CircuitBreakerService circuitBreakerService) {
         this.stockPriceService = stockPriceService;
+        this.priceHistoryService = priceHistoryService;
+        this.indicatorService = indicatorService;
+        this.circuitBreakerService = circuitBreakerService;
     }
 
     /**
      * Get all available stocks.
      */
     @GetMapping
-    public ResponseEntity<List<StockDto>> getAllStocks() {
-        List<Stock> stocks = stockPriceService.getAllStocks();
-        List<StockDto> stockDtos = stocks.stream()
+    public ResponseEntity<StreamedList<Stock>> getAllStocks() {
+        return ResponseEntity.ok(new StreamedList<>(stockPriceService.getAllStocks(), StockController::writeJson));
+    }
+
+    /**
+     * Get stocks whose price changed after the given sequence number.
+     * Pass {@code since=0} (or omit it) to receive a full snapshot.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<StockChangesDto> getStockChanges(@RequestParam(defaultValue = "0") long since) {
+        StockPriceService.PriceChanges changes = stockPriceService.getChangesSince(since);
+        List<StockDto> stockDtos = changes.getStocks().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(stockDtos);
+        return ResponseEntity.ok(new StockChangesDto(changes.getSequence(), changes.isSnapshot(), stockDtos));
+    }
+
+    /**
+     * Get the biggest gainers or losers by change percentage.
+     */
+    @GetMapping("/movers")
+    public ResponseEntity<List<StockDto>> getTopMovers(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "gainers") String direction) {
+        boolean gainers;
+        if ("gainers".equalsIgnoreCase(direction)) {
+            gainers = true;
+        } else if ("losers".equalsIgnoreCase(direction)) {
+            gainers = false;
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            List<StockDto> stockDtos = stockPriceService.getTopMovers(limit, gainers).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(stockDtos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -73,6 +129,64 @@ public class StockController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Get intraday price history for a stock within an optional time range.
+     */
+    @GetMapping("/{symbol}/history")
+    public ResponseEntity<List<PriceTickDto>> getPriceHistory(
+            @PathVariable String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!stockPriceService.stockExists(symbol)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            List<PriceTickDto> history = priceHistoryService.getHistory(symbol, from, to).stream()
+                    .map(tick -> new PriceTickDto(tick.getTimestamp(), tick.getPrice()))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(history);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the latest technical indicators for a stock.
+     */
+    @GetMapping("/{symbol}/indicators")
+    public ResponseEntity<IndicatorsDto> getIndicators(@PathVariable String symbol) {
+        return indicatorService.getIndicators(symbol)
+                .map(indicators -> ResponseEntity.ok(new IndicatorsDto(
+                        indicators.getSymbol(),
+                        indicators.getSamples(),
+                        indicators.getSma(),
+                        indicators.getEma(),
+                        indicators.getVwap(),
+                        indicators.getRsi(),
+                        indicators.getBollingerUpper(),
+                        indicators.getBollingerLower())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get a stock's circuit breaker band and whether trading in it is halted.
+     */
+    @GetMapping("/{symbol}/trading-status")
+    public ResponseEntity<TradingStatusDto> getTradingStatus(@PathVariable String symbol) {
+        if (!stockPriceService.stockExists(symbol)) {
+            return ResponseEntity.notFound().build();
+        }
+        return circuitBreakerService.getTradingStatus(symbol)
+                .map(status -> ResponseEntity.ok(new TradingStatusDto(
+                        status.getSymbol(),
+                        status.isHalted(),
+                        status.getHaltedUntil(),
+                        status.getReferencePrice(),
+                        status.getLowerBand(),
+                        status.getUpperBand())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Update stock price (for mock API simulation).
      */
@@ -121,4 +235,22 @@ public class StockController {
                 stock.getVolume()
         );
     }
+
+    /**
+     * Write a stock with the fields of {@link StockDto}.
+     */
+    private static void writeJson(Stock stock, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("symbol", stock.getSymbol());
+        generator.writeStringField("companyName", stock.getCompanyName());
+        generator.writeNumberField("currentPrice", stock.getCurrentPrice());
+        generator.writeNumberField("changePercentage", stock.getChangePercentage());
+        provider.defaultSerializeField("lastUpdated", stock.getLastUpdated(), generator);
+        generator.writeNumberField("openPrice", stock.getOpenPrice());
+        generator.writeNumberField("highPrice", stock.getHighPrice());
+        generator.writeNumberField("lowPrice", stock.getLowPrice());
+        StreamedList.writeNumberField(generator, "volume", stock.getVolume());
+        generator.writeEndObject();
+    }
 } 
\ No newline at end of file
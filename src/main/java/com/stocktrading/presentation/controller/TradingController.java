@@ -1,15 +1,26 @@
 package com.stocktrading.presentation.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.stocktrading.application.service.TradingService;
+import com.stocktrading.domain.model.LotSelection;
 import com.stocktrading.domain.model.Trade;
+import com.stocktrading.infrastructure.ratelimit.RateLimiter;
+import com.stocktrading.presentation.dto.BasketOrderRequest;
+import com.stocktrading.presentation.dto.ConditionalOrderRequest;
+import com.stocktrading.presentation.dto.StreamedList;
 import com.stocktrading.presentation.dto.TradeDto;
 import com.stocktrading.presentation.dto.TradeRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -21,59 +32,142 @@ import java.util.stream.Collectors;
 public class TradingController {
 
     private final TradingService tradingService;
+    private final RateLimiter rateLimiter;
 
     @Autowired
-    public TradingController(TradingService tradingService) {
+    public TradingController(TradingService tradingService, RateLimiter rateLimiter) {
         this.tradingService = tradingService;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
      * Execute a buy order.
+     * Retries carrying the same idempotency key return the original trade.
      */
     @PostMapping("/buy")
     public ResponseEntity<TradeDto> buyStock(@Valid @RequestBody TradeRequest request) {
+        long wait = rateLimiter.acquire(RateLimiter.Endpoint.BUY, request.getUserId());
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
         try {
             Trade trade = tradingService.buyStock(
                     request.getUserId(),
                     request.getStockSymbol(),
-                    request.getQuantity()
+                    request.getQuantity(),
+                    request.getIdempotencyKey()
             );
             return ResponseEntity.ok(convertToDto(trade));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            // The symbol is halted or the same key is being submitted concurrently
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
     /**
      * Execute a sell order.
+     * Retries carrying the same idempotency key return the original trade.
      */
     @PostMapping("/sell")
     public ResponseEntity<TradeDto> sellStock(@Valid @RequestBody TradeRequest request) {
+        long wait = rateLimiter.acquire(RateLimiter.Endpoint.SELL, request.getUserId());
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
         try {
             Trade trade = tradingService.sellStock(
                     request.getUserId(),
                     request.getStockSymbol(),
-                    request.getQuantity()
+                    request.getQuantity(),
+                    lotSelection(request.getLotMethod(), request.getLotIds()),
+                    request.getIdempotencyKey()
             );
             return ResponseEntity.ok(convertToDto(trade));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
     /**
-     * Get all trades for a user.
+     * Execute a basket of buy and sell orders for one user in a single transaction.
+     * Either every leg executes or, if any leg is invalid, none does.
      */
-    @GetMapping("/user/{userId}")
-    public ResponseEntity<List<TradeDto>> getUserTrades(@PathVariable String userId) {
+    @PostMapping("/basket")
+    public ResponseEntity<List<TradeDto>> executeBasket(@Valid @RequestBody BasketOrderRequest request) {
+        long wait = rateLimiter.acquire(RateLimiter.Endpoint.BASKET, request.getUserId());
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
         try {
-            List<Trade> trades = tradingService.getUserTrades(userId);
-            List<TradeDto> tradeDtos = trades.stream()
+            List<TradingService.BasketLeg> legs = request.getLegs().stream()
+                    .map(leg -> new TradingService.BasketLeg(
+                            leg.getStockSymbol(),
+                            Trade.TradeType.valueOf(leg.getTradeType().toUpperCase()),
+                            leg.getQuantity(),
+                            lotSelection(leg.getLotMethod(), leg.getLotIds())))
+                    .collect(Collectors.toList());
+            List<TradeDto> tradeDtos = tradingService.executeBasket(request.getUserId(), legs).stream()
                     .map(this::convertToDto)
                     .collect(Collectors.toList());
             return ResponseEntity.ok(tradeDtos);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            // A leg's symbol is halted or a concurrent order opened the same holding first
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Place a stop-loss, take-profit or trailing-stop order.
+     */
+    @PostMapping("/conditional")
+    public ResponseEntity<TradeDto> placeConditionalOrder(@Valid @RequestBody ConditionalOrderRequest request) {
+        long wait = rateLimiter.acquire(RateLimiter.Endpoint.CONDITIONAL, request.getUserId());
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
+        try {
+            Trade trade = tradingService.placeConditionalOrder(
+                    request.getUserId(),
+                    request.getStockSymbol(),
+                    Trade.TradeType.valueOf(request.getTradeType().toUpperCase()),
+                    request.getQuantity(),
+                    Trade.OrderType.valueOf(request.getOrderType().toUpperCase()),
+                    request.getTriggerPrice(),
+                    request.getTrailAmount(),
+                    request.getTimeInForce() == null
+                            ? Trade.TimeInForce.GTC
+                            : Trade.TimeInForce.valueOf(request.getTimeInForce().toUpperCase()),
+                    request.getExpiresAt()
+            );
+            return ResponseEntity.ok(convertToDto(trade));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            // Trading in the symbol is halted
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Get all trades for a user.
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<StreamedList<Trade>> getUserTrades(@PathVariable String userId) {
+        long wait = rateLimiter.acquire(RateLimiter.Endpoint.HISTORY, userId);
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
+        try {
+            List<Trade> trades = tradingService.getUserTrades(userId);
+            return ResponseEntity.ok(new StreamedList<>(trades, TradingController::writeJson));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -84,6 +178,10 @@ public class TradingController {
     public ResponseEntity<List<TradeDto>> getUserStockTrades(
             @PathVariable String userId,
             @PathVariable String symbol) {
+        long wait = rateLimiter.acquire(RateLimiter.Endpoint.HISTORY, userId);
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
         try {
             List<Trade> trades = tradingService.getUserStockTrades(userId, symbol);
             List<TradeDto> tradeDtos = trades.stream()
@@ -115,6 +213,10 @@ public class TradingController {
     public ResponseEntity<Void> cancelTrade(
             @PathVariable Long tradeId,
             @RequestParam String userId) {
+        long wait = rateLimiter.acquire(RateLimiter.Endpoint.CANCEL, userId);
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
         try {
             boolean cancelled = tradingService.cancelTrade(tradeId, userId);
             if (cancelled) {
@@ -149,6 +251,26 @@ public class TradingController {
         }
     }
 
+    /**
+     * Reject a request over its rate limit, telling the client when to retry.
+     */
+    private static <T> ResponseEntity<T> tooManyRequests(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .build();
+    }
+
+    /**
+     * The lots a sell asked for, or null to use the default lot method.
+     */
+    private static LotSelection lotSelection(String lotMethod, List<Long> lotIds) {
+        if (lotMethod == null || lotMethod.isBlank()) {
+            return null;
+        }
+        return LotSelection.of(LotSelection.Method.valueOf(lotMethod.toUpperCase()), lotIds);
+    }
+
     /**
      * Convert Trade entity to DTO.
      */
@@ -163,7 +285,36 @@ public class TradingController {
                 trade.getTimestamp(),
                 trade.getStatus().name(),
                 trade.getStatusMessage(),
-                trade.getTotalValue()
+                trade.getTotalValue(),
+                trade.getOrderType().name(),
+                trade.getTriggerPrice(),
+                trade.getTrailAmount(),
+                trade.getTimeInForce().name(),
+                trade.getExpiresAt()
         );
     }
+
+    /**
+     * Write a trade with the fields of {@link TradeDto}.
+     */
+    private static void writeJson(Trade trade, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject();
+        StreamedList.writeNumberField(generator, "id", trade.getId());
+        generator.writeStringField("userId", trade.getUserId());
+        generator.writeStringField("stockSymbol", trade.getStockSymbol());
+        generator.writeStringField("tradeType", trade.getTradeType().name());
+        StreamedList.writeNumberField(generator, "quantity", trade.getQuantity());
+        generator.writeNumberField("price", trade.getPrice());
+        provider.defaultSerializeField("timestamp", trade.getTimestamp(), generator);
+        generator.writeStringField("status", trade.getStatus().name());
+        generator.writeStringField("statusMessage", trade.getStatusMessage());
+        generator.writeNumberField("totalValue", trade.getTotalValue());
+        generator.writeStringField("orderType", trade.getOrderType().name());
+        generator.writeNumberField("triggerPrice", trade.getTriggerPrice());
+        generator.writeNumberField("trailAmount", trade.getTrailAmount());
+        generator.writeStringField("timeInForce", trade.getTimeInForce().name());
+        provider.defaultSerializeField("expiresAt", trade.getExpiresAt(), generator);
+        generator.writeEndObject();
+    }
 } 
\ No newline at end of file
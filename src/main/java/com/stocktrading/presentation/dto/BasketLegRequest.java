@@ -0,0 +1,51 @@
+package com.stocktrading.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+/**
+ * DTO for one market order in a basket.
+ */
+public class BasketLegRequest {
+
+    @NotBlank(message = "Stock symbol is required")
+    private String stockSymbol;
+
+    @NotBlank(message = "Trade type is required")
+    private String tradeType; // "BUY" or "SELL"
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    private String lotMethod; // optional for sells: "FIFO", "LIFO" or "SPECIFIC"
+
+    private List<Long> lotIds; // lots to sell from when lotMethod is "SPECIFIC"
+
+    public BasketLegRequest() {}
+
+    public BasketLegRequest(String stockSymbol, String tradeType, Integer quantity) {
+        this.stockSymbol = stockSymbol;
+        this.tradeType = tradeType;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public String getStockSymbol() { return stockSymbol; }
+    public void setStockSymbol(String stockSymbol) { this.stockSymbol = stockSymbol; }
+
+    public String getTradeType() { return tradeType; }
+    public void setTradeType(String tradeType) { this.tradeType = tradeType; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public String getLotMethod() { return lotMethod; }
+    public void setLotMethod(String lotMethod) { this.lotMethod = lotMethod; }
+
+    public List<Long> getLotIds() { return lotIds; }
+    public void setLotIds(List<Long> lotIds) { this.lotIds = lotIds; }
+}
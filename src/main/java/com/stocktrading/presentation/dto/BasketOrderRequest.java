@@ -0,0 +1,37 @@
+package com.stocktrading.presentation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for basket order requests: market orders for one user, executed together.
+ */
+public class BasketOrderRequest {
+
+    public static final int MAX_LEGS = 100;
+
+    @NotBlank(message = "User ID is required")
+    private String userId;
+
+    @NotEmpty(message = "A basket needs at least one leg")
+    @Size(max = MAX_LEGS, message = "A basket holds at most " + MAX_LEGS + " legs")
+    private List<@Valid BasketLegRequest> legs;
+
+    public BasketOrderRequest() {}
+
+    public BasketOrderRequest(String userId, List<BasketLegRequest> legs) {
+        this.userId = userId;
+        this.legs = legs;
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public List<BasketLegRequest> getLegs() { return legs; }
+    public void setLegs(List<BasketLegRequest> legs) { this.legs = legs; }
+}
@@ -0,0 +1,24 @@
+package com.stocktrading.presentation.dto;
+
+/**
+ * DTO for cluster node responses.
+ */
+public class ClusterNodeDto {
+
+    private String nodeId;
+    private String url;
+
+    public ClusterNodeDto() {}
+
+    public ClusterNodeDto(String nodeId, String url) {
+        this.nodeId = nodeId;
+        this.url = url;
+    }
+
+    // Getters and Setters
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+}
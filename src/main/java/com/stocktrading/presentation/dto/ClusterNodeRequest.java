@@ -0,0 +1,38 @@
+package com.stocktrading.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO for adding a node to the cluster.
+ */
+public class ClusterNodeRequest {
+
+    @NotBlank(message = "Node ID is required")
+    private String nodeId;
+
+    @NotBlank(message = "Node URL is required")
+    private String url;
+
+    public ClusterNodeRequest() {}
+
+    public ClusterNodeRequest(String nodeId, String url) {
+        this.nodeId = nodeId;
+        this.url = url;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+}
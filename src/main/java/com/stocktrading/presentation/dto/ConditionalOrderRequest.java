@@ -0,0 +1,125 @@
+package com.stocktrading.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for stop-loss, take-profit and trailing-stop order requests.
+ */
+public class ConditionalOrderRequest {
+
+    @NotBlank(message = "User ID is required")
+    private String userId;
+
+    @NotBlank(message = "Stock symbol is required")
+    private String stockSymbol;
+
+    @NotBlank(message = "Trade type is required")
+    private String tradeType; // "BUY" or "SELL"
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    @NotBlank(message = "Order type is required")
+    private String orderType; // "STOP_LOSS", "TAKE_PROFIT" or "TRAILING_STOP"
+
+    @Positive(message = "Trigger price must be positive")
+    private BigDecimal triggerPrice;
+
+    @Positive(message = "Trail amount must be positive")
+    private BigDecimal trailAmount;
+
+    private String timeInForce; // "GTC" (default), "DAY", "GTD" or "IOC"
+
+    private LocalDateTime expiresAt; // GTD only
+
+    public ConditionalOrderRequest() {}
+
+    public ConditionalOrderRequest(String userId, String stockSymbol, String tradeType, Integer quantity,
+                                   String orderType, BigDecimal triggerPrice, BigDecimal trailAmount) {
+        this.userId = userId;
+        this.stockSymbol = stockSymbol;
+        this.tradeType = tradeType;
+        this.quantity = quantity;
+        this.orderType = orderType;
+        this.triggerPrice = triggerPrice;
+        this.trailAmount = trailAmount;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getStockSymbol() {
+        return stockSymbol;
+    }
+
+    public void setStockSymbol(String stockSymbol) {
+        this.stockSymbol = stockSymbol;
+    }
+
+    public String getTradeType() {
+        return tradeType;
+    }
+
+    public void setTradeType(String tradeType) {
+        this.tradeType = tradeType;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getOrderType() {
+        return orderType;
+    }
+
+    public void setOrderType(String orderType) {
+        this.orderType = orderType;
+    }
+
+    public BigDecimal getTriggerPrice() {
+        return triggerPrice;
+    }
+
+    public void setTriggerPrice(BigDecimal triggerPrice) {
+        this.triggerPrice = triggerPrice;
+    }
+
+    public BigDecimal getTrailAmount() {
+        return trailAmount;
+    }
+
+    public void setTrailAmount(BigDecimal trailAmount) {
+        this.trailAmount = trailAmount;
+    }
+
+    public String getTimeInForce() {
+        return timeInForce;
+    }
+
+    public void setTimeInForce(String timeInForce) {
+        this.timeInForce = timeInForce;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
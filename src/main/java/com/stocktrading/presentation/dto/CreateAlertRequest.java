@@ -0,0 +1,67 @@
+package com.stocktrading.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for price alert creation requests.
+ */
+public class CreateAlertRequest {
+
+    @NotBlank(message = "User ID is required")
+    private String userId;
+
+    @NotBlank(message = "Stock symbol is required")
+    private String stockSymbol;
+
+    @NotNull(message = "Threshold is required")
+    @Positive(message = "Threshold must be positive")
+    private BigDecimal threshold;
+
+    @NotBlank(message = "Direction is required")
+    private String direction; // "ABOVE" or "BELOW"
+
+    public CreateAlertRequest() {}
+
+    public CreateAlertRequest(String userId, String stockSymbol, BigDecimal threshold, String direction) {
+        this.userId = userId;
+        this.stockSymbol = stockSymbol;
+        this.threshold = threshold;
+        this.direction = direction;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getStockSymbol() {
+        return stockSymbol;
+    }
+
+    public void setStockSymbol(String stockSymbol) {
+        this.stockSymbol = stockSymbol;
+    }
+
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(BigDecimal threshold) {
+        this.threshold = threshold;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+}
@@ -0,0 +1,82 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for a user's holdings reconstructed at a point in time.
+ */
+public class HoldingsAsOfDto {
+
+    private String userId;
+    private LocalDateTime asOf;
+    private LocalDateTime checkpointAt;
+    private int tradesReplayed;
+    private BigDecimal totalValue;
+    private List<PositionDto> positions;
+
+    public HoldingsAsOfDto() {}
+
+    public HoldingsAsOfDto(String userId, LocalDateTime asOf, LocalDateTime checkpointAt, int tradesReplayed,
+                           BigDecimal totalValue, List<PositionDto> positions) {
+        this.userId = userId;
+        this.asOf = asOf;
+        this.checkpointAt = checkpointAt;
+        this.tradesReplayed = tradesReplayed;
+        this.totalValue = totalValue;
+        this.positions = positions;
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public LocalDateTime getAsOf() { return asOf; }
+    public void setAsOf(LocalDateTime asOf) { this.asOf = asOf; }
+
+    public LocalDateTime getCheckpointAt() { return checkpointAt; }
+    public void setCheckpointAt(LocalDateTime checkpointAt) { this.checkpointAt = checkpointAt; }
+
+    public int getTradesReplayed() { return tradesReplayed; }
+    public void setTradesReplayed(int tradesReplayed) { this.tradesReplayed = tradesReplayed; }
+
+    public BigDecimal getTotalValue() { return totalValue; }
+    public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+
+    public List<PositionDto> getPositions() { return positions; }
+    public void setPositions(List<PositionDto> positions) { this.positions = positions; }
+
+    /**
+     * One stock held at that point in time; price and market value are null if unknown.
+     */
+    public static class PositionDto {
+
+        private String stockSymbol;
+        private int quantity;
+        private BigDecimal price;
+        private BigDecimal marketValue;
+
+        public PositionDto() {}
+
+        public PositionDto(String stockSymbol, int quantity, BigDecimal price, BigDecimal marketValue) {
+            this.stockSymbol = stockSymbol;
+            this.quantity = quantity;
+            this.price = price;
+            this.marketValue = marketValue;
+        }
+
+        // Getters and Setters
+        public String getStockSymbol() { return stockSymbol; }
+        public void setStockSymbol(String stockSymbol) { this.stockSymbol = stockSymbol; }
+
+        public int getQuantity() { return quantity; }
+        public void setQuantity(int quantity) { this.quantity = quantity; }
+
+        public BigDecimal getPrice() { return price; }
+        public void setPrice(BigDecimal price) { this.price = price; }
+
+        public BigDecimal getMarketValue() { return marketValue; }
+        public void setMarketValue(BigDecimal marketValue) { this.marketValue = marketValue; }
+    }
+}
@@ -0,0 +1,57 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for technical indicator responses.
+ */
+public class IndicatorsDto {
+
+    private String symbol;
+    private long samples;
+    private BigDecimal sma;
+    private BigDecimal ema;
+    private BigDecimal vwap;
+    private BigDecimal rsi;
+    private BigDecimal bollingerUpper;
+    private BigDecimal bollingerLower;
+
+    public IndicatorsDto() {}
+
+    public IndicatorsDto(String symbol, long samples, BigDecimal sma, BigDecimal ema, BigDecimal vwap,
+                         BigDecimal rsi, BigDecimal bollingerUpper, BigDecimal bollingerLower) {
+        this.symbol = symbol;
+        this.samples = samples;
+        this.sma = sma;
+        this.ema = ema;
+        this.vwap = vwap;
+        this.rsi = rsi;
+        this.bollingerUpper = bollingerUpper;
+        this.bollingerLower = bollingerLower;
+    }
+
+    // Getters and Setters
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public long getSamples() { return samples; }
+    public void setSamples(long samples) { this.samples = samples; }
+
+    public BigDecimal getSma() { return sma; }
+    public void setSma(BigDecimal sma) { this.sma = sma; }
+
+    public BigDecimal getEma() { return ema; }
+    public void setEma(BigDecimal ema) { this.ema = ema; }
+
+    public BigDecimal getVwap() { return vwap; }
+    public void setVwap(BigDecimal vwap) { this.vwap = vwap; }
+
+    public BigDecimal getRsi() { return rsi; }
+    public void setRsi(BigDecimal rsi) { this.rsi = rsi; }
+
+    public BigDecimal getBollingerUpper() { return bollingerUpper; }
+    public void setBollingerUpper(BigDecimal bollingerUpper) { this.bollingerUpper = bollingerUpper; }
+
+    public BigDecimal getBollingerLower() { return bollingerLower; }
+    public void setBollingerLower(BigDecimal bollingerLower) { this.bollingerLower = bollingerLower; }
+}
@@ -0,0 +1,31 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for portfolio leaderboard responses.
+ */
+public class LeaderboardEntryDto {
+
+    private int rank;
+    private String userId;
+    private BigDecimal totalValue;
+
+    public LeaderboardEntryDto() {}
+
+    public LeaderboardEntryDto(int rank, String userId, BigDecimal totalValue) {
+        this.rank = rank;
+        this.userId = userId;
+        this.totalValue = totalValue;
+    }
+
+    // Getters and Setters
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public BigDecimal getTotalValue() { return totalValue; }
+    public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+}
@@ -0,0 +1,29 @@
+package com.stocktrading.presentation.dto;
+
+/**
+ * DTO for a partition moved during cluster rebalancing.
+ */
+public class PartitionMoveDto {
+
+    private String symbol;
+    private String fromNode;
+    private String toNode;
+
+    public PartitionMoveDto() {}
+
+    public PartitionMoveDto(String symbol, String fromNode, String toNode) {
+        this.symbol = symbol;
+        this.fromNode = fromNode;
+        this.toNode = toNode;
+    }
+
+    // Getters and Setters
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public String getFromNode() { return fromNode; }
+    public void setFromNode(String fromNode) { this.fromNode = fromNode; }
+
+    public String getToNode() { return toNode; }
+    public void setToNode(String toNode) { this.toNode = toNode; }
+}
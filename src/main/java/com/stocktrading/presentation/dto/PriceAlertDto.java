@@ -0,0 +1,58 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for price alert responses.
+ */
+public class PriceAlertDto {
+
+    private Long id;
+    private String userId;
+    private String stockSymbol;
+    private BigDecimal threshold;
+    private String direction;
+    private LocalDateTime createdAt;
+    private LocalDateTime triggeredAt;
+    private BigDecimal triggeredPrice;
+
+    public PriceAlertDto() {}
+
+    public PriceAlertDto(Long id, String userId, String stockSymbol, BigDecimal threshold, String direction,
+                         LocalDateTime createdAt, LocalDateTime triggeredAt, BigDecimal triggeredPrice) {
+        this.id = id;
+        this.userId = userId;
+        this.stockSymbol = stockSymbol;
+        this.threshold = threshold;
+        this.direction = direction;
+        this.createdAt = createdAt;
+        this.triggeredAt = triggeredAt;
+        this.triggeredPrice = triggeredPrice;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getStockSymbol() { return stockSymbol; }
+    public void setStockSymbol(String stockSymbol) { this.stockSymbol = stockSymbol; }
+
+    public BigDecimal getThreshold() { return threshold; }
+    public void setThreshold(BigDecimal threshold) { this.threshold = threshold; }
+
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getTriggeredAt() { return triggeredAt; }
+    public void setTriggeredAt(LocalDateTime triggeredAt) { this.triggeredAt = triggeredAt; }
+
+    public BigDecimal getTriggeredPrice() { return triggeredPrice; }
+    public void setTriggeredPrice(BigDecimal triggeredPrice) { this.triggeredPrice = triggeredPrice; }
+}
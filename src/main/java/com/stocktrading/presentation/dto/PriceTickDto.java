@@ -0,0 +1,27 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for price history responses.
+ */
+public class PriceTickDto {
+
+    private LocalDateTime timestamp;
+    private BigDecimal price;
+
+    public PriceTickDto() {}
+
+    public PriceTickDto(LocalDateTime timestamp, BigDecimal price) {
+        this.timestamp = timestamp;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+}
@@ -0,0 +1,31 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for realized and unrealized profit and loss.
+ */
+public class ProfitAndLossDto {
+
+    private BigDecimal realizedGainLoss;
+    private BigDecimal unrealizedGainLoss;
+    private BigDecimal totalGainLoss;
+
+    public ProfitAndLossDto() {}
+
+    public ProfitAndLossDto(BigDecimal realizedGainLoss, BigDecimal unrealizedGainLoss, BigDecimal totalGainLoss) {
+        this.realizedGainLoss = realizedGainLoss;
+        this.unrealizedGainLoss = unrealizedGainLoss;
+        this.totalGainLoss = totalGainLoss;
+    }
+
+    // Getters and Setters
+    public BigDecimal getRealizedGainLoss() { return realizedGainLoss; }
+    public void setRealizedGainLoss(BigDecimal realizedGainLoss) { this.realizedGainLoss = realizedGainLoss; }
+
+    public BigDecimal getUnrealizedGainLoss() { return unrealizedGainLoss; }
+    public void setUnrealizedGainLoss(BigDecimal unrealizedGainLoss) { this.unrealizedGainLoss = unrealizedGainLoss; }
+
+    public BigDecimal getTotalGainLoss() { return totalGainLoss; }
+    public void setTotalGainLoss(BigDecimal totalGainLoss) { this.totalGainLoss = totalGainLoss; }
+}
@@ -0,0 +1,59 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for realized gain responses.
+ */
+public class RealizedGainDto {
+
+    private Long id;
+    private String stockSymbol;
+    private Integer quantity;
+    private BigDecimal costBasis;
+    private BigDecimal proceeds;
+    private BigDecimal gainLoss;
+    private String lotSelection;
+    private LocalDateTime realizedAt;
+
+    public RealizedGainDto() {}
+
+    public RealizedGainDto(Long id, String stockSymbol, Integer quantity, BigDecimal costBasis,
+                           BigDecimal proceeds, BigDecimal gainLoss, String lotSelection,
+                           LocalDateTime realizedAt) {
+        this.id = id;
+        this.stockSymbol = stockSymbol;
+        this.quantity = quantity;
+        this.costBasis = costBasis;
+        this.proceeds = proceeds;
+        this.gainLoss = gainLoss;
+        this.lotSelection = lotSelection;
+        this.realizedAt = realizedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getStockSymbol() { return stockSymbol; }
+    public void setStockSymbol(String stockSymbol) { this.stockSymbol = stockSymbol; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public BigDecimal getCostBasis() { return costBasis; }
+    public void setCostBasis(BigDecimal costBasis) { this.costBasis = costBasis; }
+
+    public BigDecimal getProceeds() { return proceeds; }
+    public void setProceeds(BigDecimal proceeds) { this.proceeds = proceeds; }
+
+    public BigDecimal getGainLoss() { return gainLoss; }
+    public void setGainLoss(BigDecimal gainLoss) { this.gainLoss = gainLoss; }
+
+    public String getLotSelection() { return lotSelection; }
+    public void setLotSelection(String lotSelection) { this.lotSelection = lotSelection; }
+
+    public LocalDateTime getRealizedAt() { return realizedAt; }
+    public void setRealizedAt(LocalDateTime realizedAt) { this.realizedAt = realizedAt; }
+}
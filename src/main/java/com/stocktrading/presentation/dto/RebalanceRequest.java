@@ -0,0 +1,38 @@
+package com.stocktrading.presentation.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for rebalance requests: a model portfolio and the accounts to move towards it.
+ */
+public class RebalanceRequest {
+
+    @NotEmpty(message = "A model portfolio needs at least one target weight")
+    private Map<String, BigDecimal> targetWeights;
+
+    private List<String> userIds;
+
+    private boolean submit;
+
+    public RebalanceRequest() {}
+
+    public RebalanceRequest(Map<String, BigDecimal> targetWeights, List<String> userIds, boolean submit) {
+        this.targetWeights = targetWeights;
+        this.userIds = userIds;
+        this.submit = submit;
+    }
+
+    // Getters and Setters
+    public Map<String, BigDecimal> getTargetWeights() { return targetWeights; }
+    public void setTargetWeights(Map<String, BigDecimal> targetWeights) { this.targetWeights = targetWeights; }
+
+    public List<String> getUserIds() { return userIds; }
+    public void setUserIds(List<String> userIds) { this.userIds = userIds; }
+
+    public boolean isSubmit() { return submit; }
+    public void setSubmit(boolean submit) { this.submit = submit; }
+} 
\ No newline at end of file
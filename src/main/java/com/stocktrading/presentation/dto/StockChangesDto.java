@@ -0,0 +1,32 @@
+package com.stocktrading.presentation.dto;
+
+import java.util.List;
+
+/**
+ * DTO for delta price feed responses.
+ * Clients pass {@code sequence} back as {@code since} on their next poll.
+ */
+public class StockChangesDto {
+
+    private long sequence;
+    private boolean snapshot;
+    private List<StockDto> stocks;
+
+    public StockChangesDto() {}
+
+    public StockChangesDto(long sequence, boolean snapshot, List<StockDto> stocks) {
+        this.sequence = sequence;
+        this.snapshot = snapshot;
+        this.stocks = stocks;
+    }
+
+    // Getters and Setters
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public boolean isSnapshot() { return snapshot; }
+    public void setSnapshot(boolean snapshot) { this.snapshot = snapshot; }
+
+    public List<StockDto> getStocks() { return stocks; }
+    public void setStocks(List<StockDto> stocks) { this.stocks = stocks; }
+}
@@ -0,0 +1,65 @@
+package com.stocktrading.presentation.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+/**
+ * A JSON array written straight from domain objects.
+ * Jackson hands the response generator to {@link #serialize}, and each element
+ * is written field by field as it is visited, so no DTO or DTO list is built.
+ * The element writers produce the same fields, in the same order, as the
+ * matching DTO class.
+ */
+public class StreamedList<T> implements JsonSerializable {
+
+    /**
+     * Writes one element as a JSON object.
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+        void write(T element, JsonGenerator generator, SerializerProvider provider) throws IOException;
+    }
+
+    private final Iterable<T> elements;
+    private final ElementWriter<T> writer;
+
+    public StreamedList(Iterable<T> elements, ElementWriter<T> writer) {
+        this.elements = elements;
+        this.writer = writer;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartArray();
+        for (T element : elements) {
+            writer.write(element, generator, provider);
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, provider);
+    }
+
+    public static void writeNumberField(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value.longValue());
+        }
+    }
+
+    public static void writeNumberField(JsonGenerator generator, String name, Integer value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value.intValue());
+        }
+    }
+}
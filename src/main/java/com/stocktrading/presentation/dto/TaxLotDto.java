@@ -0,0 +1,43 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for open tax lot responses.
+ */
+public class TaxLotDto {
+
+    private Long lotId;
+    private Integer quantity;
+    private BigDecimal costPerShare;
+    private BigDecimal costBasis;
+    private LocalDateTime acquiredAt;
+
+    public TaxLotDto() {}
+
+    public TaxLotDto(Long lotId, Integer quantity, BigDecimal costPerShare, BigDecimal costBasis,
+                     LocalDateTime acquiredAt) {
+        this.lotId = lotId;
+        this.quantity = quantity;
+        this.costPerShare = costPerShare;
+        this.costBasis = costBasis;
+        this.acquiredAt = acquiredAt;
+    }
+
+    // Getters and Setters
+    public Long getLotId() { return lotId; }
+    public void setLotId(Long lotId) { this.lotId = lotId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public BigDecimal getCostPerShare() { return costPerShare; }
+    public void setCostPerShare(BigDecimal costPerShare) { this.costPerShare = costPerShare; }
+
+    public BigDecimal getCostBasis() { return costBasis; }
+    public void setCostBasis(BigDecimal costBasis) { this.costBasis = costBasis; }
+
+    public LocalDateTime getAcquiredAt() { return acquiredAt; }
+    public void setAcquiredAt(LocalDateTime acquiredAt) { this.acquiredAt = acquiredAt; }
+}
@@ -18,12 +18,19 @@ public class TradeDto {
     private String status;
     private String statusMessage;
     private BigDecimal totalValue;
+    private String orderType;
+    private BigDecimal triggerPrice;
+    private BigDecimal trailAmount;
+    private String timeInForce;
+    private LocalDateTime expiresAt;
 
     public TradeDto() {}
 
     public TradeDto(Long id, String userId, String stockSymbol, String tradeType,
                    Integer quantity, BigDecimal price, LocalDateTime timestamp,
-                   String status, String statusMessage, BigDecimal totalValue) {
+                   String status, String statusMessage, BigDecimal totalValue,
+                   String orderType, BigDecimal triggerPrice, BigDecimal trailAmount,
+                   String timeInForce, LocalDateTime expiresAt) {
         this.id = id;
         this.userId = userId;
         this.stockSymbol = stockSymbol;
@@ -34,6 +41,11 @@ public class TradeDto {
         this.status = status;
         this.statusMessage = statusMessage;
         this.totalValue = totalValue;
+        this.orderType = orderType;
+        this.triggerPrice = triggerPrice;
+        this.trailAmount = trailAmount;
+        this.timeInForce = timeInForce;
+        this.expiresAt = expiresAt;
     }
 
     // Getters and Setters
@@ -66,4 +78,19 @@ public class TradeDto {
 
     public BigDecimal getTotalValue() { return totalValue; }
     public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+
+    public String getOrderType() { return orderType; }
+    public void setOrderType(String orderType) { this.orderType = orderType; }
+
+    public BigDecimal getTriggerPrice() { return triggerPrice; }
+    public void setTriggerPrice(BigDecimal triggerPrice) { this.triggerPrice = triggerPrice; }
+
+    public BigDecimal getTrailAmount() { return trailAmount; }
+    public void setTrailAmount(BigDecimal trailAmount) { this.trailAmount = trailAmount; }
+
+    public String getTimeInForce() { return timeInForce; }
+    public void setTimeInForce(String timeInForce) { this.timeInForce = timeInForce; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
 } 
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.stocktrading.presentation.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
 
 /**
  * DTO for trade requests.
@@ -22,6 +25,13 @@ public class TradeRequest {
     @Positive(message = "Quantity must be positive")
     private Integer quantity;
 
+    private String lotMethod; // optional for sells: "FIFO", "LIFO" or "SPECIFIC"
+
+    private List<Long> lotIds; // lots to sell from when lotMethod is "SPECIFIC"
+
+    @Size(min = 1, max = 64, message = "Idempotency key must be 1 to 64 characters")
+    private String idempotencyKey; // optional; retries with the same key return the original trade
+
     public TradeRequest() {}
 
     public TradeRequest(String userId, String stockSymbol, String tradeType, Integer quantity) {
@@ -62,4 +72,28 @@ public class TradeRequest {
     public void setQuantity(Integer quantity) {
         this.quantity = quantity;
     }
+
+    public String getLotMethod() {
+        return lotMethod;
+    }
+
+    public void setLotMethod(String lotMethod) {
+        this.lotMethod = lotMethod;
+    }
+
+    public List<Long> getLotIds() {
+        return lotIds;
+    }
+
+    public void setLotIds(List<Long> lotIds) {
+        this.lotIds = lotIds;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.stocktrading.presentation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a symbol's circuit breaker band and halt state.
+ */
+public class TradingStatusDto {
+
+    private String symbol;
+    private boolean halted;
+    private LocalDateTime haltedUntil;
+    private BigDecimal referencePrice;
+    private BigDecimal lowerBand;
+    private BigDecimal upperBand;
+
+    public TradingStatusDto() {}
+
+    public TradingStatusDto(String symbol, boolean halted, LocalDateTime haltedUntil, BigDecimal referencePrice,
+                            BigDecimal lowerBand, BigDecimal upperBand) {
+        this.symbol = symbol;
+        this.halted = halted;
+        this.haltedUntil = haltedUntil;
+        this.referencePrice = referencePrice;
+        this.lowerBand = lowerBand;
+        this.upperBand = upperBand;
+    }
+
+    // Getters and Setters
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public boolean isHalted() { return halted; }
+    public void setHalted(boolean halted) { this.halted = halted; }
+
+    public LocalDateTime getHaltedUntil() { return haltedUntil; }
+    public void setHaltedUntil(LocalDateTime haltedUntil) { this.haltedUntil = haltedUntil; }
+
+    public BigDecimal getReferencePrice() { return referencePrice; }
+    public void setReferencePrice(BigDecimal referencePrice) { this.referencePrice = referencePrice; }
+
+    public BigDecimal getLowerBand() { return lowerBand; }
+    public void setLowerBand(BigDecimal lowerBand) { this.lowerBand = lowerBand; }
+
+    public BigDecimal getUpperBand() { return upperBand; }
+    public void setUpperBand(BigDecimal upperBand) { this.upperBand = upperBand; }
+}
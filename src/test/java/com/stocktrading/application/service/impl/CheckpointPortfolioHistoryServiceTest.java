@@ -0,0 +1,200 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.PortfolioHistoryService.HoldingsAsOf;
+import com.stocktrading.application.service.PortfolioHistoryService.Position;
+import com.stocktrading.application.service.PriceHistoryService;
+import com.stocktrading.application.service.TradeEventBus;
+import com.stocktrading.application.service.TradeExecuted;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.infrastructure.seed.SyntheticUniverse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks point-in-time holdings against a full replay of a seeded trade history.
+ */
+@DataJpaTest
+@Import(CheckpointPortfolioHistoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.MethodName.class)
+class CheckpointPortfolioHistoryServiceTest {
+
+    private static final LocalDateTime SPRING = LocalDateTime.of(2024, 4, 1, 0, 0);
+    private static final LocalDateTime SUMMER = LocalDateTime.of(2024, 8, 1, 0, 0);
+
+    @Autowired
+    private CheckpointPortfolioHistoryService historyService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PriceHistoryService priceHistoryService;
+
+    @MockBean
+    private TradeEventBus tradeEventBus;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            new SyntheticUniverse(50, 200, 5_000, 3, 1.0, 0.8, 5_000).write(connection);
+        }
+        historyService.takeCheckpoint(SPRING);
+        historyService.takeCheckpoint(SUMMER);
+    }
+
+    @Test
+    @DisplayName("Should match a full replay while replaying only trades since the checkpoint")
+    void shouldMatchFullReplay() {
+        for (LocalDateTime asOf : List.of(SPRING.minusMonths(1), SPRING, SUMMER.minusDays(10), SUMMER.plusMonths(2))) {
+            for (String userId : List.of("user1", "user2", "user7", "user50")) {
+                // When
+                HoldingsAsOf holdings = historyService.getHoldingsAsOf(userId, asOf);
+
+                // Then
+                assertEquals(replay(userId, asOf), quantities(holdings), userId + " at " + asOf);
+
+                LocalDateTime checkpointAt = holdings.getCheckpointAt();
+                assertEquals(asOf.isBefore(SPRING), checkpointAt == null);
+                assertEquals(countTrades(userId, checkpointAt, asOf), holdings.getTradesReplayed());
+            }
+        }
+        assertEquals(SUMMER, historyService.getHoldingsAsOf("user1", SUMMER.plusMonths(2)).getCheckpointAt());
+    }
+
+    @Test
+    @DisplayName("Should value positions at tick prices, falling back to the last execution price")
+    void shouldValuePositionsAtHistoricalPrices() {
+        // Given
+        LocalDateTime asOf = SUMMER.plusDays(3);
+        List<Position> positions = historyService.getHoldingsAsOf("user1", asOf).getPositions();
+        String ticked = positions.get(0).getStockSymbol();
+        when(priceHistoryService.getPriceAt(ticked, asOf)).thenReturn(Optional.of(new BigDecimal("12.34")));
+
+        // When
+        HoldingsAsOf holdings = historyService.getHoldingsAsOf("user1", asOf);
+
+        // Then
+        BigDecimal total = BigDecimal.ZERO;
+        for (Position position : holdings.getPositions()) {
+            BigDecimal expected = position.getStockSymbol().equals(ticked)
+                    ? new BigDecimal("12.34")
+                    : jdbcTemplate.queryForObject("SELECT price FROM trades WHERE stock_symbol = ? "
+                            + "AND executed_at <= ? ORDER BY executed_at DESC LIMIT 1",
+                            BigDecimal.class, position.getStockSymbol(), Timestamp.valueOf(asOf));
+            assertEquals(0, expected.compareTo(position.getPrice()), position.getStockSymbol());
+            total = total.add(position.getMarketValue());
+        }
+        assertEquals(0, total.compareTo(holdings.getTotalValue()));
+    }
+
+    @Test
+    @DisplayName("Should only checkpoint users who traded since the previous checkpoint")
+    void shouldCheckpointIncrementally() {
+        // Given
+        LocalDateTime winter = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Integer traders = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT user_id) FROM trades "
+                + "WHERE executed_at > ? AND executed_at <= ?", Integer.class, Timestamp.valueOf(SUMMER),
+                Timestamp.valueOf(winter));
+
+        // When
+        int checkpointed = historyService.takeCheckpoint(winter);
+        int again = historyService.takeCheckpoint(winter.plusMonths(1));
+
+        // Then
+        assertEquals(traders, checkpointed);
+        assertEquals(0, again);
+        assertEquals(replay("user1", winter), quantities(historyService.getHoldingsAsOf("user1", winter)));
+    }
+
+    @Test
+    @DisplayName("Should rebuild a user's checkpoints when a trade commits after a checkpoint it belongs in")
+    void shouldRebuildCheckpointsAfterLateTrade() {
+        // Given
+        LocalDateTime first = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime second = LocalDateTime.of(2030, 3, 1, 0, 0);
+        insertTrade("latecomer", "AAPL", 10, first.minusDays(20));
+        historyService.takeCheckpoint(first);
+
+        // When
+        long late = insertTrade("latecomer", "AAPL", 5, first.minusDays(10));
+        historyService.onTradeExecuted(new TradeExecuted(late, "latecomer", "AAPL", Trade.TradeType.BUY, 5,
+                new BigDecimal("10.00"), first.minusDays(10)));
+        historyService.onTradeExecuted(new TradeExecuted(late + 1, "latecomer", "AAPL", Trade.TradeType.BUY, 1,
+                new BigDecimal("10.00"), first.plusDays(1)));
+        int checkpointed = historyService.takeCheckpoint(second);
+
+        // Then
+        assertEquals(1, checkpointed);
+        HoldingsAsOf between = historyService.getHoldingsAsOf("latecomer", first.plusDays(5));
+        assertNull(between.getCheckpointAt(), "the checkpoint that missed the trade is dropped");
+        assertEquals(Map.of("AAPL", 15), quantities(between));
+        HoldingsAsOf after = historyService.getHoldingsAsOf("latecomer", second.plusDays(1));
+        assertEquals(second, after.getCheckpointAt());
+        assertEquals(Map.of("AAPL", 15), quantities(after));
+        assertEquals(0, after.getTradesReplayed());
+    }
+
+    private long insertTrade(String userId, String symbol, int quantity, LocalDateTime executedAt) {
+        jdbcTemplate.update("INSERT INTO trades (user_id, stock_symbol, trade_type, quantity, price, timestamp, executed_at, "
+                        + "status, order_type, time_in_force) VALUES (?, ?, 'BUY', ?, 10.00, ?, ?, 'EXECUTED', 'MARKET', 'GTC')",
+                userId, symbol, quantity, Timestamp.valueOf(executedAt), Timestamp.valueOf(executedAt));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM trades", Long.class);
+    }
+
+    private static Map<String, Integer> quantities(HoldingsAsOf holdings) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (Position position : holdings.getPositions()) {
+            quantities.put(position.getStockSymbol(), position.getQuantity());
+        }
+        return quantities;
+    }
+
+    private Map<String, Integer> replay(String userId, LocalDateTime asOf) {
+        Map<String, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT stock_symbol, SUM(CASE WHEN trade_type = 'BUY' THEN quantity ELSE -quantity END) "
+                        + "FROM trades WHERE user_id = ? AND executed_at <= ? GROUP BY stock_symbol "
+                        + "HAVING SUM(CASE WHEN trade_type = 'BUY' THEN quantity ELSE -quantity END) > 0",
+                rs -> {
+                    quantities.put(rs.getString(1), rs.getInt(2));
+                }, userId, Timestamp.valueOf(asOf));
+        return quantities;
+    }
+
+    private int countTrades(String userId, LocalDateTime after, LocalDateTime asOf) {
+        return after == null
+                ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trades WHERE user_id = ? AND executed_at <= ?",
+                        Integer.class, userId, Timestamp.valueOf(asOf))
+                : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trades WHERE user_id = ? AND executed_at > ? "
+                        + "AND executed_at <= ?", Integer.class, userId, Timestamp.valueOf(after), Timestamp.valueOf(asOf));
+    }
+}
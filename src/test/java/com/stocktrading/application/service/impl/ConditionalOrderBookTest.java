@@ -0,0 +1,110 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.domain.model.Trade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConditionalOrderBook.
+ */
+class ConditionalOrderBookTest {
+
+    @Test
+    @DisplayName("Should fire sell stop-loss only when price falls to trigger")
+    void shouldFireSellStopLossWhenPriceFallsToTrigger() {
+        // Given
+        ConditionalOrderBook book = new ConditionalOrderBook();
+        book.add(order(1L, Trade.TradeType.SELL, Trade.OrderType.STOP_LOSS, "95.00", null));
+
+        // When
+        List<Long> aboveTrigger = book.onPrice("AAPL", new BigDecimal("96.00"));
+        List<Long> atTrigger = book.onPrice("AAPL", new BigDecimal("95.00"));
+
+        // Then
+        assertTrue(aboveTrigger.isEmpty());
+        assertEquals(List.of(1L), atTrigger);
+        assertEquals(0, book.size("AAPL"));
+    }
+
+    @Test
+    @DisplayName("Should fire every take-profit crossed by one tick")
+    void shouldFireEveryTakeProfitCrossedByOneTick() {
+        // Given
+        ConditionalOrderBook book = new ConditionalOrderBook();
+        book.add(order(1L, Trade.TradeType.SELL, Trade.OrderType.TAKE_PROFIT, "110.00", null));
+        book.add(order(2L, Trade.TradeType.SELL, Trade.OrderType.TAKE_PROFIT, "105.00", null));
+        book.add(order(3L, Trade.TradeType.SELL, Trade.OrderType.TAKE_PROFIT, "120.00", null));
+
+        // When
+        List<Long> fired = book.onPrice("AAPL", new BigDecimal("112.00"));
+
+        // Then
+        assertEquals(2, fired.size());
+        assertTrue(fired.containsAll(List.of(1L, 2L)));
+        assertEquals(1, book.size("AAPL"));
+    }
+
+    @Test
+    @DisplayName("Should raise sell trailing stop with new highs")
+    void shouldRaiseSellTrailingStopWithNewHighs() {
+        // Given a stop 5.00 below an entry of 100.00
+        ConditionalOrderBook book = new ConditionalOrderBook();
+        book.add(order(1L, Trade.TradeType.SELL, Trade.OrderType.TRAILING_STOP, "95.00", "5.00"));
+        book.add(order(2L, Trade.TradeType.SELL, Trade.OrderType.TRAILING_STOP, "90.00", "10.00"));
+
+        // When the price rallies to 110.00 and falls back
+        assertTrue(book.onPrice("AAPL", new BigDecimal("110.00")).isEmpty());
+        assertTrue(book.onPrice("AAPL", new BigDecimal("106.00")).isEmpty());
+        List<Long> fired = book.onPrice("AAPL", new BigDecimal("105.00"));
+
+        // Then only the tighter stop, now at 105.00, fires
+        assertEquals(List.of(1L), fired);
+        assertEquals(List.of(2L), book.onPrice("AAPL", new BigDecimal("100.00")));
+    }
+
+    @Test
+    @DisplayName("Should lower buy trailing stop with new lows")
+    void shouldLowerBuyTrailingStopWithNewLows() {
+        // Given a buy stop 5.00 above an entry of 100.00
+        ConditionalOrderBook book = new ConditionalOrderBook();
+        book.add(order(1L, Trade.TradeType.BUY, Trade.OrderType.TRAILING_STOP, "105.00", "5.00"));
+
+        // When
+        assertTrue(book.onPrice("AAPL", new BigDecimal("90.00")).isEmpty());
+        assertTrue(book.onPrice("AAPL", new BigDecimal("94.99")).isEmpty());
+
+        // Then
+        assertEquals(List.of(1L), book.onPrice("AAPL", new BigDecimal("95.00")));
+    }
+
+    @Test
+    @DisplayName("Should not fire removed orders")
+    void shouldNotFireRemovedOrders() {
+        // Given
+        ConditionalOrderBook book = new ConditionalOrderBook();
+        book.add(order(1L, Trade.TradeType.SELL, Trade.OrderType.STOP_LOSS, "95.00", null));
+        book.add(order(2L, Trade.TradeType.SELL, Trade.OrderType.TRAILING_STOP, "95.00", "5.00"));
+
+        // When
+        assertTrue(book.remove("AAPL", 1L));
+        assertTrue(book.remove("AAPL", 2L));
+
+        // Then
+        assertTrue(book.onPrice("AAPL", new BigDecimal("50.00")).isEmpty());
+        assertFalse(book.remove("AAPL", 1L));
+    }
+
+    private static Trade order(Long id, Trade.TradeType tradeType, Trade.OrderType orderType,
+                               String triggerPrice, String trailAmount) {
+        Trade trade = new Trade("user1", "AAPL", tradeType, 10, orderType, new BigDecimal(triggerPrice),
+                trailAmount == null ? null : new BigDecimal(trailAmount));
+        ReflectionTestUtils.setField(trade, "id", id);
+        return trade;
+    }
+}
@@ -0,0 +1,160 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.RebalancingService.AccountRebalance;
+import com.stocktrading.application.service.RebalancingService.Status;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.application.service.TradingService;
+import com.stocktrading.application.service.TradingService.BasketLeg;
+import com.stocktrading.domain.model.Portfolio;
+import com.stocktrading.domain.model.Stock;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.repository.PortfolioRepository;
+import com.stocktrading.domain.repository.StockRepository;
+import com.stocktrading.infrastructure.seed.SyntheticUniverse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the batched plans against holdings read one account at a time.
+ */
+@DataJpaTest(properties = {"stocktrading.rebalance.parallelism=4", "stocktrading.rebalance.batch-size=64"})
+@Import(ForkJoinRebalancingService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ForkJoinRebalancingServiceTest {
+
+    private static final Map<String, BigDecimal> MODEL = Map.of(
+            SyntheticUniverse.symbolAt(0), new BigDecimal("0.5"),
+            SyntheticUniverse.symbolAt(1), new BigDecimal("0.3"),
+            SyntheticUniverse.symbolAt(2), new BigDecimal("0.15"));
+
+    @Autowired
+    private ForkJoinRebalancingService rebalancingService;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private StockPriceService stockPriceService;
+
+    @MockBean
+    private TradingService tradingService;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            new SyntheticUniverse(50, 300, 6_000, 11, 1.0, 0.8, 1_000).write(connection);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(stockPriceService.getAllStocks()).thenReturn(stockRepository.findAll());
+    }
+
+    @Test
+    @DisplayName("Should move every account to whole-share targets at the snapshot prices")
+    void shouldPlanTargetsForEveryAccount() {
+        // Given
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (Stock stock : stockRepository.findAll()) {
+            prices.put(stock.getSymbol(), stock.getCurrentPrice());
+        }
+
+        // When
+        List<AccountRebalance> accounts = rebalancingService.rebalance(MODEL, null, false);
+
+        // Then
+        assertFalse(accounts.isEmpty());
+        for (AccountRebalance account : accounts) {
+            Map<String, Integer> positions = new HashMap<>();
+            BigDecimal value = BigDecimal.ZERO;
+            for (Portfolio holding : portfolioRepository.findByUserId(account.getUserId())) {
+                positions.put(holding.getStockSymbol(), holding.getQuantity());
+                value = value.add(prices.get(holding.getStockSymbol())
+                        .multiply(BigDecimal.valueOf(holding.getQuantity())));
+            }
+            assertEquals(Status.PLANNED, account.getStatus());
+            assertEquals(0, value.compareTo(account.getAccountValue()));
+
+            boolean buying = false;
+            for (BasketLeg order : account.getOrders()) {
+                buying |= order.getTradeType() == Trade.TradeType.BUY;
+                assertFalse(buying && order.getTradeType() == Trade.TradeType.SELL, "sells come before buys");
+                int change = order.getTradeType() == Trade.TradeType.BUY ? order.getQuantity() : -order.getQuantity();
+                positions.merge(order.getStockSymbol(), change, Integer::sum);
+            }
+            for (Map.Entry<String, Integer> position : positions.entrySet()) {
+                BigDecimal weight = MODEL.getOrDefault(position.getKey(), BigDecimal.ZERO);
+                int target = weight.multiply(value)
+                        .divide(prices.get(position.getKey()), 0, RoundingMode.FLOOR).intValue();
+                assertEquals(target, position.getValue(), account.getUserId() + " " + position.getKey());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should submit each account as one basket and report the ones that fail")
+    void shouldSubmitEachAccountAsBasket() {
+        // Given
+        List<String> cohort = List.of("user1", "user2", "user3");
+        when(tradingService.executeBasket(eq("user2"), anyList()))
+                .thenThrow(new IllegalArgumentException("Insufficient shares to sell"));
+
+        // When
+        List<AccountRebalance> accounts = rebalancingService.rebalance(MODEL, cohort, true);
+
+        // Then
+        assertEquals(3, accounts.size());
+        assertEquals(Status.SUBMITTED, accounts.get(0).getStatus());
+        assertEquals(Status.FAILED, accounts.get(1).getStatus());
+        assertEquals("Insufficient shares to sell", accounts.get(1).getError());
+        assertEquals(Status.SUBMITTED, accounts.get(2).getStatus());
+        for (AccountRebalance account : accounts) {
+            verify(tradingService).executeBasket(account.getUserId(), account.getOrders());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a model that invests more than the account")
+    void shouldRejectOverweightModel() {
+        // Given
+        Map<String, BigDecimal> model = Map.of(
+                SyntheticUniverse.symbolAt(0), new BigDecimal("0.7"),
+                SyntheticUniverse.symbolAt(1), new BigDecimal("0.4"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> rebalancingService.rebalance(model, null, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> rebalancingService.rebalance(Map.of("UNKNOWN", BigDecimal.ONE), null, false));
+        verifyNoInteractions(tradingService);
+    }
+}
@@ -0,0 +1,142 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.TradeAnalyticsService.SymbolStats;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.repository.TradeRepository;
+import com.stocktrading.infrastructure.seed.SyntheticUniverse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the parallel aggregation against a plain GROUP BY over a seeded trade history.
+ */
+@DataJpaTest(properties = "stocktrading.analytics.parallelism=4")
+@Import(ForkJoinTradeAnalyticsService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ForkJoinTradeAnalyticsServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 9, 1, 0, 0);
+
+    @Autowired
+    private ForkJoinTradeAnalyticsService analyticsService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            new SyntheticUniverse(200, 500, 5_000, 7, 1.0, 0.8, 5_000).write(connection);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a grouped query for every symbol traded in the window")
+    void shouldMatchGroupedQuery() {
+        // Given
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList(
+                "SELECT stock_symbol, COUNT(*) AS trade_count, "
+                        + "SUM(CASE WHEN trade_type = 'BUY' THEN quantity ELSE 0 END) AS buy_volume, "
+                        + "SUM(CASE WHEN trade_type = 'SELL' THEN quantity ELSE 0 END) AS sell_volume, "
+                        + "SUM(price * quantity) AS notional "
+                        + "FROM trades WHERE status = 'EXECUTED' AND executed_at >= ? AND executed_at < ? "
+                        + "GROUP BY stock_symbol ORDER BY stock_symbol",
+                Timestamp.valueOf(FROM), Timestamp.valueOf(TO));
+
+        // When
+        List<SymbolStats> stats = analyticsService.getSymbolStats(FROM, TO, null);
+
+        // Then
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), stats.size());
+        for (int i = 0; i < stats.size(); i++) {
+            Map<String, Object> row = expected.get(i);
+            SymbolStats actual = stats.get(i);
+            long volume = actual.getVolume();
+            assertEquals(row.get("STOCK_SYMBOL"), actual.getSymbol());
+            assertEquals(((Number) row.get("TRADE_COUNT")).longValue(), actual.getTradeCount());
+            assertEquals(((Number) row.get("BUY_VOLUME")).longValue(), actual.getBuyVolume());
+            assertEquals(((Number) row.get("SELL_VOLUME")).longValue(), actual.getSellVolume());
+            assertEquals(0, ((BigDecimal) row.get("NOTIONAL")).compareTo(actual.getNotional()));
+            assertEquals(actual.getNotional().doubleValue() / volume, actual.getVwap().doubleValue(), 1e-4);
+            assertEquals((double) (actual.getBuyVolume() - actual.getSellVolume()) / volume,
+                    actual.getImbalance().doubleValue(), 1e-4);
+        }
+    }
+
+    @Test
+    @DisplayName("Should only count executed trades in the requested symbols")
+    void shouldFilterSymbolsAndStatus() {
+        // Given
+        String symbol = SyntheticUniverse.symbolAt(0);
+        SymbolStats before = analyticsService.getSymbolStats(FROM, TO, List.of(symbol)).get(0);
+        tradeRepository.save(new Trade("user1", symbol, Trade.TradeType.BUY, 10,
+                Trade.OrderType.STOP_LOSS, new BigDecimal("1.00"), null));
+
+        // When
+        List<SymbolStats> stats = analyticsService.getSymbolStats(null, null,
+                List.of(symbol.toLowerCase(), SyntheticUniverse.symbolAt(1)));
+
+        // Then
+        assertEquals(2, stats.size());
+        assertTrue(stats.get(0).getSymbol().compareTo(stats.get(1).getSymbol()) < 0);
+        SymbolStats after = stats.stream().filter(s -> s.getSymbol().equals(symbol)).findFirst().orElseThrow();
+        assertTrue(after.getTradeCount() >= before.getTradeCount());
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trades WHERE stock_symbol = ? AND status = 'EXECUTED'", Long.class, symbol),
+                after.getTradeCount());
+    }
+
+    @Test
+    @DisplayName("Should place a resting order in the window it executed in, not the one it was placed in")
+    void shouldWindowByExecutionTime() {
+        // Given
+        jdbcTemplate.update("INSERT INTO trades (user_id, stock_symbol, trade_type, quantity, price, timestamp, executed_at, "
+                        + "status, order_type, time_in_force) VALUES ('user1', 'RESTING', 'BUY', 10, 5.00, ?, ?, 'EXECUTED', "
+                        + "'STOP_LOSS', 'GTC')",
+                Timestamp.valueOf(FROM.minusDays(3)), Timestamp.valueOf(FROM.plusHours(1)));
+
+        // When
+        List<SymbolStats> placedWindow = analyticsService.getSymbolStats(FROM.minusDays(7), FROM, List.of("RESTING"));
+        List<SymbolStats> executedWindow = analyticsService.getSymbolStats(FROM, TO, List.of("RESTING"));
+
+        // Then
+        assertTrue(placedWindow.isEmpty());
+        assertEquals(1, executedWindow.size());
+        assertEquals(10, executedWindow.get(0).getBuyVolume());
+    }
+
+    @Test
+    @DisplayName("Should reject a window that ends before it starts")
+    void shouldRejectEmptyWindow() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getSymbolStats(TO, FROM, null));
+    }
+}
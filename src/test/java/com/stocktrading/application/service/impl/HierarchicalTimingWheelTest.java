@@ -0,0 +1,86 @@
+package com.stocktrading.application.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HierarchicalTimingWheel.
+ */
+class HierarchicalTimingWheelTest {
+
+    @Test
+    @DisplayName("Should expire every timeout exactly on its deadline tick across all levels")
+    void shouldExpireOnDeadline() {
+        // Given
+        long start = 1_000_003;
+        long end = start + (1 << 20);
+        Random random = new Random(7);
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(start);
+        List<HierarchicalTimingWheel.Timeout<Long>> live = new ArrayList<>();
+        Map<Long, Long> expiredAt = new HashMap<>();
+        long[] lastTick = new long[1];
+        int cancelled = 0;
+        int scheduled = 0;
+
+        // When
+        for (long tick = start; tick <= end; tick++) {
+            if (random.nextInt(64) == 0) {
+                long delay = random.nextBoolean() ? random.nextInt(200) : random.nextInt(1 << 19);
+                live.add(wheel.schedule(tick + delay, (long) scheduled++));
+            }
+            if (random.nextInt(256) == 0 && !live.isEmpty()) {
+                int index = random.nextInt(live.size());
+                if (wheel.cancel(live.get(index))) {
+                    live.remove(index);
+                    cancelled++;
+                }
+            }
+            lastTick[0] = tick;
+            wheel.advance(tick, value -> assertNull(expiredAt.put(value, lastTick[0]), "expired twice"));
+        }
+
+        // Then
+        int expired = 0;
+        for (HierarchicalTimingWheel.Timeout<Long> timeout : live) {
+            Long tick = expiredAt.get(timeout.value());
+            if (timeout.deadline() <= end) {
+                assertEquals(timeout.deadline(), tick, "timeout " + timeout.value());
+                expired++;
+            } else {
+                assertNull(tick);
+            }
+        }
+        assertEquals(expired, expiredAt.size(), "cancelled timeouts never expire");
+        assertEquals(scheduled - cancelled - expired, wheel.size());
+        assertTrue(cancelled > 0);
+    }
+
+    @Test
+    @DisplayName("Should expire an overdue timeout on the next advance and ignore cancelling it afterwards")
+    void shouldExpireOverdueTimeouts() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100);
+        wheel.advance(500, value -> fail("nothing is scheduled"));
+        List<String> expired = new ArrayList<>();
+
+        // When
+        HierarchicalTimingWheel.Timeout<String> overdue = wheel.schedule(200, "overdue");
+        HierarchicalTimingWheel.Timeout<String> later = wheel.schedule(10_000, "later");
+        wheel.advance(501, expired::add);
+
+        // Then
+        assertEquals(List.of("overdue"), expired);
+        assertFalse(wheel.cancel(overdue));
+        assertTrue(wheel.cancel(later));
+        assertFalse(wheel.cancel(later));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,82 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.domain.model.Portfolio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HoldingsCache.
+ */
+class HoldingsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HoldingsCache cache = new HoldingsCache(100, meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, List<Portfolio>> loader = userId -> {
+        loads.incrementAndGet();
+        return List.of(new Portfolio(userId, "AAPL", 10, new BigDecimal("150.00")));
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from memory and not cache a load that overlaps an invalidation")
+    void shouldCacheUntilInvalidated() {
+        // When
+        cache.get("user1", loader);
+        List<Portfolio> cached = cache.get("user1", loader);
+        cache.get("user2", userId -> {
+            cache.invalidate(userId); // a trade commits while the holdings are being read
+            return loader.apply(userId);
+        });
+        cache.get("user2", loader);
+
+        // Then
+        assertEquals(3, loads.get());
+        assertEquals(10, cached.get(0).getQuantity());
+        assertThrows(UnsupportedOperationException.class, () -> cached.add(cached.get(0)));
+        assertEquals(3.0, meterRegistry.get("stocktrading.holdings.cache.gets").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("stocktrading.holdings.cache.gets").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache for a user written in the transaction and drop the entry when it ends")
+    void shouldBypassCacheForUserWrittenInTransaction() {
+        // Given
+        cache.get("user1", loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        cache.invalidateOnCompletion("user1");
+        cache.get("user1", loader);
+        cache.get("user2", loader);
+        cache.get("user2", loader);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                TransactionSynchronization.STATUS_COMMITTED);
+        cache.get("user1", loader);
+
+        // Then
+        assertEquals(4, loads.get()); // user1 three times, user2 once
+        assertNull(TransactionSynchronizationManager.getResource(cache));
+        assertEquals(2, cache.size());
+    }
+}
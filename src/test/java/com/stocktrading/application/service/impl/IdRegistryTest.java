@@ -0,0 +1,63 @@
+package com.stocktrading.application.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdRegistry and IntIntHashMap.
+ */
+class IdRegistryTest {
+
+    @Test
+    @DisplayName("Should assign dense ids in order of first use and find them regardless of case")
+    void shouldAssignDenseIds() {
+        // Given
+        IdRegistry registry = new IdRegistry(true);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, registry.intern("sym" + i));
+        }
+
+        // Then
+        assertEquals(1000, registry.size());
+        assertEquals(0, registry.intern("SYM0"));
+        assertEquals(737, registry.idOf("Sym737"));
+        assertEquals("SYM737", registry.nameOf(737));
+        assertEquals(-1, registry.idOf("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> registry.nameOf(1000));
+    }
+
+    @Test
+    @DisplayName("Should hold the same values as a HashMap through random adds and removals")
+    void shouldMatchHashMapSemantics() {
+        // Given
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        java.util.Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(500);
+            int delta = random.nextInt(7) - 3;
+            int value = expected.merge(key, delta, Integer::sum);
+            expected.remove(key, 0);
+            assertEquals(value, map.add(key, delta));
+        }
+
+        // Then
+        assertEquals(expected.size(), map.size());
+        Map<Integer, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        for (int key = 0; key < 500; key++) {
+            assertEquals(expected.getOrDefault(key, 0), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.stocktrading.application.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdempotencyCache.
+ */
+class IdempotencyCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should answer a reserved key as in progress and a completed key with its trade")
+    void shouldTrackReservedAndCompletedKeys() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(10, 1_000, clock::get);
+
+        // When
+        Long first = cache.reserve("user1", "key-1");
+        Long retryWhilePending = cache.reserve("user1", "key-1");
+        cache.complete("user1", "key-1", 42L);
+        Long retryAfterCompletion = cache.reserve("user1", "key-1");
+
+        // Then
+        assertNull(first);
+        assertEquals(IdempotencyCache.IN_PROGRESS, retryWhilePending);
+        assertEquals(42L, retryAfterCompletion);
+        assertNull(cache.reserve("user2", "key-1"));
+    }
+
+    @Test
+    @DisplayName("Should forget keys once they expire")
+    void shouldForgetExpiredKeys() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(10, 1_000, clock::get);
+        cache.reserve("user1", "key-1");
+        cache.complete("user1", "key-1", 42L);
+
+        // When
+        clock.set(1_000);
+        Long afterExpiry = cache.reserve("user1", "key-1");
+
+        // Then
+        assertNull(afterExpiry);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should stay within capacity by evicting the oldest keys")
+    void shouldStayWithinCapacity() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, Long.MAX_VALUE / 2, clock::get);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.reserve("user1", "key-" + i);
+            cache.complete("user1", "key-" + i, i);
+        }
+
+        // Then
+        assertEquals(100, cache.size());
+        assertEquals(9_999L, cache.reserve("user1", "key-9999"));
+        assertNull(cache.reserve("user1", "key-0"));
+    }
+
+    @Test
+    @DisplayName("Should keep a key in progress while completed keys fill the cache, until it expires")
+    void shouldNotEvictKeyInProgressForCapacity() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, 1_000, clock::get);
+        assertNull(cache.reserve("user1", "slow"));
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            cache.reserve("user2", "key-" + i);
+            cache.complete("user2", "key-" + i, i);
+        }
+        Long retry = cache.reserve("user1", "slow");
+
+        // Then
+        assertEquals(IdempotencyCache.IN_PROGRESS, retry);
+        assertEquals(101, cache.size());
+        cache.complete("user1", "slow", 7L);
+        assertEquals(7L, cache.reserve("user1", "slow"));
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should let a reservation that was never completed expire")
+    void shouldExpireAbandonedReservation() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, 1_000, clock::get);
+        cache.reserve("user1", "abandoned");
+
+        // When
+        clock.set(1_000);
+        Long afterExpiry = cache.reserve("user1", "abandoned");
+
+        // Then
+        assertNull(afterExpiry);
+        assertEquals(1, cache.size());
+    }
+}
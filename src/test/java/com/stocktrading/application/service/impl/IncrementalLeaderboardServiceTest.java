@@ -0,0 +1,89 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.LeaderboardService.PortfolioRanking;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.application.service.TradeEventBus;
+import com.stocktrading.application.service.TradeExecuted;
+import com.stocktrading.domain.model.Trade;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the leaderboard rebuild against trades delivered around it.
+ */
+@DataJpaTest
+@Import({IncrementalLeaderboardService.class, SymbolRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IncrementalLeaderboardServiceTest {
+
+    @Autowired
+    private IncrementalLeaderboardService leaderboardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private StockPriceService stockPriceService;
+
+    @MockBean
+    private TradeEventBus tradeEventBus;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO stocks (symbol, company_name, current_price, last_updated) VALUES (?, ?, ?, ?)",
+                "AAPL", "Apple", new BigDecimal("100.00"), now);
+        jdbcTemplate.update("INSERT INTO stocks (symbol, company_name, current_price, last_updated) VALUES (?, ?, ?, ?)",
+                "MSFT", "Microsoft", new BigDecimal("50.00"), now);
+        insertPosition("user1", "AAPL", 10);
+        insertPosition("user2", "MSFT", 4);
+        insertPosition("user3", "AAPL", 0);
+        // Trade 7 is already in user1's holdings; its event has not been delivered yet
+        jdbcTemplate.update("INSERT INTO trade_outbox (trade_id, user_id, stock_symbol, trade_type, quantity, price, executed_at) "
+                + "VALUES (7, 'user1', 'AAPL', 'BUY', 5, 100.00, ?)", now);
+    }
+
+    @Test
+    @DisplayName("Should rebuild from one snapshot, skip trades it loaded and drop users without positions")
+    void shouldRebuildFromSnapshot() {
+        // Given
+        leaderboardService.onTradeExecuted(trade(3, "ghost", "AAPL", Trade.TradeType.BUY, 1));
+
+        // When
+        leaderboardService.load();
+        leaderboardService.onTradeExecuted(trade(7, "user1", "AAPL", Trade.TradeType.BUY, 5));
+        leaderboardService.onTradeExecuted(trade(8, "user1", "MSFT", Trade.TradeType.BUY, 2));
+        leaderboardService.onTradeExecuted(trade(9, "user2", "MSFT", Trade.TradeType.SELL, 4));
+        List<PortfolioRanking> top = leaderboardService.getTopPortfolios(10);
+
+        // Then
+        assertEquals(1, top.size());
+        assertEquals("user1", top.get(0).getUserId());
+        assertEquals(0, new BigDecimal("1100").compareTo(top.get(0).getTotalValue()));
+    }
+
+    private void insertPosition(String userId, String symbol, int quantity) {
+        jdbcTemplate.update("INSERT INTO portfolios (user_id, stock_symbol, quantity, average_purchase_price, last_updated) "
+                + "VALUES (?, ?, ?, 10.00, ?)", userId, symbol, quantity, LocalDateTime.now());
+    }
+
+    private static TradeExecuted trade(long id, String userId, String symbol, Trade.TradeType type, int quantity) {
+        return new TradeExecuted(id, userId, symbol, type, quantity, new BigDecimal("10.00"), LocalDateTime.now());
+    }
+}
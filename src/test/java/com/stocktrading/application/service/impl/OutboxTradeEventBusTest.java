@@ -0,0 +1,155 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.TradeExecuted;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.repository.TradeOutboxRepository;
+import com.stocktrading.domain.repository.TradeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the relay against the outbox table with small queues and batches.
+ */
+@DataJpaTest(properties = {"stocktrading.events.queue-capacity=2", "stocktrading.events.batch-size=3",
+        "stocktrading.events.poll-interval-ms=50"})
+@Import({OutboxTradeEventBus.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OutboxTradeEventBusTest {
+
+    @Autowired
+    private OutboxTradeEventBus eventBus;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeOutboxRepository outboxRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void startRelay() {
+        eventBus.start();
+    }
+
+    @Test
+    @DisplayName("Should deliver committed trades to every subscriber and nothing from a rollback")
+    void shouldDeliverOnlyCommittedTrades() throws InterruptedException {
+        // Given
+        BlockingQueue<TradeExecuted> audit = new LinkedBlockingQueue<>();
+        BlockingQueue<TradeExecuted> analytics = new LinkedBlockingQueue<>();
+        eventBus.subscribe("audit", audit::add);
+        eventBus.subscribe("analytics", analytics::add);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        Trade committed = transaction.execute(status -> executeAndPublish("user1", 5));
+        Trade rolledBack = transaction.execute(status -> {
+            Trade trade = executeAndPublish("user2", 7);
+            status.setRollbackOnly();
+            return trade;
+        });
+
+        // Then
+        LocalDateTime executedAt = tradeRepository.findById(committed.getId()).orElseThrow().getExecutedAt();
+        for (BlockingQueue<TradeExecuted> received : List.of(audit, analytics)) {
+            TradeExecuted event = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals(committed.getId(), event.getTradeId());
+            assertEquals("user1", event.getUserId());
+            assertEquals(5, event.getQuantity());
+            assertEquals(executedAt, event.getExecutedAt());
+        }
+        await(() -> outboxRepository.count() == 0);
+        assertFalse(tradeRepository.existsById(rolledBack.getId()));
+        assertNull(audit.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Should keep events in the outbox until a slow subscriber has processed them, then deliver them in order")
+    void shouldApplyBackpressureToSlowSubscriber() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> received = new ArrayList<>();
+        eventBus.subscribe("slow", event -> {
+            awaitRelease(release);
+            synchronized (received) {
+                received.add(event.getTradeId());
+            }
+        });
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        double stallsBefore = meterRegistry.counter("stocktrading.events.stalls").count();
+
+        // When
+        List<Long> published = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            published.add(transaction.execute(status -> executeAndPublish("user3", 1)).getId());
+        }
+
+        // Then
+        await(() -> meterRegistry.counter("stocktrading.events.stalls").count() > stallsBefore);
+        Thread.sleep(100);
+        assertEquals(10, outboxRepository.count(), "rows stay until the slow subscriber has processed them");
+
+        release.countDown();
+        await(() -> outboxRepository.count() == 0);
+        await(() -> {
+            synchronized (received) {
+                return received.size() == published.size();
+            }
+        });
+        assertEquals(published, received);
+    }
+
+    private Trade executeAndPublish(String userId, int quantity) {
+        Trade trade = new Trade(userId, "AAPL", Trade.TradeType.BUY, quantity, new BigDecimal("150.00"));
+        trade.markAsExecuted();
+        Trade saved = tradeRepository.save(trade);
+        eventBus.publish(saved);
+        return saved;
+    }
+
+    private static void awaitRelease(CountDownLatch release) {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.domain.model.LotSelection;
+import com.stocktrading.domain.model.Portfolio;
+import com.stocktrading.domain.model.RealizedGain;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.domain.repository.PortfolioRepository;
+import com.stocktrading.domain.repository.RealizedGainRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PortfolioServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class PortfolioServiceImplTest {
+
+    private static final String USER_ID = "user1";
+    private static final String STOCK_SYMBOL = "AAPL";
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private StockPriceService stockPriceService;
+
+    @Mock
+    private RealizedGainRepository realizedGainRepository;
+
+    @Mock
+    private HoldingsCache holdingsCache;
+
+    @Captor
+    private ArgumentCaptor<List<RealizedGain>> realizedGains;
+
+    private PortfolioServiceImpl portfolioService;
+
+    @BeforeEach
+    void setUp() {
+        portfolioService = new PortfolioServiceImpl(portfolioRepository, stockPriceService, realizedGainRepository,
+                LotSelection.Method.FIFO, holdingsCache);
+    }
+
+    @Test
+    @DisplayName("Should realize each batched sell from the lots selected for it")
+    void shouldApplyLotSelectionPerTrade() {
+        // Given
+        Portfolio holding = new Portfolio(USER_ID, STOCK_SYMBOL, 10, new BigDecimal("100.00"));
+        holding.addShares(10, new BigDecimal("150.00"));
+        when(portfolioRepository.findByUserId(USER_ID)).thenReturn(List.of(holding));
+        List<Trade> trades = List.of(
+                new Trade(USER_ID, STOCK_SYMBOL, Trade.TradeType.SELL, 4, new BigDecimal("160.00")),
+                new Trade(USER_ID, STOCK_SYMBOL, Trade.TradeType.SELL, 4, new BigDecimal("160.00")));
+
+        // When
+        portfolioService.updatePortfolioAfterTrades(USER_ID, trades, Arrays.asList(LotSelection.lifo(), null));
+
+        // Then
+        verify(realizedGainRepository).saveAll(realizedGains.capture());
+        List<RealizedGain> gains = realizedGains.getValue();
+        assertEquals(2, gains.size());
+        assertEquals("LIFO", gains.get(0).getLotSelection());
+        assertEquals(0, new BigDecimal("600.00").compareTo(gains.get(0).getCostBasis()));
+        assertEquals("FIFO", gains.get(1).getLotSelection());
+        assertEquals(0, new BigDecimal("400.00").compareTo(gains.get(1).getCostBasis()));
+        assertEquals(12, holding.getQuantity());
+    }
+}
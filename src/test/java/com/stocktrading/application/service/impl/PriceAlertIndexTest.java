@@ -0,0 +1,86 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.domain.model.PriceAlert;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PriceAlertIndex.
+ */
+class PriceAlertIndexTest {
+
+    @Test
+    @DisplayName("Should fire ABOVE alerts when from < threshold <= to")
+    void shouldFireAboveAlertsOnUpwardCross() {
+        // Given
+        PriceAlertIndex index = new PriceAlertIndex();
+        PriceAlert atFrom = add(index, 1, "100", PriceAlert.Direction.ABOVE);
+        PriceAlert atTo = add(index, 2, "105", PriceAlert.Direction.ABOVE);
+        PriceAlert beyond = add(index, 3, "105.01", PriceAlert.Direction.ABOVE);
+        PriceAlert below = add(index, 4, "102", PriceAlert.Direction.BELOW);
+
+        // When
+        List<PriceAlert> fired = index.crossed(ticks("100"), ticks("105"));
+
+        // Then
+        assertEquals(List.of(atTo), fired);
+        assertTrue(index.remove(atFrom, ticks("100")));
+        assertTrue(index.remove(beyond, ticks("105.01")));
+        assertTrue(index.remove(below, ticks("102")));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Should fire BELOW alerts when to <= threshold < from")
+    void shouldFireBelowAlertsOnDownwardCross() {
+        // Given
+        PriceAlertIndex index = new PriceAlertIndex();
+        PriceAlert atFrom = add(index, 1, "100", PriceAlert.Direction.BELOW);
+        PriceAlert between = add(index, 2, "97.50", PriceAlert.Direction.BELOW);
+        PriceAlert atTo = add(index, 3, "95", PriceAlert.Direction.BELOW);
+        PriceAlert beyond = add(index, 4, "94.99", PriceAlert.Direction.BELOW);
+        add(index, 5, "98", PriceAlert.Direction.ABOVE);
+
+        // When
+        List<PriceAlert> fired = index.crossed(ticks("100"), ticks("95"));
+
+        // Then
+        assertEquals(List.of(atTo, between), fired);
+        assertFalse(index.remove(between, ticks("97.50")));
+        assertTrue(index.remove(atFrom, ticks("100")));
+        assertTrue(index.remove(beyond, ticks("94.99")));
+        assertEquals(1, index.size());
+        assertTrue(index.crossed(ticks("95"), ticks("95")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not fire a cancelled alert")
+    void shouldNotFireCancelledAlert() {
+        // Given
+        PriceAlertIndex index = new PriceAlertIndex();
+        PriceAlert alert = add(index, 1, "101", PriceAlert.Direction.ABOVE);
+
+        // When
+        boolean removed = index.remove(alert, ticks("101"));
+
+        // Then
+        assertTrue(removed);
+        assertFalse(index.remove(alert, ticks("101")));
+        assertTrue(index.crossed(ticks("100"), ticks("110")).isEmpty());
+    }
+
+    private static PriceAlert add(PriceAlertIndex index, long id, String threshold, PriceAlert.Direction direction) {
+        PriceAlert alert = new PriceAlert(id, "user1", "AAPL", new BigDecimal(threshold), direction);
+        index.add(alert, ticks(threshold));
+        return alert;
+    }
+
+    private static long ticks(String price) {
+        return PriceTicks.toTicks(new BigDecimal(price));
+    }
+}
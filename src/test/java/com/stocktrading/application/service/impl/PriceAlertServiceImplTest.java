@@ -0,0 +1,73 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.domain.model.PriceAlert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PriceAlertServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class PriceAlertServiceImplTest {
+
+    @Mock
+    private StockPriceService stockPriceService;
+
+    private PriceAlertServiceImpl priceAlertService;
+
+    @BeforeEach
+    void setUp() {
+        priceAlertService = new PriceAlertServiceImpl(stockPriceService, 100, 10);
+        when(stockPriceService.stockExists("AAPL")).thenReturn(true);
+        when(stockPriceService.getCurrentPrice("AAPL")).thenReturn(Optional.of(new BigDecimal("100.00")));
+    }
+
+    @Test
+    @DisplayName("Should fire an alert at once when the current price already meets it")
+    void shouldFireAlreadyMetAlert() {
+        // When
+        PriceAlert above = priceAlertService.createAlert("user1", "aapl", new BigDecimal("100.00"), PriceAlert.Direction.ABOVE);
+        PriceAlert below = priceAlertService.createAlert("user1", "AAPL", new BigDecimal("120.00"), PriceAlert.Direction.BELOW);
+        PriceAlert resting = priceAlertService.createAlert("user1", "AAPL", new BigDecimal("100.01"), PriceAlert.Direction.ABOVE);
+
+        // Then
+        assertTrue(above.isTriggered());
+        assertTrue(below.isTriggered());
+        assertEquals(new BigDecimal("100.00"), above.getTriggeredPrice());
+        assertFalse(resting.isTriggered());
+        assertEquals(List.of(resting), priceAlertService.getActiveAlerts("user1"));
+
+        priceAlertService.onPriceUpdate("AAPL", new BigDecimal("90.00"), new BigDecimal("130.00"), 1);
+        assertTrue(resting.isTriggered());
+        assertTrue(priceAlertService.getActiveAlerts("user1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not fire a cancelled alert")
+    void shouldNotFireCancelledAlert() {
+        // Given
+        PriceAlert alert = priceAlertService.createAlert("user1", "AAPL", new BigDecimal("95.00"), PriceAlert.Direction.BELOW);
+
+        // When
+        boolean cancelled = priceAlertService.cancelAlert(alert.getId(), "user1");
+        priceAlertService.onPriceUpdate("AAPL", new BigDecimal("100.00"), new BigDecimal("90.00"), 1);
+
+        // Then
+        assertTrue(cancelled);
+        assertFalse(alert.isTriggered());
+        assertFalse(priceAlertService.cancelAlert(alert.getId(), "user1"));
+        assertTrue(priceAlertService.getActiveAlerts("user1").isEmpty());
+    }
+}
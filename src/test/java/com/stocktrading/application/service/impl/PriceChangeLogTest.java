@@ -0,0 +1,114 @@
+package com.stocktrading.application.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PriceChangeLog.
+ */
+class PriceChangeLogTest {
+
+    @Test
+    @DisplayName("Should assign monotonic sequence numbers")
+    void shouldAssignMonotonicSequenceNumbers() {
+        // Given
+        PriceChangeLog log = new PriceChangeLog(4);
+
+        // When
+        long first = log.append("AAPL");
+        long second = log.append("MSFT");
+
+        // Then
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(2, log.latestSequence());
+    }
+
+    @Test
+    @DisplayName("Should return distinct symbols changed after sequence")
+    void shouldReturnDistinctSymbolsChangedAfterSequence() {
+        // Given
+        PriceChangeLog log = new PriceChangeLog(8);
+        log.append("AAPL");
+        long since = log.append("MSFT");
+        log.append("TSLA");
+        log.append("AAPL");
+        log.append("TSLA");
+
+        // When
+        PriceChangeLog.Changes changes = log.changesSince(since);
+
+        // Then
+        assertEquals(5, changes.sequence);
+        assertTrue(changes.symbols.isPresent());
+        assertEquals(List.of("TSLA", "AAPL"), List.copyOf(changes.symbols.get()));
+    }
+
+    @Test
+    @DisplayName("Should return no symbols when client is up to date")
+    void shouldReturnNoSymbolsWhenClientIsUpToDate() {
+        // Given
+        PriceChangeLog log = new PriceChangeLog(4);
+        long latest = log.append("AAPL");
+
+        // When
+        PriceChangeLog.Changes changes = log.changesSince(latest);
+
+        // Then
+        assertEquals(Set.of(), changes.symbols.orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should require snapshot when client is too far behind")
+    void shouldRequireSnapshotWhenClientIsTooFarBehind() {
+        // Given
+        PriceChangeLog log = new PriceChangeLog(3);
+        for (int i = 0; i < 10; i++) {
+            log.append("S" + i);
+        }
+
+        // When & Then
+        assertTrue(log.changesSince(6).symbols.isEmpty());
+        assertTrue(log.changesSince(7).symbols.isPresent());
+    }
+
+    @Test
+    @DisplayName("Should require snapshot for first sync or unknown sequence")
+    void shouldRequireSnapshotForFirstSyncOrUnknownSequence() {
+        // Given
+        PriceChangeLog log = new PriceChangeLog(4);
+        log.append("AAPL");
+
+        // When & Then
+        assertTrue(log.changesSince(0).symbols.isEmpty());
+        assertTrue(log.changesSince(42).symbols.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should require snapshot for a sequence from a previous run even once the counter passes it")
+    void shouldRequireSnapshotForSequenceFromPreviousRun() {
+        // Given
+        PriceChangeLog previousRun = new PriceChangeLog(8, 1);
+        previousRun.append("AAPL");
+        long kept = previousRun.append("MSFT");
+        PriceChangeLog restarted = new PriceChangeLog(8, 2);
+        for (int i = 0; i < 5; i++) {
+            restarted.append("S" + i);
+        }
+
+        // When
+        PriceChangeLog.Changes changes = restarted.changesSince(kept);
+
+        // Then
+        assertTrue(changes.symbols.isEmpty());
+        assertEquals(restarted.latestSequence(), changes.sequence);
+        long current = restarted.latestSequence();
+        restarted.append("TSLA");
+        assertEquals(Set.of("TSLA"), restarted.changesSince(current).symbols.orElseThrow());
+    }
+}
@@ -0,0 +1,74 @@
+package com.stocktrading.application.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RankedIndex.
+ */
+class RankedIndexTest {
+
+    @Test
+    @DisplayName("Should return highest and lowest keys in score order")
+    void shouldReturnHighestAndLowestKeysInScoreOrder() {
+        // Given
+        RankedIndex index = new RankedIndex();
+        index.put("AAPL", 250);
+        index.put("MSFT", -100);
+        index.put("TSLA", 900);
+        index.put("AMZN", 0);
+
+        // When
+        List<String> highest = keys(index.highest(2));
+        List<String> lowest = keys(index.lowest(2));
+
+        // Then
+        assertEquals(List.of("TSLA", "AAPL"), highest);
+        assertEquals(List.of("MSFT", "AMZN"), lowest);
+    }
+
+    @Test
+    @DisplayName("Should re-rank a key when its score changes")
+    void shouldReRankKeyWhenScoreChanges() {
+        // Given
+        RankedIndex index = new RankedIndex();
+        index.put("user1", 1_000);
+        index.put("user2", 2_000);
+
+        // When
+        index.add("user1", 1_500);
+        index.put("user2", 500);
+
+        // Then
+        assertEquals(List.of("user1", "user2"), keys(index.highest(10)));
+        assertEquals(2_500, index.highest(1).get(0).score);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should not overwrite ranked keys on putIfAbsent")
+    void shouldNotOverwriteRankedKeysOnPutIfAbsent() {
+        // Given
+        RankedIndex index = new RankedIndex();
+        index.put("AAPL", 300);
+
+        // When
+        index.putIfAbsent("AAPL", 100);
+        index.putIfAbsent("MSFT", 200);
+        index.remove("MSFT");
+
+        // Then
+        assertEquals(List.of("AAPL"), keys(index.highest(10)));
+        assertEquals(300, index.highest(1).get(0).score);
+        assertFalse(index.contains("MSFT"));
+    }
+
+    private static List<String> keys(List<RankedIndex.Entry> entries) {
+        return entries.stream().map(entry -> entry.key).collect(Collectors.toList());
+    }
+}
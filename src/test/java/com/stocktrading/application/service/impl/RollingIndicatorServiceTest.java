@@ -0,0 +1,82 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.IndicatorService.Indicators;
+import com.stocktrading.application.service.TradeExecuted;
+import com.stocktrading.domain.model.Trade;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RollingIndicatorService against hand-computed values.
+ */
+class RollingIndicatorServiceTest {
+
+    @Test
+    @DisplayName("Should compute every indicator of a known tick series")
+    void shouldComputeKnownSeries() {
+        // Given: window 3, EMA period 3, RSI period 2, Bollinger width 2, VWAP over 2 trades
+        RollingIndicatorService service = new RollingIndicatorService(null, null, 3, 3, 2, 2.0, 2);
+
+        // When
+        for (String price : new String[]{"10", "11", "13", "12"}) {
+            service.onPriceUpdate("AAPL", null, new BigDecimal(price), 0);
+        }
+        service.onTradeExecuted(trade("10", 100));
+        service.onTradeExecuted(trade("12", 50));
+        service.onTradeExecuted(trade("11", 50));
+        Indicators indicators = service.getIndicators("aapl").orElseThrow();
+
+        // Then
+        assertEquals(4, indicators.getSamples());
+        // SMA of 11, 13, 12
+        assertEquals(new BigDecimal("12.0000"), indicators.getSma());
+        // EMA with alpha 0.5: 10, 10.5, 11.75, 11.875
+        assertEquals(new BigDecimal("11.8750"), indicators.getEma());
+        // Seed gain 1.5 and loss 0, then gain (1.5 + 0) / 2 = 0.75 and loss (0 + 1) / 2 = 0.5
+        assertEquals(new BigDecimal("60.00"), indicators.getRsi());
+        // (12 * 50 + 11 * 50) / 100
+        assertEquals(new BigDecimal("11.5000"), indicators.getVwap());
+        // 12 +/- 2 * sqrt(2 / 3)
+        assertEquals(new BigDecimal("13.6330"), indicators.getBollingerUpper());
+        assertEquals(new BigDecimal("10.3670"), indicators.getBollingerLower());
+    }
+
+    @Test
+    @DisplayName("Should leave indicators empty until their windows fill")
+    void shouldLeaveIndicatorsEmptyUntilWarm() {
+        // Given
+        RollingIndicatorService service = new RollingIndicatorService(null, null, 3, 3, 2, 2.0, 2);
+
+        // When
+        service.onPriceUpdate("AAPL", null, new BigDecimal("10"), 0);
+        service.onPriceUpdate("AAPL", null, new BigDecimal("11"), 1);
+        Indicators indicators = service.getIndicators("AAPL").orElseThrow();
+
+        // Then
+        assertNull(indicators.getSma());
+        assertNull(indicators.getEma());
+        assertNull(indicators.getRsi());
+        assertNull(indicators.getVwap());
+        assertNull(indicators.getBollingerUpper());
+        assertTrue(service.getIndicators("MSFT").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject empty windows")
+    void shouldRejectEmptyWindows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RollingIndicatorService(null, null, 0, 3, 2, 2.0, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RollingIndicatorService(null, null, 3, 3, 2, 2.0, 0));
+    }
+
+    private static TradeExecuted trade(String price, int quantity) {
+        return new TradeExecuted(1, "user1", "AAPL", Trade.TradeType.BUY, quantity, new BigDecimal(price),
+                LocalDateTime.now());
+    }
+}
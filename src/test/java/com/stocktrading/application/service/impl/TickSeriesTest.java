@@ -0,0 +1,107 @@
+package com.stocktrading.application.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TickSeries.
+ */
+class TickSeriesTest {
+
+    @Test
+    @DisplayName("Should return ticks within inclusive range")
+    void shouldReturnTicksWithinInclusiveRange() {
+        // Given
+        TickSeries series = new TickSeries(16);
+        for (int i = 1; i <= 5; i++) {
+            series.append(i * 1000L, i * 10_000L, Long.MIN_VALUE);
+        }
+
+        // When
+        long[] ticks = series.range(2000L, 4000L);
+
+        // Then
+        assertArrayEquals(new long[] {2000L, 20_000L, 3000L, 30_000L, 4000L, 40_000L}, ticks);
+    }
+
+    @Test
+    @DisplayName("Should return the price of the latest tick at or before a time")
+    void shouldReturnPriceInEffectAtTime() {
+        // Given
+        TickSeries series = new TickSeries(16);
+        for (int i = 1; i <= 5; i++) {
+            series.append(i * 1000L, i * 10_000L, Long.MIN_VALUE);
+        }
+
+        // When & Then
+        assertEquals(TickSeries.NO_PRICE, series.priceAt(999L));
+        assertEquals(10_000L, series.priceAt(1000L));
+        assertEquals(30_000L, series.priceAt(3999L));
+        assertEquals(50_000L, series.priceAt(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should overwrite oldest ticks once full")
+    void shouldOverwriteOldestTicksOnceFull() {
+        // Given
+        TickSeries series = new TickSeries(3);
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            series.append(i, i, Long.MIN_VALUE);
+        }
+
+        // Then
+        assertEquals(3, series.size());
+        assertArrayEquals(new long[] {3, 3, 4, 4, 5, 5}, series.range(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should grow capacity on demand and keep order")
+    void shouldGrowCapacityOnDemandAndKeepOrder() {
+        // Given
+        TickSeries series = new TickSeries(5000);
+
+        // When
+        for (int i = 0; i < 3000; i++) {
+            series.append(i, i, Long.MIN_VALUE);
+        }
+
+        // Then
+        assertEquals(3000, series.size());
+        assertTrue(series.capacity() >= 3000);
+        long[] ticks = series.range(1500, 1501);
+        assertArrayEquals(new long[] {1500, 1500, 1501, 1501}, ticks);
+    }
+
+    @Test
+    @DisplayName("Should evict ticks older than retention cutoff")
+    void shouldEvictTicksOlderThanRetentionCutoff() {
+        // Given
+        TickSeries series = new TickSeries(16);
+        series.append(100, 1, Long.MIN_VALUE);
+        series.append(200, 2, Long.MIN_VALUE);
+
+        // When
+        series.append(300, 3, 150);
+
+        // Then
+        assertArrayEquals(new long[] {200, 2, 300, 3}, series.range(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should keep timestamps non-decreasing")
+    void shouldKeepTimestampsNonDecreasing() {
+        // Given
+        TickSeries series = new TickSeries(16);
+        series.append(500, 1, Long.MIN_VALUE);
+
+        // When
+        series.append(400, 2, Long.MIN_VALUE);
+
+        // Then
+        assertArrayEquals(new long[] {500, 1, 500, 2}, series.range(500, 500));
+    }
+}
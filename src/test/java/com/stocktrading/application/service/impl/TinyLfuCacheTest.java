@@ -0,0 +1,73 @@
+package com.stocktrading.application.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TinyLfuCache.
+ */
+class TinyLfuCacheTest {
+
+    @Test
+    @DisplayName("Should keep frequently used keys while a stream of keys used once passes through")
+    void shouldKeepHotKeysThroughScan() {
+        // Given
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(100);
+        int lateHotMisses = 0;
+
+        // When
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get("hot" + i) == null) {
+                    lateHotMisses += round >= 10 ? 1 : 0;
+                    cache.put("hot" + i, i);
+                }
+            }
+            for (int i = 0; i < 500; i++) {
+                access(cache, "cold" + round + "-" + i);
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(cache.get("hot" + i), "hot" + i);
+        }
+        assertEquals(0, lateHotMisses, "once their use has been counted, hot keys stay cached");
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should admit a key leaving the window only if it is used more than the entry it competes with")
+    void shouldAdmitOnlyPopularKeys() {
+        // Given
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(100);
+        for (int i = 0; i < 100; i++) {
+            access(cache, "resident" + i);
+        }
+
+        // When
+        access(cache, "once");
+        access(cache, "filler1");
+        for (int i = 0; i < 5; i++) {
+            access(cache, "popular");
+        }
+        access(cache, "filler2");
+
+        // Then
+        assertNull(cache.get("once"));
+        assertNotNull(cache.get("popular"));
+        assertEquals(100, cache.size());
+        assertEquals(4, cache.evictions()); // resident99, once, filler1 and resident0
+    }
+
+    /**
+     * Read a key, loading it on a miss.
+     */
+    private static void access(TinyLfuCache<String, Integer> cache, String key) {
+        if (cache.get(key) == null) {
+            cache.put(key, key.length());
+        }
+    }
+}
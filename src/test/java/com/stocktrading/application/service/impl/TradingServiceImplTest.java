@@ -1,7 +1,12 @@
 package com.stocktrading.application.service.impl;
 
+import com.stocktrading.application.service.CircuitBreakerService;
 import com.stocktrading.application.service.StockPriceService;
 import com.stocktrading.application.service.PortfolioService;
+import com.stocktrading.application.service.TradeEventBus;
+import com.stocktrading.application.service.TradingService;
+import com.stocktrading.domain.model.LotSelection;
+import com.stocktrading.domain.model.Portfolio;
 import com.stocktrading.domain.model.Trade;
 import com.stocktrading.domain.repository.TradeRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,9 +15,16 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +47,24 @@ class TradingServiceImplTest {
     @Mock
     private PortfolioService portfolioService;
 
+    @Mock
+    private TradeEventBus tradeEventBus;
+
+    @Mock
+    private ConditionalOrderBook conditionalOrderBook;
+
+    @Mock
+    private OrderExpiryBook orderExpiryBook;
+
+    @Mock
+    private CircuitBreakerService circuitBreakerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private IdempotencyCache idempotencyCache = new IdempotencyCache(100, 60);
+
     @InjectMocks
     private TradingServiceImpl tradingService;
 
@@ -79,6 +109,31 @@ class TradingServiceImplTest {
         verify(stockPriceService).getCurrentPrice(STOCK_SYMBOL);
         verify(portfolioService).updatePortfolioAfterTrade(USER_ID, STOCK_SYMBOL, QUANTITY, PRICE, true);
         verify(tradeRepository).save(any(Trade.class));
+        verify(tradeEventBus).publish(expectedTrade);
+    }
+
+    @Test
+    @DisplayName("Should return the original trade when a buy is retried with the same idempotency key")
+    void shouldReturnOriginalTradeForRepeatedIdempotencyKey() {
+        // Given
+        when(stockPriceService.stockExists(STOCK_SYMBOL)).thenReturn(true);
+        when(stockPriceService.getCurrentPrice(STOCK_SYMBOL)).thenReturn(Optional.of(PRICE));
+        when(tradeRepository.findByUserIdAndIdempotencyKey(USER_ID, "retry-1")).thenReturn(Optional.empty());
+
+        Trade savedTrade = new Trade(USER_ID, STOCK_SYMBOL, Trade.TradeType.BUY, QUANTITY, PRICE);
+        savedTrade.markAsExecuted();
+        ReflectionTestUtils.setField(savedTrade, "id", 7L);
+        when(tradeRepository.save(any(Trade.class))).thenReturn(savedTrade);
+        when(tradeRepository.findById(7L)).thenReturn(Optional.of(savedTrade));
+
+        // When
+        Trade first = tradingService.buyStock(USER_ID, STOCK_SYMBOL, QUANTITY, "retry-1");
+        Trade retry = tradingService.buyStock(USER_ID, STOCK_SYMBOL, QUANTITY, "retry-1");
+
+        // Then
+        assertSame(first, retry);
+        verify(tradeRepository, times(1)).save(any(Trade.class));
+        verify(portfolioService, times(1)).updatePortfolioAfterTrade(USER_ID, STOCK_SYMBOL, QUANTITY, PRICE, true);
     }
 
     @Test
@@ -271,4 +326,209 @@ class TradingServiceImplTest {
         // Then
         assertFalse(canExecute);
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should execute every basket leg against one price lookup and one holdings update")
+    void shouldExecuteBasketInOneBatch() {
+        // Given
+        List<TradingService.BasketLeg> legs = List.of(
+                new TradingService.BasketLeg("aapl", Trade.TradeType.BUY, 5),
+                new TradingService.BasketLeg("MSFT", Trade.TradeType.SELL, 3),
+                new TradingService.BasketLeg("AAPL", Trade.TradeType.SELL, 8));
+        when(stockPriceService.getCurrentPrices(anyList()))
+                .thenReturn(Map.of(STOCK_SYMBOL, PRICE, "MSFT", new BigDecimal("300.00")));
+        when(portfolioService.getUserPortfolio(USER_ID)).thenReturn(List.of(
+                new Portfolio(USER_ID, STOCK_SYMBOL, 5, PRICE),
+                new Portfolio(USER_ID, "MSFT", 3, PRICE)));
+        when(tradeRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<Trade> trades = tradingService.executeBasket(USER_ID, legs);
+
+        // Then
+        assertEquals(3, trades.size());
+        assertTrue(trades.stream().allMatch(Trade::isExecuted));
+        assertEquals(STOCK_SYMBOL, trades.get(0).getStockSymbol());
+        assertEquals(new BigDecimal("300.00"), trades.get(1).getPrice());
+        verify(stockPriceService, times(1)).getCurrentPrices(anyList());
+        verify(stockPriceService, never()).getCurrentPrice(anyString());
+        verify(portfolioService).updatePortfolioAfterTrades(USER_ID, trades, Arrays.asList(null, null, null));
+        verify(portfolioService, never()).updatePortfolioAfterTrade(
+                anyString(), anyString(), anyInt(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should pass the lots each basket sell selects to the holdings update")
+    void shouldPassBasketLotSelections() {
+        // Given
+        LotSelection specific = LotSelection.specific(List.of(2L));
+        List<TradingService.BasketLeg> legs = List.of(
+                new TradingService.BasketLeg(STOCK_SYMBOL, Trade.TradeType.SELL, 2, specific),
+                new TradingService.BasketLeg(STOCK_SYMBOL, Trade.TradeType.SELL, 1));
+        when(stockPriceService.getCurrentPrices(anyList())).thenReturn(Map.of(STOCK_SYMBOL, PRICE));
+        when(portfolioService.getUserPortfolio(USER_ID))
+                .thenReturn(List.of(new Portfolio(USER_ID, STOCK_SYMBOL, 6, PRICE)));
+        when(tradeRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<Trade> trades = tradingService.executeBasket(USER_ID, legs);
+
+        // Then
+        verify(portfolioService).updatePortfolioAfterTrades(USER_ID, trades, Arrays.asList(specific, null));
+    }
+
+    @Test
+    @DisplayName("Should reject a basket that selects lots for a buy")
+    void shouldRejectLotSelectionOnBasketBuy() {
+        // Given
+        List<TradingService.BasketLeg> legs = List.of(
+                new TradingService.BasketLeg(STOCK_SYMBOL, Trade.TradeType.BUY, 2, LotSelection.lifo()));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> tradingService.executeBasket(USER_ID, legs));
+        verify(portfolioService, never()).updatePortfolioAfterTrades(anyString(), anyList(), anyList());
+        verify(tradeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should execute no leg of a basket when one sells more than the earlier legs leave")
+    void shouldRejectWholeBasketWhenOneLegIsInvalid() {
+        // Given
+        List<TradingService.BasketLeg> legs = List.of(
+                new TradingService.BasketLeg(STOCK_SYMBOL, Trade.TradeType.SELL, 4),
+                new TradingService.BasketLeg(STOCK_SYMBOL, Trade.TradeType.SELL, 4));
+        when(stockPriceService.getCurrentPrices(anyList())).thenReturn(Map.of(STOCK_SYMBOL, PRICE));
+        when(portfolioService.getUserPortfolio(USER_ID))
+                .thenReturn(List.of(new Portfolio(USER_ID, STOCK_SYMBOL, 6, PRICE)));
+
+        // When & Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> tradingService.executeBasket(USER_ID, legs));
+        assertEquals("Insufficient shares to sell " + STOCK_SYMBOL, error.getMessage());
+        verify(portfolioService, never()).updatePortfolioAfterTrades(anyString(), anyList(), anyList());
+        verify(tradeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject a basket with an unknown symbol")
+    void shouldRejectBasketWithUnknownSymbol() {
+        // Given
+        List<TradingService.BasketLeg> legs = List.of(
+                new TradingService.BasketLeg(STOCK_SYMBOL, Trade.TradeType.BUY, 1),
+                new TradingService.BasketLeg("NOPE", Trade.TradeType.BUY, 1));
+        when(stockPriceService.getCurrentPrices(anyList())).thenReturn(Map.of(STOCK_SYMBOL, PRICE));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> tradingService.executeBasket(USER_ID, legs));
+        verify(tradeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should cancel expired orders like a user cancellation and skip orders that already filled")
+    void shouldExpireOnlyPendingOrders() {
+        // Given
+        Trade resting = expiringOrder(1L);
+        Trade filled = expiringOrder(2L);
+        filled.markAsExecuted();
+        when(tradeRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(resting, filled));
+        when(tradeRepository.transition(1L, Trade.TradeStatus.PENDING, Trade.TradeStatus.CANCELLED)).thenReturn(1);
+
+        // When
+        List<Trade> expired = tradingService.expireOrders(List.of(1L, 2L));
+
+        // Then
+        assertEquals(List.of(resting), expired);
+        assertEquals(Trade.TradeStatus.CANCELLED, resting.getStatus());
+        assertEquals("Expired (GTD)", resting.getStatusMessage());
+        verify(tradeRepository).save(resting);
+        verify(conditionalOrderBook).remove(STOCK_SYMBOL, 1L);
+        verify(orderExpiryBook).remove(1L);
+        verify(orderExpiryBook, never()).remove(2L);
+    }
+
+    @Test
+    @DisplayName("Should leave a triggered order alone if it was cancelled while the trigger was in flight")
+    void shouldNotExecuteOrderCancelledConcurrently() {
+        // Given
+        Trade order = expiringOrder(1L);
+        when(tradeRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(stockPriceService.getCurrentPrice(STOCK_SYMBOL)).thenReturn(Optional.of(PRICE));
+        when(portfolioService.hasEnoughShares(USER_ID, STOCK_SYMBOL, QUANTITY)).thenReturn(true);
+        when(tradeRepository.transition(1L, Trade.TradeStatus.PENDING, Trade.TradeStatus.EXECUTED)).thenReturn(0);
+
+        // When
+        List<Trade> executed = tradingService.executeTriggeredOrders(List.of(1L));
+
+        // Then
+        assertTrue(executed.isEmpty());
+        assertTrue(order.isPending());
+        verify(portfolioService, never()).updatePortfolioAfterTrade(anyString(), anyString(), anyInt(), any(), anyBoolean());
+        verify(tradeEventBus, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("Should roll back and fail only the triggered order whose portfolio update throws")
+    void shouldIsolateFailingTriggeredOrder() {
+        // Given
+        Trade failing = expiringOrder(1L);
+        Trade healthy = expiringOrder(2L);
+        when(tradeRepository.findById(1L)).thenReturn(Optional.of(failing));
+        when(tradeRepository.findById(2L)).thenReturn(Optional.of(healthy));
+        when(stockPriceService.getCurrentPrice(STOCK_SYMBOL)).thenReturn(Optional.of(PRICE));
+        when(portfolioService.hasEnoughShares(USER_ID, STOCK_SYMBOL, QUANTITY)).thenReturn(true);
+        when(tradeRepository.transition(anyLong(), eq(Trade.TradeStatus.PENDING), any())).thenReturn(1);
+        doThrow(new IllegalStateException("lots out of sync")).doNothing()
+                .when(portfolioService).updatePortfolioAfterTrade(USER_ID, STOCK_SYMBOL, QUANTITY, PRICE, false);
+
+        // When
+        List<Trade> executed = tradingService.executeTriggeredOrders(List.of(1L, 2L));
+
+        // Then
+        assertEquals(List.of(healthy), executed);
+        assertEquals(Trade.TradeStatus.FAILED, failing.getStatus());
+        assertEquals("Trade execution failed: lots out of sync", failing.getStatusMessage());
+        verify(tradeRepository).transition(1L, Trade.TradeStatus.PENDING, Trade.TradeStatus.FAILED);
+        verify(transactionManager).rollback(any());
+        verify(tradeEventBus).publish(healthy);
+        verify(tradeEventBus, never()).publish(failing);
+    }
+
+    @Test
+    @DisplayName("Should cancel an immediate-or-cancel order whose trigger is not reached instead of resting it")
+    void shouldCancelUntriggeredImmediateOrCancelOrder() {
+        // Given
+        when(stockPriceService.stockExists(STOCK_SYMBOL)).thenReturn(true);
+        when(stockPriceService.getCurrentPrice(STOCK_SYMBOL)).thenReturn(Optional.of(PRICE));
+        when(tradeRepository.save(any(Trade.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Trade trade = tradingService.placeConditionalOrder(USER_ID, STOCK_SYMBOL, Trade.TradeType.BUY, QUANTITY,
+                Trade.OrderType.STOP_LOSS, new BigDecimal("160.00"), null, Trade.TimeInForce.IOC, null);
+
+        // Then
+        assertEquals(Trade.TradeStatus.CANCELLED, trade.getStatus());
+        verifyNoInteractions(conditionalOrderBook, orderExpiryBook, portfolioService);
+    }
+
+    @Test
+    @DisplayName("Should reject orders for a halted symbol before reading its price")
+    void shouldRejectOrdersForHaltedSymbol() {
+        // Given
+        when(circuitBreakerService.isHalted(STOCK_SYMBOL)).thenReturn(true);
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> tradingService.buyStock(USER_ID, STOCK_SYMBOL, QUANTITY));
+        assertEquals("Trading in AAPL is halted", exception.getMessage());
+        assertFalse(tradingService.canExecuteTrade(USER_ID, STOCK_SYMBOL, Trade.TradeType.BUY, QUANTITY));
+        verifyNoInteractions(stockPriceService, tradeRepository, portfolioService);
+    }
+
+    private static Trade expiringOrder(Long id) {
+        Trade trade = new Trade(USER_ID, STOCK_SYMBOL, Trade.TradeType.SELL, QUANTITY, Trade.OrderType.STOP_LOSS,
+                new BigDecimal("140.00"), null);
+        trade.setTimeInForce(Trade.TimeInForce.GTD, LocalDateTime.now().plusHours(1));
+        ReflectionTestUtils.setField(trade, "id", id);
+        return trade;
+    }
+}
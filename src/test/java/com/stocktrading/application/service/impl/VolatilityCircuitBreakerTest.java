@@ -0,0 +1,194 @@
+package com.stocktrading.application.service.impl;
+
+import com.stocktrading.application.service.CircuitBreakerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for VolatilityCircuitBreaker.
+ */
+class VolatilityCircuitBreakerTest {
+
+    private final SymbolRegistry symbolRegistry = new SymbolRegistry();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should reject a price outside the band and halt the symbol while accepting prices inside it")
+    void shouldHaltOnPriceOutsideBand() {
+        // Given
+        VolatilityCircuitBreaker breaker = new VolatilityCircuitBreaker(symbolRegistry, meterRegistry, true, 10, 20, 4, 300);
+        symbolRegistry.register("AAPL");
+        admitAndCommit(breaker, "104.00", () -> new BigDecimal("100.00"));
+
+        // When
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("aapl", new BigDecimal("150.00"), () -> fail("window is seeded")));
+        admitAndCommit(breaker, "108.00", () -> fail("window is seeded"));
+
+        // Then
+        assertTrue(breaker.isHalted("aapl"));
+        CircuitBreakerService.TradingStatus status = breaker.getTradingStatus("aapl").orElseThrow();
+        assertEquals("AAPL", status.getSymbol());
+        assertTrue(status.isHalted());
+        assertNotNull(status.getHaltedUntil());
+        assertEquals(new BigDecimal("104.00"), status.getReferencePrice());
+        assertEquals(new BigDecimal("93.60"), status.getLowerBand());
+        assertEquals(new BigDecimal("114.40"), status.getUpperBand());
+        assertEquals(1.0, meterRegistry.get("stocktrading.circuit-breaker.halts").counter().count());
+        assertFalse(breaker.getTradingStatus("UNKNOWN").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should take the first price inside the reopening band after a halt ends as the new reference")
+    void shouldReopenAtNextPriceAfterHalt() {
+        // Given
+        VolatilityCircuitBreaker breaker = new VolatilityCircuitBreaker(symbolRegistry, meterRegistry, true, 10, 20, 4, 0);
+        symbolRegistry.register("AAPL");
+        admitAndCommit(breaker, "100.00", () -> new BigDecimal("100.00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("AAPL", new BigDecimal("150.00"), () -> fail("window is seeded")));
+
+        // When
+        admitAndCommit(breaker, "115.00", () -> fail("window is seeded"));
+        admitAndCommit(breaker, "120.00", () -> fail("window is seeded"));
+
+        // Then
+        assertFalse(breaker.isHalted("AAPL"));
+        assertEquals(new BigDecimal("117.50"), breaker.getTradingStatus("AAPL").orElseThrow().getReferencePrice());
+        assertEquals(1.0, meterRegistry.get("stocktrading.circuit-breaker.rejected-prices").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should halt again when the reopening price is outside the reopening band")
+    void shouldRejectReopeningPriceOutsideReopeningBand() {
+        // Given
+        VolatilityCircuitBreaker breaker = new VolatilityCircuitBreaker(symbolRegistry, meterRegistry, true, 10, 20, 4, 0);
+        symbolRegistry.register("AAPL");
+        admitAndCommit(breaker, "100.00", () -> new BigDecimal("100.00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("AAPL", new BigDecimal("150.00"), () -> fail("window is seeded")));
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("AAPL", new BigDecimal("50.00"), () -> fail("window is seeded")));
+
+        // When
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("AAPL", new BigDecimal("150.00"), () -> fail("window is seeded")));
+        admitAndCommit(breaker, "119.00", () -> fail("window is seeded"));
+
+        // Then
+        assertFalse(breaker.isHalted("AAPL"));
+        assertEquals(new BigDecimal("119.00"), breaker.getTradingStatus("AAPL").orElseThrow().getReferencePrice());
+        assertEquals(3.0, meterRegistry.get("stocktrading.circuit-breaker.halts").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not move the reference for a price that never commits")
+    void shouldIgnoreUncommittedPrices() {
+        // Given
+        VolatilityCircuitBreaker breaker = new VolatilityCircuitBreaker(symbolRegistry, meterRegistry, true, 10, 20, 4, 300);
+        symbolRegistry.register("AAPL");
+        admitAndCommit(breaker, "100.00", () -> new BigDecimal("100.00"));
+
+        // When
+        breaker.admit("AAPL", new BigDecimal("109.00"), () -> fail("window is seeded"));
+
+        // Then
+        assertEquals(new BigDecimal("100.00"), breaker.getTradingStatus("AAPL").orElseThrow().getReferencePrice());
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("AAPL", new BigDecimal("110.01"), () -> fail("window is seeded")));
+    }
+
+    @Test
+    @DisplayName("Should check prices racing a reopening against the reopening price and let it alone set the reference")
+    void shouldCheckConcurrentPricesAgainstPendingReopeningPrice() throws Exception {
+        // Given
+        VolatilityCircuitBreaker breaker = new VolatilityCircuitBreaker(symbolRegistry, meterRegistry, true, 10, 20, 4, 0);
+        symbolRegistry.register("AAPL");
+        admitAndCommit(breaker, "100.00", () -> new BigDecimal("100.00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("AAPL", new BigDecimal("150.00"), () -> fail("window is seeded")));
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> admitted = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < threads; i++) {
+                BigDecimal price = new BigDecimal("115.00").add(BigDecimal.valueOf(i, 2));
+                admitted.add(executor.submit(() -> {
+                    start.await();
+                    return breaker.admit("AAPL", price, () -> fail("the pending reopening price is the reference"));
+                }));
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        List<BigDecimal> others = new ArrayList<>();
+        BigDecimal reopeningPrice = null;
+        for (int i = 0; i < threads; i++) {
+            BigDecimal price = new BigDecimal("115.00").add(BigDecimal.valueOf(i, 2));
+            if (admitted.get(i).get()) {
+                assertNull(reopeningPrice, "only one price reopens the symbol");
+                reopeningPrice = price;
+            } else {
+                others.add(price);
+            }
+        }
+        assertNotNull(reopeningPrice);
+        assertEquals(reopeningPrice, breaker.getTradingStatus("AAPL").orElseThrow().getReferencePrice());
+        BigDecimal stalePrice = new BigDecimal("100.00");
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("AAPL", stalePrice, () -> fail("the pending reopening price is the reference")),
+                "the pre-halt price is outside the normal band around the reopening price");
+        // The other prices commit before the reopening price
+        for (BigDecimal price : others) {
+            breaker.accept("AAPL", price, false);
+        }
+        breaker.accept("AAPL", reopeningPrice, true);
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("stocktrading.circuit-breaker.halts").counter().count(),
+                "the stale price halted the symbol again");
+        assertEquals(reopeningPrice, breaker.getTradingStatus("AAPL").orElseThrow().getReferencePrice());
+    }
+
+    @Test
+    @DisplayName("Should wait for another reopening price when the admitted one rolls back")
+    void shouldRestoreHaltWhenReopeningRollsBack() {
+        // Given
+        VolatilityCircuitBreaker breaker = new VolatilityCircuitBreaker(symbolRegistry, meterRegistry, true, 10, 20, 4, 0);
+        symbolRegistry.register("AAPL");
+        admitAndCommit(breaker, "100.00", () -> new BigDecimal("100.00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> breaker.admit("AAPL", new BigDecimal("150.00"), () -> fail("window is seeded")));
+        assertTrue(breaker.admit("AAPL", new BigDecimal("115.00"), () -> fail("window is seeded")));
+
+        // When
+        breaker.cancelReopening("AAPL");
+
+        // Then
+        CircuitBreakerService.TradingStatus status = breaker.getTradingStatus("AAPL").orElseThrow();
+        assertEquals(new BigDecimal("100.00"), status.getReferencePrice());
+        assertEquals(new BigDecimal("120.00"), status.getUpperBand(), "the reopening band applies again");
+        assertTrue(breaker.admit("AAPL", new BigDecimal("119.00"), () -> fail("window is seeded")));
+    }
+
+    private static void admitAndCommit(VolatilityCircuitBreaker breaker, String price, Supplier<BigDecimal> lastPrice) {
+        boolean reopening = breaker.admit("AAPL", new BigDecimal(price), lastPrice);
+        breaker.accept("AAPL", new BigDecimal(price), reopening);
+    }
+}
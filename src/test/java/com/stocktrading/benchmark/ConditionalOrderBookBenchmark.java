@@ -0,0 +1,88 @@
+package com.stocktrading.benchmark;
+
+import com.stocktrading.application.service.impl.ConditionalOrderBook;
+import com.stocktrading.domain.model.Trade;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Tick-path cost of the conditional order book with and without resting orders.
+ * Ticks oscillate around the entry price, so only the occasional order fires.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.stocktrading.benchmark.ConditionalOrderBookBenchmark 100000
+ * </pre>
+ */
+public final class ConditionalOrderBookBenchmark {
+
+    private static final int TICKS = 2_000_000;
+    private static final int TRAIL_DISTANCES = 20;
+
+    private ConditionalOrderBookBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int resting = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        BigDecimal[] ticks = ticks(new Random(42));
+
+        measure(new ConditionalOrderBook(), ticks); // warm-up
+        System.out.printf("Empty book: %.1f ns/tick%n", measure(new ConditionalOrderBook(), ticks));
+
+        ConditionalOrderBook book = new ConditionalOrderBook();
+        Random random = new Random(7);
+        for (long id = 1; id <= resting; id++) {
+            book.add(order(id, random));
+        }
+        System.out.printf("%d resting orders: %.1f ns/tick, %d still resting%n",
+                resting, measure(book, ticks), book.size("AAPL"));
+    }
+
+    private static double measure(ConditionalOrderBook book, BigDecimal[] ticks) {
+        long start = System.nanoTime();
+        long fired = 0;
+        for (BigDecimal tick : ticks) {
+            fired += book.onPrice("AAPL", tick).size();
+        }
+        double nanosPerTick = (System.nanoTime() - start) / (double) ticks.length;
+        return fired >= 0 ? nanosPerTick : Double.NaN;
+    }
+
+    private static BigDecimal[] ticks(Random random) {
+        BigDecimal[] ticks = new BigDecimal[TICKS];
+        long cents = 10_000;
+        for (int i = 0; i < TICKS; i++) {
+            cents = Math.max(9_500, Math.min(10_500, cents + random.nextInt(11) - 5));
+            ticks[i] = BigDecimal.valueOf(cents, 2);
+        }
+        return ticks;
+    }
+
+    private static Trade order(long id, Random random) {
+        Trade.TradeType side = random.nextBoolean() ? Trade.TradeType.BUY : Trade.TradeType.SELL;
+        Trade trade;
+        switch (random.nextInt(3)) {
+            case 0:
+                long stopCents = side == Trade.TradeType.SELL ? 5_000 + random.nextInt(4_000) : 11_000 + random.nextInt(4_000);
+                trade = new Trade("user" + id, "AAPL", side, 1, Trade.OrderType.STOP_LOSS,
+                        BigDecimal.valueOf(stopCents, 2), null);
+                break;
+            case 1:
+                long targetCents = side == Trade.TradeType.SELL ? 11_000 + random.nextInt(4_000) : 5_000 + random.nextInt(4_000);
+                trade = new Trade("user" + id, "AAPL", side, 1, Trade.OrderType.TAKE_PROFIT,
+                        BigDecimal.valueOf(targetCents, 2), null);
+                break;
+            default:
+                long trailCents = 1_000 + 100L * random.nextInt(TRAIL_DISTANCES);
+                long triggerCents = side == Trade.TradeType.SELL ? 10_000 - trailCents : 10_000 + trailCents;
+                trade = new Trade("user" + id, "AAPL", side, 1, Trade.OrderType.TRAILING_STOP,
+                        BigDecimal.valueOf(triggerCents, 2), BigDecimal.valueOf(trailCents, 2));
+        }
+        ReflectionTestUtils.setField(trade, "id", id);
+        return trade;
+    }
+}
@@ -0,0 +1,102 @@
+package com.stocktrading.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stocktrading.application.service.CircuitBreakerService;
+import com.stocktrading.application.service.IndicatorService;
+import com.stocktrading.application.service.PriceHistoryService;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.domain.model.Stock;
+import com.stocktrading.presentation.controller.StockController;
+import com.stocktrading.presentation.dto.StockDto;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bytes allocated and time taken per {@code GET /api/stocks} response body,
+ * mapping to a DTO list first versus streaming the entities.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.stocktrading.benchmark.ListSerializationBenchmark 5000
+ * </pre>
+ */
+public final class ListSerializationBenchmark {
+
+    private static final int REQUESTS = 2_000;
+
+    private ListSerializationBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Stock> stocks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Stock stock = new Stock("SYM" + i, "Company " + i, BigDecimal.valueOf(10_000 + i, 2));
+            stock.updatePrice(BigDecimal.valueOf(10_100 + i, 2));
+            stocks.add(stock);
+        }
+        StockPriceService stockPriceService = mock(StockPriceService.class);
+        when(stockPriceService.getAllStocks()).thenReturn(stocks);
+        StockController controller = new StockController(stockPriceService,
+                mock(PriceHistoryService.class), mock(IndicatorService.class), mock(CircuitBreakerService.class));
+
+        Body dtoList = () -> objectMapper.writeValue(OutputStream.nullOutputStream(), toDtos(stocks));
+        Body streamed = () -> objectMapper.writeValue(OutputStream.nullOutputStream(),
+                controller.getAllStocks().getBody());
+
+        for (int round = 0; round < 3; round++) { // warm-up
+            measure(dtoList);
+            measure(streamed);
+        }
+        report(size + " stocks, DTO list", measure(dtoList));
+        report(size + " stocks, streamed", measure(streamed));
+    }
+
+    private static List<StockDto> toDtos(List<Stock> stocks) {
+        return stocks.stream()
+                .map(stock -> new StockDto(stock.getSymbol(), stock.getCompanyName(), stock.getCurrentPrice(),
+                        stock.getChangePercentage(), stock.getLastUpdated(), stock.getOpenPrice(),
+                        stock.getHighPrice(), stock.getLowPrice(), stock.getVolume()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return bytes allocated and nanoseconds taken per request
+     */
+    private static long[] measure(Body body) throws IOException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            body.write();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        return new long[] {allocated / REQUESTS, nanos / REQUESTS};
+    }
+
+    private static void report(String label, long[] result) {
+        System.out.printf("%-24s %,12d bytes/request %,10d ns/request%n", label, result[0], result[1]);
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write() throws IOException;
+    }
+}
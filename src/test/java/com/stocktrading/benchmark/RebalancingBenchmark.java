@@ -0,0 +1,96 @@
+package com.stocktrading.benchmark;
+
+import com.stocktrading.application.service.RebalancingService.AccountRebalance;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.application.service.TradingService;
+import com.stocktrading.application.service.impl.ForkJoinRebalancingService;
+import com.stocktrading.domain.model.Stock;
+import com.stocktrading.infrastructure.seed.SyntheticUniverse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Time to plan a model portfolio rebalance for every account in a synthetic universe,
+ * with 1, 2, 4, ... fork/join threads up to the number of cores.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.stocktrading.benchmark.RebalancingBenchmark 100000
+ * </pre>
+ */
+public final class RebalancingBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:rebalancing-benchmark;DB_CLOSE_DELAY=-1";
+
+    private RebalancingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            createSchema(connection);
+            SyntheticUniverse.Counts counts = new SyntheticUniverse(
+                    1_000, users, users * 10L, 42, 1.0, 0.8, 5_000).write(connection);
+            System.out.printf("Seeded %s in %d ms%n", counts, millisSince(start));
+        }
+
+        List<Stock> stocks = new JdbcTemplate(dataSource).query("SELECT symbol, current_price FROM stocks",
+                (rs, row) -> new Stock(rs.getString(1), rs.getString(1), rs.getBigDecimal(2)));
+        StockPriceService stockPriceService = mock(StockPriceService.class);
+        when(stockPriceService.getAllStocks()).thenReturn(stocks);
+        Map<String, BigDecimal> model = Map.of(
+                SyntheticUniverse.symbolAt(0), new BigDecimal("0.4"),
+                SyntheticUniverse.symbolAt(1), new BigDecimal("0.3"),
+                SyntheticUniverse.symbolAt(2), new BigDecimal("0.2"),
+                SyntheticUniverse.symbolAt(3), new BigDecimal("0.1"));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinRebalancingService service = new ForkJoinRebalancingService(
+                    dataSource, stockPriceService, mock(TradingService.class), threads, 500);
+            service.rebalance(model, null, false); // warm-up
+            start = System.nanoTime();
+            List<AccountRebalance> accounts = service.rebalance(model, null, false);
+            long millis = millisSince(start);
+            long orders = accounts.stream().mapToLong(account -> account.getOrders().size()).sum();
+            System.out.printf("%2d threads: %d accounts, %d orders in %d ms%n",
+                    threads, accounts.size(), orders, millis);
+        }
+    }
+
+    private static void createSchema(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE stocks (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "symbol VARCHAR(255) NOT NULL UNIQUE, company_name VARCHAR(255) NOT NULL, "
+                    + "current_price NUMERIC(10,2) NOT NULL, last_updated TIMESTAMP(6) NOT NULL, "
+                    + "change_percentage NUMERIC(5,2))");
+            statement.execute("CREATE TABLE portfolios (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id VARCHAR(255) NOT NULL, stock_symbol VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, "
+                    + "average_purchase_price NUMERIC(10,2) NOT NULL, last_updated TIMESTAMP(6) NOT NULL, "
+                    + "CONSTRAINT uk_portfolios_user_symbol UNIQUE (user_id, stock_symbol))");
+            statement.execute("CREATE TABLE trades (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id VARCHAR(255) NOT NULL, stock_symbol VARCHAR(255) NOT NULL, "
+                    + "trade_type VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, price NUMERIC(10,2) NOT NULL, "
+                    + "timestamp TIMESTAMP(6) NOT NULL, executed_at TIMESTAMP(6), status VARCHAR(255) NOT NULL, "
+                    + "order_type VARCHAR(255) NOT NULL, time_in_force VARCHAR(255) NOT NULL)");
+        }
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,150 @@
+package com.stocktrading.benchmark;
+
+import com.stocktrading.StockTradingApplication;
+import com.stocktrading.infrastructure.snapshot.JdbcStateSnapshot;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * Startup benchmark for snapshot restore.
+ * Builds a snapshot with the requested number of holdings, then measures
+ * time-to-ready of the application with and without restoring it.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.stocktrading.benchmark.SnapshotStartupBenchmark 1000000
+ * </pre>
+ */
+public final class SnapshotStartupBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final String[] SYMBOLS = {
+            "AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", "META", "NVDA", "NFLX", "AMD", "CRM"
+    };
+
+    private SnapshotStartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int holdings = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        // Devtools would relaunch main() in a restart class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Path snapshot = Files.createTempFile("state", ".snapshot");
+
+        long start = System.nanoTime();
+        JdbcStateSnapshot.Counts counts = writeSnapshot(snapshot, holdings);
+        System.out.printf("Built snapshot of %s (%d MB) in %d ms%n",
+                counts, Files.size(snapshot) >> 20, millisSince(start));
+
+        timeToReady(null); // warm-up so both measurements run on a warm JVM
+        System.out.printf("Time-to-ready without snapshot: %d ms%n", timeToReady(null));
+        System.out.printf("Time-to-ready restoring snapshot: %d ms%n", timeToReady(snapshot));
+
+        Files.deleteIfExists(snapshot);
+    }
+
+    private static JdbcStateSnapshot.Counts writeSnapshot(Path file, int holdings) throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:snapshot-source", "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE stocks (symbol VARCHAR(255) NOT NULL UNIQUE, "
+                        + "company_name VARCHAR(255) NOT NULL, current_price NUMERIC(10,2) NOT NULL, "
+                        + "last_updated TIMESTAMP(6) NOT NULL, change_percentage NUMERIC(5,2), "
+                        + "open_price NUMERIC(10,2), high_price NUMERIC(10,2), low_price NUMERIC(10,2), volume BIGINT)");
+                statement.execute("CREATE TABLE portfolios (id BIGINT PRIMARY KEY, user_id VARCHAR(255) NOT NULL, "
+                        + "stock_symbol VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, "
+                        + "average_purchase_price NUMERIC(10,2) NOT NULL, last_updated TIMESTAMP(6) NOT NULL, "
+                        + "next_lot_id BIGINT)");
+                statement.execute("CREATE TABLE tax_lots (portfolio_id BIGINT NOT NULL, lot_id BIGINT NOT NULL, "
+                        + "quantity INTEGER NOT NULL, cost BIGINT NOT NULL, acquired_at BIGINT NOT NULL, "
+                        + "PRIMARY KEY (portfolio_id, lot_id))");
+                statement.execute("CREATE TABLE trades (id BIGINT PRIMARY KEY, user_id VARCHAR(255) NOT NULL, "
+                        + "stock_symbol VARCHAR(255) NOT NULL, trade_type VARCHAR(255) NOT NULL, "
+                        + "quantity INTEGER NOT NULL, price NUMERIC(10,2) NOT NULL, timestamp TIMESTAMP(6) NOT NULL, "
+                        + "status VARCHAR(255) NOT NULL, status_message VARCHAR(500), order_type VARCHAR(255) NOT NULL, "
+                        + "trigger_price NUMERIC(10,2), trail_amount NUMERIC(10,2), idempotency_key VARCHAR(64), "
+                        + "time_in_force VARCHAR(255) NOT NULL, expires_at TIMESTAMP(6))");
+            }
+
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO stocks (symbol, company_name, current_price, last_updated) VALUES (?, ?, ?, ?)")) {
+                for (String symbol : SYMBOLS) {
+                    ps.setString(1, symbol);
+                    ps.setString(2, symbol + " Inc.");
+                    ps.setBigDecimal(3, new BigDecimal("100.00"));
+                    ps.setTimestamp(4, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO portfolios (id, user_id, stock_symbol, quantity, average_purchase_price, last_updated) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < holdings; i++) {
+                    ps.setLong(1, i + 1L);
+                    ps.setString(2, "user" + (i % USERS));
+                    ps.setString(3, SYMBOLS[(i / USERS) % SYMBOLS.length] + (i / (USERS * SYMBOLS.length)));
+                    ps.setInt(4, 1 + i % 500);
+                    ps.setBigDecimal(5, BigDecimal.valueOf(10_000 + i % 90_000, 2));
+                    ps.setTimestamp(6, now);
+                    ps.addBatch();
+                    if (i % 10_000 == 9_999) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+                return JdbcStateSnapshot.write(connection, out);
+            }
+        }
+    }
+
+    private static long timeToReady(Path snapshot) throws Exception {
+        Path restorePath = null;
+        String[] args;
+        if (snapshot == null) {
+            args = new String[] {"--server.port=0", "--stocktrading.snapshot.enabled=false"};
+        } else {
+            // Work on a copy: the application writes a fresh snapshot on shutdown
+            restorePath = Files.createTempFile("state-restore", ".snapshot");
+            Files.copy(snapshot, restorePath, StandardCopyOption.REPLACE_EXISTING);
+            args = new String[] {
+                    "--server.port=0",
+                    "--stocktrading.snapshot.enabled=true",
+                    "--stocktrading.snapshot.path=" + restorePath,
+                    "--stocktrading.snapshot.interval-ms=3600000"
+            };
+        }
+
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext ignored = SpringApplication.run(StockTradingApplication.class, args)) {
+            return millisSince(start);
+        } finally {
+            if (restorePath != null) {
+                Files.deleteIfExists(restorePath);
+            }
+        }
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
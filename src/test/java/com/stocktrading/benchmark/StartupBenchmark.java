@@ -0,0 +1,112 @@
+package com.stocktrading.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time from launching the JVM to the first {@code GET /api/stocks} that returns the
+ * seeded stocks, for the default executable jar and the fast-startup artifact.
+ * Each variant is started in a fresh process; the median of the runs is reported.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn -Pfast-startup -DskipTests package
+ * mvn test-compile
+ * java -cp target/test-classes com.stocktrading.benchmark.StartupBenchmark 5
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final String ARTIFACT = "stock-trading-platform-1.0.0";
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path executableJar = TARGET.resolve(ARTIFACT + "-exec.jar");
+        Path thinJar = TARGET.resolve(ARTIFACT + ".jar");
+        Path archive = TARGET.resolve("application.jsa");
+        if (!Files.exists(executableJar) || !Files.exists(archive)) {
+            throw new IllegalStateException("Build with mvn -Pfast-startup -DskipTests package first");
+        }
+
+        long baseline = median(runs, List.of("-jar", executableJar.toString()));
+        long aot = median(runs, List.of("-Dspring.aot.enabled=true",
+                "-Dspring.main.allow-bean-definition-overriding=true", "-jar", thinJar.toString()));
+        long aotAndCds = median(runs, List.of("-XX:SharedArchiveFile=" + archive,
+                "-Dspring.aot.enabled=true", "-Dspring.main.allow-bean-definition-overriding=true",
+                "-jar", thinJar.toString()));
+
+        System.out.printf("Default executable jar: %d ms%n", baseline);
+        System.out.printf("AOT:                    %d ms (%.0f%% faster)%n", aot, saving(baseline, aot));
+        System.out.printf("AOT + CDS:              %d ms (%.0f%% faster)%n", aotAndCds, saving(baseline, aotAndCds));
+    }
+
+    private static long median(int runs, List<String> launch) throws Exception {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = timeToFirstResponse(launch);
+        }
+        Arrays.sort(millis);
+        return millis[runs / 2];
+    }
+
+    private static long timeToFirstResponse(List<String> launch) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(launch);
+        command.add("--server.port=" + port);
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stocks")).build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue());
+                }
+                try {
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    // Seeded stocks are present once the body holds at least one object
+                    if (response.statusCode() == 200 && response.body().startsWith("[{")) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No response within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double saving(long baseline, long measured) {
+        return 100.0 * (baseline - measured) / baseline;
+    }
+}
@@ -0,0 +1,76 @@
+package com.stocktrading.benchmark;
+
+import com.stocktrading.application.service.TradeAnalyticsService.SymbolStats;
+import com.stocktrading.application.service.impl.ForkJoinTradeAnalyticsService;
+import com.stocktrading.infrastructure.seed.SyntheticUniverse;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Time to aggregate a synthetic trade history per symbol with 1, 2, 4, ...
+ * fork/join threads up to the number of cores.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.stocktrading.benchmark.TradeAnalyticsBenchmark 5000000
+ * </pre>
+ */
+public final class TradeAnalyticsBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:analytics-benchmark;DB_CLOSE_DELAY=-1";
+
+    private TradeAnalyticsBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long trades = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000;
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            createSchema(connection);
+            SyntheticUniverse.Counts counts = new SyntheticUniverse(
+                    5_000, 100_000, trades, 42, 1.0, 0.8, 5_000).write(connection);
+            System.out.printf("Seeded %s in %d ms%n", counts, millisSince(start));
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        long baseline = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinTradeAnalyticsService service = new ForkJoinTradeAnalyticsService(dataSource, threads, 10_000);
+            service.getSymbolStats(null, null, null); // warm-up
+            start = System.nanoTime();
+            List<SymbolStats> stats = service.getSymbolStats(null, null, null);
+            long millis = millisSince(start);
+            baseline = threads == 1 ? millis : baseline;
+            System.out.printf("%2d threads: %d symbols in %d ms, speed-up %.2fx%n",
+                    threads, stats.size(), millis, (double) baseline / millis);
+        }
+    }
+
+    private static void createSchema(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE stocks (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "symbol VARCHAR(255) NOT NULL UNIQUE, company_name VARCHAR(255) NOT NULL, "
+                    + "current_price NUMERIC(10,2) NOT NULL, last_updated TIMESTAMP(6) NOT NULL, "
+                    + "change_percentage NUMERIC(5,2))");
+            statement.execute("CREATE TABLE portfolios (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id VARCHAR(255) NOT NULL, stock_symbol VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, "
+                    + "average_purchase_price NUMERIC(10,2) NOT NULL, last_updated TIMESTAMP(6) NOT NULL)");
+            statement.execute("CREATE TABLE trades (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id VARCHAR(255) NOT NULL, stock_symbol VARCHAR(255) NOT NULL, "
+                    + "trade_type VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, price NUMERIC(10,2) NOT NULL, "
+                    + "timestamp TIMESTAMP(6) NOT NULL, executed_at TIMESTAMP(6), status VARCHAR(255) NOT NULL, "
+                    + "order_type VARCHAR(255) NOT NULL, time_in_force VARCHAR(255) NOT NULL)");
+        }
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,102 @@
+package com.stocktrading.domain.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LotQueue.
+ */
+class LotQueueTest {
+
+    @Test
+    @DisplayName("Should consume oldest lots first on FIFO removal")
+    void shouldConsumeOldestLotsFirstOnFifoRemoval() {
+        // Given
+        LotQueue lots = new LotQueue();
+        lots.add(10, 1_000_000, 1L); // 10 @ 100.00
+        lots.add(10, 2_000_000, 2L); // 10 @ 200.00
+
+        // When
+        long cost = lots.removeFirstIn(15);
+
+        // Then
+        assertEquals(10 * 1_000_000L + 5 * 2_000_000L, cost);
+        assertEquals(5, lots.getTotalQuantity());
+        assertEquals(5 * 2_000_000L, lots.getTotalCost());
+        assertEquals(1, lots.getOpenLots());
+    }
+
+    @Test
+    @DisplayName("Should consume newest lots first on LIFO removal")
+    void shouldConsumeNewestLotsFirstOnLifoRemoval() {
+        // Given
+        LotQueue lots = new LotQueue();
+        lots.add(10, 1_000_000, 1L);
+        lots.add(10, 2_000_000, 2L);
+
+        // When
+        long cost = lots.removeLastIn(12);
+
+        // Then
+        assertEquals(10 * 2_000_000L + 2 * 1_000_000L, cost);
+        assertEquals(8, lots.getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("Should remove from a specific lot and skip it once closed")
+    void shouldRemoveFromSpecificLot() {
+        // Given
+        LotQueue lots = new LotQueue();
+        lots.add(5, 1_000_000, 1L);
+        long middle = lots.add(5, 3_000_000, 2L);
+        lots.add(5, 2_000_000, 3L);
+
+        // When
+        long cost = lots.removeFromLot(middle, 5);
+        long fifoCost = lots.removeFirstIn(6);
+
+        // Then
+        assertEquals(5 * 3_000_000L, cost);
+        assertEquals(5 * 1_000_000L + 2_000_000L, fifoCost);
+        assertEquals(0, lots.getLotQuantity(middle));
+        assertThrows(IllegalArgumentException.class, () -> lots.removeFromLot(middle, 1));
+    }
+
+    @Test
+    @DisplayName("Should keep lots and totals across many adds and removals")
+    void shouldKeepLotsAcrossManyAddsAndRemovals() {
+        // Given
+        LotQueue lots = new LotQueue();
+        for (int i = 0; i < 10_000; i++) {
+            lots.add(2, 1_000 + i, i);
+            lots.removeFirstIn(1);
+        }
+
+        // When
+        LotQueue decoded = LotQueue.restore(lots.getNextId(), lots.getLots());
+
+        // Then
+        assertEquals(10_000, decoded.getTotalQuantity());
+        assertEquals(lots.getTotalCost(), decoded.getTotalCost());
+        List<LotQueue.Lot> open = decoded.getLots();
+        assertEquals(5_000, open.size());
+        assertEquals(1_000 + 9_999, open.get(open.size() - 1).getCost());
+        assertTrue(decoded.add(1, 1, 0L) > open.get(open.size() - 1).getId());
+    }
+
+    @Test
+    @DisplayName("Should reject removing more shares than held")
+    void shouldRejectRemovingMoreSharesThanHeld() {
+        // Given
+        LotQueue lots = new LotQueue();
+        lots.add(3, 1_000_000, 1L);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> lots.removeFirstIn(4));
+        assertEquals(3, lots.getTotalQuantity());
+    }
+}
@@ -0,0 +1,164 @@
+package com.stocktrading.domain.repository;
+
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.infrastructure.seed.SyntheticUniverse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query plan regression tests for the repository finders.
+ * Seeds a synthetic universe, runs each finder, and asks H2 to EXPLAIN the SQL
+ * Hibernate issued for it; a plan that falls back to a table scan fails the test.
+ * Queries that return or search the whole table by design are not checked.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.stocktrading.domain.repository.RepositoryQueryPlanTest$RecordingInspector")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final String USER = "user1";
+    private static final String SYMBOL = SyntheticUniverse.symbolAt(0);
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private RealizedGainRepository realizedGainRepository;
+
+    @Autowired
+    private HoldingsCheckpointRepository holdingsCheckpointRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            new SyntheticUniverse(1_000, 2_000, 20_000, 42, 1.0, 0.8, 5_000).write(connection);
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("Should use an index for every trade finder")
+    void tradeFindersShouldUseIndexes() {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 4, 1, 0, 0);
+
+        assertIndexed(() -> tradeRepository.findById(1L), 1L);
+        assertIndexed(() -> tradeRepository.findByUserId(USER), USER);
+        assertIndexed(() -> tradeRepository.findByUserIdOrderByTimestampDesc(USER), USER);
+        assertIndexed(() -> tradeRepository.findByStockSymbol(SYMBOL), SYMBOL);
+        assertIndexed(() -> tradeRepository.findByUserIdAndIdempotencyKey(USER, "key-1"), USER, "key-1");
+        assertIndexed(() -> tradeRepository.findByStatus(Trade.TradeStatus.PENDING), "PENDING");
+        assertIndexed(() -> tradeRepository.findByStatusAndOrderTypeNot(
+                Trade.TradeStatus.PENDING, Trade.OrderType.MARKET), "PENDING", "MARKET");
+        assertIndexed(() -> tradeRepository.findByStockSymbolAndStatusAndOrderTypeNot(
+                SYMBOL, Trade.TradeStatus.PENDING, Trade.OrderType.MARKET), SYMBOL, "PENDING", "MARKET");
+        assertIndexed(() -> tradeRepository.findByUserIdAndTimestampBetween(USER, from, to),
+                USER, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        assertIndexed(() -> tradeRepository.findByUserIdAndStockSymbol(USER, SYMBOL), USER, SYMBOL);
+        assertIndexed(() -> tradeRepository.findExecutedByUserIdUntil(USER, to), USER, Timestamp.valueOf(to));
+        assertIndexed(() -> tradeRepository.findExecutedByUserIdBetween(USER, from, to),
+                USER, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        assertIndexed(() -> tradeRepository.findFirstByStockSymbolAndExecutedAtLessThanEqualOrderByExecutedAtDesc(
+                SYMBOL, to), SYMBOL, Timestamp.valueOf(to), 1);
+    }
+
+    @Test
+    @DisplayName("Should use an index for every holding finder")
+    void portfolioFindersShouldUseIndexes() {
+        assertIndexed(() -> portfolioRepository.findByUserId(USER), USER);
+        assertIndexed(() -> portfolioRepository.findByUserIdAndStockSymbol(USER, SYMBOL), USER, SYMBOL);
+        assertIndexed(() -> portfolioRepository.existsByUserIdAndStockSymbol(USER, SYMBOL), USER, SYMBOL);
+        assertIndexed(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            portfolioRepository.deleteByUserIdAndStockSymbolAndQuantity(USER, SYMBOL, -1);
+            status.setRollbackOnly();
+        }), USER, SYMBOL, -1);
+    }
+
+    @Test
+    @DisplayName("Should use an index for every holdings checkpoint finder")
+    void checkpointFindersShouldUseIndexes() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        assertIndexed(() -> holdingsCheckpointRepository.findByUserIdAndTakenAt(USER, at), USER, Timestamp.valueOf(at));
+        assertIndexed(() -> holdingsCheckpointRepository.findLatestTakenAt(USER, at), USER, Timestamp.valueOf(at));
+        assertIndexed(() -> holdingsCheckpointRepository.findLastTakenAt());
+    }
+
+    @Test
+    @DisplayName("Should use an index for every stock and realized gain finder")
+    void stockAndRealizedGainFindersShouldUseIndexes() {
+        String other = SyntheticUniverse.symbolAt(1);
+
+        assertIndexed(() -> stockRepository.findBySymbol(SYMBOL), SYMBOL);
+        assertIndexed(() -> stockRepository.existsBySymbol(SYMBOL), SYMBOL);
+        assertIndexed(() -> stockRepository.findBySymbolIn(List.of(SYMBOL, other)), SYMBOL, other);
+        assertIndexed(() -> realizedGainRepository.findByUserIdOrderByRealizedAtDesc(USER), USER);
+        assertIndexed(() -> realizedGainRepository.sumGainLossByUserId(USER), USER);
+    }
+
+    /**
+     * Run a finder and check the plan of the first statement it issued.
+     */
+    private void assertIndexed(Runnable finder, Object... parameters) {
+        RecordingInspector.STATEMENTS.clear();
+        finder.run();
+        assertFalse(RecordingInspector.STATEMENTS.isEmpty(), "Finder issued no SQL");
+        String sql = RecordingInspector.STATEMENTS.get(0);
+
+        String plan = jdbcTemplate.query("EXPLAIN " + sql, rs -> {
+            rs.next();
+            return rs.getString(1);
+        }, parameters);
+        assertNotNull(plan);
+        assertFalse(plan.contains("tableScan"), () -> "Query scans a table:\n" + plan);
+    }
+
+    /**
+     * Records the SQL Hibernate is about to prepare.
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.stocktrading.domain.repository;
+
+import com.stocktrading.domain.model.LotQueue;
+import com.stocktrading.domain.model.LotSelection;
+import com.stocktrading.domain.model.Portfolio;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a trade writes only the tax lot rows it touches.
+ * Batching is off so every row written is a statement the inspector sees.
+ */
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.jdbc.batch_size=0",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.stocktrading.domain.repository.TaxLotStorageTest$RecordingInspector"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaxLotStorageTest {
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM tax_lots");
+            jdbcTemplate.update("DELETE FROM portfolios");
+        });
+    }
+
+    @Test
+    @DisplayName("Should delete the sold-out lot and update the partly sold one without rewriting the rest")
+    void shouldWriteOnlyTouchedLots() {
+        // Given
+        Long id = transaction.execute(status -> {
+            Portfolio holding = new Portfolio("user1", "AAPL", 0, BigDecimal.ZERO);
+            for (int i = 0; i < 20; i++) {
+                holding.addShares(10, new BigDecimal("100.00").add(BigDecimal.valueOf(i)));
+            }
+            return portfolioRepository.save(holding).getId();
+        });
+
+        // When
+        RecordingInspector.STATEMENTS.clear();
+        transaction.executeWithoutResult(status ->
+                portfolioRepository.findById(id).orElseThrow().removeShares(15));
+        List<String> sell = lotWrites();
+        RecordingInspector.STATEMENTS.clear();
+        transaction.executeWithoutResult(status ->
+                portfolioRepository.findById(id).orElseThrow().addShares(3, new BigDecimal("90.00")));
+        List<String> buy = lotWrites();
+
+        // Then
+        assertEquals(2, sell.size(), () -> "Sell wrote " + sell);
+        assertTrue(sell.stream().anyMatch(sql -> sql.startsWith("delete")));
+        assertTrue(sell.stream().anyMatch(sql -> sql.startsWith("update")));
+        assertEquals(1, buy.size(), () -> "Buy wrote " + buy);
+        assertTrue(buy.get(0).startsWith("insert"));
+
+        List<LotQueue.Lot> lots = transaction.execute(status -> portfolioRepository.findById(id).orElseThrow().getLots());
+        assertEquals(20, lots.size());
+        assertEquals(2, lots.get(0).getId());
+        assertEquals(5, lots.get(0).getQuantity());
+        assertEquals(21, lots.get(lots.size() - 1).getId());
+        assertEquals(20, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tax_lots", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should store a holding from before lot tracking as one lot at its average price once it changes")
+    void shouldStoreHoldingWithoutLotsOnFirstChange() {
+        // Given
+        jdbcTemplate.update("INSERT INTO portfolios (user_id, stock_symbol, quantity, average_purchase_price, "
+                + "last_updated) VALUES ('user2', 'MSFT', 8, 250.00, CURRENT_TIMESTAMP)");
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM portfolios WHERE user_id = 'user2'", Long.class);
+
+        // When
+        BigDecimal cost = transaction.execute(status -> portfolioRepository.findById(id).orElseThrow().removeShares(3));
+
+        // Then
+        assertEquals(0, new BigDecimal("750.00").compareTo(cost));
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT quantity FROM tax_lots WHERE portfolio_id = ?",
+                Integer.class, id));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT next_lot_id FROM portfolios WHERE id = ?",
+                Long.class, id));
+    }
+
+    @Test
+    @DisplayName("Should sell from a holding with thousands of lots in the same statements as from one with ten")
+    void shouldKeepSellCostFlatInLotCount() {
+        // Given
+        Long few = insertHolding("user3", 10);
+        Long many = insertHolding("user4", 5_000);
+
+        // When
+        List<String> fewSell = sellOneEachWay(few);
+        List<String> manySell = sellOneEachWay(many);
+
+        // Then
+        assertEquals(fewSell.size(), manySell.size(), () -> "Small holding ran " + fewSell + ", large ran " + manySell);
+        assertTrue(manySell.stream().filter(sql -> sql.contains("tax_lots") && sql.startsWith("select"))
+                .allMatch(sql -> sql.contains("order by")), "lots are read in id order");
+        List<LotQueue.Lot> lots = transaction.execute(status -> portfolioRepository.findById(many).orElseThrow().getLots());
+        assertEquals(4_998, lots.size());
+        assertEquals(2, lots.get(0).getId());
+        assertEquals(4_999, lots.get(lots.size() - 1).getId());
+    }
+
+    /**
+     * Store a holding of one-share lots, newest lot row first.
+     */
+    private Long insertHolding(String userId, int lots) {
+        jdbcTemplate.update("INSERT INTO portfolios (user_id, stock_symbol, quantity, average_purchase_price, "
+                + "last_updated, next_lot_id) VALUES (?, 'AAPL', ?, 100.00, CURRENT_TIMESTAMP, ?)", userId, lots, lots + 1);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM portfolios WHERE user_id = ?", Long.class, userId);
+        List<Object[]> rows = new ArrayList<>();
+        for (long lotId = lots; lotId >= 1; lotId--) {
+            rows.add(new Object[]{id, lotId, 1_000_000L + lotId, lotId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tax_lots (portfolio_id, lot_id, quantity, cost, acquired_at) "
+                + "VALUES (?, ?, 1, ?, ?)", rows);
+        return id;
+    }
+
+    /**
+     * Sell the oldest and the newest share, each in its own transaction, and return the statements run.
+     */
+    private List<String> sellOneEachWay(Long id) {
+        RecordingInspector.STATEMENTS.clear();
+        BigDecimal oldest = transaction.execute(status ->
+                portfolioRepository.findById(id).orElseThrow().removeShares(1, LotSelection.fifo()));
+        transaction.executeWithoutResult(status ->
+                portfolioRepository.findById(id).orElseThrow().removeShares(1, LotSelection.lifo()));
+        assertEquals(0, new BigDecimal("100.0001").compareTo(oldest));
+        return RecordingInspector.STATEMENTS.stream().map(sql -> sql.trim().toLowerCase(Locale.ROOT)).toList();
+    }
+
+    private static List<String> lotWrites() {
+        return RecordingInspector.STATEMENTS.stream()
+                .map(sql -> sql.trim().toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.contains("tax_lots") && !sql.startsWith("select"))
+                .toList();
+    }
+
+    /**
+     * Records the SQL Hibernate is about to prepare.
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
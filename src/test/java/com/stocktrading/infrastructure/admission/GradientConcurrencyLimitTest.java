@@ -0,0 +1,81 @@
+package com.stocktrading.infrastructure.admission;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GradientConcurrencyLimit.
+ */
+class GradientConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    @DisplayName("Should raise the limit while latency stays flat under load")
+    void shouldGrowWhileLatencyIsFlat() {
+        // Given
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 2, 100);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            saturate(limit, 5 * MILLIS);
+        }
+
+        // Then
+        assertTrue(limit.getLimit() > 10);
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should lower the limit when latency rises")
+    void shouldShrinkWhenLatencyRises() {
+        // Given
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(50, 2, 100);
+        for (int i = 0; i < 20; i++) {
+            saturate(limit, 5 * MILLIS);
+        }
+        int before = limit.getLimit();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            saturate(limit, 50 * MILLIS);
+        }
+
+        // Then
+        assertTrue(limit.getLimit() < before);
+        assertTrue(limit.getLimit() >= 2);
+    }
+
+    @Test
+    @DisplayName("Should turn away low priority requests before high priority ones")
+    void shouldShedLowPriorityFirst() {
+        // Given
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 2, 100);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+        }
+
+        // When
+        boolean read = limit.tryAcquire(0.8);
+        boolean order = limit.tryAcquire(1.0);
+
+        // Then
+        assertFalse(read);
+        assertTrue(order);
+    }
+
+    /**
+     * Fill the limit and release every request with the same latency.
+     */
+    private static void saturate(GradientConcurrencyLimit limit, long rttNanos) {
+        int admitted = 0;
+        while (limit.tryAcquire(1.0)) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limit.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.stocktrading.infrastructure.cluster;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClusterAuthenticationFilter.
+ */
+class ClusterAuthenticationFilterTest {
+
+    @Test
+    @DisplayName("Should reject partition transfers and forwarded calls to a worker without the cluster secret")
+    void shouldRequireSecretOnWorker() throws Exception {
+        // Given
+        ClusterAuthenticationFilter filter = new ClusterAuthenticationFilter("s3cret", "worker");
+
+        // When
+        MockHttpServletResponse partition = run(filter, request("/api/cluster/partitions/AAPL", null, null));
+        MockHttpServletResponse forged = run(filter, request("/api/trades/buy", "true", "guess"));
+        MockHttpServletResponse forwarded = run(filter, request("/api/cluster/partitions/AAPL", "true", "s3cret"));
+        MockHttpServletResponse direct = run(filter, request("/api/trades/buy", null, null));
+
+        // Then
+        assertEquals(401, partition.getStatus());
+        assertEquals(401, forged.getStatus());
+        assertEquals(200, forwarded.getStatus());
+        assertEquals(200, direct.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should strip cluster headers from client requests on the gateway")
+    void shouldStripClusterHeadersOnGateway() throws Exception {
+        // Given
+        ClusterAuthenticationFilter filter = new ClusterAuthenticationFilter("s3cret", "gateway");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("/api/trades/buy", "true", "guess"), new MockHttpServletResponse(), chain);
+
+        // Then
+        HttpServletRequest routed = (HttpServletRequest) chain.getRequest();
+        assertNull(routed.getHeader(ClusterClient.FORWARDED_HEADER));
+        assertNull(routed.getHeader(ClusterClient.SECRET_HEADER));
+        assertFalse(Collections.list(routed.getHeaderNames()).contains(ClusterClient.FORWARDED_HEADER));
+        assertEquals("application/json", routed.getHeader("Content-Type"));
+    }
+
+    @Test
+    @DisplayName("Should refuse to start cluster mode without a secret")
+    void shouldRequireConfiguredSecret() {
+        assertThrows(IllegalArgumentException.class, () -> new ClusterAuthenticationFilter(" ", "worker"));
+    }
+
+    private static MockHttpServletRequest request(String path, String forwarded, String secret) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.addHeader("Content-Type", "application/json");
+        if (forwarded != null) {
+            request.addHeader(ClusterClient.FORWARDED_HEADER, forwarded);
+        }
+        if (secret != null) {
+            request.addHeader(ClusterClient.SECRET_HEADER, secret);
+        }
+        return request;
+    }
+
+    private static MockHttpServletResponse run(ClusterAuthenticationFilter filter, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
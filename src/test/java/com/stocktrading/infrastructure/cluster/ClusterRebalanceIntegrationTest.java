@@ -0,0 +1,197 @@
+package com.stocktrading.infrastructure.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stocktrading.StockTradingApplication;
+import com.stocktrading.application.service.impl.ConditionalOrderBook;
+import com.stocktrading.application.service.impl.OrderExpiryBook;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two worker nodes in this JVM, each with its own in-memory database, and drives
+ * them through the gateway's routing filter and partition rebalancer.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClusterRebalanceIntegrationTest {
+
+    private static final String SECRET = "cluster-test-secret";
+    private static final List<String> SYMBOLS = List.of("AAPL", "GOOGL", "MSFT", "AMZN", "TSLA",
+            "META", "NVDA", "NFLX", "AMD", "CRM");
+    private static final int VIRTUAL_NODES = 128;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private ObjectMapper objectMapper;
+    // Symbols the two-node ring gives to each node
+    private String ownedByA;
+    private String ownedByB;
+
+    @BeforeAll
+    void startNodes() {
+        nodeA = startNode("a", 1);
+        nodeB = startNode("b", 2);
+        objectMapper = nodeA.getBean(ObjectMapper.class);
+        ConsistentHashRing ring = new ConsistentHashRing(Set.of("a", "b"), VIRTUAL_NODES);
+        ownedByA = SYMBOLS.stream().filter(symbol -> ring.ownerOf(symbol).equals("a")).findFirst().orElseThrow();
+        ownedByB = SYMBOLS.stream().filter(symbol -> ring.ownerOf(symbol).equals("b")).findFirst().orElseThrow();
+    }
+
+    @AfterAll
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    @DisplayName("Should forward each trade to the node that owns its symbol")
+    void shouldForwardToOwner() throws Exception {
+        // Given
+        ClusterTopology topology = new ClusterTopology("a=" + address(nodeA) + ",b=" + address(nodeB), VIRTUAL_NODES);
+        ClusterRoutingFilter routingFilter = new ClusterRoutingFilter(topology, client(topology), objectMapper);
+
+        // When
+        MockHttpServletResponse toA = route(routingFilter, "POST", "/api/trades/buy", buy("router", ownedByA, 4));
+        MockHttpServletResponse toB = route(routingFilter, "POST", "/api/trades/buy", buy("router", ownedByB, 6));
+
+        // Then
+        assertEquals(200, toA.getStatus());
+        assertEquals(200, toB.getStatus());
+        assertEquals(List.of(4), quantities(nodeA, "router", ownedByA));
+        assertEquals(List.of(), quantities(nodeB, "router", ownedByA));
+        assertEquals(List.of(6), quantities(nodeB, "router", ownedByB));
+        assertEquals(List.of(), quantities(nodeA, "router", ownedByB));
+    }
+
+    @Test
+    @DisplayName("Should hand a partition with its resting orders to a joining node and back when it leaves")
+    void shouldHandPartitionsOverOnJoinAndLeave() throws Exception {
+        // Given
+        ClusterTopology topology = new ClusterTopology("a=" + address(nodeA), VIRTUAL_NODES);
+        ClusterClient client = client(topology);
+        ClusterRoutingFilter routingFilter = new ClusterRoutingFilter(topology, client, objectMapper);
+        PartitionRebalancer rebalancer = new PartitionRebalancer(topology, client);
+        assertEquals(200, route(routingFilter, "POST", "/api/trades/buy", buy("mover", ownedByB, 10)).getStatus());
+        MockHttpServletResponse stop = route(routingFilter, "POST", "/api/trades/conditional", stopLoss("mover", ownedByB));
+        assertEquals(200, stop.getStatus());
+        Map<String, List<Map<String, Object>>> partition = partitionRows(nodeA, "mover", ownedByB);
+        int restingOnA = restingOrders(nodeA, ownedByB);
+        int restingOnB = restingOrders(nodeB, ownedByB);
+
+        // When
+        List<PartitionRebalancer.Move> joined = rebalancer.addNode("b", URI.create(address(nodeB)));
+
+        // Then
+        assertTrue(joined.stream().anyMatch(move -> move.getSymbol().equals(ownedByB) && move.getToNode().equals("b")));
+        assertTrue(joined.stream().noneMatch(move -> move.getSymbol().equals(ownedByA)));
+        assertEquals(partition, partitionRows(nodeB, "mover", ownedByB));
+        assertTrue(partitionRows(nodeA, "mover", ownedByB).values().stream().allMatch(List::isEmpty));
+        assertEquals(restingOnA - 1, restingOrders(nodeA, ownedByB));
+        assertEquals(restingOnB + 1, restingOrders(nodeB, ownedByB));
+        assertEquals(200, route(routingFilter, "POST", "/api/trades/buy", buy("mover", ownedByB, 5)).getStatus());
+        assertEquals(List.of(15), quantities(nodeB, "mover", ownedByB));
+
+        // When
+        List<PartitionRebalancer.Move> left = rebalancer.removeNode("b");
+
+        // Then
+        assertTrue(left.stream().anyMatch(move -> move.getSymbol().equals(ownedByB) && move.getToNode().equals("a")));
+        Map<String, List<Map<String, Object>>> returned = partitionRows(nodeA, "mover", ownedByB);
+        assertEquals(List.of(15), quantities(nodeA, "mover", ownedByB));
+        assertEquals(partition.get("trades"), returned.get("trades"));
+        assertTrue(partitionRows(nodeB, "mover", ownedByB).values().stream().allMatch(List::isEmpty));
+        assertEquals(restingOnA, restingOrders(nodeA, ownedByB));
+        assertEquals(restingOnB, restingOrders(nodeB, ownedByB));
+        assertEquals(Set.of("a"), topology.getNodes());
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, int ordinal) {
+        return new SpringApplicationBuilder(StockTradingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:cluster-node-" + nodeId,
+                "--spring.main.banner-mode=off",
+                "--logging.level.org.springframework.security=WARN",
+                "--stocktrading.cluster.enabled=true",
+                "--stocktrading.cluster.node-ordinal=" + ordinal,
+                "--stocktrading.cluster.secret=" + SECRET);
+    }
+
+    private static String address(ConfigurableApplicationContext node) {
+        return "http://localhost:" + ((WebServerApplicationContext) node).getWebServer().getPort();
+    }
+
+    private ClusterClient client(ClusterTopology topology) {
+        return new ClusterClient(topology, objectMapper, 5000, SECRET);
+    }
+
+    private static MockHttpServletResponse route(ClusterRoutingFilter routingFilter, String method, String path,
+                                                 String json) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setContentType("application/json");
+        request.setContent(json.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        routingFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static String buy(String userId, String symbol, int quantity) {
+        return "{\"userId\":\"" + userId + "\",\"stockSymbol\":\"" + symbol + "\",\"quantity\":" + quantity
+                + ",\"tradeType\":\"BUY\"}";
+    }
+
+    private static String stopLoss(String userId, String symbol) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.SECONDS);
+        return "{\"userId\":\"" + userId + "\",\"stockSymbol\":\"" + symbol + "\",\"tradeType\":\"SELL\","
+                + "\"quantity\":5,\"orderType\":\"STOP_LOSS\",\"triggerPrice\":1.00,"
+                + "\"timeInForce\":\"GTD\",\"expiresAt\":\"" + expiresAt + "\"}";
+    }
+
+    private static List<Integer> quantities(ConfigurableApplicationContext node, String userId, String symbol) {
+        return node.getBean(JdbcTemplate.class).queryForList(
+                "SELECT quantity FROM portfolios WHERE user_id = ? AND stock_symbol = ?", Integer.class, userId, symbol);
+    }
+
+    /**
+     * The rows a partition carries for one user.
+     */
+    private static Map<String, List<Map<String, Object>>> partitionRows(ConfigurableApplicationContext node,
+                                                                       String userId, String symbol) {
+        JdbcTemplate jdbcTemplate = node.getBean(JdbcTemplate.class);
+        return Map.of(
+                "portfolios", jdbcTemplate.queryForList(
+                        "SELECT * FROM portfolios WHERE user_id = ? AND stock_symbol = ?", userId, symbol),
+                "tax_lots", jdbcTemplate.queryForList("SELECT l.* FROM tax_lots l JOIN portfolios p "
+                        + "ON p.id = l.portfolio_id WHERE p.user_id = ? AND p.stock_symbol = ? ORDER BY l.lot_id",
+                        userId, symbol),
+                "trades", jdbcTemplate.queryForList("SELECT * FROM trades WHERE user_id = ? AND stock_symbol = ? "
+                        + "AND status = 'PENDING' ORDER BY id", userId, symbol));
+    }
+
+    /**
+     * Orders a node's books hold for a symbol; every resting order here expires, so both books agree.
+     */
+    private static int restingOrders(ConfigurableApplicationContext node, String symbol) {
+        int conditional = node.getBean(ConditionalOrderBook.class).size(symbol);
+        assertEquals(conditional, node.getBean(OrderExpiryBook.class).size(), "both books hold the same orders");
+        return conditional;
+    }
+}
@@ -0,0 +1,76 @@
+package com.stocktrading.infrastructure.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConsistentHashRing.
+ */
+class ConsistentHashRingTest {
+
+    private static final int SYMBOLS = 10_000;
+
+    @Test
+    @DisplayName("Should spread symbols evenly across nodes")
+    void shouldSpreadSymbolsEvenlyAcrossNodes() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SYMBOLS; i++) {
+            counts.merge(ring.ownerOf("SYM" + i), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > SYMBOLS / 4 * 0.8 && count < SYMBOLS / 4 * 1.2,
+                "Unbalanced partition of " + count + " symbols"));
+    }
+
+    @Test
+    @DisplayName("Should move only symbols claimed by an added node")
+    void shouldMoveOnlySymbolsClaimedByAddedNode() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+
+        // When
+        ConsistentHashRing after = before.withNode("d");
+
+        // Then
+        int moved = 0;
+        for (int i = 0; i < SYMBOLS; i++) {
+            String symbol = "SYM" + i;
+            if (!before.ownerOf(symbol).equals(after.ownerOf(symbol))) {
+                assertEquals("d", after.ownerOf(symbol));
+                moved++;
+            }
+        }
+        assertTrue(moved > SYMBOLS / 4 * 0.8 && moved < SYMBOLS / 4 * 1.2);
+    }
+
+    @Test
+    @DisplayName("Should move only symbols of a removed node")
+    void shouldMoveOnlySymbolsOfRemovedNode() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+
+        // When
+        ConsistentHashRing after = before.withoutNode("b");
+
+        // Then
+        for (int i = 0; i < SYMBOLS; i++) {
+            String symbol = "SYM" + i;
+            if (!before.ownerOf(symbol).equals("b")) {
+                assertEquals(before.ownerOf(symbol), after.ownerOf(symbol));
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> new ConsistentHashRing(List.of(), 128).ownerOf("AAPL"));
+    }
+}
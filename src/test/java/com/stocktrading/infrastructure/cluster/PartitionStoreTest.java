@@ -0,0 +1,78 @@
+package com.stocktrading.infrastructure.cluster;
+
+import com.stocktrading.application.service.impl.ConditionalOrderBook;
+import com.stocktrading.application.service.impl.HoldingsCache;
+import com.stocktrading.application.service.impl.MockStockPriceServiceImpl;
+import com.stocktrading.application.service.impl.OrderExpiryBook;
+import com.stocktrading.application.service.impl.SymbolRegistry;
+import com.stocktrading.application.service.impl.VolatilityCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports a partition over a symbol whose price this node has already cached and checked.
+ */
+@DataJpaTest(properties = "stocktrading.cluster.enabled=true")
+@Import({PartitionStore.class, MockStockPriceServiceImpl.class, SymbolRegistry.class, VolatilityCircuitBreaker.class,
+        ConditionalOrderBook.class, OrderExpiryBook.class, HoldingsCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PartitionStoreTest {
+
+    @Autowired
+    private PartitionStore partitionStore;
+
+    @Autowired
+    private MockStockPriceServiceImpl stockPriceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should serve and check prices against the imported stock row, not the cached one")
+    void shouldForgetCachedPriceOnImport() {
+        // Given
+        // The partition as the previous owner holds it
+        jdbcTemplate.update("UPDATE stocks SET current_price = 300.00 WHERE symbol = 'AAPL'");
+        byte[] partition = partitionStore.exportPartition("AAPL");
+        jdbcTemplate.update("UPDATE stocks SET current_price = 175.50 WHERE symbol = 'AAPL'");
+        stockPriceService.updateStockPrice("AAPL", new BigDecimal("176.00"));
+        assertEquals(Optional.of(new BigDecimal("176.00")), stockPriceService.getCurrentPrice("AAPL"));
+
+        // When
+        partitionStore.importPartition("AAPL", partition);
+
+        // Then
+        assertEquals(0, new BigDecimal("300.00").compareTo(stockPriceService.getCurrentPrice("AAPL").orElseThrow()));
+        assertDoesNotThrow(() -> stockPriceService.updateStockPrice("AAPL", new BigDecimal("310.00")),
+                "the band is rebuilt around the imported price");
+        assertEquals(0, new BigDecimal("310.00").compareTo(stockPriceService.getCurrentPrice("AAPL").orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Should forget the cached price of a released partition")
+    void shouldForgetCachedPriceOnRelease() {
+        // Given
+        assertTrue(stockPriceService.getCurrentPrice("MSFT").isPresent());
+        jdbcTemplate.update("UPDATE stocks SET current_price = 390.00 WHERE symbol = 'MSFT'");
+
+        // When
+        partitionStore.releasePartition("MSFT");
+
+        // Then
+        assertEquals(0, new BigDecimal("390.00").compareTo(stockPriceService.getCurrentPrice("MSFT").orElseThrow()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.stocktrading.infrastructure.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimiter.
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Should not charge a user for a request the global limit rejected")
+    void shouldRefundUserTokenWhenGlobalLimitRejects() {
+        // Given: one request per user every 1000s, one overall every 100s
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("stocktrading.rate-limit.default.user-rate", "0.001")
+                .withProperty("stocktrading.rate-limit.default.user-burst", "1")
+                .withProperty("stocktrading.rate-limit.default.global-rate", "0.01")
+                .withProperty("stocktrading.rate-limit.default.global-burst", "1");
+        RateLimiter rateLimiter = new RateLimiter(environment, new SimpleMeterRegistry(), true, 16);
+        assertEquals(0, rateLimiter.acquire(RateLimiter.Endpoint.BUY, "user1"));
+
+        // When
+        long rejected = rateLimiter.acquire(RateLimiter.Endpoint.BUY, "user2");
+        long rejectedAgain = rateLimiter.acquire(RateLimiter.Endpoint.BUY, "user2");
+
+        // Then: both waits are for the global bucket, so user2's own token was given back
+        assertTrue(rejected > 0 && rejected <= 100 * SECOND);
+        assertTrue(rejectedAgain > 0 && rejectedAgain <= 100 * SECOND);
+        assertTrue(rateLimiter.acquire(RateLimiter.Endpoint.BUY, "user1") > 100 * SECOND);
+    }
+}
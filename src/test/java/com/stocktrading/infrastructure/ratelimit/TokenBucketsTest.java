@@ -0,0 +1,68 @@
+package com.stocktrading.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBuckets.
+ */
+class TokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Should admit a full burst and then report the wait for the next token")
+    void shouldAdmitBurstThenThrottle() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(16, 10, 5);
+
+        // When
+        int admitted = 0;
+        while (buckets.tryAcquire(1, SECOND) == 0) {
+            admitted++;
+        }
+        long wait = buckets.tryAcquire(1, SECOND);
+
+        // Then
+        assertEquals(5, admitted);
+        assertEquals(SECOND / 10, wait);
+    }
+
+    @Test
+    @DisplayName("Should refill at the configured rate")
+    void shouldRefillOverTime() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(16, 10, 5);
+        for (int i = 0; i < 5; i++) {
+            buckets.tryAcquire(1, SECOND);
+        }
+
+        // When
+        long tooEarly = buckets.tryAcquire(1, SECOND + SECOND / 20);
+        long afterOneInterval = buckets.tryAcquire(1, SECOND + SECOND / 10);
+
+        // Then
+        assertTrue(tooEarly > 0);
+        assertEquals(0, afterOneInterval);
+    }
+
+    @Test
+    @DisplayName("Should keep separate budgets for keys in different slots")
+    void shouldKeepKeysApart() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(1024, 1, 1);
+
+        // When
+        long first = buckets.tryAcquire("user1".hashCode(), SECOND);
+        long firstAgain = buckets.tryAcquire("user1".hashCode(), SECOND);
+        long second = buckets.tryAcquire("user2".hashCode(), SECOND);
+
+        // Then
+        assertEquals(0, first);
+        assertTrue(firstAgain > 0);
+        assertEquals(0, second);
+        assertEquals(1024, buckets.getSlots());
+    }
+}
@@ -0,0 +1,68 @@
+package com.stocktrading.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserTokenBuckets.
+ */
+class UserTokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Should keep separate budgets for users whose hashes collide")
+    void shouldKeepCollidingUsersApart() {
+        // Given
+        UserTokenBuckets buckets = new UserTokenBuckets(16, 1, 1);
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        // When
+        long first = buckets.tryAcquire("Aa", SECOND);
+        long firstAgain = buckets.tryAcquire("Aa", SECOND);
+        long colliding = buckets.tryAcquire("BB", SECOND);
+
+        // Then
+        assertEquals(0, first);
+        assertEquals(SECOND, firstAgain);
+        assertEquals(0, colliding);
+    }
+
+    @Test
+    @DisplayName("Should give back a refunded token")
+    void shouldRefundToken() {
+        // Given
+        UserTokenBuckets buckets = new UserTokenBuckets(16, 10, 2);
+        buckets.tryAcquire("user1", SECOND);
+        buckets.tryAcquire("user1", SECOND);
+        assertTrue(buckets.tryAcquire("user1", SECOND) > 0);
+
+        // When
+        buckets.refund("user1");
+        buckets.refund("unknown");
+
+        // Then
+        assertEquals(0, buckets.tryAcquire("user1", SECOND));
+        assertTrue(buckets.tryAcquire("user1", SECOND) > 0);
+    }
+
+    @Test
+    @DisplayName("Should evict idle users when full and throttle new users while every tracked user is active")
+    void shouldEvictIdleUsers() {
+        // Given: at 10/s with a burst of 2, a user is idle again 0.1s after one request
+        UserTokenBuckets buckets = new UserTokenBuckets(2, 10, 2);
+        buckets.tryAcquire("user1", SECOND);
+        buckets.tryAcquire("user2", SECOND);
+
+        // When
+        long whileActive = buckets.tryAcquire("user3", SECOND);
+        long afterIdle = buckets.tryAcquire("user3", SECOND + SECOND / 5);
+
+        // Then
+        assertTrue(whileActive > 0);
+        assertEquals(0, afterIdle);
+        assertEquals(1, buckets.size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.stocktrading.infrastructure.seed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SyntheticUniverse against an in-memory H2 schema.
+ */
+class SyntheticUniverseTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:seed-test", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE stocks (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "symbol VARCHAR(255) NOT NULL UNIQUE, company_name VARCHAR(255) NOT NULL, "
+                    + "current_price NUMERIC(10,2) NOT NULL, last_updated TIMESTAMP(6) NOT NULL, "
+                    + "change_percentage NUMERIC(5,2))");
+            statement.execute("CREATE TABLE portfolios (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id VARCHAR(255) NOT NULL, stock_symbol VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, "
+                    + "average_purchase_price NUMERIC(10,2) NOT NULL, last_updated TIMESTAMP(6) NOT NULL)");
+            statement.execute("CREATE TABLE trades (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id VARCHAR(255) NOT NULL, stock_symbol VARCHAR(255) NOT NULL, "
+                    + "trade_type VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, price NUMERIC(10,2) NOT NULL, "
+                    + "timestamp TIMESTAMP(6) NOT NULL, executed_at TIMESTAMP(6), status VARCHAR(255) NOT NULL, "
+                    + "order_type VARCHAR(255) NOT NULL, time_in_force VARCHAR(255) NOT NULL)");
+            statement.execute("INSERT INTO stocks (symbol, company_name, current_price, last_updated) "
+                    + "VALUES ('" + SyntheticUniverse.symbolAt(0) + "', 'Existing', 1.00, CURRENT_TIMESTAMP)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Should write holdings equal to each user's net traded quantity")
+    void shouldWriteHoldingsMatchingTrades() throws SQLException {
+        // Given
+        SyntheticUniverse universe = new SyntheticUniverse(200, 500, 20_000, 7, 1.0, 0.8, 1_000);
+
+        // When
+        SyntheticUniverse.Counts counts = universe.write(connection);
+
+        // Then
+        assertEquals(200, count("SELECT COUNT(*) FROM stocks WHERE company_name <> 'Existing'"));
+        assertEquals(counts.getTrades(), count("SELECT COUNT(*) FROM trades"));
+        assertEquals(counts.getHoldings(), count("SELECT COUNT(*) FROM portfolios"));
+        assertTrue(Math.abs(counts.getTrades() - 20_000) < 500);
+        assertEquals(0, count("SELECT COUNT(*) FROM ("
+                + "SELECT user_id, stock_symbol, SUM(CASE trade_type WHEN 'BUY' THEN quantity ELSE -quantity END) net "
+                + "FROM trades GROUP BY user_id, stock_symbol) t "
+                + "LEFT JOIN portfolios p ON p.user_id = t.user_id AND p.stock_symbol = t.stock_symbol "
+                + "WHERE t.net <> COALESCE(p.quantity, 0)"));
+    }
+
+    @Test
+    @DisplayName("Should produce identical rows from the same seed")
+    void shouldBeReproducible() throws SQLException {
+        // Given
+        SyntheticUniverse universe = new SyntheticUniverse(50, 100, 2_000, 11, 1.0, 0.8, 64);
+        universe.write(connection);
+        String first = fingerprint();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM trades");
+            statement.execute("DELETE FROM portfolios");
+            statement.execute("DELETE FROM stocks WHERE company_name <> 'Existing'");
+        }
+
+        // When
+        new SyntheticUniverse(50, 100, 2_000, 11, 1.0, 0.8, 500).write(connection);
+
+        // Then
+        assertEquals(first, fingerprint());
+    }
+
+    @Test
+    @DisplayName("Should generate distinct symbols")
+    void shouldGenerateDistinctSymbols() {
+        // When
+        Set<String> symbols = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            symbols.add(SyntheticUniverse.symbolAt(i));
+        }
+
+        // Then
+        assertEquals(100_000, symbols.size());
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private String fingerprint() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT "
+                     + "(SELECT SUM(quantity * price) FROM trades), "
+                     + "(SELECT SUM(quantity * average_purchase_price) FROM portfolios), "
+                     + "(SELECT SUM(current_price) FROM stocks), "
+                     + "(SELECT MAX(timestamp) FROM trades)")) {
+            rs.next();
+            return rs.getString(1) + "/" + rs.getString(2) + "/" + rs.getString(3) + "/" + rs.getString(4);
+        }
+    }
+}
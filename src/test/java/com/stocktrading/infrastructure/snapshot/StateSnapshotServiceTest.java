@@ -0,0 +1,105 @@
+package com.stocktrading.infrastructure.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes a snapshot of every snapshotted table and restores it into emptied tables.
+ */
+@DataJpaTest(properties = {
+        "stocktrading.snapshot.enabled=true",
+        "stocktrading.snapshot.path=target/snapshot-test/state.snapshot"
+})
+@Import(StateSnapshotService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StateSnapshotServiceTest {
+
+    private static final Path SNAPSHOT = Paths.get("target/snapshot-test/state.snapshot");
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 6, 14, 30, 15, 123_456_000);
+
+    @Autowired
+    private StateSnapshotService snapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should restore every column of stocks, holdings, tax lots and open trades")
+    void shouldRoundTripEveryColumn() throws IOException {
+        // Given
+        // A snapshot left by an earlier run is restored at startup
+        Files.deleteIfExists(SNAPSHOT);
+        clearTables();
+        jdbcTemplate.update("INSERT INTO stocks (symbol, company_name, current_price, last_updated, change_percentage, "
+                        + "open_price, high_price, low_price, volume) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                "AAPL", "Apple Inc.", new BigDecimal("150.25"), NOW, new BigDecimal("-1.75"),
+                new BigDecimal("152.00"), new BigDecimal("153.10"), new BigDecimal("149.90"), 1_234_567L);
+        jdbcTemplate.update("INSERT INTO stocks (symbol, company_name, current_price, last_updated) VALUES (?, ?, ?, ?)",
+                "MSFT", "Microsoft", new BigDecimal("300.00"), NOW);
+        jdbcTemplate.update("INSERT INTO portfolios (id, user_id, stock_symbol, quantity, average_purchase_price, "
+                + "last_updated, next_lot_id) VALUES (41, 'user1', 'AAPL', 15, 140.50, ?, 3)", NOW);
+        jdbcTemplate.update("INSERT INTO portfolios (id, user_id, stock_symbol, quantity, average_purchase_price, "
+                + "last_updated, next_lot_id) VALUES (42, 'user2', 'MSFT', 4, 290.00, ?, NULL)", NOW);
+        jdbcTemplate.update("INSERT INTO tax_lots (portfolio_id, lot_id, quantity, cost, acquired_at) VALUES (41, 1, 5, 1_300_000, 1714990000000)");
+        jdbcTemplate.update("INSERT INTO tax_lots (portfolio_id, lot_id, quantity, cost, acquired_at) VALUES (41, 2, 10, 1_457_500, 1715000000000)");
+        jdbcTemplate.update("INSERT INTO trades (id, user_id, stock_symbol, trade_type, quantity, price, timestamp, status, "
+                        + "status_message, order_type, trigger_price, trail_amount, idempotency_key, time_in_force, expires_at) "
+                        + "VALUES (7, 'user1', 'AAPL', 'SELL', 5, 150.25, ?, 'PENDING', 'Waiting for trigger', 'TRAILING_STOP', "
+                        + "145.00, 5.25, 'key-7', 'GTD', ?)", NOW, NOW.plusDays(2));
+        jdbcTemplate.update("INSERT INTO trades (id, user_id, stock_symbol, trade_type, quantity, price, timestamp, status, "
+                + "order_type, time_in_force) VALUES (8, 'user2', 'MSFT', 'BUY', 1, 300.00, ?, 'PENDING', 'MARKET', 'GTC')", NOW);
+
+        Map<String, List<Map<String, Object>>> before = readTables();
+
+        // When
+        snapshotService.takeSnapshot();
+        clearTables();
+        snapshotService.restoreLatestSnapshot();
+
+        // Then
+        assertEquals(before, readTables());
+        try (Stream<Path> files = Files.list(SNAPSHOT.toAbsolutePath().getParent())) {
+            assertEquals(List.of(SNAPSHOT.toAbsolutePath()), files.map(Path::toAbsolutePath).toList(),
+                    "temporary files are removed");
+        }
+        jdbcTemplate.update("INSERT INTO trades (user_id, stock_symbol, trade_type, quantity, price, timestamp, status, "
+                + "order_type, time_in_force) VALUES ('user3', 'AAPL', 'BUY', 1, 150.25, ?, 'PENDING', 'MARKET', 'GTC')", NOW);
+        Long nextTradeId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM trades", Long.class);
+        assertEquals(9L, nextTradeId);
+    }
+
+    private void clearTables() {
+        jdbcTemplate.update("DELETE FROM tax_lots");
+        jdbcTemplate.update("DELETE FROM portfolios");
+        jdbcTemplate.update("DELETE FROM trades");
+        jdbcTemplate.update("DELETE FROM stocks");
+    }
+
+    private Map<String, List<Map<String, Object>>> readTables() {
+        return Map.of(
+                "stocks", jdbcTemplate.queryForList("SELECT * EXCEPT (id) FROM stocks ORDER BY symbol"),
+                "portfolios", jdbcTemplate.queryForList("SELECT * FROM portfolios ORDER BY id"),
+                "tax_lots", jdbcTemplate.queryForList("SELECT * FROM tax_lots ORDER BY portfolio_id, lot_id"),
+                "trades", jdbcTemplate.queryForList("SELECT * FROM trades ORDER BY id"));
+    }
+}
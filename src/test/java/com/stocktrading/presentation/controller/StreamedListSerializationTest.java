@@ -0,0 +1,117 @@
+package com.stocktrading.presentation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stocktrading.application.service.CircuitBreakerService;
+import com.stocktrading.application.service.IndicatorService;
+import com.stocktrading.application.service.LeaderboardService;
+import com.stocktrading.application.service.PortfolioHistoryService;
+import com.stocktrading.application.service.PortfolioService;
+import com.stocktrading.application.service.PriceHistoryService;
+import com.stocktrading.application.service.StockPriceService;
+import com.stocktrading.application.service.TradingService;
+import com.stocktrading.domain.model.Portfolio;
+import com.stocktrading.domain.model.Stock;
+import com.stocktrading.domain.model.Trade;
+import com.stocktrading.infrastructure.ratelimit.RateLimiter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that the streamed list endpoints write the same JSON as the DTOs they replace.
+ */
+@ExtendWith(MockitoExtension.class)
+class StreamedListSerializationTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Mock
+    private StockPriceService stockPriceService;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private TradingService tradingService;
+
+    @Test
+    @DisplayName("Should stream stocks as StockDto fields")
+    void shouldStreamStocksLikeDtos() throws Exception {
+        // Given
+        Stock stock = new Stock("AAPL", "Apple Inc.", new BigDecimal("150.00"));
+        stock.updatePrice(new BigDecimal("151.25"));
+        Stock unpriced = new Stock("MSFT", "Microsoft", new BigDecimal("300.00"));
+        when(stockPriceService.getAllStocks()).thenReturn(List.of(stock, unpriced));
+        when(stockPriceService.getStock("AAPL")).thenReturn(Optional.of(stock));
+        when(stockPriceService.getStock("MSFT")).thenReturn(Optional.of(unpriced));
+        StockController controller = new StockController(stockPriceService,
+                mock(PriceHistoryService.class), mock(IndicatorService.class), mock(CircuitBreakerService.class));
+
+        // When
+        JsonNode streamed = toTree(controller.getAllStocks().getBody());
+
+        // Then
+        assertEquals(toTree(controller.getStock("AAPL").getBody()), streamed.get(0));
+        assertEquals(toTree(controller.getStock("MSFT").getBody()), streamed.get(1));
+    }
+
+    @Test
+    @DisplayName("Should stream trades as TradeDto fields")
+    void shouldStreamTradesLikeDtos() throws Exception {
+        // Given
+        Trade trade = new Trade("user1", "AAPL", Trade.TradeType.BUY, 10, new BigDecimal("150.00"));
+        ReflectionTestUtils.setField(trade, "id", 7L);
+        when(tradingService.getUserTrades("user1")).thenReturn(List.of(trade));
+        when(tradingService.getTrade(7L)).thenReturn(trade);
+        TradingController controller = new TradingController(tradingService, mock(RateLimiter.class));
+
+        // When
+        JsonNode streamed = toTree(controller.getUserTrades("user1").getBody());
+
+        // Then
+        assertEquals(1, streamed.size());
+        assertEquals(toTree(controller.getTrade(7L).getBody()), streamed.get(0));
+    }
+
+    @Test
+    @DisplayName("Should stream holdings as PortfolioDto fields")
+    void shouldStreamHoldingsLikeDtos() throws Exception {
+        // Given
+        Portfolio holding = new Portfolio("user1", "AAPL", 10, new BigDecimal("140.00"));
+        Portfolio delisted = new Portfolio("user1", "GONE", 5, new BigDecimal("20.00"));
+        when(portfolioService.getUserPortfolio("user1")).thenReturn(List.of(holding, delisted));
+        when(portfolioService.getUserStockHolding("user1", "AAPL")).thenReturn(Optional.of(holding));
+        when(portfolioService.getUserStockHolding("user1", "GONE")).thenReturn(Optional.of(delisted));
+        when(stockPriceService.getCurrentPrices(List.of("AAPL", "GONE")))
+                .thenReturn(Map.of("AAPL", new BigDecimal("150.00")));
+        PortfolioController controller = new PortfolioController(portfolioService, stockPriceService,
+                mock(LeaderboardService.class), mock(PortfolioHistoryService.class));
+
+        // When
+        JsonNode streamed = toTree(controller.getUserPortfolio("user1").getBody());
+
+        // Then
+        verify(stockPriceService, never()).getCurrentPrice(anyString());
+        when(stockPriceService.getCurrentPrice("AAPL")).thenReturn(Optional.of(new BigDecimal("150.00")));
+        assertEquals(2, streamed.size());
+        assertEquals(toTree(controller.getUserStockHolding("user1", "AAPL").getBody()), streamed.get(0));
+        assertEquals(toTree(controller.getUserStockHolding("user1", "GONE").getBody()), streamed.get(1));
+    }
+
+    private JsonNode toTree(Object body) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsString(body));
+    }
+}